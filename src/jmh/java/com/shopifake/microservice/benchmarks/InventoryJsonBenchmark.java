@@ -0,0 +1,57 @@
+package com.shopifake.microservice.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.shopifake.microservice.dtos.InventoryResponse;
+import com.shopifake.microservice.entities.InventoryStatus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON serialization of {@link InventoryResponse} with the mapper configuration Spring MVC uses.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InventoryJsonBenchmark {
+
+    private ObjectWriter writer;
+    private InventoryResponse response;
+
+    @Setup
+    public void setUp() {
+        writer = Jackson2ObjectMapperBuilder.json().build().writerFor(InventoryResponse.class);
+        LocalDateTime now = LocalDateTime.now();
+        response = InventoryResponse.builder()
+                .id(UUID.randomUUID())
+                .productId(UUID.randomUUID())
+                .availableQuantity(42)
+                .reservedQuantity(2)
+                .availableToSell(40)
+                .status(InventoryStatus.IN_STOCK)
+                .replenishmentAt(now)
+                .createdAt(now)
+                .updatedAt(now)
+                .build();
+    }
+
+    @Benchmark
+    public byte[] serializeInventoryResponse() throws Exception {
+        return writer.writeValueAsBytes(response);
+    }
+}
@@ -0,0 +1,108 @@
+package com.shopifake.microservice.benchmarks;
+
+import com.shopifake.microservice.Application;
+import com.shopifake.microservice.dtos.AdjustInventoryRequest;
+import com.shopifake.microservice.dtos.CreateInventoryRequest;
+import com.shopifake.microservice.dtos.InventoryPage;
+import com.shopifake.microservice.dtos.InventoryResponse;
+import com.shopifake.microservice.services.InventoryService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Service hot paths through the full Spring context (transactions, cache, events, ledger)
+ * against embedded H2.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InventoryServiceBenchmark {
+
+    private static final int INITIAL_QUANTITY = 1_000_000;
+
+    @Param({"1000"})
+    private int products;
+
+    @Param({"true", "false"})
+    private boolean cacheEnabled;
+
+    @Param({"atomic", "optimistic", "pessimistic"})
+    private String adjustmentStrategy;
+
+    private ConfigurableApplicationContext context;
+    private InventoryService inventoryService;
+    private UUID[] productIds;
+    private AdjustInventoryRequest increment;
+    private AdjustInventoryRequest decrement;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(Application.class)
+                .profiles("test")
+                .web(WebApplicationType.NONE)
+                // Command-line arguments, so they win over the test profile's SQL logging
+                .run("--spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_ON_EXIT=FALSE",
+                        "--spring.jpa.show-sql=false",
+                        "--spring.devtools.restart.enabled=false",
+                        "--logging.level.org.hibernate.SQL=WARN",
+                        "--logging.level.com.shopifake.microservice=WARN",
+                        "--inventory.cache.enabled=" + cacheEnabled,
+                        "--inventory.adjustments.strategy=" + adjustmentStrategy);
+        inventoryService = context.getBean(InventoryService.class);
+        productIds = new UUID[products];
+        for (int i = 0; i < products; i++) {
+            productIds[i] = inventoryService.createInventory(CreateInventoryRequest.builder()
+                    .productId(UUID.randomUUID())
+                    .initialQuantity(INITIAL_QUANTITY)
+                    .build()).getProductId();
+        }
+        increment = AdjustInventoryRequest.builder().quantityDelta(1).reason("benchmark").build();
+        decrement = AdjustInventoryRequest.builder().quantityDelta(-1).reason("benchmark").build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    private UUID randomProduct() {
+        return productIds[ThreadLocalRandom.current().nextInt(productIds.length)];
+    }
+
+    @Benchmark
+    public InventoryResponse getInventory() {
+        return inventoryService.getInventory(randomProduct());
+    }
+
+    @Benchmark
+    public InventoryResponse adjustInventory() {
+        AdjustInventoryRequest request = ThreadLocalRandom.current().nextBoolean() ? increment : decrement;
+        return inventoryService.adjustInventory(randomProduct(), request);
+    }
+
+    @Benchmark
+    public InventoryPage listInventory() {
+        return inventoryService.listInventory(null, null, 100);
+    }
+}
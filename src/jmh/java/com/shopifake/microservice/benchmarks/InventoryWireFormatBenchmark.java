@@ -0,0 +1,86 @@
+package com.shopifake.microservice.benchmarks;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.shopifake.microservice.config.WireFormatConfiguration;
+import com.shopifake.microservice.dtos.InventoryResponse;
+import com.shopifake.microservice.entities.InventoryStatus;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Serialization of a full listing page as JSON and as CBOR, with the mapper configurations Spring
+ * MVC uses for each. The {@code payloadBytes} counter reports the encoded size of one page.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InventoryWireFormatBenchmark {
+
+    @Param({"json", "cbor"})
+    private String format;
+
+    @Param({"500"})
+    private int pageSize;
+
+    private ObjectWriter writer;
+    private List<InventoryResponse> page;
+
+    /**
+     * Encoded size of the last serialized page.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Payload {
+        public long payloadBytes;
+    }
+
+    @Setup
+    public void setUp() {
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json();
+        writer = ("cbor".equals(format) ? WireFormatConfiguration.cborMapper(builder) : builder.build())
+                .writerFor(new TypeReference<List<InventoryResponse>>() { });
+        LocalDateTime now = LocalDateTime.now();
+        page = IntStream.range(0, pageSize)
+                .mapToObj(i -> InventoryResponse.builder()
+                        .id(UUID.randomUUID())
+                        .productId(UUID.randomUUID())
+                        .availableQuantity(42 + i)
+                        .reservedQuantity(2)
+                        .availableToSell(40 + i)
+                        .status(InventoryStatus.IN_STOCK)
+                        .replenishmentAt(now)
+                        .createdAt(now)
+                        .updatedAt(now)
+                        .version(i)
+                        .build())
+                .toList();
+    }
+
+    @Benchmark
+    public byte[] serializePage(final Payload payload) throws Exception {
+        byte[] encoded = writer.writeValueAsBytes(page);
+        payload.payloadBytes = encoded.length;
+        return encoded;
+    }
+}
@@ -0,0 +1,199 @@
+package com.shopifake.microservice.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.jar.JarFile;
+
+/**
+ * Entry point for {@code exec:exec@startup}: starts the service repeatedly in each startup mode and
+ * reports time-to-ready (process launch until the readiness probe answers 200) and resident memory
+ * once ready. Not a JMH benchmark, as every sample is a fresh process.
+ * <ul>
+ *     <li>{@code jvm}: the packaged jar as the prod image runs it;</li>
+ *     <li>{@code cds}: the extracted jar with an AppCDS archive from a training run, and Spring AOT
+ *     initializers when the jar was built with {@code -Paot};</li>
+ *     <li>{@code native}: the executable from {@code -Pnative native:compile}.</li>
+ * </ul>
+ * Runs use the default profile, so each process gets an embedded H2 database. Modes whose artifact
+ * is missing are skipped. RSS is read from {@code /proc} and only reported on Linux.
+ */
+public final class StartupBenchmark {
+
+    private static final Duration READY_TIMEOUT = Duration.ofSeconds(120);
+    private static final Duration POLL_INTERVAL = Duration.ofMillis(10);
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofMillis(200))
+            .build();
+    private final String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+
+    private StartupBenchmark() {
+    }
+
+    public static void main(final String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>(Map.of("runs", "5", "modes", "jvm,cds,native"));
+        for (String arg : args) {
+            String[] pair = arg.split("=", 2);
+            options.put(pair[0], pair.length > 1 ? pair[1] : "");
+        }
+        int runs = Integer.parseInt(options.get("runs"));
+        Path jar = Path.of(System.getProperty("startup.jar", "target/inventory-service-1.0.0.jar"));
+        Path nativeImage = Path.of(System.getProperty("startup.native", "target/inventory-service"));
+        StartupBenchmark benchmark = new StartupBenchmark();
+
+        System.out.printf("%-8s %5s %14s %14s %12s%n", "mode", "runs", "ready p50 ms", "ready max ms", "rss p50 MB");
+        for (String mode : options.get("modes").split(",")) {
+            List<String> command = benchmark.command(mode.trim(), jar, nativeImage);
+            if (command == null) {
+                System.out.printf("%-8s skipped, artifact not built%n", mode);
+                continue;
+            }
+            long[] readyMillis = new long[runs];
+            long[] rssKb = new long[runs];
+            for (int i = 0; i < runs; i++) {
+                long[] sample = benchmark.sample(command);
+                readyMillis[i] = sample[0];
+                rssKb[i] = sample[1];
+            }
+            Arrays.sort(readyMillis);
+            Arrays.sort(rssKb);
+            long rss = rssKb[runs / 2];
+            System.out.printf("%-8s %5d %14d %14d %12s%n", mode, runs, readyMillis[runs / 2], readyMillis[runs - 1],
+                    rss >= 0 ? String.format(Locale.ROOT, "%.1f", rss / 1024.0) : "n/a");
+        }
+    }
+
+    /**
+     * Command line for a mode, without the port, or {@code null} when its artifact is missing.
+     */
+    private List<String> command(final String mode, final Path jar, final Path nativeImage) throws Exception {
+        return switch (mode) {
+            case "jvm" -> Files.exists(jar) ? List.of(java, "-jar", jar.toString()) : null;
+            case "cds" -> Files.exists(jar) ? cdsCommand(jar) : null;
+            case "native" -> Files.isExecutable(nativeImage) ? List.of(nativeImage.toString()) : null;
+            default -> throw new IllegalArgumentException("Unknown startup mode " + mode);
+        };
+    }
+
+    /**
+     * Extract the jar and record a class archive with a training run that stops after the context
+     * refreshes, the same steps as the {@code prod-cds} Docker stage.
+     */
+    private List<String> cdsCommand(final Path jar) throws Exception {
+        Path directory = jar.resolveSibling("startup-cds");
+        Path extracted = directory.resolve(jar.getFileName());
+        Path archive = directory.resolve("application.jsa");
+        List<String> jvmArgs = new ArrayList<>();
+        if (hasAotInitializers(jar)) {
+            jvmArgs.add("-Dspring.aot.enabled=true");
+        }
+        boolean stale = !Files.exists(archive)
+                || Files.getLastModifiedTime(archive).compareTo(Files.getLastModifiedTime(jar)) < 0;
+        if (stale) {
+            run(List.of(java, "-Djarmode=tools", "-jar", jar.toString(), "extract", "--force",
+                    "--destination", directory.toString()));
+            List<String> training = new ArrayList<>(List.of(java, "-XX:ArchiveClassesAtExit=" + archive));
+            training.addAll(jvmArgs);
+            training.addAll(List.of("-Dspring.context.exit=onRefresh", "-jar", extracted.toString()));
+            run(training);
+        }
+        List<String> command = new ArrayList<>(List.of(java, "-XX:SharedArchiveFile=" + archive));
+        command.addAll(jvmArgs);
+        command.addAll(List.of("-jar", extracted.toString()));
+        return command;
+    }
+
+    /**
+     * Start one process, wait until it is ready and measure it.
+     *
+     * @return milliseconds until ready and RSS in kB once ready, or -1 when unknown
+     */
+    private long[] sample(final List<String> command) throws Exception {
+        int port = freePort();
+        List<String> withPort = new ArrayList<>(command);
+        withPort.add("--server.port=" + port);
+        URI readiness = URI.create("http://localhost:" + port + "/actuator/health/readiness");
+        long startedAt = System.nanoTime();
+        Process process = new ProcessBuilder(withPort)
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .start();
+        try {
+            while (!ready(readiness)) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException("Process exited with " + process.exitValue() + ": " + command);
+                }
+                if (System.nanoTime() - startedAt > READY_TIMEOUT.toNanos()) {
+                    throw new IllegalStateException("Not ready within " + READY_TIMEOUT + ": " + command);
+                }
+                Thread.sleep(POLL_INTERVAL.toMillis());
+            }
+            long readyMillis = Duration.ofNanos(System.nanoTime() - startedAt).toMillis();
+            return new long[] {readyMillis, residentKb(process.pid())};
+        } finally {
+            process.destroy();
+            process.waitFor();
+        }
+    }
+
+    private boolean ready(final URI readiness) throws InterruptedException {
+        try {
+            HttpResponse<Void> response = httpClient.send(HttpRequest.newBuilder(readiness).build(),
+                    HttpResponse.BodyHandlers.discarding());
+            return response.statusCode() == 200;
+        } catch (IOException ex) {
+            return false;
+        }
+    }
+
+    private static long residentKb(final long pid) throws IOException {
+        Path status = Path.of("/proc", Long.toString(pid), "status");
+        if (!Files.exists(status)) {
+            return -1;
+        }
+        for (String line : Files.readAllLines(status)) {
+            if (line.startsWith("VmRSS:")) {
+                return Long.parseLong(line.replaceAll("\\D", ""));
+            }
+        }
+        return -1;
+    }
+
+    private static boolean hasAotInitializers(final Path jar) throws IOException {
+        try (JarFile file = new JarFile(jar.toFile())) {
+            return file.getEntry("BOOT-INF/classes/com/shopifake/microservice/"
+                    + "Application__ApplicationContextInitializer.class") != null;
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static void run(final List<String> command) throws Exception {
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.to(new File(System.getProperty("java.io.tmpdir"),
+                        "startup-benchmark.log")))
+                .start();
+        if (process.waitFor() != 0) {
+            throw new IllegalStateException("Command failed, see startup-benchmark.log: " + command);
+        }
+    }
+}
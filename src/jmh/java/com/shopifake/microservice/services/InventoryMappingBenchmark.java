@@ -0,0 +1,58 @@
+package com.shopifake.microservice.services;
+
+import com.shopifake.microservice.entities.InventoryItem;
+import com.shopifake.microservice.entities.InventoryStatus;
+import com.shopifake.microservice.dtos.InventoryResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity-to-DTO mapping in isolation. Lives in the services package because
+ * {@code mapToResponse} is package-private; it touches no collaborators, so none are wired.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InventoryMappingBenchmark {
+
+    private InventoryService inventoryService;
+    private InventoryItem item;
+
+    @Setup
+    public void setUp() {
+        inventoryService = new InventoryService(null, null, null, null, null, null, null, null, null, null, null,
+                null, Clock.systemUTC());
+        LocalDateTime now = LocalDateTime.now();
+        item = InventoryItem.builder()
+                .id(UUID.randomUUID())
+                .productId(UUID.randomUUID())
+                .availableQuantity(42)
+                .reservedQuantity(2)
+                .status(InventoryStatus.IN_STOCK)
+                .replenishmentAt(now)
+                .createdAt(now)
+                .updatedAt(now)
+                .build();
+    }
+
+    @Benchmark
+    public InventoryResponse mapToResponse() {
+        return inventoryService.mapToResponse(item);
+    }
+}
@@ -0,0 +1,74 @@
+package com.shopifake.microservice.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.shopifake.microservice.config.InventoryProperties;
+import com.shopifake.microservice.dtos.InventoryResponse;
+import com.shopifake.microservice.events.InventoryChangedEvent;
+import com.shopifake.microservice.routing.ReadYourWrites;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Bounded read-through cache of single-product inventory reads.
+ * Entries are evicted on every local change, both immediately and again after commit so a
+ * concurrent read cannot re-cache the pre-commit row. Changes made by other instances are only
+ * picked up once the entry exceeds the configured staleness budget.
+ */
+@Component
+public class InventoryCache {
+
+    private final boolean enabled;
+    private final Cache<UUID, InventoryResponse> cache;
+
+    public InventoryCache(final InventoryProperties properties, final MeterRegistry meterRegistry) {
+        InventoryProperties.Cache config = properties.getCache();
+        this.enabled = config.isEnabled();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(config.getMaximumSize())
+                .expireAfterWrite(config.getStalenessBudget())
+                .expireAfterAccess(config.getExpireAfterAccess())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "inventory");
+    }
+
+    /**
+     * Return the cached response, loading and caching it on a miss.
+     * Loader failures (such as unknown products) propagate and are not cached. Clients that must
+     * read their own writes bypass the cache, as another client may have filled it from a replica.
+     */
+    public InventoryResponse get(final UUID productId, final Function<UUID, InventoryResponse> loader) {
+        if (!enabled || ReadYourWrites.isPinned()) {
+            return loader.apply(productId);
+        }
+        return cache.get(productId, loader);
+    }
+
+    /**
+     * Evict a product now and, when called inside a transaction, once more after commit.
+     */
+    public void invalidate(final UUID productId) {
+        cache.invalidate(productId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.invalidate(productId);
+                }
+            });
+        }
+    }
+
+    @EventListener
+    void onInventoryChanged(final InventoryChangedEvent event) {
+        invalidate(event.getProductId());
+    }
+}
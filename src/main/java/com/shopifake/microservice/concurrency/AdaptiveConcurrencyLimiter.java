@@ -0,0 +1,233 @@
+package com.shopifake.microservice.concurrency;
+
+import com.shopifake.microservice.config.InventoryProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * AIMD limit on concurrent database work.
+ * Permits bound concurrency; the limit adapts to the statements run under them. Every statement
+ * that completes within the latency threshold grows the limit by {@code 1/limit} while the limiter
+ * is actually being used; every slower one shrinks it by the backoff ratio. How long a permit is
+ * held is only reported, since streamed reads and slow callers hold one without the database being
+ * congested. Callers over the limit wait in a bounded queue until their deadline and are then
+ * shed with {@link ConcurrencyLimitExceededException}.
+ * Uses a {@link ReentrantLock} rather than {@code synchronized} so waiting virtual threads unmount
+ * from their carriers.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private final InventoryProperties.Limiter config;
+    private final LongSupplier nanoClock;
+    private final long latencyThresholdNanos;
+    private final long maxQueueWaitNanos;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition permitAvailable = lock.newCondition();
+    private double limit;
+    private int inFlight;
+    private int queued;
+
+    private final Counter queueFullRejections;
+    private final Counter timeoutRejections;
+    private final Timer queueWait;
+    private final Timer holdTime;
+    private final Timer statementTime;
+
+    public AdaptiveConcurrencyLimiter(final InventoryProperties properties, final MeterRegistry meterRegistry) {
+        this(properties.getLimiter(), meterRegistry, System::nanoTime);
+    }
+
+    AdaptiveConcurrencyLimiter(final InventoryProperties.Limiter config,
+                               final MeterRegistry meterRegistry,
+                               final LongSupplier nanoClock) {
+        this.config = config;
+        this.nanoClock = nanoClock;
+        this.latencyThresholdNanos = config.getLatencyThreshold().toNanos();
+        this.maxQueueWaitNanos = config.getMaxQueueWait().toNanos();
+        this.limit = Math.clamp(config.getInitialLimit(), config.getMinLimit(), config.getMaxLimit());
+
+        this.queueFullRejections = Counter.builder("inventory.db.limiter.rejected")
+                .description("Callers shed by the database concurrency limiter")
+                .tag("reason", "queue_full")
+                .register(meterRegistry);
+        this.timeoutRejections = Counter.builder("inventory.db.limiter.rejected")
+                .description("Callers shed by the database concurrency limiter")
+                .tag("reason", "timeout")
+                .register(meterRegistry);
+        this.queueWait = Timer.builder("inventory.db.limiter.wait")
+                .description("Time spent waiting for a database permit")
+                .register(meterRegistry);
+        this.holdTime = Timer.builder("inventory.db.limiter.hold")
+                .description("Time a database permit was held")
+                .register(meterRegistry);
+        this.statementTime = Timer.builder("inventory.db.limiter.statement")
+                .description("Execution time of statements run under a permit, the limiter's latency signal")
+                .register(meterRegistry);
+        Gauge.builder("inventory.db.limiter.limit", this, AdaptiveConcurrencyLimiter::getLimit)
+                .description("Current adaptive concurrency limit")
+                .register(meterRegistry);
+        Gauge.builder("inventory.db.limiter.in_flight", this, AdaptiveConcurrencyLimiter::getInFlight)
+                .description("Permits currently held")
+                .register(meterRegistry);
+        Gauge.builder("inventory.db.limiter.queued", this, AdaptiveConcurrencyLimiter::getQueued)
+                .description("Callers waiting for a permit")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Take a permit, waiting up to the configured deadline when the limit is reached.
+     *
+     * @throws ConcurrencyLimitExceededException when the queue is full or the deadline passes
+     */
+    public Permit acquire() {
+        long startedAt = nanoClock.getAsLong();
+        lock.lock();
+        try {
+            if (inFlight >= (int) limit) {
+                await();
+            }
+            inFlight++;
+            return new Permit(nanoClock.getAsLong(), inFlight);
+        } finally {
+            lock.unlock();
+            queueWait.record(nanoClock.getAsLong() - startedAt, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void await() {
+        if (queued >= config.getMaxQueueLength()) {
+            queueFullRejections.increment();
+            throw new ConcurrencyLimitExceededException("Database concurrency limit reached");
+        }
+        queued++;
+        try {
+            long remaining = maxQueueWaitNanos;
+            while (inFlight >= (int) limit) {
+                if (remaining <= 0) {
+                    timeoutRejections.increment();
+                    throw new ConcurrencyLimitExceededException("Timed out waiting for database capacity");
+                }
+                remaining = permitAvailable.awaitNanos(remaining);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ConcurrencyLimitExceededException("Interrupted waiting for database capacity");
+        } finally {
+            queued--;
+        }
+    }
+
+    private void release(final Permit permit) {
+        holdTime.record(nanoClock.getAsLong() - permit.acquiredAt, TimeUnit.NANOSECONDS);
+        lock.lock();
+        try {
+            inFlight--;
+            permitAvailable.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void adapt(final Permit permit, final long latencyNanos) {
+        statementTime.record(latencyNanos, TimeUnit.NANOSECONDS);
+        lock.lock();
+        try {
+            int previous = (int) limit;
+            if (latencyNanos > latencyThresholdNanos) {
+                limit = Math.max(config.getMinLimit(), limit * config.getBackoffRatio());
+            } else if (permit.inFlightAtAcquire * 2 >= limit) {
+                // Only grow while at least half the window is in use, so an idle service does not
+                // drift up to the maximum and then flood the pool on the next burst.
+                limit = Math.min(config.getMaxLimit(), limit + 1.0 / limit);
+            }
+            if ((int) limit > previous) {
+                permitAvailable.signalAll();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Current limit, fractional between additive steps.
+     */
+    public double getLimit() {
+        lock.lock();
+        try {
+            return limit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Permits currently held.
+     */
+    public int getInFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Callers currently waiting for a permit.
+     */
+    public int getQueued() {
+        lock.lock();
+        try {
+            return queued;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * A held slot; the statements run under it feed their latency back into the limit. Release is
+     * idempotent.
+     */
+    public final class Permit {
+
+        private final long acquiredAt;
+        private final int inFlightAtAcquire;
+        private boolean released;
+
+        private Permit(final long acquiredAt, final int inFlightAtAcquire) {
+            this.acquiredAt = acquiredAt;
+            this.inFlightAtAcquire = inFlightAtAcquire;
+        }
+
+        /**
+         * Report how long one statement run under this permit took to execute.
+         */
+        public void recordStatement(final long latencyNanos) {
+            adapt(this, latencyNanos);
+        }
+
+        /**
+         * Return the slot to the limiter.
+         */
+        public void release() {
+            lock.lock();
+            try {
+                if (released) {
+                    return;
+                }
+                released = true;
+            } finally {
+                lock.unlock();
+            }
+            AdaptiveConcurrencyLimiter.this.release(this);
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.shopifake.microservice.concurrency;
+
+/**
+ * Thrown when a caller cannot obtain a database permit, either because the wait queue is full or
+ * because its queueing deadline passed. Surfaced to clients as {@code 503 Service Unavailable}.
+ */
+public class ConcurrencyLimitExceededException extends RuntimeException {
+
+    public ConcurrencyLimitExceededException(final String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,116 @@
+package com.shopifake.microservice.concurrency;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Gates connection checkout on the {@link AdaptiveConcurrencyLimiter}. A permit is taken before
+ * the pool is asked for a connection and returned when the connection is closed, so the limiter
+ * bounds how many callers compete for the pool. Its latency signal is the execution time of each
+ * statement run on the connection, not how long the connection is held: a streamed read or a
+ * transaction that does slow work between statements holds a permit without reporting congestion.
+ */
+public class ConcurrencyLimitedDataSource extends DelegatingDataSource {
+
+    private final AdaptiveConcurrencyLimiter limiter;
+
+    public ConcurrencyLimitedDataSource(final DataSource targetDataSource, final AdaptiveConcurrencyLimiter limiter) {
+        super(targetDataSource);
+        this.limiter = limiter;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        AdaptiveConcurrencyLimiter.Permit permit = limiter.acquire();
+        try {
+            return limited(super.getConnection(), permit);
+        } catch (SQLException | RuntimeException e) {
+            permit.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(final String username, final String password) throws SQLException {
+        AdaptiveConcurrencyLimiter.Permit permit = limiter.acquire();
+        try {
+            return limited(super.getConnection(username, password), permit);
+        } catch (SQLException | RuntimeException e) {
+            permit.release();
+            throw e;
+        }
+    }
+
+    private static Connection limited(final Connection connection, final AdaptiveConcurrencyLimiter.Permit permit) {
+        return (Connection) proxy(Connection.class, connection, (method, call) -> {
+            if ("close".equals(method.getName()) && method.getParameterCount() == 0) {
+                try {
+                    return call.proceed();
+                } finally {
+                    permit.release();
+                }
+            }
+            Object result = call.proceed();
+            if (result instanceof Statement statement && Statement.class.isAssignableFrom(method.getReturnType())) {
+                return timed(method.getReturnType(), statement, permit);
+            }
+            return result;
+        });
+    }
+
+    /**
+     * Report the execution time of every {@code execute*} call to the permit. Rows fetched from a
+     * result set afterwards are not timed.
+     */
+    private static Object timed(final Class<?> type, final Statement statement,
+                                final AdaptiveConcurrencyLimiter.Permit permit) {
+        return proxy(type, statement, (method, call) -> {
+            if (!method.getName().startsWith("execute")) {
+                return call.proceed();
+            }
+            long startedAt = System.nanoTime();
+            try {
+                return call.proceed();
+            } finally {
+                permit.recordStatement(System.nanoTime() - startedAt);
+            }
+        });
+    }
+
+    private static Object proxy(final Class<?> type, final Object target, final Interceptor interceptor) {
+        return Proxy.newProxyInstance(ConcurrencyLimitedDataSource.class.getClassLoader(), new Class<?>[]{type},
+                (proxy, method, args) -> {
+                    // Identity semantics, so pools and ORMs can key their bookkeeping on the proxy
+                    if ("equals".equals(method.getName()) && method.getParameterCount() == 1) {
+                        return proxy == args[0];
+                    }
+                    if ("hashCode".equals(method.getName()) && method.getParameterCount() == 0) {
+                        return System.identityHashCode(proxy);
+                    }
+                    return interceptor.intercept(method, () -> {
+                        try {
+                            return method.invoke(target, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getTargetException();
+                        }
+                    });
+                });
+    }
+
+    @FunctionalInterface
+    private interface Interceptor {
+        Object intercept(Method method, Call call) throws Throwable;
+    }
+
+    @FunctionalInterface
+    private interface Call {
+        Object proceed() throws Throwable;
+    }
+}
@@ -0,0 +1,50 @@
+package com.shopifake.microservice.config;
+
+import com.shopifake.microservice.concurrency.AdaptiveConcurrencyLimiter;
+import com.shopifake.microservice.concurrency.ConcurrencyLimitedDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * Puts the adaptive concurrency limiter in front of the application's connection pool, when
+ * {@code inventory.limiter.enabled} is set. Wrapping the {@link DataSource} rather than individual
+ * services means transactions, plain repository calls and background jobs are all counted, while
+ * cache hits never take a permit. Only the primary data source is wrapped; any other data source
+ * bean is left alone.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "inventory.limiter", name = "enabled", havingValue = "true")
+public class DatabaseConcurrencyConfiguration {
+
+    /**
+     * Name of the data source bean Spring Boot auto-configures.
+     */
+    private static final String PRIMARY_DATA_SOURCE = "dataSource";
+
+    @Bean
+    AdaptiveConcurrencyLimiter adaptiveConcurrencyLimiter(final InventoryProperties properties,
+                                                          final MeterRegistry meterRegistry) {
+        return new AdaptiveConcurrencyLimiter(properties, meterRegistry);
+    }
+
+    @Bean
+    static BeanPostProcessor concurrencyLimitedDataSourcePostProcessor(
+            final ObjectProvider<AdaptiveConcurrencyLimiter> limiter) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(final Object bean, final String beanName) {
+                if (PRIMARY_DATA_SOURCE.equals(beanName) && bean instanceof DataSource dataSource
+                        && !(bean instanceof ConcurrencyLimitedDataSource)) {
+                    return new ConcurrencyLimitedDataSource(dataSource, limiter.getObject());
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,29 @@
+package com.shopifake.microservice.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+import java.time.Clock;
+
+/**
+ * Wires inventory-specific configuration properties, background jobs and native-image hints.
+ */
+@Configuration
+@EnableScheduling
+@ImportRuntimeHints(NativeRuntimeHints.class)
+@EnableConfigurationProperties(InventoryProperties.class)
+public class InventoryConfiguration {
+
+    /**
+     * Time source for services that stamp or compare timestamps; tests replace it with a fixed clock.
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    Clock clock() {
+        return Clock.systemUTC();
+    }
+}
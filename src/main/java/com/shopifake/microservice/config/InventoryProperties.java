@@ -0,0 +1,499 @@
+package com.shopifake.microservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tunables for the inventory service, bound from the {@code inventory.*} namespace.
+ */
+@Data
+@ConfigurationProperties(prefix = "inventory")
+public class InventoryProperties {
+
+    private final Batch batch = new Batch();
+
+    private final Imports imports = new Imports();
+
+    private final Reservations reservations = new Reservations();
+
+    private final GroupCommit groupCommit = new GroupCommit();
+
+    private final Cache cache = new Cache();
+
+    private final Listing listing = new Listing();
+
+    private final Lookup lookup = new Lookup();
+
+    private final Outbox outbox = new Outbox();
+
+    private final Ledger ledger = new Ledger();
+
+    private final Limiter limiter = new Limiter();
+
+    private final Adjustments adjustments = new Adjustments();
+
+    private final Idempotency idempotency = new Idempotency();
+
+    private final Sharding sharding = new Sharding();
+
+    private final Replicas replicas = new Replicas();
+
+    private final Health health = new Health();
+
+    /**
+     * Limits for bulk adjustment requests.
+     */
+    @Data
+    public static class Batch {
+
+        /**
+         * Maximum number of lines accepted in a single batch request.
+         */
+        private int maxLines = 5000;
+
+        /**
+         * Number of lines applied per JDBC batch and transaction.
+         */
+        private int chunkSize = 500;
+    }
+
+    /**
+     * Streaming catalog imports and snapshot reconciliations.
+     */
+    @Data
+    public static class Imports {
+
+        /**
+         * Rows loaded per transaction; also bounds the rows held in memory.
+         */
+        private int chunkSize = 2000;
+
+        /**
+         * Row errors listed in the response; further errors are only counted.
+         */
+        private int maxReportedErrors = 1000;
+    }
+
+    /**
+     * Lifetime and expiry sweeping of stock reservations.
+     */
+    @Data
+    public static class Reservations {
+
+        /**
+         * Hold duration used when the caller does not ask for one.
+         */
+        private Duration defaultTtl = Duration.ofMinutes(10);
+
+        /**
+         * Upper bound on any requested hold duration.
+         */
+        private Duration maxTtl = Duration.ofHours(1);
+
+        /**
+         * Expired reservations released per sweeper transaction.
+         */
+        private int sweepBatchSize = 500;
+
+        /**
+         * Maximum sweeper transactions per run, bounding the work of a single tick.
+         */
+        private int sweepMaxBatches = 20;
+    }
+
+    /**
+     * Write coalescing for hot products: concurrent adjustments are merged into one UPDATE.
+     */
+    @Data
+    public static class GroupCommit {
+
+        /**
+         * Route single adjustments through the coalescer instead of one transaction each.
+         */
+        private boolean enabled = false;
+
+        /**
+         * How long adjustments accumulate before a stripe is flushed.
+         */
+        private Duration flushInterval = Duration.ofMillis(5);
+
+        /**
+         * Number of independent queues; a product always maps to the same stripe.
+         */
+        private int stripes = 4;
+
+        /**
+         * Maximum adjustments drained from a stripe per flush.
+         */
+        private int maxBatchSize = 1000;
+
+        /**
+         * How long a caller waits for a flush to take its adjustment before withdrawing it.
+         */
+        private Duration ackTimeout = Duration.ofSeconds(5);
+    }
+
+    /**
+     * In-process cache of single-product reads.
+     */
+    @Data
+    public static class Cache {
+
+        /**
+         * Serve {@code GET /{productId}} from the cache.
+         */
+        private boolean enabled = true;
+
+        /**
+         * Maximum number of cached products.
+         */
+        private long maximumSize = 10_000;
+
+        /**
+         * Longest time an entry is served before being reloaded, bounding staleness for
+         * changes made by other instances.
+         */
+        private Duration stalenessBudget = Duration.ofSeconds(2);
+
+        /**
+         * Entries not read for this long are dropped early.
+         */
+        private Duration expireAfterAccess = Duration.ofMinutes(1);
+    }
+
+    /**
+     * Paging and streaming of catalog listings.
+     */
+    @Data
+    public static class Listing {
+
+        /**
+         * Page size used when the caller does not pass {@code limit}.
+         */
+        private int defaultPageSize = 100;
+
+        /**
+         * Largest page a caller may request.
+         */
+        private int maxPageSize = 1000;
+
+        /**
+         * Rows fetched per round trip when streaming NDJSON.
+         */
+        private int streamFetchSize = 500;
+    }
+
+    /**
+     * Bulk availability lookups.
+     */
+    @Data
+    public static class Lookup {
+
+        /**
+         * Maximum number of product ids accepted in a single lookup.
+         */
+        private int maxIds = 1000;
+
+        /**
+         * Product ids bound per {@code IN (...)} query.
+         */
+        private int chunkSize = 200;
+    }
+
+    /**
+     * Change feed paging and outbox retention.
+     */
+    @Data
+    public static class Outbox {
+
+        /**
+         * Changes returned when the caller does not pass {@code limit}.
+         */
+        private int defaultPageSize = 100;
+
+        /**
+         * Largest page a caller may request.
+         */
+        private int maxPageSize = 1000;
+
+        /**
+         * How often committed change records are given feed positions; bounds how long a change
+         * takes to appear in the feed.
+         */
+        private Duration sequenceInterval = Duration.ofMillis(200);
+
+        /**
+         * Records positioned per sequencing transaction.
+         */
+        private int sequenceBatchSize = 1000;
+
+        /**
+         * How long change records are kept before pruning.
+         */
+        private Duration retention = Duration.ofDays(7);
+
+        /**
+         * Records deleted per pruning transaction.
+         */
+        private int pruneBatchSize = 1000;
+
+        /**
+         * Maximum pruning transactions per run.
+         */
+        private int pruneMaxBatches = 50;
+    }
+
+    /**
+     * Adjustment ledger history, snapshots and compaction.
+     */
+    @Data
+    public static class Ledger {
+
+        /**
+         * History entries returned when the caller does not pass {@code limit}.
+         */
+        private int defaultPageSize = 50;
+
+        /**
+         * Largest history page a caller may request.
+         */
+        private int maxPageSize = 500;
+
+        /**
+         * Where transaction ids are not available (not PostgreSQL), how old a snapshot run must be
+         * before later runs scan from its position, so an entry whose transaction commits late is
+         * never skipped.
+         */
+        private Duration snapshotSettleDelay = Duration.ofMinutes(1);
+
+        /**
+         * Ledger entries older than this are dropped once covered by snapshots, as are snapshots
+         * superseded by a newer one also older than this.
+         */
+        private Duration retention = Duration.ofDays(400);
+
+        /**
+         * Monthly partitions kept created ahead of time on PostgreSQL.
+         */
+        private int partitionsAhead = 2;
+
+        /**
+         * Entries deleted per compaction statement where partitions are not available, and
+         * superseded snapshots deleted per pruning transaction.
+         */
+        private int compactionBatchSize = 5000;
+    }
+
+    /**
+     * Adaptive (AIMD) limit on concurrent database work, shedding load before the pool saturates.
+     */
+    @Data
+    public static class Limiter {
+
+        /**
+         * Gate connection checkout on the limiter. The shipped configuration ties it to
+         * {@code spring.threads.virtual.enabled}, as virtual threads leave the pool unbounded.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Limit used until latency feedback adjusts it.
+         */
+        private int initialLimit = 10;
+
+        /**
+         * Floor the limit never backs off below.
+         */
+        private int minLimit = 2;
+
+        /**
+         * Ceiling for additive growth; keep at or below the connection pool size.
+         */
+        private int maxLimit = 20;
+
+        /**
+         * Statements that take longer than this to execute count as congestion and shrink the limit.
+         */
+        private Duration latencyThreshold = Duration.ofMillis(50);
+
+        /**
+         * Factor applied to the limit on each congested release.
+         */
+        private double backoffRatio = 0.9;
+
+        /**
+         * Callers allowed to wait for a permit before further ones are shed immediately.
+         */
+        private int maxQueueLength = 500;
+
+        /**
+         * Deadline for a queued caller before it is shed with 503.
+         */
+        private Duration maxQueueWait = Duration.ofMillis(100);
+    }
+
+    /**
+     * Concurrency control for single adjustments. Batches and group commit always use guarded UPDATEs.
+     */
+    @Data
+    public static class Adjustments {
+
+        /**
+         * How concurrent adjustments of the same product are serialized.
+         */
+        private Strategy strategy = Strategy.ATOMIC;
+
+        /**
+         * Tries per adjustment under optimistic versioning, including the first.
+         */
+        private int maxAttempts = 5;
+
+        /**
+         * Upper bound of the first retry's random backoff; it doubles with each further retry.
+         */
+        private Duration retryBackoff = Duration.ofMillis(2);
+
+        /**
+         * Cap on any single retry backoff.
+         */
+        private Duration maxRetryBackoff = Duration.ofMillis(50);
+
+        /**
+         * How long pessimistic locking waits for the row lock before failing with 409.
+         */
+        private Duration lockTimeout = Duration.ofSeconds(2);
+
+        /**
+         * Available adjustment strategies.
+         */
+        public enum Strategy {
+            /**
+             * One guarded UPDATE that applies the delta in the database.
+             */
+            ATOMIC,
+            /**
+             * Read, modify and write back with a version check, retrying on conflict.
+             */
+            OPTIMISTIC,
+            /**
+             * Read with {@code SELECT ... FOR UPDATE}, modify and write back under the row lock.
+             */
+            PESSIMISTIC
+        }
+    }
+
+    /**
+     * Retention of responses stored for {@code Idempotency-Key} requests.
+     */
+    @Data
+    public static class Idempotency {
+
+        /**
+         * How long a key is remembered; a retry after this may apply the request again.
+         */
+        private Duration retention = Duration.ofHours(24);
+
+        /**
+         * Records deleted per pruning transaction.
+         */
+        private int pruneBatchSize = 1000;
+
+        /**
+         * Maximum pruning transactions per run.
+         */
+        private int pruneMaxBatches = 50;
+    }
+
+    /**
+     * Stock slots that spread the decrements of a hot product over several rows.
+     */
+    @Data
+    public static class Sharding {
+
+        /**
+         * Maximum number of slots a product may be split into.
+         */
+        private int maxSlots = 64;
+    }
+
+    /**
+     * Read replicas that serve read-only transactions while the primary takes the writes.
+     */
+    @Data
+    public static class Replicas {
+
+        /**
+         * Whether read-only transactions may be routed to replicas at all.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Replication lag above which a replica stops receiving reads until it catches up.
+         */
+        private Duration maxLag = Duration.ofSeconds(1);
+
+        /**
+         * How long a client keeps reading from the primary after it mutates.
+         */
+        private Duration stickiness = Duration.ofSeconds(5);
+
+        /**
+         * Connection settings of each replica; with none, every read stays on the primary.
+         */
+        private List<Replica> dataSources = new ArrayList<>();
+
+        /**
+         * Connection settings of one replica.
+         */
+        @Data
+        public static class Replica {
+
+            /**
+             * Name used in metrics and pool names; defaults to {@code replica-<index>}.
+             */
+            private String name;
+
+            private String url;
+
+            private String username;
+
+            private String password;
+
+            /**
+             * Connections kept open to this replica.
+             */
+            private int maximumPoolSize = 10;
+        }
+    }
+
+    /**
+     * Health probes, which must answer without waiting on the connection pool they report on.
+     */
+    @Data
+    public static class Health {
+
+        /**
+         * How long the background database check waits for a connection to validate.
+         */
+        private Duration validationTimeout = Duration.ofSeconds(3);
+
+        /**
+         * Age after which a cached database check is reported as down, as the check itself is stuck.
+         */
+        private Duration maxAge = Duration.ofSeconds(30);
+
+        /**
+         * Connection acquire time above which readiness reports the instance out of service.
+         */
+        private Duration acquireThreshold = Duration.ofMillis(500);
+
+        /**
+         * Percentile of recent acquire times compared with the threshold.
+         */
+        private double acquirePercentile = 0.99;
+    }
+}
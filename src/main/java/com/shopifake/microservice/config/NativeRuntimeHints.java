@@ -0,0 +1,33 @@
+package com.shopifake.microservice.config;
+
+import com.shopifake.microservice.dtos.ErrorResponse;
+import com.shopifake.microservice.dtos.InventoryResponse;
+import com.shopifake.microservice.repositories.InventoryVersion;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+
+/**
+ * Native-image hints that Spring's AOT processing cannot infer from the bean definitions. That
+ * covers migrations outside the default Flyway folder, JPQL constructor projections that Hibernate
+ * instantiates reflectively, responses serialized outside controller return values (streamed rows
+ * and idempotent replays), and the springdoc UI assets. Entities, configuration properties and
+ * controller payloads are already registered by AOT.
+ */
+class NativeRuntimeHints implements RuntimeHintsRegistrar {
+
+    private final BindingReflectionHintsRegistrar bindingHints = new BindingReflectionHintsRegistrar();
+
+    @Override
+    public void registerHints(final RuntimeHints hints, final ClassLoader classLoader) {
+        hints.resources()
+                .registerPattern("db/migration/*.sql")
+                .registerPattern("db/vendor/*/*.sql")
+                .registerPattern("META-INF/resources/webjars/swagger-ui/**")
+                .registerPattern("META-INF/maven/org.webjars/swagger-ui/pom.properties");
+        hints.reflection()
+                .registerType(InventoryVersion.class, MemberCategory.INVOKE_DECLARED_CONSTRUCTORS);
+        bindingHints.registerReflectionHints(hints.reflection(), InventoryResponse.class, ErrorResponse.class);
+    }
+}
@@ -0,0 +1,82 @@
+package com.shopifake.microservice.config;
+
+import com.shopifake.microservice.routing.ReadOnlyRoutingDataSource;
+import com.shopifake.microservice.routing.ReadYourWritesFilter;
+import com.shopifake.microservice.routing.ReplicaRouter;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sends read-only transactions to read replicas. The primary data source is wrapped in a lazy
+ * proxy that only fetches a physical connection at the first statement, by which point the
+ * transaction has marked the connection read-only and the proxy can take it from the replicas
+ * instead. Writes, and reads inside read-write transactions, are untouched.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "inventory.replicas", name = "enabled", havingValue = "true")
+public class ReplicaRoutingConfiguration {
+
+    @Bean(destroyMethod = "close")
+    ReplicaRouter replicaRouter(final InventoryProperties properties, final MeterRegistry meterRegistry) {
+        InventoryProperties.Replicas config = properties.getReplicas();
+        List<InventoryProperties.Replicas.Replica> replicas = config.getDataSources();
+        Map<String, DataSource> pools = new LinkedHashMap<>();
+        for (int i = 0; i < replicas.size(); i++) {
+            InventoryProperties.Replicas.Replica replica = replicas.get(i);
+            String name = replica.getName() != null ? replica.getName() : "replica-" + i;
+            HikariDataSource pool = new HikariDataSource();
+            pool.setPoolName(name);
+            pool.setJdbcUrl(replica.getUrl());
+            pool.setUsername(replica.getUsername());
+            pool.setPassword(replica.getPassword());
+            pool.setMaximumPoolSize(replica.getMaximumPoolSize());
+            pool.setReadOnly(true);
+            pools.put(name, pool);
+        }
+        return new ReplicaRouter(pools, config.getMaxLag(), meterRegistry);
+    }
+
+    @Bean
+    ReadYourWritesFilter readYourWritesFilter(final InventoryProperties properties) {
+        return new ReadYourWritesFilter(properties.getReplicas().getStickiness());
+    }
+
+    /**
+     * Ordered so it runs before the unordered concurrency limiter post-processor, which then wraps
+     * the routing proxy and counts replica connections against the same limit.
+     */
+    @Bean
+    static BeanPostProcessor replicaRoutingDataSourcePostProcessor(final ObjectProvider<ReplicaRouter> router) {
+        return new RoutingPostProcessor(router);
+    }
+
+    private record RoutingPostProcessor(ObjectProvider<ReplicaRouter> router) implements BeanPostProcessor, Ordered {
+
+        @Override
+        public Object postProcessAfterInitialization(final Object bean, final String beanName) {
+            if (bean instanceof DataSource dataSource && !(bean instanceof LazyConnectionDataSourceProxy)) {
+                LazyConnectionDataSourceProxy proxy = new LazyConnectionDataSourceProxy(dataSource);
+                proxy.setReadOnlyDataSource(new ReadOnlyRoutingDataSource(dataSource, router::getObject));
+                return proxy;
+            }
+            return bean;
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.HIGHEST_PRECEDENCE;
+        }
+    }
+}
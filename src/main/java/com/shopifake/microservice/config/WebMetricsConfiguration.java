@@ -0,0 +1,23 @@
+package com.shopifake.microservice.config;
+
+import com.shopifake.microservice.metrics.InventoryOperationInterceptor;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Registers the interceptor that times inventory API operations, so handlers carry only their
+ * {@link com.shopifake.microservice.metrics.TimedOperation} marker instead of timing code.
+ */
+@Configuration
+@RequiredArgsConstructor
+public class WebMetricsConfiguration implements WebMvcConfigurer {
+
+    private final InventoryOperationInterceptor inventoryOperationInterceptor;
+
+    @Override
+    public void addInterceptors(final InterceptorRegistry registry) {
+        registry.addInterceptor(inventoryOperationInterceptor);
+    }
+}
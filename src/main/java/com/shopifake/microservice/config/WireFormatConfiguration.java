@@ -0,0 +1,78 @@
+package com.shopifake.microservice.config;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.deser.std.StdScalarDeserializer;
+import com.fasterxml.jackson.databind.ser.std.StdScalarSerializer;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+/**
+ * Serves {@code application/cbor} next to JSON for clients that ask for it, mainly bulk readers.
+ * UUIDs go out as 16-byte binary strings and timestamps as UTC epoch milliseconds, which is where
+ * JSON text spends most of its bytes and encoding time for inventory rows. JSON stays the default.
+ */
+@Configuration
+@RequiredArgsConstructor
+public class WireFormatConfiguration implements WebMvcConfigurer {
+
+    private final Jackson2ObjectMapperBuilder objectMapperBuilder;
+
+    @Override
+    public void extendMessageConverters(final List<HttpMessageConverter<?>> converters) {
+        // Replaces the default CBOR converter, which writes timestamps as ISO strings
+        converters.removeIf(converter -> converter instanceof MappingJackson2CborHttpMessageConverter);
+        converters.add(new MappingJackson2CborHttpMessageConverter(cborMapper(objectMapperBuilder)));
+    }
+
+    /**
+     * CBOR mapper with the application's Jackson settings and epoch-millisecond timestamps.
+     * Jackson already writes UUIDs as binary to formats that support it natively.
+     */
+    public static ObjectMapper cborMapper(final Jackson2ObjectMapperBuilder builder) {
+        return builder.factory(new CBORFactory())
+                .serializerByType(LocalDateTime.class, new EpochMillisSerializer())
+                .deserializerByType(LocalDateTime.class, new EpochMillisDeserializer())
+                .build();
+    }
+
+    static final class EpochMillisSerializer extends StdScalarSerializer<LocalDateTime> {
+
+        EpochMillisSerializer() {
+            super(LocalDateTime.class);
+        }
+
+        @Override
+        public void serialize(final LocalDateTime value, final JsonGenerator generator,
+                              final SerializerProvider provider) throws IOException {
+            generator.writeNumber(value.toInstant(ZoneOffset.UTC).toEpochMilli());
+        }
+    }
+
+    static final class EpochMillisDeserializer extends StdScalarDeserializer<LocalDateTime> {
+
+        EpochMillisDeserializer() {
+            super(LocalDateTime.class);
+        }
+
+        @Override
+        public LocalDateTime deserialize(final JsonParser parser, final DeserializationContext context)
+                throws IOException {
+            return LocalDateTime.ofInstant(Instant.ofEpochMilli(parser.getLongValue()), ZoneOffset.UTC);
+        }
+    }
+}
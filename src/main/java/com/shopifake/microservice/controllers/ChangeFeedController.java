@@ -0,0 +1,36 @@
+package com.shopifake.microservice.controllers;
+
+import com.shopifake.microservice.dtos.InventoryChangeFeed;
+import com.shopifake.microservice.metrics.InventoryMetrics;
+import com.shopifake.microservice.metrics.TimedOperation;
+import com.shopifake.microservice.services.ChangeFeedService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Incremental inventory change feed for downstream consumers.
+ */
+@RestController
+@RequestMapping("/")
+@RequiredArgsConstructor
+@Tag(name = "Change feed")
+public class ChangeFeedController {
+
+    private final ChangeFeedService changeFeedService;
+
+    @GetMapping("/changes")
+    @TimedOperation(InventoryMetrics.Operation.CHANGES)
+    @Operation(summary = "Read inventory changes after a cursor",
+            description = "Poll with the returned nextCursor as after to sync incrementally.")
+    public ResponseEntity<InventoryChangeFeed> readChanges(
+            @RequestParam(required = false) final Long after,
+            @RequestParam(required = false) final Integer limit) {
+        return ResponseEntity.ok(changeFeedService.readChanges(after, limit));
+    }
+}
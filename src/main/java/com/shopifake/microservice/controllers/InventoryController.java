@@ -1,30 +1,60 @@
 package com.shopifake.microservice.controllers;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.shopifake.microservice.dtos.AdjustInventoryRequest;
+import com.shopifake.microservice.dtos.BatchAdjustInventoryRequest;
+import com.shopifake.microservice.dtos.BatchAdjustInventoryResponse;
+import com.shopifake.microservice.dtos.ConfigureSlotsRequest;
 import com.shopifake.microservice.dtos.CreateInventoryRequest;
+import com.shopifake.microservice.dtos.InventoryImportResponse;
+import com.shopifake.microservice.dtos.InventoryLookupRequest;
+import com.shopifake.microservice.dtos.InventoryLookupResponse;
+import com.shopifake.microservice.dtos.InventoryPage;
+import com.shopifake.microservice.dtos.InventoryReconcileResponse;
 import com.shopifake.microservice.dtos.InventoryResponse;
+import com.shopifake.microservice.dtos.InventorySummaryResponse;
+import com.shopifake.microservice.dtos.ReorderThresholdRequest;
+import com.shopifake.microservice.metrics.InventoryMetrics;
+import com.shopifake.microservice.metrics.TimedOperation;
+import com.shopifake.microservice.services.InventoryETags;
+import com.shopifake.microservice.services.InventoryImportService;
+import com.shopifake.microservice.services.InventoryReconciliationService;
 import com.shopifake.microservice.services.InventoryService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.MimeTypeUtils;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 /**
  * Inventory REST endpoints.
+ * Each operation is marked {@link TimedOperation} and timed into {@link InventoryMetrics} with its
+ * outcome by an interceptor; streamed listings are timed until the last row is written.
  */
 @RestController
 @RequestMapping("/")
@@ -32,44 +62,277 @@ import java.util.UUID;
 @Tag(name = "Inventory")
 public class InventoryController {
 
+    /**
+     * Media type of the streaming listing.
+     */
+    public static final String NDJSON_VALUE = "application/x-ndjson";
+
+    /**
+     * Media type of CSV imports and reconciliations.
+     */
+    public static final String TEXT_CSV_VALUE = "text/csv";
+
+    /**
+     * Response header carrying the cursor of the next page.
+     */
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    /**
+     * Request header making create and adjust safe to retry.
+     */
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
     private final InventoryService inventoryService;
+    private final InventoryImportService inventoryImportService;
+    private final InventoryReconciliationService inventoryReconciliationService;
+    private final ObjectMapper objectMapper;
 
     @PostMapping
-    @Operation(summary = "Create inventory record for product")
+    @TimedOperation(InventoryMetrics.Operation.CREATE)
+    @Operation(summary = "Create inventory record for product",
+            description = "A retry with the same Idempotency-Key returns the original response.")
     public ResponseEntity<InventoryResponse> createInventory(
-            @Valid @RequestBody final CreateInventoryRequest request) {
-        return ResponseEntity.status(HttpStatus.CREATED).body(inventoryService.createInventory(request));
+            @Valid @RequestBody final CreateInventoryRequest request,
+            @RequestHeader(name = IDEMPOTENCY_KEY_HEADER, required = false) final String idempotencyKey) {
+        InventoryResponse created = inventoryService.createInventory(request, idempotencyKey);
+        return ResponseEntity.status(HttpStatus.CREATED).body(created);
+    }
+
+    @GetMapping("/summary")
+    @TimedOperation(InventoryMetrics.Operation.SUMMARY)
+    @Operation(summary = "Count inventory rows by status and total units on hand")
+    public ResponseEntity<InventorySummaryResponse> summarizeInventory() {
+        return ResponseEntity.ok(inventoryService.summarizeInventory());
+    }
+
+    @GetMapping("/low-stock")
+    @TimedOperation(InventoryMetrics.Operation.LOW_STOCK)
+    @Operation(summary = "List low-stock and out-of-stock rows for reordering",
+            description = "Keyset-paginated by id; the next page is linked from the Link header (rel=next).")
+    public ResponseEntity<List<InventoryResponse>> listLowStock(
+            @RequestParam(required = false) final UUID after,
+            @RequestParam(required = false) final Integer limit,
+            @RequestHeader(name = HttpHeaders.ACCEPT, required = false) final String accept) {
+        return pageResponse(inventoryService.listLowStock(after, limit), accept);
     }
 
     @GetMapping("/{productId}")
-    @Operation(summary = "Get inventory by product")
+    @TimedOperation(InventoryMetrics.Operation.GET)
+    @Operation(summary = "Get inventory by product",
+            description = "Sends a strong ETag; If-None-Match is answered with 304 from a version probe.")
     public ResponseEntity<InventoryResponse> getInventory(
-            @PathVariable final UUID productId) {
-        return ResponseEntity.ok(inventoryService.getInventory(productId));
+            @PathVariable final UUID productId,
+            @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) final String ifNoneMatch,
+            @RequestHeader(name = HttpHeaders.ACCEPT, required = false) final String accept) {
+        if (ifNoneMatch != null) {
+            Optional<String> current = inventoryService.inventoryETag(productId)
+                    .map(etag -> representationTag(etag, accept));
+            if (current.isPresent() && matches(ifNoneMatch, current.get())) {
+                return notModified(current.get());
+            }
+        }
+        InventoryResponse inventory = inventoryService.getInventory(productId);
+        return ResponseEntity.ok()
+                .eTag(representationTag(
+                        InventoryETags.forItem(inventory.getVersion(), inventory.getAvailableQuantity()), accept))
+                .varyBy(HttpHeaders.ACCEPT)
+                .body(inventory);
     }
 
     @GetMapping
-    @Operation(summary = "List inventory rows")
+    @TimedOperation(InventoryMetrics.Operation.LIST)
+    @Operation(summary = "List inventory rows",
+            description = "Keyset-paginated by id; the next page is linked from the Link header (rel=next). "
+                    + "Sends a strong ETag; If-None-Match is answered with 304 from version probes of the page.")
     public ResponseEntity<List<InventoryResponse>> listInventory(
+            @RequestParam(required = false) final String status,
+            @RequestParam(required = false) final UUID after,
+            @RequestParam(required = false) final Integer limit,
+            @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) final String ifNoneMatch,
+            @RequestHeader(name = HttpHeaders.ACCEPT, required = false) final String accept) {
+        if (ifNoneMatch != null) {
+            String current = representationTag(inventoryService.listInventoryETag(status, after, limit), accept);
+            if (matches(ifNoneMatch, current)) {
+                return notModified(current);
+            }
+        }
+        return pageResponse(inventoryService.listInventory(status, after, limit), accept);
+    }
+
+    @GetMapping(produces = NDJSON_VALUE)
+    @TimedOperation(InventoryMetrics.Operation.STREAM)
+    @Operation(summary = "Stream all inventory rows as newline-delimited JSON")
+    public ResponseEntity<StreamingResponseBody> streamInventory(
             @RequestParam(required = false) final String status) {
-        return ResponseEntity.ok(inventoryService.listInventory(status));
+        StreamingResponseBody body = output -> {
+            try (JsonGenerator generator = objectMapper.createGenerator(output)) {
+                inventoryService.streamInventory(status, row -> writeLine(generator, row));
+            } catch (UncheckedIOException ex) {
+                throw ex.getCause();
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType(NDJSON_VALUE)).body(body);
+    }
+
+    @PostMapping("/lookup")
+    @TimedOperation(InventoryMetrics.Operation.LOOKUP)
+    @Operation(summary = "Look up stock for many products at once",
+            description = "Products without an inventory row are listed in missing instead of failing the request.")
+    public ResponseEntity<InventoryLookupResponse> lookupInventory(
+            @Valid @RequestBody final InventoryLookupRequest request) {
+        return ResponseEntity.ok(inventoryService.lookupInventory(request));
     }
 
     @PatchMapping("/{productId}/adjust")
-    @Operation(summary = "Adjust on-hand quantity")
+    @TimedOperation(InventoryMetrics.Operation.ADJUST)
+    @Operation(summary = "Adjust on-hand quantity",
+            description = "A retry with the same Idempotency-Key returns the original response without "
+                    + "applying the delta again.")
     public ResponseEntity<InventoryResponse> adjustInventory(
             @PathVariable final UUID productId,
-            @Valid @RequestBody final AdjustInventoryRequest request) {
-        return ResponseEntity.ok(inventoryService.adjustInventory(productId, request));
+            @Valid @RequestBody final AdjustInventoryRequest request,
+            @RequestHeader(name = IDEMPOTENCY_KEY_HEADER, required = false) final String idempotencyKey) {
+        return ResponseEntity.ok(inventoryService.adjustInventory(productId, request, idempotencyKey));
+    }
+
+    @PostMapping("/adjust/batch")
+    @TimedOperation(InventoryMetrics.Operation.ADJUST_BATCH)
+    @Operation(summary = "Apply many adjustments in one request")
+    public ResponseEntity<BatchAdjustInventoryResponse> adjustInventoryBatch(
+            @Valid @RequestBody final BatchAdjustInventoryRequest request) {
+        return ResponseEntity.ok(inventoryService.adjustInventoryBatch(request));
+    }
+
+    @PostMapping(value = "/import", consumes = {TEXT_CSV_VALUE, NDJSON_VALUE})
+    @TimedOperation(InventoryMetrics.Operation.IMPORT)
+    @Operation(summary = "Import a catalog's inventory from CSV or newline-delimited JSON",
+            description = "The body is streamed and loaded in chunks. CSV rows are productId,initialQuantity"
+                    + "[,reorderThreshold], optionally under a header row. Products that already have "
+                    + "inventory and invalid rows are reported by line instead of failing the import.")
+    public ResponseEntity<InventoryImportResponse> importInventory(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) final String contentType,
+            final InputStream body) {
+        return ResponseEntity.ok(inventoryImportService.importInventory(body, bodyFormat(contentType)));
+    }
+
+    @PostMapping(value = "/reconcile", consumes = {TEXT_CSV_VALUE, NDJSON_VALUE})
+    @TimedOperation(InventoryMetrics.Operation.RECONCILE)
+    @Operation(summary = "Reconcile on-hand quantities to a full snapshot from CSV or newline-delimited JSON",
+            description = "Rows are productId,quantity with quantity the absolute on-hand stock. Only products "
+                    + "whose stock differs are written; unknown products and quantities below the reserved "
+                    + "quantity are reported by line.")
+    public ResponseEntity<InventoryReconcileResponse> reconcileInventory(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) final String contentType,
+            final InputStream body) {
+        return ResponseEntity.ok(inventoryReconciliationService.reconcileInventory(body, bodyFormat(contentType)));
+    }
+
+    @PutMapping("/{productId}/slots")
+    @TimedOperation(InventoryMetrics.Operation.CONFIGURE_SLOTS)
+    @Operation(summary = "Split a hot product's stock into slot rows",
+            description = "Decrements then spread over the slots; reads keep reporting the total. "
+                    + "A slotCount of 0 merges the slots back.")
+    public ResponseEntity<InventoryResponse> configureSlots(
+            @PathVariable final UUID productId,
+            @Valid @RequestBody final ConfigureSlotsRequest request) {
+        return ResponseEntity.ok(inventoryService.configureSlots(productId, request));
+    }
+
+    @PutMapping("/{productId}/reorder-threshold")
+    @TimedOperation(InventoryMetrics.Operation.CONFIGURE_THRESHOLD)
+    @Operation(summary = "Set the sellable stock at or below which a product is reported as low stock",
+            description = "The status is re-derived from current stock. A reorderThreshold of 0 disables it.")
+    public ResponseEntity<InventoryResponse> updateReorderThreshold(
+            @PathVariable final UUID productId,
+            @Valid @RequestBody final ReorderThresholdRequest request) {
+        return ResponseEntity.ok(inventoryService.updateReorderThreshold(productId, request));
     }
 
     @DeleteMapping("/{productId}")
+    @TimedOperation(InventoryMetrics.Operation.DELETE)
     @Operation(summary = "Delete inventory record")
     public ResponseEntity<Void> deleteInventory(
             @PathVariable final UUID productId) {
         inventoryService.deleteInventory(productId);
         return ResponseEntity.noContent().build();
     }
-}
 
+    private ResponseEntity<List<InventoryResponse>> pageResponse(final InventoryPage page, final String accept) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .eTag(representationTag(InventoryETags.forPage(page.getItems(), page.getNextCursor()), accept))
+                .varyBy(HttpHeaders.ACCEPT);
+        if (page.getNextCursor() != null) {
+            String next = ServletUriComponentsBuilder.fromCurrentRequest()
+                    .replaceQueryParam("after", page.getNextCursor())
+                    .toUriString();
+            response.header(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"");
+            response.header(NEXT_CURSOR_HEADER, page.getNextCursor().toString());
+        }
+        return response.body(page.getItems());
+    }
+
+    private static <T> ResponseEntity<T> notModified(final String etag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).varyBy(HttpHeaders.ACCEPT).build();
+    }
+
+    /**
+     * Tag of the representation the client negotiates. The same rows in CBOR are different bytes,
+     * so they get their own strong tag.
+     */
+    private static String representationTag(final String etag, final String accept) {
+        return prefersCbor(accept) ? etag.substring(0, etag.length() - 1) + "+cbor\"" : etag;
+    }
+
+    /**
+     * Whether content negotiation picks CBOR: the most preferred accepted type names CBOR before
+     * anything JSON would satisfy, JSON being registered first and so winning wildcards.
+     */
+    private static boolean prefersCbor(final String accept) {
+        if (accept == null) {
+            return false;
+        }
+        List<MediaType> accepted = MediaType.parseMediaTypes(accept);
+        MimeTypeUtils.sortBySpecificity(accepted);
+        for (MediaType type : accepted) {
+            if (type.isConcrete() && type.isCompatibleWith(MediaType.APPLICATION_CBOR)) {
+                return true;
+            }
+            if (type.includes(MediaType.APPLICATION_JSON)) {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Format of a bulk body; the endpoints only consume CSV and NDJSON.
+     */
+    private static InventoryImportService.Format bodyFormat(final String contentType) {
+        return MediaType.parseMediaType(TEXT_CSV_VALUE).includes(MediaType.parseMediaType(contentType))
+                ? InventoryImportService.Format.CSV
+                : InventoryImportService.Format.NDJSON;
+    }
+
+    /**
+     * Whether an If-None-Match header names the current tag. Weak comparison applies, as RFC 9110
+     * requires for If-None-Match.
+     */
+    private static boolean matches(final String ifNoneMatch, final String etag) {
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if ("*".equals(tag) || etag.equals(tag.startsWith("W/") ? tag.substring(2) : tag)) {
+                return true;
+            }
+        }
+        return false;
+    }
 
+    private void writeLine(final JsonGenerator generator, final InventoryResponse row) {
+        try {
+            generator.writeObject(row);
+            generator.writeRaw('\n');
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+}
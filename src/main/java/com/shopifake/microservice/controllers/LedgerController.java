@@ -0,0 +1,52 @@
+package com.shopifake.microservice.controllers;
+
+import com.shopifake.microservice.dtos.InventoryHistoryPage;
+import com.shopifake.microservice.dtos.QuantityAsOfResponse;
+import com.shopifake.microservice.metrics.InventoryMetrics;
+import com.shopifake.microservice.metrics.TimedOperation;
+import com.shopifake.microservice.services.LedgerService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Adjustment history REST endpoints.
+ */
+@RestController
+@RequestMapping("/")
+@RequiredArgsConstructor
+@Tag(name = "History")
+public class LedgerController {
+
+    private final LedgerService ledgerService;
+
+    @GetMapping("/{productId}/history")
+    @TimedOperation(InventoryMetrics.Operation.HISTORY)
+    @Operation(summary = "List a product's adjustment history, newest first",
+            description = "Pass the returned nextCursor as before to read older entries.")
+    public ResponseEntity<InventoryHistoryPage> getHistory(
+            @PathVariable final UUID productId,
+            @RequestParam(required = false) final Long before,
+            @RequestParam(required = false) final Integer limit) {
+        return ResponseEntity.ok(ledgerService.getHistory(productId, before, limit));
+    }
+
+    @GetMapping("/{productId}/history/as-of")
+    @TimedOperation(InventoryMetrics.Operation.QUANTITY_AS_OF)
+    @Operation(summary = "Get a product's on-hand quantity at a point in time")
+    public ResponseEntity<QuantityAsOfResponse> getQuantityAsOf(
+            @PathVariable final UUID productId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) final LocalDateTime at) {
+        return ResponseEntity.ok(ledgerService.getQuantityAsOf(productId, at));
+    }
+}
@@ -0,0 +1,59 @@
+package com.shopifake.microservice.controllers;
+
+import com.shopifake.microservice.dtos.ReservationResponse;
+import com.shopifake.microservice.dtos.ReserveInventoryRequest;
+import com.shopifake.microservice.metrics.InventoryMetrics;
+import com.shopifake.microservice.metrics.TimedOperation;
+import com.shopifake.microservice.services.ReservationService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.UUID;
+
+/**
+ * Stock reservation REST endpoints.
+ */
+@RestController
+@RequestMapping("/")
+@RequiredArgsConstructor
+@Tag(name = "Reservations")
+public class ReservationController {
+
+    private final ReservationService reservationService;
+
+    @PostMapping("/{productId}/reservations")
+    @TimedOperation(InventoryMetrics.Operation.RESERVE)
+    @Operation(summary = "Hold stock for a checkout")
+    public ResponseEntity<ReservationResponse> reserve(
+            @PathVariable final UUID productId,
+            @Valid @RequestBody final ReserveInventoryRequest request) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(reservationService.reserve(productId, request));
+    }
+
+    @PostMapping("/reservations/{reservationId}/commit")
+    @TimedOperation(InventoryMetrics.Operation.COMMIT_RESERVATION)
+    @Operation(summary = "Commit a reservation into a stock decrement")
+    public ResponseEntity<ReservationResponse> commit(
+            @PathVariable final UUID reservationId) {
+        return ResponseEntity.ok(reservationService.commit(reservationId));
+    }
+
+    @DeleteMapping("/reservations/{reservationId}")
+    @TimedOperation(InventoryMetrics.Operation.RELEASE_RESERVATION)
+    @Operation(summary = "Release a reservation")
+    public ResponseEntity<Void> release(
+            @PathVariable final UUID reservationId) {
+        reservationService.release(reservationId);
+        return ResponseEntity.noContent().build();
+    }
+}
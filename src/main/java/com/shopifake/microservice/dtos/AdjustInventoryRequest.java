@@ -2,6 +2,7 @@ package com.shopifake.microservice.dtos;
 
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -20,6 +21,7 @@ public class AdjustInventoryRequest {
     private Integer quantityDelta;
 
     @NotBlank(message = "reason is required")
+    @Size(max = 255, message = "reason must be at most 255 characters")
     private String reason;
 }
 
@@ -0,0 +1,11 @@
+package com.shopifake.microservice.dtos;
+
+/**
+ * Result of applying a single line of a batch adjustment.
+ */
+public enum AdjustmentOutcome {
+    APPLIED,
+    NOT_FOUND,
+    INSUFFICIENT_STOCK,
+    INVALID
+}
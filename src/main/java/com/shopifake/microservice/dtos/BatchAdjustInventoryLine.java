@@ -0,0 +1,31 @@
+package com.shopifake.microservice.dtos;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+/**
+ * One adjustment within a batch, keyed by product.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchAdjustInventoryLine {
+
+    @NotNull(message = "productId is required")
+    private UUID productId;
+
+    @NotNull(message = "quantityDelta is required")
+    private Integer quantityDelta;
+
+    @NotBlank(message = "reason is required")
+    @Size(max = 255, message = "reason must be at most 255 characters")
+    private String reason;
+}
@@ -0,0 +1,23 @@
+package com.shopifake.microservice.dtos;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Payload to apply many independent inventory adjustments at once.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchAdjustInventoryRequest {
+
+    @NotEmpty(message = "adjustments must not be empty")
+    private List<@Valid BatchAdjustInventoryLine> adjustments;
+}
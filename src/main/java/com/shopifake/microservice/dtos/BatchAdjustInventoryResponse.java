@@ -0,0 +1,20 @@
+package com.shopifake.microservice.dtos;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * Summary and per-line results of a batch adjustment, in request order.
+ */
+@Value
+@Builder
+public class BatchAdjustInventoryResponse {
+
+    int applied;
+
+    int rejected;
+
+    List<BatchAdjustmentResult> results;
+}
@@ -0,0 +1,24 @@
+package com.shopifake.microservice.dtos;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.UUID;
+
+/**
+ * Per-line status returned by a batch adjustment.
+ */
+@Value
+@Builder
+public class BatchAdjustmentResult {
+
+    int index;
+
+    UUID productId;
+
+    AdjustmentOutcome outcome;
+
+    Integer availableQuantity;
+
+    String message;
+}
@@ -0,0 +1,25 @@
+package com.shopifake.microservice.dtos;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Payload to split a product's stock into slot rows.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ConfigureSlotsRequest {
+
+    /**
+     * Number of slots, or 0 to keep all stock on the product's own row.
+     */
+    @NotNull(message = "slotCount is required")
+    @Min(value = 0, message = "slotCount must not be negative")
+    private Integer slotCount;
+}
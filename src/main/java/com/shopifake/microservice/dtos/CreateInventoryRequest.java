@@ -23,6 +23,12 @@ public class CreateInventoryRequest {
 
     @Min(value = 0, message = "initialQuantity cannot be negative")
     private int initialQuantity;
+
+    /**
+     * Sellable stock at or below which the item is reported as low stock; 0 disables it.
+     */
+    @Min(value = 0, message = "reorderThreshold cannot be negative")
+    private int reorderThreshold;
 }
 
 
@@ -0,0 +1,21 @@
+package com.shopifake.microservice.dtos;
+
+import com.shopifake.microservice.entities.InventoryStatus;
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * Compact stock view returned by bulk lookups.
+ */
+@Value
+@Builder
+public class InventoryAvailability {
+
+    int availableQuantity;
+
+    int reservedQuantity;
+
+    int availableToSell;
+
+    InventoryStatus status;
+}
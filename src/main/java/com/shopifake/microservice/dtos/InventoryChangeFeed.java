@@ -0,0 +1,21 @@
+package com.shopifake.microservice.dtos;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * One page of the inventory change feed.
+ */
+@Value
+@Builder
+public class InventoryChangeFeed {
+
+    List<InventoryChangeResponse> changes;
+
+    /**
+     * Cursor to pass as {@code after} on the next poll; unchanged when no new changes were visible.
+     */
+    long nextCursor;
+}
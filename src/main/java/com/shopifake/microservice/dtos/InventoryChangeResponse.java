@@ -0,0 +1,36 @@
+package com.shopifake.microservice.dtos;
+
+import com.shopifake.microservice.entities.InventoryStatus;
+import com.shopifake.microservice.events.InventoryChangeType;
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * One entry of the inventory change feed.
+ */
+@Value
+@Builder
+public class InventoryChangeResponse {
+
+    long id;
+
+    /**
+     * Position in the feed; passing it as {@code after} resumes just after this change.
+     */
+    long sequence;
+
+    UUID productId;
+
+    InventoryChangeType type;
+
+    Integer availableQuantity;
+
+    Integer reservedQuantity;
+
+    InventoryStatus status;
+
+    LocalDateTime occurredAt;
+}
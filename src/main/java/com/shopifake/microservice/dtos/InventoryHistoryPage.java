@@ -0,0 +1,21 @@
+package com.shopifake.microservice.dtos;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * One page of a product's adjustment history, newest first.
+ */
+@Value
+@Builder
+public class InventoryHistoryPage {
+
+    List<LedgerEntryResponse> entries;
+
+    /**
+     * Cursor to pass as {@code before} for older entries, or {@code null} when this is the last page.
+     */
+    Long nextCursor;
+}
@@ -0,0 +1,26 @@
+package com.shopifake.microservice.dtos;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.UUID;
+
+/**
+ * A row of a catalog import or reconciliation that was not applied.
+ */
+@Value
+@Builder
+public class InventoryImportError {
+
+    /**
+     * 1-based line number in the request body.
+     */
+    long line;
+
+    /**
+     * Product named by the row, when it could be read.
+     */
+    UUID productId;
+
+    String message;
+}
@@ -0,0 +1,41 @@
+package com.shopifake.microservice.dtos;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * Totals of a streaming catalog import, with the first rejected rows.
+ */
+@Value
+@Builder
+public class InventoryImportResponse {
+
+    /**
+     * Non-blank rows read from the body, header excluded.
+     */
+    long received;
+
+    long created;
+
+    /**
+     * Rows naming a product that already had inventory or appeared earlier in the import.
+     */
+    long duplicates;
+
+    /**
+     * Rows that could not be parsed or failed validation.
+     */
+    long rejected;
+
+    /**
+     * Rejected and duplicate rows in the order they were found, up to the configured maximum.
+     */
+    List<InventoryImportError> errors;
+
+    /**
+     * Whether more rows failed than are listed in {@link #errors}.
+     */
+    boolean errorsTruncated;
+}
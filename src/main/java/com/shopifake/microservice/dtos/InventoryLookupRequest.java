@@ -0,0 +1,24 @@
+package com.shopifake.microservice.dtos;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Payload to look up stock for many products at once.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventoryLookupRequest {
+
+    @NotEmpty(message = "productIds must not be empty")
+    private List<@NotNull UUID> productIds;
+}
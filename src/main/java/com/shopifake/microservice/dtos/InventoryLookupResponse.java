@@ -0,0 +1,20 @@
+package com.shopifake.microservice.dtos;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Result of a bulk lookup: stock keyed by product id, plus the ids that have no inventory row.
+ */
+@Value
+@Builder
+public class InventoryLookupResponse {
+
+    Map<UUID, InventoryAvailability> items;
+
+    List<UUID> missing;
+}
@@ -0,0 +1,22 @@
+package com.shopifake.microservice.dtos;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * One keyset page of inventory rows.
+ */
+@Value
+@Builder
+public class InventoryPage {
+
+    List<InventoryResponse> items;
+
+    /**
+     * Cursor for the following page, or {@code null} when this is the last page.
+     */
+    UUID nextCursor;
+}
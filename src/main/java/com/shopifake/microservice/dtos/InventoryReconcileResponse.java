@@ -0,0 +1,47 @@
+package com.shopifake.microservice.dtos;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * Totals of a snapshot reconciliation, with the first rows that were not applied.
+ */
+@Value
+@Builder
+public class InventoryReconcileResponse {
+
+    /**
+     * Non-blank rows read from the body, header excluded.
+     */
+    long received;
+
+    /**
+     * Products whose on-hand quantity was adjusted to the snapshot.
+     */
+    long changed;
+
+    long unchanged;
+
+    /**
+     * Rows naming a product that has no inventory.
+     */
+    long missing;
+
+    /**
+     * Rows that could not be parsed, failed validation, repeated a product or fell below the
+     * reserved quantity.
+     */
+    long rejected;
+
+    /**
+     * Missing and rejected rows, up to the configured maximum.
+     */
+    List<InventoryImportError> errors;
+
+    /**
+     * Whether more rows failed than are listed in {@link #errors}.
+     */
+    boolean errorsTruncated;
+}
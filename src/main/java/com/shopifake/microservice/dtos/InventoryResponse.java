@@ -3,6 +3,7 @@ package com.shopifake.microservice.dtos;
 import com.shopifake.microservice.entities.InventoryStatus;
 import lombok.Builder;
 import lombok.Value;
+import lombok.extern.jackson.Jacksonized;
 
 import java.time.LocalDateTime;
 import java.util.UUID;
@@ -12,6 +13,7 @@ import java.util.UUID;
  */
 @Value
 @Builder
+@Jacksonized
 public class InventoryResponse {
 
     UUID id;
@@ -20,13 +22,24 @@ public class InventoryResponse {
 
     int availableQuantity;
 
+    int reservedQuantity;
+
+    int availableToSell;
+
     InventoryStatus status;
 
+    int reorderThreshold;
+
     LocalDateTime replenishmentAt;
 
     LocalDateTime createdAt;
 
     LocalDateTime updatedAt;
+
+    /**
+     * Row version, bumped by every write to the row.
+     */
+    long version;
 }
 
 
@@ -0,0 +1,27 @@
+package com.shopifake.microservice.dtos;
+
+import com.shopifake.microservice.entities.InventoryStatus;
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.Map;
+
+/**
+ * Catalog-wide totals: inventory rows per status and units on hand.
+ */
+@Value
+@Builder
+public class InventorySummaryResponse {
+
+    /**
+     * Inventory rows per status; every status is present.
+     */
+    Map<InventoryStatus, Long> items;
+
+    long totalItems;
+
+    /**
+     * Sum of on-hand quantities, reserved units included.
+     */
+    long unitsOnHand;
+}
@@ -0,0 +1,24 @@
+package com.shopifake.microservice.dtos;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+/**
+ * One entry of a product's adjustment history.
+ */
+@Value
+@Builder
+public class LedgerEntryResponse {
+
+    long id;
+
+    int delta;
+
+    int quantityAfter;
+
+    String reason;
+
+    LocalDateTime recordedAt;
+}
@@ -0,0 +1,21 @@
+package com.shopifake.microservice.dtos;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * On-hand quantity of a product at a point in time.
+ */
+@Value
+@Builder
+public class QuantityAsOfResponse {
+
+    UUID productId;
+
+    LocalDateTime at;
+
+    int availableQuantity;
+}
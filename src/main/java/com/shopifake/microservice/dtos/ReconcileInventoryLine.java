@@ -0,0 +1,29 @@
+package com.shopifake.microservice.dtos;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+/**
+ * One product of an on-hand snapshot to reconcile against.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReconcileInventoryLine {
+
+    @NotNull(message = "productId is required")
+    private UUID productId;
+
+    /**
+     * Absolute on-hand quantity, slot stock included.
+     */
+    @Min(value = 0, message = "quantity cannot be negative")
+    private int quantity;
+}
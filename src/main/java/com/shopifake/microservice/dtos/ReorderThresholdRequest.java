@@ -0,0 +1,25 @@
+package com.shopifake.microservice.dtos;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Payload to change a product's reorder threshold.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReorderThresholdRequest {
+
+    /**
+     * Sellable stock at or below which the item is reported as low stock, or 0 to disable it.
+     */
+    @NotNull(message = "reorderThreshold is required")
+    @Min(value = 0, message = "reorderThreshold must not be negative")
+    private Integer reorderThreshold;
+}
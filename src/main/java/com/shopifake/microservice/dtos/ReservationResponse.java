@@ -0,0 +1,27 @@
+package com.shopifake.microservice.dtos;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * DTO returned for reservation operations.
+ */
+@Value
+@Builder
+public class ReservationResponse {
+
+    UUID id;
+
+    UUID productId;
+
+    int quantity;
+
+    ReservationStatus status;
+
+    LocalDateTime expiresAt;
+
+    LocalDateTime createdAt;
+}
@@ -0,0 +1,9 @@
+package com.shopifake.microservice.dtos;
+
+/**
+ * State of a reservation as reported to the caller.
+ */
+public enum ReservationStatus {
+    HELD,
+    COMMITTED
+}
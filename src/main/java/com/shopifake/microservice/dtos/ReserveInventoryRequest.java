@@ -0,0 +1,26 @@
+package com.shopifake.microservice.dtos;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Payload to hold stock for a checkout.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReserveInventoryRequest {
+
+    @NotNull(message = "quantity is required")
+    @Min(value = 1, message = "quantity must be positive")
+    private Integer quantity;
+
+    @Positive(message = "ttlSeconds must be positive")
+    private Long ttlSeconds;
+}
@@ -0,0 +1,9 @@
+package com.shopifake.microservice.entities;
+
+/**
+ * Mutations that accept an {@code Idempotency-Key}.
+ */
+public enum IdempotentOperation {
+    CREATE,
+    ADJUST
+}
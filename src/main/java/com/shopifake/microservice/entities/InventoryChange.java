@@ -0,0 +1,67 @@
+package com.shopifake.microservice.entities;
+
+import com.shopifake.microservice.events.InventoryChangeType;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Outbox record of one inventory change, written in the transaction that made the change.
+ */
+@Entity
+@Table(name = "inventory_changes", indexes = {
+        @Index(name = "idx_inventory_changes_feed", columnList = "feed_seq, id, occurred_at, product_id, change_type, "
+                + "available_quantity, reserved_quantity, status")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventoryChange {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "product_id", nullable = false, updatable = false)
+    private UUID productId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "change_type", nullable = false, updatable = false, length = 40)
+    private InventoryChangeType changeType;
+
+    /**
+     * Quantities and status after the change; {@code null} when the row was not read back.
+     */
+    @Column(name = "available_quantity", updatable = false)
+    private Integer availableQuantity;
+
+    @Column(name = "reserved_quantity", updatable = false)
+    private Integer reservedQuantity;
+
+    @Enumerated(EnumType.STRING)
+    @Column(updatable = false, length = 20)
+    private InventoryStatus status;
+
+    @Column(name = "occurred_at", nullable = false, updatable = false)
+    private LocalDateTime occurredAt;
+
+    /**
+     * Position in the change feed, assigned after commit; {@code null} until then.
+     */
+    @Column(name = "feed_seq", insertable = false)
+    private Long feedSeq;
+}
@@ -8,6 +8,7 @@ import jakarta.persistence.Id;
 import jakarta.persistence.PrePersist;
 import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -22,7 +23,7 @@ import java.util.UUID;
 @Entity
 @Table(name = "inventory_items")
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 public class InventoryItem {
@@ -37,10 +38,19 @@ public class InventoryItem {
     @Column(name = "available_quantity", nullable = false)
     private int availableQuantity;
 
+    @Column(name = "reserved_quantity", nullable = false)
+    private int reservedQuantity;
+
     @Enumerated(EnumType.STRING)
     @Column(nullable = false, length = 20)
     private InventoryStatus status;
 
+    /**
+     * Sellable stock at or below which the row is {@link InventoryStatus#LOW_STOCK}; 0 disables it.
+     */
+    @Column(name = "reorder_threshold", nullable = false)
+    private int reorderThreshold;
+
     @Column(name = "replenishment_at")
     private LocalDateTime replenishmentAt;
 
@@ -50,6 +60,21 @@ public class InventoryItem {
     @Column(name = "updated_at", nullable = false)
     private LocalDateTime updatedAt;
 
+    /**
+     * Number of stock slots the product is split into, or 0 when all stock is held by this row.
+     * When sharded, on-hand stock is this row's quantity plus the sum of its slots.
+     */
+    @Column(name = "slot_count", nullable = false)
+    private int slotCount;
+
+    /**
+     * Bumped by every write, including the hand-written JDBC updates, so optimistic
+     * adjustments detect any concurrent change.
+     */
+    @Version
+    @Column(nullable = false)
+    private long version;
+
     @PrePersist
     void onCreate() {
         LocalDateTime now = LocalDateTime.now();
@@ -0,0 +1,49 @@
+package com.shopifake.microservice.entities;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Append-only record of one change to a product's on-hand quantity.
+ */
+@Entity
+@Table(name = "inventory_ledger", indexes = {
+        @Index(name = "idx_ledger_product", columnList = "product_id, id")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventoryLedgerEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "product_id", nullable = false, updatable = false)
+    private UUID productId;
+
+    @Column(nullable = false, updatable = false)
+    private int delta;
+
+    @Column(name = "quantity_after", nullable = false, updatable = false)
+    private int quantityAfter;
+
+    @Column(updatable = false)
+    private String reason;
+
+    @Column(name = "recorded_at", nullable = false, updatable = false)
+    private LocalDateTime recordedAt;
+}
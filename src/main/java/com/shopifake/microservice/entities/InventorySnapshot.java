@@ -0,0 +1,54 @@
+package com.shopifake.microservice.entities;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Quantity of a product as of one ledger entry, so point-in-time reads start here instead of
+ * replaying the ledger and older ledger history can be compacted away.
+ */
+@Entity
+@Table(name = "inventory_snapshots", indexes = {
+        @Index(name = "idx_snapshot_product_taken", columnList = "product_id, taken_at"),
+        @Index(name = "idx_snapshot_product_entry", columnList = "product_id, last_entry_id")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventorySnapshot {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "product_id", nullable = false, updatable = false)
+    private UUID productId;
+
+    @Column(name = "available_quantity", nullable = false, updatable = false)
+    private int availableQuantity;
+
+    /**
+     * Newest ledger entry reflected in this snapshot.
+     */
+    @Column(name = "last_entry_id", nullable = false, updatable = false)
+    private long lastEntryId;
+
+    /**
+     * When that entry was recorded.
+     */
+    @Column(name = "taken_at", nullable = false, updatable = false)
+    private LocalDateTime takenAt;
+}
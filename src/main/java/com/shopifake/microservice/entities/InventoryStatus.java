@@ -5,8 +5,21 @@ package com.shopifake.microservice.entities;
  */
 public enum InventoryStatus {
     IN_STOCK,
+    /**
+     * Sellable stock is at or below the item's reorder threshold but not yet exhausted.
+     */
+    LOW_STOCK,
     OUT_OF_STOCK,
-    BACKORDERED
-}
-
+    BACKORDERED;
 
+    /**
+     * Status for a row with the given sellable (available minus reserved) stock. Every write that
+     * changes sellable stock applies this rule, in Java or as the equivalent SQL {@code CASE}.
+     */
+    public static InventoryStatus of(final int sellable, final int reorderThreshold) {
+        if (sellable <= 0) {
+            return OUT_OF_STOCK;
+        }
+        return sellable <= reorderThreshold ? LOW_STOCK : IN_STOCK;
+    }
+}
@@ -0,0 +1,14 @@
+package com.shopifake.microservice.events;
+
+/**
+ * Kind of mutation applied to an inventory row.
+ */
+public enum InventoryChangeType {
+    CREATED,
+    ADJUSTED,
+    RESERVED,
+    RESERVATION_COMMITTED,
+    RESERVATION_RELEASED,
+    REORDER_THRESHOLD_CHANGED,
+    DELETED
+}
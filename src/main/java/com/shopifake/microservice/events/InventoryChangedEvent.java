@@ -0,0 +1,42 @@
+package com.shopifake.microservice.events;
+
+import com.shopifake.microservice.entities.InventoryItem;
+import lombok.AllArgsConstructor;
+import lombok.Value;
+
+import java.util.UUID;
+
+/**
+ * Published synchronously, inside the mutating transaction, whenever an inventory row changes.
+ * Listeners therefore run before commit and may write in the same transaction.
+ */
+@Value
+@AllArgsConstructor
+public class InventoryChangedEvent {
+
+    InventoryChangeType type;
+
+    UUID productId;
+
+    /**
+     * Row state after the change; the last known state for deletions.
+     */
+    InventoryItem item;
+
+    /**
+     * Net change of {@code available_quantity} made by this change; 0 for creations and deletions.
+     */
+    int quantityDelta;
+
+    /**
+     * Net change of {@code reserved_quantity} made by this change; 0 for creations and deletions.
+     */
+    int reservedDelta;
+
+    /**
+     * A change whose quantity deltas are not tracked, such as a creation or deletion.
+     */
+    public InventoryChangedEvent(final InventoryChangeType type, final UUID productId, final InventoryItem item) {
+        this(type, productId, item, 0, 0);
+    }
+}
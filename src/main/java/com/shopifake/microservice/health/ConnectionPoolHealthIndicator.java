@@ -0,0 +1,82 @@
+package com.shopifake.microservice.health;
+
+import com.shopifake.microservice.config.InventoryProperties;
+import com.zaxxer.hikari.HikariConfigMXBean;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.jdbc.DataSourceUnwrapper;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Readiness indicator for connection pool saturation.
+ * Reports Hikari's active, idle and pending counts and the recent percentiles of its acquire timer,
+ * and goes {@code OUT_OF_SERVICE} while the configured acquire percentile is above the threshold,
+ * so the instance stops receiving traffic before requests start timing out on the pool. Everything
+ * is read from pool and meter state, so a probe never touches the database.
+ */
+@Component
+public class ConnectionPoolHealthIndicator implements HealthIndicator {
+
+    /**
+     * Hikari's connection acquire timer, tagged by pool name.
+     */
+    static final String ACQUIRE_TIMER = "hikaricp.connections.acquire";
+
+    private final DataSource dataSource;
+    private final MeterRegistry meterRegistry;
+    private final InventoryProperties.Health config;
+
+    public ConnectionPoolHealthIndicator(final DataSource dataSource, final MeterRegistry meterRegistry,
+                                         final InventoryProperties properties) {
+        this.dataSource = dataSource;
+        this.meterRegistry = meterRegistry;
+        this.config = properties.getHealth();
+    }
+
+    @Override
+    public Health health() {
+        HikariDataSource pool = DataSourceUnwrapper.unwrap(dataSource, HikariConfigMXBean.class,
+                HikariDataSource.class);
+        if (pool == null) {
+            return Health.unknown().withDetail("pool", "Not a Hikari pool").build();
+        }
+        HikariPoolMXBean stats = pool.getHikariPoolMXBean();
+        if (stats == null) {
+            return Health.up().withDetail("pool", "Not started").build();
+        }
+        Health.Builder health = Health.up();
+        Timer acquire = meterRegistry.find(ACQUIRE_TIMER).tag("pool", pool.getPoolName()).timer();
+        if (acquire != null) {
+            HistogramSnapshot snapshot = acquire.takeSnapshot();
+            double acquireMillis = snapshot.max(TimeUnit.MILLISECONDS);
+            for (ValueAtPercentile percentile : snapshot.percentileValues()) {
+                health.withDetail("acquireP" + Math.round(percentile.percentile() * 100) + "Millis",
+                        percentile.value(TimeUnit.MILLISECONDS));
+                if (percentile.percentile() == config.getAcquirePercentile()) {
+                    acquireMillis = percentile.value(TimeUnit.MILLISECONDS);
+                }
+            }
+            if (acquireMillis > config.getAcquireThreshold().toMillis()) {
+                health.outOfService();
+            }
+            health.withDetail("acquireMaxMillis", snapshot.max(TimeUnit.MILLISECONDS));
+        }
+        return health
+                .withDetail("pool", pool.getPoolName())
+                .withDetail("active", stats.getActiveConnections())
+                .withDetail("idle", stats.getIdleConnections())
+                .withDetail("pending", stats.getThreadsAwaitingConnection())
+                .withDetail("max", pool.getMaximumPoolSize())
+                .withDetail("acquireThresholdMillis", config.getAcquireThreshold().toMillis())
+                .build();
+    }
+}
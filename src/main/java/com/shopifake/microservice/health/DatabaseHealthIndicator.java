@@ -1,63 +1,116 @@
 package com.shopifake.microservice.health;
 
+import com.shopifake.microservice.config.InventoryProperties;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.actuate.health.Health;
 import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
 import javax.sql.DataSource;
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
 
 /**
  * Custom health indicator for database connectivity.
- * Checks if the database connection is available and responsive.
+ * The connection is validated on a background schedule and probes only read the last result, so a
+ * probe never waits for, or takes, a pool connection. A result older than the configured maximum
+ * age means the check itself is stuck and is reported as down.
  */
 @Component
+@Slf4j
 public class DatabaseHealthIndicator implements HealthIndicator {
 
     /**
-     * Timeout for database connection check in seconds.
+     * DataSource to check.
      */
-    private static final int CONNECTION_TIMEOUT = 3;
+    private final DataSource dataSource;
 
     /**
-     * DataSource to check.
+     * Validation timeout and maximum result age.
      */
-    private final DataSource dataSource;
+    private final InventoryProperties.Health config;
+
+    private final Clock clock;
+
+    /**
+     * Outcome of the last check, or {@code null} before the first one.
+     */
+    private volatile CheckResult lastResult;
 
     /**
      * Constructor.
      *
      * @param dataSource the data source to check
+     * @param properties inventory properties holding the health settings
+     * @param clock      time source for check timestamps and the result age
      */
-    public DatabaseHealthIndicator(final DataSource dataSource) {
+    public DatabaseHealthIndicator(final DataSource dataSource, final InventoryProperties properties,
+                                   final Clock clock) {
         this.dataSource = dataSource;
+        this.config = properties.getHealth();
+        this.clock = clock;
     }
 
     /**
-     * Check database health.
-     *
-     * @return health status
+     * Validate a pool connection and cache the outcome for probes.
      */
-    @Override
-    public Health health() {
+    @Scheduled(fixedDelayString = "${inventory.health.check-interval:PT5S}")
+    public void check() {
+        Instant startedAt = clock.instant();
+        Health result;
         try (Connection connection = dataSource.getConnection()) {
-            if (connection.isValid(CONNECTION_TIMEOUT)) {
-                return Health.up()
+            if (connection.isValid((int) Math.max(config.getValidationTimeout().toSeconds(), 1))) {
+                result = Health.up()
                         .withDetail("database", "Available")
                         .withDetail("validationQuery", "Connection.isValid()")
                         .build();
             } else {
-                return Health.down()
+                result = Health.down()
                         .withDetail("database", "Connection validation failed")
                         .build();
             }
-        } catch (SQLException e) {
-            return Health.down()
+        } catch (SQLException | RuntimeException e) {
+            // Limiter rejections and pool timeouts surface as runtime exceptions
+            log.warn("Database health check failed: {}", e.getMessage());
+            result = Health.down()
                     .withDetail("database", "Unavailable")
-                    .withDetail("error", e.getMessage())
+                    .withDetail("error", String.valueOf(e.getMessage()))
                     .build();
         }
+        Instant finishedAt = clock.instant();
+        lastResult = new CheckResult(Health.status(result.getStatus())
+                .withDetails(result.getDetails())
+                .withDetail("checkedAt", finishedAt.toString())
+                .withDetail("checkMillis", Duration.between(startedAt, finishedAt).toMillis())
+                .build(), finishedAt);
     }
-}
 
+    /**
+     * Report the last check without touching the database.
+     *
+     * @return health status
+     */
+    @Override
+    public Health health() {
+        CheckResult result = lastResult;
+        if (result == null) {
+            return Health.unknown()
+                    .withDetail("database", "Not checked yet")
+                    .build();
+        }
+        if (Duration.between(result.checkedAt(), clock.instant()).compareTo(config.getMaxAge()) > 0) {
+            return Health.down()
+                    .withDetail("database", "Check overdue")
+                    .withDetail("checkedAt", result.checkedAt().toString())
+                    .build();
+        }
+        return result.health();
+    }
+
+    private record CheckResult(Health health, Instant checkedAt) {
+    }
+}
@@ -0,0 +1,32 @@
+package com.shopifake.microservice.jobs;
+
+import com.shopifake.microservice.config.InventoryProperties;
+import com.shopifake.microservice.services.ChangeFeedService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Gives committed change records their feed positions. Every instance schedules it, but only the
+ * one holding the sequencer lock positions records, so positions follow the order in which records
+ * were found committed and writers never wait on each other for a place in the feed.
+ */
+@Component
+@RequiredArgsConstructor
+public class ChangeFeedSequencer {
+
+    private final ChangeFeedService changeFeedService;
+    private final InventoryProperties properties;
+
+    /**
+     * Position every committed record that has no position yet, one short transaction per batch.
+     */
+    @Scheduled(fixedDelayString = "${inventory.outbox.sequence-interval:PT0.2S}")
+    public void sequenceChanges() {
+        int batchSize = properties.getOutbox().getSequenceBatchSize();
+        int sequenced;
+        do {
+            sequenced = changeFeedService.sequenceChanges(batchSize);
+        } while (sequenced >= batchSize);
+    }
+}
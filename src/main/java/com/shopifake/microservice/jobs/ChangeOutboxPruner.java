@@ -0,0 +1,41 @@
+package com.shopifake.microservice.jobs;
+
+import com.shopifake.microservice.config.InventoryProperties;
+import com.shopifake.microservice.services.ChangeFeedService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Deletes change feed history older than the retention period.
+ * Each run prunes from the head of the outbox in bounded batches, one short transaction per batch.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ChangeOutboxPruner {
+
+    private final ChangeFeedService changeFeedService;
+    private final InventoryProperties properties;
+
+    /**
+     * Prune expired change records.
+     */
+    @Scheduled(fixedDelayString = "${inventory.outbox.prune-interval:PT1M}")
+    public void pruneChanges() {
+        int batchSize = properties.getOutbox().getPruneBatchSize();
+        int maxBatches = properties.getOutbox().getPruneMaxBatches();
+        int pruned = 0;
+        for (int batch = 0; batch < maxBatches; batch++) {
+            int deleted = changeFeedService.pruneExpiredChanges(batchSize);
+            pruned += deleted;
+            if (deleted < batchSize) {
+                break;
+            }
+        }
+        if (pruned > 0) {
+            log.info("Pruned {} change feed records", pruned);
+        }
+    }
+}
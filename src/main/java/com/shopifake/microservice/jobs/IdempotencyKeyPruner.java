@@ -0,0 +1,41 @@
+package com.shopifake.microservice.jobs;
+
+import com.shopifake.microservice.config.InventoryProperties;
+import com.shopifake.microservice.services.IdempotencyService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Deletes idempotency keys older than the retention period.
+ * Each run prunes the oldest keys in bounded batches, one short transaction per batch.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class IdempotencyKeyPruner {
+
+    private final IdempotencyService idempotencyService;
+    private final InventoryProperties properties;
+
+    /**
+     * Prune expired idempotency keys.
+     */
+    @Scheduled(fixedDelayString = "${inventory.idempotency.prune-interval:PT1M}")
+    public void pruneKeys() {
+        int batchSize = properties.getIdempotency().getPruneBatchSize();
+        int maxBatches = properties.getIdempotency().getPruneMaxBatches();
+        int pruned = 0;
+        for (int batch = 0; batch < maxBatches; batch++) {
+            int deleted = idempotencyService.pruneExpiredKeys(batchSize);
+            pruned += deleted;
+            if (deleted < batchSize) {
+                break;
+            }
+        }
+        if (pruned > 0) {
+            log.info("Pruned {} idempotency keys", pruned);
+        }
+    }
+}
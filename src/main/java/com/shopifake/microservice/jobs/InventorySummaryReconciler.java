@@ -0,0 +1,30 @@
+package com.shopifake.microservice.jobs;
+
+import com.shopifake.microservice.summary.InventorySummary;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Periodically corrects drift between the inventory summary and the inventory rows. Every instance
+ * schedules it, but only the one holding the correction lock runs it.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class InventorySummaryReconciler {
+
+    private final InventorySummary inventorySummary;
+
+    /**
+     * Correct the summary.
+     */
+    @Scheduled(fixedDelayString = "${inventory.summary.reconcile-interval:PT10M}")
+    public void reconcileSummary() {
+        int corrected = inventorySummary.reconcile();
+        if (corrected > 0) {
+            log.warn("Corrected inventory summary drift for {} statuses", corrected);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.shopifake.microservice.jobs;
+
+import com.shopifake.microservice.config.InventoryProperties;
+import com.shopifake.microservice.services.LedgerService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps the adjustment ledger bounded: creates partitions ahead of time, snapshots products
+ * whose ledger moved, then compacts history and superseded snapshots older than the retention period.
+ * Snapshots are taken before compaction so compacted ranges stay readable.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class LedgerMaintenanceJob {
+
+    private final LedgerService ledgerService;
+    private final InventoryProperties properties;
+
+    /**
+     * Run one maintenance pass.
+     */
+    @Scheduled(fixedDelayString = "${inventory.ledger.snapshot-interval:PT1H}")
+    public void maintainLedger() {
+        int partitions = ledgerService.ensurePartitions();
+        int snapshots = ledgerService.takeSnapshots();
+        int batchSize = properties.getLedger().getCompactionBatchSize();
+        int compacted = 0;
+        int removed;
+        do {
+            removed = ledgerService.compactLedger();
+            compacted += removed;
+        } while (removed >= batchSize);
+        int pruned = 0;
+        do {
+            removed = ledgerService.pruneSnapshots();
+            pruned += removed;
+        } while (removed >= batchSize);
+        if (partitions > 0 || snapshots > 0 || compacted > 0 || pruned > 0) {
+            log.info("Ledger maintenance: {} partitions created, {} snapshots taken, {} compacted, {} snapshots pruned",
+                    partitions, snapshots, compacted, pruned);
+        }
+    }
+}
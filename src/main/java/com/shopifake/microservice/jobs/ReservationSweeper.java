@@ -0,0 +1,42 @@
+package com.shopifake.microservice.jobs;
+
+import com.shopifake.microservice.config.InventoryProperties;
+import com.shopifake.microservice.services.ReservationService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Returns stock held by abandoned checkouts.
+ * Each run walks the expiry index in bounded batches, one short transaction per batch,
+ * and stops early once the backlog is drained.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ReservationSweeper {
+
+    private final ReservationService reservationService;
+    private final InventoryProperties properties;
+
+    /**
+     * Release expired reservations.
+     */
+    @Scheduled(fixedDelayString = "${inventory.reservations.sweep-interval:PT5S}")
+    public void sweepExpiredReservations() {
+        int batchSize = properties.getReservations().getSweepBatchSize();
+        int maxBatches = properties.getReservations().getSweepMaxBatches();
+        int swept = 0;
+        for (int batch = 0; batch < maxBatches; batch++) {
+            int found = reservationService.expireReservations(batchSize);
+            swept += found;
+            if (found < batchSize) {
+                break;
+            }
+        }
+        if (swept > 0) {
+            log.info("Released {} expired reservations", swept);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.shopifake.microservice.jobs;
+
+import com.shopifake.microservice.services.StockSlotService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+/**
+ * Evens out the stock slots of sharded products so decrements keep finding a slot with stock.
+ * Each product is rebalanced in its own short transaction.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class StockSlotRebalancer {
+
+    private final StockSlotService stockSlotService;
+
+    /**
+     * Rebalance every sharded product whose slots have drifted apart.
+     */
+    @Scheduled(fixedDelayString = "${inventory.sharding.rebalance-interval:PT5S}")
+    public void rebalanceSlots() {
+        int rebalanced = 0;
+        for (UUID productId : stockSlotService.shardedProducts()) {
+            try {
+                if (stockSlotService.rebalance(productId)) {
+                    rebalanced++;
+                }
+            } catch (RuntimeException ex) {
+                log.warn("Could not rebalance stock slots for {}: {}", productId, ex.getMessage());
+            }
+        }
+        if (rebalanced > 0) {
+            log.debug("Rebalanced stock slots for {} products", rebalanced);
+        }
+    }
+}
@@ -0,0 +1,224 @@
+package com.shopifake.microservice.metrics;
+
+import com.shopifake.microservice.concurrency.ConcurrencyLimitExceededException;
+import com.shopifake.microservice.services.AdjustmentTimeoutException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Inventory-domain meters: per-operation timers tagged by outcome, adjustment delta histograms and
+ * counters for rejected adjustments and unknown products.
+ * Every meter is registered up front and indexed by enum ordinal, so recording on the hot path is
+ * a clock read and an array lookup, with no tag or builder allocation per call.
+ */
+@Component
+public class InventoryMetrics {
+
+    /**
+     * Timed inventory operations.
+     */
+    public enum Operation {
+        CREATE,
+        IMPORT,
+        RECONCILE,
+        GET,
+        LIST,
+        STREAM,
+        LOOKUP,
+        SUMMARY,
+        LOW_STOCK,
+        ADJUST,
+        ADJUST_BATCH,
+        CONFIGURE_SLOTS,
+        CONFIGURE_THRESHOLD,
+        DELETE,
+        RESERVE,
+        COMMIT_RESERVATION,
+        RELEASE_RESERVATION,
+        HISTORY,
+        QUANTITY_AS_OF,
+        CHANGES
+    }
+
+    /**
+     * How a timed operation ended.
+     */
+    public enum Outcome {
+        SUCCESS,
+        /**
+         * Refused with a client error, such as an unknown product or insufficient stock.
+         */
+        REJECTED,
+        /**
+         * Shed by the database concurrency limiter.
+         */
+        SHED,
+        /**
+         * Withdrawn unapplied after waiting too long for a group commit.
+         */
+        TIMEOUT,
+        /**
+         * Abandoned because of concurrent writers, such as exhausted optimistic retries.
+         */
+        CONFLICT,
+        ERROR
+    }
+
+    /**
+     * Path an adjustment was applied through.
+     */
+    public enum Source {
+        SINGLE,
+        GROUP_COMMIT,
+        BATCH,
+        RECONCILE
+    }
+
+    private final Timer[][] operations;
+    private final DistributionSummary[] increases;
+    private final DistributionSummary[] decreases;
+    private final Counter[] insufficientStock;
+    private final Counter[] notFound;
+    private final Counter[] replays;
+
+    public InventoryMetrics(final MeterRegistry meterRegistry) {
+        this.operations = new Timer[Operation.values().length][Outcome.values().length];
+        for (Operation operation : Operation.values()) {
+            for (Outcome outcome : Outcome.values()) {
+                operations[operation.ordinal()][outcome.ordinal()] = Timer.builder("inventory.operation")
+                        .description("Latency of inventory API operations")
+                        .tag("operation", tagValue(operation))
+                        .tag("outcome", tagValue(outcome))
+                        .register(meterRegistry);
+            }
+        }
+        this.increases = new DistributionSummary[Source.values().length];
+        this.decreases = new DistributionSummary[Source.values().length];
+        this.insufficientStock = new Counter[Source.values().length];
+        for (Source source : Source.values()) {
+            increases[source.ordinal()] = deltaSummary(meterRegistry, source, "increase");
+            decreases[source.ordinal()] = deltaSummary(meterRegistry, source, "decrease");
+            insufficientStock[source.ordinal()] = Counter.builder("inventory.adjustment.rejected")
+                    .description("Adjustments refused because they would drive sellable stock negative")
+                    .tag("reason", "insufficient_stock")
+                    .tag("source", tagValue(source))
+                    .register(meterRegistry);
+        }
+        this.notFound = new Counter[Operation.values().length];
+        for (Operation operation : Operation.values()) {
+            notFound[operation.ordinal()] = Counter.builder("inventory.not_found")
+                    .description("Requests naming a product without an inventory row")
+                    .tag("operation", tagValue(operation))
+                    .register(meterRegistry);
+        }
+        this.replays = new Counter[Operation.values().length];
+        for (Operation operation : Operation.values()) {
+            replays[operation.ordinal()] = Counter.builder("inventory.idempotency.replays")
+                    .description("Requests answered with the stored response of an earlier request with the same key")
+                    .tag("operation", tagValue(operation))
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * Start timing an operation; pass the result to {@link #recordSuccess} or {@link #recordFailure}.
+     */
+    public long start() {
+        return System.nanoTime();
+    }
+
+    /**
+     * Record an operation that completed normally.
+     */
+    public void recordSuccess(final Operation operation, final long startedAt) {
+        record(operation, Outcome.SUCCESS, startedAt);
+    }
+
+    /**
+     * Record an operation that failed, classifying the outcome from the exception.
+     */
+    public void recordFailure(final Operation operation, final long startedAt, final Throwable failure) {
+        record(operation, classify(failure), startedAt);
+    }
+
+    /**
+     * Record the magnitude of an applied adjustment, tagged by direction.
+     */
+    public void recordAdjustment(final Source source, final int delta) {
+        if (delta > 0) {
+            increases[source.ordinal()].record(delta);
+        } else if (delta < 0) {
+            decreases[source.ordinal()].record(-(double) delta);
+        }
+    }
+
+    /**
+     * Count an adjustment refused because it would leave less stock than is reserved.
+     */
+    public void recordInsufficientStock(final Source source) {
+        insufficientStock[source.ordinal()].increment();
+    }
+
+    /**
+     * Count requests for products that have no inventory row.
+     */
+    public void recordNotFound(final Operation operation, final int products) {
+        if (products > 0) {
+            notFound[operation.ordinal()].increment(products);
+        }
+    }
+
+    /**
+     * Count a request answered by replaying a stored idempotent response.
+     */
+    public void recordReplay(final Operation operation) {
+        replays[operation.ordinal()].increment();
+    }
+
+    private void record(final Operation operation, final Outcome outcome, final long startedAt) {
+        operations[operation.ordinal()][outcome.ordinal()]
+                .record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+    }
+
+    static Outcome classify(final Throwable failure) {
+        // Limiter rejections raised while opening a transaction arrive wrapped by Spring
+        if (NestedExceptionUtils.getMostSpecificCause(failure) instanceof ConcurrencyLimitExceededException) {
+            return Outcome.SHED;
+        }
+        if (failure instanceof AdjustmentTimeoutException) {
+            return Outcome.TIMEOUT;
+        }
+        if (failure instanceof ConcurrencyFailureException) {
+            return Outcome.CONFLICT;
+        }
+        if (failure instanceof IllegalArgumentException) {
+            return Outcome.REJECTED;
+        }
+        return Outcome.ERROR;
+    }
+
+    private static DistributionSummary deltaSummary(final MeterRegistry meterRegistry, final Source source,
+                                                    final String direction) {
+        return DistributionSummary.builder("inventory.adjustment.delta")
+                .description("Absolute quantity change of applied adjustments")
+                .baseUnit("items")
+                .tag("direction", direction)
+                .tag("source", tagValue(source))
+                .publishPercentileHistogram()
+                .minimumExpectedValue(1.0)
+                .maximumExpectedValue(100_000.0)
+                .register(meterRegistry);
+    }
+
+    private static String tagValue(final Enum<?> value) {
+        return value.name().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,53 @@
+package com.shopifake.microservice.metrics;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.DispatcherServlet;
+
+/**
+ * Times every request to a {@link TimedOperation} handler into {@link InventoryMetrics}, tagged
+ * with the outcome of the exception it failed with, if any. Exceptions turned into error responses
+ * by an exception handler are still classified. Asynchronous responses such as streamed listings
+ * are timed until the async dispatch completes, that is until the last row is written.
+ */
+@Component
+@RequiredArgsConstructor
+public class InventoryOperationInterceptor implements AsyncHandlerInterceptor {
+
+    private static final String STARTED_AT = InventoryOperationInterceptor.class.getName() + ".startedAt";
+
+    private final InventoryMetrics inventoryMetrics;
+
+    @Override
+    public boolean preHandle(final HttpServletRequest request, final HttpServletResponse response,
+                             final Object handler) {
+        // The async dispatch of a streamed response passes here again; keep the original start
+        if (operation(handler) != null && request.getAttribute(STARTED_AT) == null) {
+            request.setAttribute(STARTED_AT, inventoryMetrics.start());
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(final HttpServletRequest request, final HttpServletResponse response,
+                                final Object handler, final Exception ex) {
+        TimedOperation operation = operation(handler);
+        if (operation == null || !(request.getAttribute(STARTED_AT) instanceof Long startedAt)) {
+            return;
+        }
+        Throwable failure = ex != null ? ex : (Throwable) request.getAttribute(DispatcherServlet.EXCEPTION_ATTRIBUTE);
+        if (failure == null) {
+            inventoryMetrics.recordSuccess(operation.value(), startedAt);
+        } else {
+            inventoryMetrics.recordFailure(operation.value(), startedAt, failure);
+        }
+    }
+
+    private static TimedOperation operation(final Object handler) {
+        return handler instanceof HandlerMethod method ? method.getMethodAnnotation(TimedOperation.class) : null;
+    }
+}
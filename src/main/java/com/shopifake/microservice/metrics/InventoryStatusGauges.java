@@ -0,0 +1,60 @@
+package com.shopifake.microservice.metrics;
+
+import com.shopifake.microservice.entities.InventoryStatus;
+import com.shopifake.microservice.repositories.InventoryRepository;
+import com.shopifake.microservice.repositories.InventoryStatusTotals;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Gauges of inventory rows per {@link InventoryStatus}.
+ * Counts are read from the striped {@code inventory_summary} totals every 30 seconds, a constant
+ * number of rows however large the catalog, and a scrape only reads the last snapshot, so it never
+ * touches the database however often the registry polls. Gauges report
+ * {@code NaN} until the first refresh succeeds and keep their last values if a refresh fails.
+ */
+@Component
+@Slf4j
+public class InventoryStatusGauges {
+
+    private final InventoryRepository inventoryRepository;
+    private volatile long[] counts;
+
+    public InventoryStatusGauges(final InventoryRepository inventoryRepository, final MeterRegistry meterRegistry) {
+        this.inventoryRepository = inventoryRepository;
+        for (InventoryStatus status : InventoryStatus.values()) {
+            Gauge.builder("inventory.items", this, gauges -> gauges.count(status))
+                    .description("Inventory rows by status, refreshed periodically")
+                    .tag("status", status.name().toLowerCase(Locale.ROOT))
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * Reload the per-status row counts.
+     */
+    @Scheduled(fixedDelay = 30, timeUnit = TimeUnit.SECONDS)
+    public void refresh() {
+        long[] refreshed = new long[InventoryStatus.values().length];
+        try {
+            for (InventoryStatusTotals totals : inventoryRepository.readSummary()) {
+                refreshed[totals.getStatus().ordinal()] = totals.getItems();
+            }
+        } catch (RuntimeException ex) {
+            log.warn("Could not refresh inventory status gauges: {}", ex.getMessage());
+            return;
+        }
+        counts = refreshed;
+    }
+
+    double count(final InventoryStatus status) {
+        long[] snapshot = counts;
+        return snapshot != null ? snapshot[status.ordinal()] : Double.NaN;
+    }
+}
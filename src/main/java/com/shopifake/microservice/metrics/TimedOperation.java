@@ -0,0 +1,19 @@
+package com.shopifake.microservice.metrics;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a handler method whose requests are timed into {@link InventoryMetrics} by
+ * {@link InventoryOperationInterceptor}.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface TimedOperation {
+
+    InventoryMetrics.Operation value();
+}
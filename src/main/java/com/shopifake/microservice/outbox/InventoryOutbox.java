@@ -0,0 +1,82 @@
+package com.shopifake.microservice.outbox;
+
+import com.shopifake.microservice.entities.InventoryChange;
+import com.shopifake.microservice.entities.InventoryItem;
+import com.shopifake.microservice.events.InventoryChangedEvent;
+import com.shopifake.microservice.jobs.ChangeFeedSequencer;
+import com.shopifake.microservice.repositories.InventoryChangeRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writes every inventory change to the outbox table in the transaction that made it.
+ * Changes are buffered per transaction and appended as one JDBC batch just before commit, so a
+ * bulk operation costs a single extra round trip and a rolled-back change leaves no record.
+ * Records take no lock and no feed position here; {@link ChangeFeedSequencer} numbers them once
+ * they have committed.
+ */
+@Component
+@RequiredArgsConstructor
+public class InventoryOutbox {
+
+    private final InventoryChangeRepository changeRepository;
+    private final Clock clock;
+
+    @EventListener
+    void onInventoryChanged(final InventoryChangedEvent event) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            changeRepository.appendChanges(List.of(toChange(event)));
+            return;
+        }
+        pendingChanges().add(toChange(event));
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<InventoryChange> pendingChanges() {
+        List<InventoryChange> pending = (List<InventoryChange>) TransactionSynchronizationManager.getResource(this);
+        if (pending != null) {
+            return pending;
+        }
+        List<InventoryChange> created = new ArrayList<>();
+        TransactionSynchronizationManager.bindResource(this, created);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void beforeCommit(final boolean readOnly) {
+                List<InventoryChange> changes = List.copyOf(created);
+                created.clear();
+                if (!changes.isEmpty()) {
+                    // Stamped at flush time, so occurrence order roughly follows id order as pruning expects
+                    LocalDateTime now = LocalDateTime.now(clock);
+                    changes.forEach(change -> change.setOccurredAt(now));
+                    changeRepository.appendChanges(changes);
+                }
+            }
+
+            @Override
+            public void afterCompletion(final int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(InventoryOutbox.this);
+            }
+        });
+        return created;
+    }
+
+    private InventoryChange toChange(final InventoryChangedEvent event) {
+        InventoryItem item = event.getItem();
+        return InventoryChange.builder()
+                .productId(event.getProductId())
+                .changeType(event.getType())
+                .availableQuantity(item != null ? item.getAvailableQuantity() : null)
+                .reservedQuantity(item != null ? item.getReservedQuantity() : null)
+                .status(item != null ? item.getStatus() : null)
+                .occurredAt(LocalDateTime.now(clock))
+                .build();
+    }
+}
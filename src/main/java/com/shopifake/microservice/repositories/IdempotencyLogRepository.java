@@ -0,0 +1,26 @@
+package com.shopifake.microservice.repositories;
+
+import com.shopifake.microservice.entities.IdempotencyRecord;
+
+import java.time.LocalDateTime;
+
+/**
+ * Writes against the idempotency key table, issued as plain JDBC.
+ */
+public interface IdempotencyLogRepository {
+
+    /**
+     * Insert a record without reading first.
+     *
+     * @throws org.springframework.dao.DuplicateKeyException when the key is already stored, including
+     *                                                       by a concurrent transaction that commits first
+     */
+    void insert(IdempotencyRecord record);
+
+    /**
+     * Delete up to {@code limit} of the oldest records created before {@code cutoff}.
+     *
+     * @return number of records deleted
+     */
+    int pruneBefore(LocalDateTime cutoff, int limit);
+}
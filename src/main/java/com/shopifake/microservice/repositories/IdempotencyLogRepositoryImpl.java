@@ -0,0 +1,49 @@
+package com.shopifake.microservice.repositories;
+
+import com.shopifake.microservice.entities.IdempotencyRecord;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.time.LocalDateTime;
+
+/**
+ * JDBC implementation of {@link IdempotencyLogRepository}.
+ */
+public class IdempotencyLogRepositoryImpl extends JdbcFragmentSupport implements IdempotencyLogRepository {
+
+    private static final String INSERT_RECORD = """
+            INSERT INTO idempotency_keys (idempotency_key, operation, request_hash, response_body, created_at)
+            VALUES (:key, :operation, :requestHash, :responseBody, :createdAt)
+            """;
+
+    // Oldest first along the created_at index, so each batch reads only the head of the index.
+    private static final String PRUNE_RECORDS = """
+            DELETE FROM idempotency_keys
+            WHERE idempotency_key IN (
+                SELECT idempotency_key FROM idempotency_keys
+                WHERE created_at < :cutoff
+                ORDER BY created_at
+                LIMIT :limit)
+            """;
+
+    public IdempotencyLogRepositoryImpl(final NamedParameterJdbcTemplate jdbcTemplate) {
+        super(jdbcTemplate);
+    }
+
+    @Override
+    public void insert(final IdempotencyRecord record) {
+        jdbcTemplate.update(INSERT_RECORD, new MapSqlParameterSource()
+                .addValue("key", record.getKey())
+                .addValue("operation", record.getOperation().name())
+                .addValue("requestHash", record.getRequestHash())
+                .addValue("responseBody", record.getResponseBody())
+                .addValue("createdAt", record.getCreatedAt()));
+    }
+
+    @Override
+    public int pruneBefore(final LocalDateTime cutoff, final int limit) {
+        return jdbcTemplate.update(PRUNE_RECORDS, new MapSqlParameterSource()
+                .addValue("cutoff", cutoff)
+                .addValue("limit", limit));
+    }
+}
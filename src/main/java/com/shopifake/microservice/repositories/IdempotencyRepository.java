@@ -0,0 +1,10 @@
+package com.shopifake.microservice.repositories;
+
+import com.shopifake.microservice.entities.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+/**
+ * Persistence layer for idempotency keys; lookups are primary-key probes.
+ */
+public interface IdempotencyRepository extends JpaRepository<IdempotencyRecord, String>, IdempotencyLogRepository {
+}
@@ -0,0 +1,85 @@
+package com.shopifake.microservice.repositories;
+
+import com.shopifake.microservice.entities.InventoryItem;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Single-statement quantity adjustments that bypass the JPA read-modify-write cycle.
+ * Every operation keeps {@code available_quantity - reserved_quantity} non-negative.
+ * Operations that change on-hand stock and take a {@code reason} also append to the adjustment
+ * ledger in the same statement where the database allows it.
+ */
+public interface InventoryAdjustmentRepository {
+
+    /**
+     * Atomically apply a quantity delta and re-derive the status.
+     *
+     * @param productId      product to adjust
+     * @param delta          signed quantity change
+     * @param replenishedAt  replenishment timestamp to record, or {@code null} to keep the current one
+     * @return the updated row, or empty when the product is unknown or the delta would go below the reserved quantity
+     */
+    Optional<InventoryItem> adjustQuantity(UUID productId, int delta, LocalDateTime replenishedAt);
+
+    /**
+     * Atomically apply a quantity delta, re-derive the status and record a ledger entry.
+     *
+     * @param reason reason recorded in the ledger
+     * @return the updated row, or empty when the adjustment was rejected and nothing was recorded
+     */
+    Optional<InventoryItem> adjustQuantity(UUID productId, int delta, LocalDateTime replenishedAt, String reason);
+
+    /**
+     * Apply many guarded adjustments as one JDBC batch, in the given order, recording a ledger
+     * entry for each one applied.
+     *
+     * @param adjustments deltas to apply
+     * @return per-adjustment flags, {@code true} when the row was updated
+     */
+    boolean[] adjustQuantities(List<QuantityAdjustment> adjustments);
+
+    /**
+     * Like {@link #adjustQuantities}, but each adjustment only applies while its row is still at
+     * the matching version, so a delta computed from a probe of the row lands on the probed quantity.
+     *
+     * @param versions expected row version, per adjustment
+     * @return per-adjustment flags, {@code false} when the row moved on or the guard refused it
+     */
+    boolean[] adjustQuantitiesAtVersion(List<QuantityAdjustment> adjustments, long[] versions);
+
+    /**
+     * Place a hold on sellable stock.
+     *
+     * @return the updated row, or empty when the product is unknown or not enough stock is sellable
+     */
+    Optional<InventoryItem> reserveQuantity(UUID productId, int quantity);
+
+    /**
+     * Return a hold to sellable stock.
+     */
+    Optional<InventoryItem> releaseReservedQuantity(UUID productId, int quantity);
+
+    /**
+     * Turn a hold into a permanent decrement of on-hand stock and record it in the ledger.
+     */
+    Optional<InventoryItem> commitReservedQuantity(UUID productId, int quantity, String reason);
+
+    /**
+     * Return many holds to sellable stock as one JDBC batch.
+     *
+     * @param quantities total quantity to release, per product
+     */
+    void releaseReservedQuantities(Map<UUID, Integer> quantities);
+
+    /**
+     * Bound how long row locks requested later in the current transaction may wait.
+     * Only PostgreSQL supports a transaction-scoped timeout; elsewhere the database default applies.
+     */
+    void limitLockWait(Duration timeout);
+}
@@ -0,0 +1,242 @@
+package com.shopifake.microservice.repositories;
+
+import com.shopifake.microservice.entities.InventoryItem;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+
+import java.sql.Types;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * JDBC implementation of {@link InventoryAdjustmentRepository}.
+ * The guarded UPDATEs never let the sellable quantity go negative, so concurrent adjustments
+ * and reservations on the same product cannot overwrite each other or oversell.
+ */
+public class InventoryAdjustmentRepositoryImpl extends JdbcFragmentSupport implements InventoryAdjustmentRepository {
+
+    /**
+     * Stock a sharded row holds in its slots, so the status written with the row reflects the
+     * product's total sellable stock; unsharded rows skip the subquery.
+     */
+    static final String SLOT_STOCK = "CASE WHEN slot_count = 0 THEN 0 ELSE COALESCE((SELECT SUM(s.quantity)"
+            + " FROM inventory_slots s WHERE s.product_id = inventory_items.product_id), 0) END";
+
+    static final String ADJUST_SET_CLAUSE = """
+            UPDATE inventory_items
+               SET available_quantity = available_quantity + :delta,
+                   status = %s,
+                   replenishment_at = COALESCE(:replenishedAt, replenishment_at),
+                   updated_at = :updatedAt,
+                   version = version + 1
+             WHERE product_id = :productId
+               AND available_quantity + :delta >= reserved_quantity
+            """.formatted(statusFor("available_quantity + :delta - reserved_quantity + " + SLOT_STOCK));
+
+    static final String RESERVE_SET_CLAUSE = """
+            UPDATE inventory_items
+               SET reserved_quantity = reserved_quantity + :quantity,
+                   status = %s,
+                   updated_at = :updatedAt,
+                   version = version + 1
+             WHERE product_id = :productId
+               AND available_quantity - reserved_quantity >= :quantity
+            """.formatted(statusFor("available_quantity - reserved_quantity - :quantity + " + SLOT_STOCK));
+
+    static final String RELEASE_SET_CLAUSE = """
+            UPDATE inventory_items
+               SET reserved_quantity = reserved_quantity - :quantity,
+                   status = %s,
+                   updated_at = :updatedAt,
+                   version = version + 1
+             WHERE product_id = :productId
+               AND reserved_quantity >= :quantity
+            """.formatted(statusFor("available_quantity - reserved_quantity + :quantity + " + SLOT_STOCK));
+
+    static final String COMMIT_SET_CLAUSE = """
+            UPDATE inventory_items
+               SET available_quantity = available_quantity - :quantity,
+                   reserved_quantity = reserved_quantity - :quantity,
+                   updated_at = :updatedAt,
+                   version = version + 1
+             WHERE product_id = :productId
+               AND reserved_quantity >= :quantity
+            """;
+
+    /**
+     * Ledger append fed by the row an UPDATE just changed; completed with {@code FROM <source>}.
+     */
+    private static final String RECORD_FROM = """
+            INSERT INTO inventory_ledger (product_id, delta, quantity_after, reason, recorded_at)
+            SELECT product_id, :ledgerDelta, available_quantity, :reason, :updatedAt FROM\s""";
+
+    public InventoryAdjustmentRepositoryImpl(final NamedParameterJdbcTemplate jdbcTemplate) {
+        super(jdbcTemplate);
+    }
+
+    /**
+     * SQL form of {@link com.shopifake.microservice.entities.InventoryStatus#of}, for the row's
+     * sellable stock after the update, slot stock included.
+     */
+    static String statusFor(final String sellable) {
+        return "CASE WHEN " + sellable + " <= 0 THEN 'OUT_OF_STOCK'"
+                + " WHEN " + sellable + " <= reorder_threshold THEN 'LOW_STOCK' ELSE 'IN_STOCK' END";
+    }
+
+    @Override
+    public Optional<InventoryItem> adjustQuantity(final UUID productId, final int delta,
+                                                  final LocalDateTime replenishedAt) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("productId", productId)
+                .addValue("delta", delta)
+                .addValue("replenishedAt", replenishedAt, Types.TIMESTAMP)
+                .addValue("updatedAt", LocalDateTime.now(), Types.TIMESTAMP);
+        return updateReturning(ADJUST_SET_CLAUSE, params);
+    }
+
+    @Override
+    public Optional<InventoryItem> adjustQuantity(final UUID productId, final int delta,
+                                                  final LocalDateTime replenishedAt, final String reason) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("productId", productId)
+                .addValue("delta", delta)
+                .addValue("replenishedAt", replenishedAt, Types.TIMESTAMP)
+                .addValue("updatedAt", LocalDateTime.now(), Types.TIMESTAMP)
+                .addValue("ledgerDelta", delta)
+                .addValue("reason", reason, Types.VARCHAR);
+        return updateRecording(ADJUST_SET_CLAUSE, params);
+    }
+
+    @Override
+    public boolean[] adjustQuantities(final List<QuantityAdjustment> adjustments) {
+        return applyAdjustments(ADJUST_SET_CLAUSE, adjustments, null);
+    }
+
+    @Override
+    public boolean[] adjustQuantitiesAtVersion(final List<QuantityAdjustment> adjustments, final long[] versions) {
+        return applyAdjustments(ADJUST_SET_CLAUSE + "   AND version = :version\n", adjustments, versions);
+    }
+
+    private boolean[] applyAdjustments(final String setClause, final List<QuantityAdjustment> adjustments,
+                                       final long[] versions) {
+        LocalDateTime updatedAt = LocalDateTime.now();
+        MapSqlParameterSource[] batch = new MapSqlParameterSource[adjustments.size()];
+        for (int i = 0; i < batch.length; i++) {
+            QuantityAdjustment adjustment = adjustments.get(i);
+            batch[i] = new MapSqlParameterSource()
+                    .addValue("productId", adjustment.getProductId())
+                    .addValue("delta", adjustment.getDelta())
+                    .addValue("replenishedAt", adjustment.getReplenishedAt(), Types.TIMESTAMP)
+                    .addValue("updatedAt", updatedAt, Types.TIMESTAMP)
+                    .addValue("ledgerDelta", adjustment.getDelta())
+                    .addValue("reason", adjustment.getReason(), Types.VARCHAR);
+            if (versions != null) {
+                batch[i].addValue("version", versions[i]);
+            }
+        }
+        if (dialect() == SqlDialect.POSTGRESQL) {
+            // The ledger insert consumes the UPDATE's RETURNING rows, so its count doubles as the
+            // per-line "applied" flag and the whole chunk is still one batched round trip.
+            return applied(jdbcTemplate.batchUpdate("WITH updated AS (" + setClause
+                    + " RETURNING product_id, available_quantity) " + RECORD_FROM + "updated", batch));
+        }
+        // Elsewhere each entry must see the row right after its own line, so lines go one by one.
+        boolean[] applied = new boolean[batch.length];
+        for (int i = 0; i < batch.length; i++) {
+            applied[i] = jdbcTemplate.update(setClause, batch[i]) > 0;
+            if (applied[i]) {
+                jdbcTemplate.update(RECORD_FROM + "inventory_items WHERE product_id = :productId", batch[i]);
+            }
+        }
+        return applied;
+    }
+
+    @Override
+    public Optional<InventoryItem> reserveQuantity(final UUID productId, final int quantity) {
+        return updateReturning(RESERVE_SET_CLAUSE, holdParams(productId, quantity, LocalDateTime.now()));
+    }
+
+    @Override
+    public Optional<InventoryItem> releaseReservedQuantity(final UUID productId, final int quantity) {
+        return updateReturning(RELEASE_SET_CLAUSE, holdParams(productId, quantity, LocalDateTime.now()));
+    }
+
+    @Override
+    public Optional<InventoryItem> commitReservedQuantity(final UUID productId, final int quantity,
+                                                          final String reason) {
+        MapSqlParameterSource params = holdParams(productId, quantity, LocalDateTime.now())
+                .addValue("ledgerDelta", -quantity)
+                .addValue("reason", reason, Types.VARCHAR);
+        return updateRecording(COMMIT_SET_CLAUSE, params);
+    }
+
+    @Override
+    public void releaseReservedQuantities(final Map<UUID, Integer> quantities) {
+        LocalDateTime updatedAt = LocalDateTime.now();
+        SqlParameterSource[] batch = quantities.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .map(entry -> holdParams(entry.getKey(), entry.getValue(), updatedAt))
+                .toArray(SqlParameterSource[]::new);
+        jdbcTemplate.batchUpdate(RELEASE_SET_CLAUSE, batch);
+    }
+
+    @Override
+    public void limitLockWait(final Duration timeout) {
+        if (dialect() == SqlDialect.POSTGRESQL) {
+            // set_config(..., true) is SET LOCAL with a bindable value: it lapses at commit or rollback
+            jdbcTemplate.queryForObject("SELECT set_config('lock_timeout', :timeout, true)",
+                    new MapSqlParameterSource("timeout", Math.max(1, timeout.toMillis()) + "ms"), String.class);
+        }
+    }
+
+    private MapSqlParameterSource holdParams(final UUID productId, final int quantity,
+                                             final LocalDateTime updatedAt) {
+        return new MapSqlParameterSource()
+                .addValue("productId", productId)
+                .addValue("quantity", quantity)
+                .addValue("updatedAt", updatedAt, Types.TIMESTAMP);
+    }
+
+    /**
+     * Run a guarded UPDATE and append its ledger entry. On PostgreSQL both happen in a single
+     * statement through a data-modifying CTE, so recording adds no round trip.
+     */
+    private Optional<InventoryItem> updateRecording(final String update, final MapSqlParameterSource params) {
+        if (dialect() == SqlDialect.POSTGRESQL) {
+            return jdbcTemplate.query("WITH updated AS (" + update + " RETURNING " + InventoryItemRows.COLUMNS
+                            + "), recorded AS (" + RECORD_FROM + "updated) SELECT "
+                            + InventoryItemRows.COLUMNS + " FROM updated",
+                    params, InventoryItemRows.ROW_MAPPER).stream().findFirst();
+        }
+        Optional<InventoryItem> updated = updateReturning(update, params);
+        updated.ifPresent(item ->
+                jdbcTemplate.update(RECORD_FROM + "inventory_items WHERE product_id = :productId", params));
+        return updated;
+    }
+
+    private Optional<InventoryItem> updateReturning(final String update, final MapSqlParameterSource params) {
+        List<InventoryItem> rows = switch (dialect()) {
+            case POSTGRESQL -> jdbcTemplate.query(
+                    update + " RETURNING " + InventoryItemRows.COLUMNS, params, InventoryItemRows.ROW_MAPPER);
+            case H2 -> jdbcTemplate.query(
+                    "SELECT " + InventoryItemRows.COLUMNS + " FROM FINAL TABLE (" + update + ")",
+                    params, InventoryItemRows.ROW_MAPPER);
+            default -> updateThenSelect(update, params);
+        };
+        return rows.stream().findFirst();
+    }
+
+    private List<InventoryItem> updateThenSelect(final String update, final MapSqlParameterSource params) {
+        if (jdbcTemplate.update(update, params) == 0) {
+            return List.of();
+        }
+        return jdbcTemplate.query(
+                "SELECT " + InventoryItemRows.COLUMNS + " FROM inventory_items WHERE product_id = :productId",
+                params, InventoryItemRows.ROW_MAPPER);
+    }
+}
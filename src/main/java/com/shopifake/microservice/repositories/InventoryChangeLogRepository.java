@@ -0,0 +1,40 @@
+package com.shopifake.microservice.repositories;
+
+import com.shopifake.microservice.entities.InventoryChange;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Bulk writes against the change outbox, issued as plain JDBC.
+ */
+public interface InventoryChangeLogRepository {
+
+    /**
+     * Append change records in a single JDBC batch, without feed positions.
+     */
+    void appendChanges(List<InventoryChange> changes);
+
+    /**
+     * Take the sequencer lock until the transaction ends, without waiting for it. Always granted
+     * outside PostgreSQL, where a single instance is assumed.
+     *
+     * @return whether this transaction holds the lock
+     */
+    boolean tryLockSequencer();
+
+    /**
+     * Give up to {@code limit} committed records that have no feed position the next positions,
+     * in id order. Only one transaction may do so at a time.
+     *
+     * @return number of records positioned
+     */
+    int sequenceChanges(int limit);
+
+    /**
+     * Delete up to {@code limit} of the oldest records that occurred before {@code cutoff}.
+     *
+     * @return number of records deleted
+     */
+    int pruneBefore(LocalDateTime cutoff, int limit);
+}
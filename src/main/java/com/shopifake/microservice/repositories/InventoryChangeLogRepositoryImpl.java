@@ -0,0 +1,98 @@
+package com.shopifake.microservice.repositories;
+
+import com.shopifake.microservice.entities.InventoryChange;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * JDBC implementation of {@link InventoryChangeLogRepository}.
+ */
+public class InventoryChangeLogRepositoryImpl extends JdbcFragmentSupport implements InventoryChangeLogRepository {
+
+    private static final String INSERT_CHANGE = """
+            INSERT INTO inventory_changes
+                (product_id, change_type, available_quantity, reserved_quantity, status, occurred_at)
+            VALUES (:productId, :changeType, :availableQuantity, :reservedQuantity, :status, :occurredAt)
+            """;
+
+    // Records are pruned in id order, which follows occurrence order, so each batch reads only
+    // the head of the index and the last batch comes back short once the cutoff is reached.
+    private static final String PRUNE_CHANGES = """
+            DELETE FROM inventory_changes
+            WHERE id IN (SELECT id FROM inventory_changes ORDER BY id LIMIT :limit)
+              AND occurred_at < :cutoff
+            """;
+
+    private static final String UNSEQUENCED_CHANGES = """
+            SELECT id FROM inventory_changes
+            WHERE feed_seq IS NULL
+            ORDER BY id
+            LIMIT :limit
+            """;
+
+    private static final String LAST_FEED_SEQ = "SELECT COALESCE(MAX(feed_seq), 0) FROM inventory_changes";
+
+    private static final String SET_FEED_SEQ = "UPDATE inventory_changes SET feed_seq = :feedSeq WHERE id = :id";
+
+    private static final long SEQUENCER_LOCK_KEY = 0x3c7e1a5d9b2f4e61L;
+
+    public InventoryChangeLogRepositoryImpl(final NamedParameterJdbcTemplate jdbcTemplate) {
+        super(jdbcTemplate);
+    }
+
+    @Override
+    public void appendChanges(final List<InventoryChange> changes) {
+        SqlParameterSource[] batch = changes.stream()
+                .map(change -> new MapSqlParameterSource()
+                        .addValue("productId", change.getProductId())
+                        .addValue("changeType", change.getChangeType().name())
+                        .addValue("availableQuantity", change.getAvailableQuantity(), Types.INTEGER)
+                        .addValue("reservedQuantity", change.getReservedQuantity(), Types.INTEGER)
+                        .addValue("status", change.getStatus() != null ? change.getStatus().name() : null,
+                                Types.VARCHAR)
+                        .addValue("occurredAt", change.getOccurredAt()))
+                .toArray(SqlParameterSource[]::new);
+        jdbcTemplate.batchUpdate(INSERT_CHANGE, batch);
+    }
+
+    @Override
+    public boolean tryLockSequencer() {
+        if (dialect() != SqlDialect.POSTGRESQL) {
+            return true;
+        }
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject("SELECT pg_try_advisory_xact_lock(:key)",
+                new MapSqlParameterSource("key", SEQUENCER_LOCK_KEY), Boolean.class));
+    }
+
+    @Override
+    public int sequenceChanges(final int limit) {
+        // Only committed records are visible here, so a record that commits after a later id was
+        // positioned simply gets a later position.
+        List<Long> ids = jdbcTemplate.queryForList(UNSEQUENCED_CHANGES, new MapSqlParameterSource("limit", limit),
+                Long.class);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        long last = jdbcTemplate.queryForObject(LAST_FEED_SEQ, new MapSqlParameterSource(), Long.class);
+        SqlParameterSource[] batch = new SqlParameterSource[ids.size()];
+        for (int i = 0; i < batch.length; i++) {
+            batch[i] = new MapSqlParameterSource()
+                    .addValue("feedSeq", last + i + 1)
+                    .addValue("id", ids.get(i));
+        }
+        jdbcTemplate.batchUpdate(SET_FEED_SEQ, batch);
+        return batch.length;
+    }
+
+    @Override
+    public int pruneBefore(final LocalDateTime cutoff, final int limit) {
+        return jdbcTemplate.update(PRUNE_CHANGES, new MapSqlParameterSource()
+                .addValue("limit", limit)
+                .addValue("cutoff", cutoff));
+    }
+}
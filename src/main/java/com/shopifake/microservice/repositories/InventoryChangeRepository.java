@@ -0,0 +1,18 @@
+package com.shopifake.microservice.repositories;
+
+import com.shopifake.microservice.entities.InventoryChange;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+/**
+ * Persistence layer for the inventory change outbox.
+ */
+public interface InventoryChangeRepository extends JpaRepository<InventoryChange, Long>, InventoryChangeLogRepository {
+
+    @Query("select c from InventoryChange c where c.feedSeq > :after order by c.feedSeq")
+    List<InventoryChange> findFeedPage(@Param("after") long after, Limit limit);
+}
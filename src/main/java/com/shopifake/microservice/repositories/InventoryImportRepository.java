@@ -0,0 +1,21 @@
+package com.shopifake.microservice.repositories;
+
+import com.shopifake.microservice.entities.InventoryItem;
+
+import java.util.List;
+
+/**
+ * Bulk creation of inventory rows for catalog imports, issued as plain JDBC.
+ */
+public interface InventoryImportRepository {
+
+    /**
+     * Insert the rows whose product has no inventory yet and skip the others. When a product
+     * appears more than once, its first row wins. On PostgreSQL the rows are loaded with
+     * {@code COPY} into a session staging table and merged with {@code ON CONFLICT DO NOTHING};
+     * elsewhere existing products are filtered out and the rest inserted in one JDBC batch.
+     *
+     * @return the inserted rows
+     */
+    List<InventoryItem> insertMissing(List<InventoryItem> items);
+}
@@ -0,0 +1,129 @@
+package com.shopifake.microservice.repositories;
+
+import com.shopifake.microservice.entities.InventoryItem;
+import org.postgresql.PGConnection;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * JDBC implementation of {@link InventoryImportRepository}.
+ */
+public class InventoryImportRepositoryImpl extends JdbcFragmentSupport implements InventoryImportRepository {
+
+    /**
+     * Per-session staging table, emptied at every commit, so each import chunk reuses it without DDL.
+     */
+    private static final String CREATE_STAGING = """
+            CREATE TEMPORARY TABLE IF NOT EXISTS inventory_import_staging (
+                ord INTEGER NOT NULL,
+                id UUID NOT NULL,
+                product_id UUID NOT NULL,
+                available_quantity INTEGER NOT NULL,
+                reorder_threshold INTEGER NOT NULL,
+                status VARCHAR(20) NOT NULL
+            ) ON COMMIT DELETE ROWS
+            """;
+
+    private static final String COPY_STAGING = "COPY inventory_import_staging "
+            + "(ord, id, product_id, available_quantity, reorder_threshold, status) FROM STDIN (FORMAT csv)";
+
+    private static final String MERGE_STAGING = """
+            INSERT INTO inventory_items (id, product_id, available_quantity, reserved_quantity, status,
+                                         reorder_threshold, created_at, updated_at, slot_count, version)
+            SELECT DISTINCT ON (product_id) id, product_id, available_quantity, 0, status,
+                   reorder_threshold, :now, :now, 0, 0
+              FROM inventory_import_staging
+             ORDER BY product_id, ord
+            ON CONFLICT (product_id) DO NOTHING
+            RETURNING %s
+            """.formatted(InventoryItemRows.COLUMNS);
+
+    private static final String INSERT_ITEM = """
+            INSERT INTO inventory_items (id, product_id, available_quantity, reserved_quantity, status,
+                                         reorder_threshold, created_at, updated_at, slot_count, version)
+            VALUES (:id, :productId, :availableQuantity, 0, :status, :reorderThreshold, :now, :now, 0, 0)
+            """;
+
+    public InventoryImportRepositoryImpl(final NamedParameterJdbcTemplate jdbcTemplate) {
+        super(jdbcTemplate);
+    }
+
+    @Override
+    public List<InventoryItem> insertMissing(final List<InventoryItem> items) {
+        if (items.isEmpty()) {
+            return List.of();
+        }
+        if (dialect() == SqlDialect.POSTGRESQL) {
+            return copyAndMerge(items);
+        }
+        return batchInsert(items);
+    }
+
+    private List<InventoryItem> copyAndMerge(final List<InventoryItem> items) {
+        StringBuilder csv = new StringBuilder(items.size() * 100);
+        for (int i = 0; i < items.size(); i++) {
+            InventoryItem item = items.get(i);
+            csv.append(i).append(',')
+                    .append(item.getId()).append(',')
+                    .append(item.getProductId()).append(',')
+                    .append(item.getAvailableQuantity()).append(',')
+                    .append(item.getReorderThreshold()).append(',')
+                    .append(item.getStatus().name()).append('\n');
+        }
+        jdbcTemplate.getJdbcOperations().execute(CREATE_STAGING);
+        jdbcTemplate.getJdbcOperations().execute((ConnectionCallback<Long>) connection -> {
+            try {
+                return connection.unwrap(PGConnection.class).getCopyAPI()
+                        .copyIn(COPY_STAGING, new StringReader(csv.toString()));
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        });
+        return jdbcTemplate.query(MERGE_STAGING,
+                new MapSqlParameterSource().addValue("now", items.get(0).getCreatedAt(), Types.TIMESTAMP),
+                InventoryItemRows.ROW_MAPPER);
+    }
+
+    private List<InventoryItem> batchInsert(final List<InventoryItem> items) {
+        Map<UUID, InventoryItem> firstPerProduct = new LinkedHashMap<>();
+        for (InventoryItem item : items) {
+            firstPerProduct.putIfAbsent(item.getProductId(), item);
+        }
+        Set<UUID> existing = new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT product_id FROM inventory_items WHERE product_id IN (:productIds)",
+                new MapSqlParameterSource("productIds", firstPerProduct.keySet()), UUID.class));
+        List<InventoryItem> inserted = new ArrayList<>(firstPerProduct.size());
+        List<SqlParameterSource> batch = new ArrayList<>(firstPerProduct.size());
+        for (InventoryItem item : firstPerProduct.values()) {
+            if (existing.contains(item.getProductId())) {
+                continue;
+            }
+            inserted.add(item);
+            batch.add(new MapSqlParameterSource()
+                    .addValue("id", item.getId())
+                    .addValue("productId", item.getProductId())
+                    .addValue("availableQuantity", item.getAvailableQuantity())
+                    .addValue("status", item.getStatus().name())
+                    .addValue("reorderThreshold", item.getReorderThreshold())
+                    .addValue("now", item.getCreatedAt(), Types.TIMESTAMP));
+        }
+        if (!batch.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_ITEM, batch.toArray(SqlParameterSource[]::new));
+        }
+        return inserted;
+    }
+}
@@ -0,0 +1,34 @@
+package com.shopifake.microservice.repositories;
+
+import com.shopifake.microservice.entities.InventoryItem;
+import com.shopifake.microservice.entities.InventoryStatus;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Column list and row mapper for reading {@code inventory_items} over plain JDBC.
+ */
+final class InventoryItemRows {
+
+    static final String COLUMNS = "id, product_id, available_quantity, reserved_quantity, status, "
+            + "reorder_threshold, replenishment_at, created_at, updated_at, slot_count, version";
+
+    static final RowMapper<InventoryItem> ROW_MAPPER = (rs, rowNum) -> InventoryItem.builder()
+            .id(rs.getObject("id", UUID.class))
+            .productId(rs.getObject("product_id", UUID.class))
+            .availableQuantity(rs.getInt("available_quantity"))
+            .reservedQuantity(rs.getInt("reserved_quantity"))
+            .status(InventoryStatus.valueOf(rs.getString("status")))
+            .reorderThreshold(rs.getInt("reorder_threshold"))
+            .replenishmentAt(rs.getObject("replenishment_at", LocalDateTime.class))
+            .createdAt(rs.getObject("created_at", LocalDateTime.class))
+            .updatedAt(rs.getObject("updated_at", LocalDateTime.class))
+            .slotCount(rs.getInt("slot_count"))
+            .version(rs.getLong("version"))
+            .build();
+
+    private InventoryItemRows() {
+    }
+}
@@ -2,8 +2,14 @@ package com.shopifake.microservice.repositories;
 
 import com.shopifake.microservice.entities.InventoryItem;
 import com.shopifake.microservice.entities.InventoryStatus;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -11,13 +17,52 @@ import java.util.UUID;
 /**
  * Persistence layer for inventory items.
  */
-public interface InventoryRepository extends JpaRepository<InventoryItem, UUID> {
+public interface InventoryRepository extends JpaRepository<InventoryItem, UUID>,
+        InventoryAdjustmentRepository, InventoryScanRepository, StockSlotRepository,
+        InventorySummaryRepository, InventoryImportRepository {
 
     Optional<InventoryItem> findByProductId(UUID productId);
 
     boolean existsByProductId(UUID productId);
 
     List<InventoryItem> findByStatus(InventoryStatus status);
+
+    @Query("select i from InventoryItem i where i.id > :after order by i.id")
+    List<InventoryItem> findPageAfter(@Param("after") UUID after, Limit limit);
+
+    @Query("select i from InventoryItem i where i.status = :status and i.id > :after order by i.id")
+    List<InventoryItem> findPageByStatusAfter(@Param("status") InventoryStatus status,
+                                              @Param("after") UUID after, Limit limit);
+
+    List<InventoryItem> findByProductIdIn(Collection<UUID> productIds);
+
+    @Query("select new com.shopifake.microservice.repositories.InventoryVersion("
+            + "i.id, i.productId, i.version, i.availableQuantity, i.slotCount)"
+            + " from InventoryItem i where i.productId = :productId")
+    Optional<InventoryVersion> findVersionByProductId(@Param("productId") UUID productId);
+
+    @Query("select new com.shopifake.microservice.repositories.InventoryVersion("
+            + "i.id, i.productId, i.version, i.availableQuantity, i.slotCount)"
+            + " from InventoryItem i where i.id > :after order by i.id")
+    List<InventoryVersion> findVersionsAfter(@Param("after") UUID after, Limit limit);
+
+    @Query("select new com.shopifake.microservice.repositories.InventoryVersion("
+            + "i.id, i.productId, i.version, i.availableQuantity, i.slotCount)"
+            + " from InventoryItem i where i.status = :status and i.id > :after order by i.id")
+    List<InventoryVersion> findVersionsByStatusAfter(@Param("status") InventoryStatus status,
+                                                     @Param("after") UUID after, Limit limit);
+
+    @Query("select new com.shopifake.microservice.repositories.InventoryVersion("
+            + "i.id, i.productId, i.version, i.availableQuantity, i.slotCount)"
+            + " from InventoryItem i where i.productId in :productIds")
+    List<InventoryVersion> findVersionsByProductIdIn(@Param("productIds") Collection<UUID> productIds);
+
+    @Query("select i.productId from InventoryItem i where i.slotCount > 0")
+    List<UUID> findShardedProductIds();
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select i from InventoryItem i where i.productId = :productId")
+    Optional<InventoryItem> findForUpdateByProductId(@Param("productId") UUID productId);
 }
 
 
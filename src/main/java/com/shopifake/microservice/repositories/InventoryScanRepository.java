@@ -0,0 +1,34 @@
+package com.shopifake.microservice.repositories;
+
+import com.shopifake.microservice.entities.InventoryItem;
+import com.shopifake.microservice.entities.InventoryStatus;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Forward-only scans over the whole catalog that never hold more than one fetch of rows in memory,
+ * and keyset pages over the at-risk rows covered by the partial low-stock index.
+ */
+public interface InventoryScanRepository {
+
+    /**
+     * Stream inventory rows in id order to a consumer.
+     * Must run inside a transaction so the driver can keep a server-side cursor open.
+     *
+     * @param status    optional status filter, {@code null} for all rows
+     * @param fetchSize rows fetched per round trip
+     * @param consumer  receives each row as it is read
+     */
+    void scan(InventoryStatus status, int fetchSize, Consumer<InventoryItem> consumer);
+
+    /**
+     * One keyset page of {@code LOW_STOCK} and {@code OUT_OF_STOCK} rows in id order. The status
+     * predicate is written as literals matching the partial index, so only at-risk rows are read.
+     *
+     * @param after exclusive lower bound on the row id
+     * @param limit maximum rows returned
+     */
+    List<InventoryItem> findAtRiskPage(UUID after, int limit);
+}
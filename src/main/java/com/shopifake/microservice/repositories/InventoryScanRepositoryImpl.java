@@ -0,0 +1,53 @@
+package com.shopifake.microservice.repositories;
+
+import com.shopifake.microservice.entities.InventoryItem;
+import com.shopifake.microservice.entities.InventoryStatus;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * JDBC implementation of {@link InventoryScanRepository}.
+ */
+public class InventoryScanRepositoryImpl extends JdbcFragmentSupport implements InventoryScanRepository {
+
+    private static final String AT_RISK_PAGE = "SELECT " + InventoryItemRows.COLUMNS + " FROM inventory_items"
+            + " WHERE status IN ('LOW_STOCK', 'OUT_OF_STOCK') AND id > :after ORDER BY id LIMIT :limit";
+
+    public InventoryScanRepositoryImpl(final NamedParameterJdbcTemplate jdbcTemplate) {
+        super(jdbcTemplate);
+    }
+
+    @Override
+    public void scan(final InventoryStatus status, final int fetchSize, final Consumer<InventoryItem> consumer) {
+        String sql = "SELECT " + InventoryItemRows.COLUMNS + " FROM inventory_items"
+                + (status != null ? " WHERE status = ?" : "") + " ORDER BY id";
+        PreparedStatementCreator statement = connection -> {
+            PreparedStatement ps = connection.prepareStatement(
+                    sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(fetchSize);
+            if (status != null) {
+                ps.setString(1, status.name());
+            }
+            return ps;
+        };
+        int[] rowNum = new int[1];
+        RowCallbackHandler handler = rs -> consumer.accept(InventoryItemRows.ROW_MAPPER.mapRow(rs, rowNum[0]++));
+        jdbcTemplate.getJdbcOperations().query(statement, handler);
+    }
+
+    @Override
+    public List<InventoryItem> findAtRiskPage(final UUID after, final int limit) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("after", after)
+                .addValue("limit", limit);
+        return jdbcTemplate.query(AT_RISK_PAGE, params, InventoryItemRows.ROW_MAPPER);
+    }
+}
@@ -0,0 +1,17 @@
+package com.shopifake.microservice.repositories;
+
+import com.shopifake.microservice.entities.InventoryStatus;
+import lombok.Value;
+
+/**
+ * Item count and units on hand for one status, or a change to apply to them.
+ */
+@Value
+public class InventoryStatusTotals {
+
+    InventoryStatus status;
+
+    long items;
+
+    long units;
+}
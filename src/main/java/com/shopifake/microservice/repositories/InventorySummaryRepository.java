@@ -0,0 +1,46 @@
+package com.shopifake.microservice.repositories;
+
+import java.util.List;
+
+/**
+ * Striped per-status totals in {@code inventory_summary}, so the catalog summary is read from a
+ * constant number of rows instead of aggregating {@code inventory_items}.
+ */
+public interface InventorySummaryRepository {
+
+    /**
+     * Number of stripes each status is split over, matching the rows seeded by the migration.
+     */
+    int SUMMARY_STRIPES = 16;
+
+    /**
+     * Add changes to one stripe of the summary, one row per status in status order.
+     *
+     * @param stripe stripe to write, between 0 and {@link #SUMMARY_STRIPES} exclusive
+     */
+    void applySummaryDeltas(int stripe, List<InventoryStatusTotals> deltas);
+
+    /**
+     * Per-status totals, summed over the stripes.
+     */
+    List<InventoryStatusTotals> readSummary();
+
+    /**
+     * Take the transaction-scoped lock that makes one instance at a time correct the summary,
+     * without waiting for it. Writers never take this lock. Only PostgreSQL has one, as an advisory
+     * lock; elsewhere the database is assumed to serve a single instance and this always succeeds.
+     *
+     * @return whether the lock is now held until the end of the transaction
+     */
+    boolean tryLockSummaryCorrection();
+
+    /**
+     * Per-status difference between the totals recomputed from {@code inventory_items} and their
+     * stock slots, each row's status derived from its total sellable stock, and the summary. Both
+     * sides are read by one statement, so a transaction's row changes and its summary deltas are
+     * either both counted or both not, and no summary row is locked.
+     *
+     * @return the corrections to apply, for statuses that drifted only
+     */
+    List<InventoryStatusTotals> summaryDrift();
+}
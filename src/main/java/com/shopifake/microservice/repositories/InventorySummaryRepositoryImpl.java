@@ -0,0 +1,92 @@
+package com.shopifake.microservice.repositories;
+
+import com.shopifake.microservice.entities.InventoryStatus;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.util.List;
+
+/**
+ * JDBC implementation of {@link InventorySummaryRepository}.
+ */
+public class InventorySummaryRepositoryImpl extends JdbcFragmentSupport implements InventorySummaryRepository {
+
+    private static final String APPLY_DELTA = """
+            UPDATE inventory_summary
+               SET items = items + :items,
+                   units = units + :units
+             WHERE status = :status
+               AND stripe = :stripe
+            """;
+
+    /**
+     * Totals recomputed from the rows beside the summary's own, per status. A row's slot stock
+     * counts towards its status as well as its units, as it does for the deltas.
+     */
+    private static final String SUMMARY_DRIFT = """
+            SELECT s.status,
+                   COALESCE(t.items, 0) - s.items AS items,
+                   COALESCE(t.units, 0) - s.units AS units
+              FROM (SELECT status, SUM(items) AS items, SUM(units) AS units
+                      FROM inventory_summary
+                     GROUP BY status) s
+              LEFT JOIN (SELECT status, COUNT(*) AS items, SUM(stock) AS units
+                           FROM (SELECT %s AS status, stock
+                                   FROM (SELECT i.available_quantity + COALESCE(sl.quantity, 0) AS stock,
+                                                i.reserved_quantity, i.reorder_threshold
+                                           FROM inventory_items i
+                                           LEFT JOIN (SELECT product_id, SUM(quantity) AS quantity
+                                                        FROM inventory_slots
+                                                       GROUP BY product_id) sl
+                                             ON sl.product_id = i.product_id) stocked) derived
+                          GROUP BY status) t
+                ON t.status = s.status
+            """.formatted(InventoryAdjustmentRepositoryImpl.statusFor("stock - reserved_quantity"));
+
+    /**
+     * Advisory lock key reserved for the summary correction.
+     */
+    private static final long CORRECTION_LOCK_KEY = 0x5a3d6b7f1e2c4d90L;
+
+    public InventorySummaryRepositoryImpl(final NamedParameterJdbcTemplate jdbcTemplate) {
+        super(jdbcTemplate);
+    }
+
+    @Override
+    public void applySummaryDeltas(final int stripe, final List<InventoryStatusTotals> deltas) {
+        MapSqlParameterSource[] batch = deltas.stream()
+                .map(delta -> new MapSqlParameterSource()
+                        .addValue("status", delta.getStatus().name())
+                        .addValue("stripe", stripe)
+                        .addValue("items", delta.getItems())
+                        .addValue("units", delta.getUnits()))
+                .toArray(MapSqlParameterSource[]::new);
+        jdbcTemplate.batchUpdate(APPLY_DELTA, batch);
+    }
+
+    @Override
+    public List<InventoryStatusTotals> readSummary() {
+        return jdbcTemplate.query(
+                "SELECT status, SUM(items) AS items, SUM(units) AS units FROM inventory_summary GROUP BY status",
+                (rs, rowNum) -> new InventoryStatusTotals(InventoryStatus.valueOf(rs.getString("status")),
+                        rs.getLong("items"), rs.getLong("units")));
+    }
+
+    @Override
+    public boolean tryLockSummaryCorrection() {
+        if (dialect() != SqlDialect.POSTGRESQL) {
+            return true;
+        }
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject("SELECT pg_try_advisory_xact_lock(:key)",
+                new MapSqlParameterSource("key", CORRECTION_LOCK_KEY), Boolean.class));
+    }
+
+    @Override
+    public List<InventoryStatusTotals> summaryDrift() {
+        return jdbcTemplate.query(SUMMARY_DRIFT, (rs, rowNum) -> new InventoryStatusTotals(
+                        InventoryStatus.valueOf(rs.getString("status")), rs.getLong("items"), rs.getLong("units")))
+                .stream()
+                .filter(drift -> drift.getItems() != 0 || drift.getUnits() != 0)
+                .toList();
+    }
+}
@@ -0,0 +1,24 @@
+package com.shopifake.microservice.repositories;
+
+import lombok.Value;
+
+import java.util.UUID;
+
+/**
+ * The columns that determine an inventory response, read without loading the entity. A row's
+ * version changes with every write to it; slot stock, which is written without touching the row,
+ * is added by the caller for sharded products.
+ */
+@Value
+public class InventoryVersion {
+
+    UUID id;
+
+    UUID productId;
+
+    long version;
+
+    int availableQuantity;
+
+    int slotCount;
+}
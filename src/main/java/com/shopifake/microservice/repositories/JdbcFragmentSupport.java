@@ -0,0 +1,40 @@
+package com.shopifake.microservice.repositories;
+
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+/**
+ * Shared plumbing for the hand-written JDBC repository fragments.
+ */
+abstract class JdbcFragmentSupport {
+
+    protected final NamedParameterJdbcTemplate jdbcTemplate;
+
+    private volatile SqlDialect dialect;
+
+    protected JdbcFragmentSupport(final NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Dialect of the backing database, resolved once on first use.
+     */
+    protected SqlDialect dialect() {
+        SqlDialect resolved = dialect;
+        if (resolved == null) {
+            resolved = SqlDialect.detect(jdbcTemplate.getJdbcOperations());
+            dialect = resolved;
+        }
+        return resolved;
+    }
+
+    /**
+     * Convert JDBC batch update counts into per-statement "row was touched" flags.
+     */
+    protected static boolean[] applied(final int[] counts) {
+        boolean[] applied = new boolean[counts.length];
+        for (int i = 0; i < counts.length; i++) {
+            applied[i] = counts[i] > 0;
+        }
+        return applied;
+    }
+}
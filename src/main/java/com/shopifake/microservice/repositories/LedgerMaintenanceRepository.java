@@ -0,0 +1,68 @@
+package com.shopifake.microservice.repositories;
+
+import com.shopifake.microservice.entities.InventoryLedgerEntry;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+
+/**
+ * Bulk ledger writes, snapshotting and compaction, issued as plain JDBC.
+ */
+public interface LedgerMaintenanceRepository {
+
+    /**
+     * Append ledger entries in a single JDBC batch; entries without {@code recordedAt} are
+     * stamped with the current time on the same clock as in-statement ledger writes.
+     */
+    void recordEntries(List<InventoryLedgerEntry> entries);
+
+    /**
+     * Ledger id the next snapshot run must scan from: the position recorded by the newest run that
+     * every transaction in flight at the time has since left, or {@code 0} when there is none. On
+     * PostgreSQL that is decided by transaction ids; elsewhere a run counts once it was taken at
+     * or before {@code settledBefore}.
+     */
+    long snapshotScanStart(LocalDateTime settledBefore);
+
+    /**
+     * Record the ledger's current newest id and transaction horizon as a candidate scan start for
+     * later runs, taken at {@code takenAt}, and forget runs older than {@code scanStart}, which later
+     * runs no longer need. {@code takenAt} must come from the clock later runs settle against.
+     */
+    void recordSnapshotRun(long scanStart, LocalDateTime takenAt);
+
+    /**
+     * Snapshot every product whose newest ledger entry after {@code afterId} is newer than its
+     * latest snapshot, from that entry. Rescanning entries already covered writes nothing.
+     *
+     * @return number of snapshots written
+     */
+    int snapshotEntries(long afterId);
+
+    /**
+     * Make sure monthly ledger partitions exist from {@code from} for {@code monthsAhead} more
+     * months. Does nothing on databases where the ledger is not partitioned.
+     *
+     * @return number of partitions created
+     */
+    int ensurePartitions(YearMonth from, int monthsAhead);
+
+    /**
+     * Remove ledger history recorded before {@code cutoff}: whole partitions on PostgreSQL,
+     * detached concurrently and then dropped, otherwise up to {@code limit} of the oldest entries.
+     * Must run outside a transaction.
+     *
+     * @return number of partitions or entries removed; {@code 0} once nothing older is left
+     */
+    int compactBefore(LocalDateTime cutoff, int limit);
+
+    /**
+     * Delete up to {@code limit} snapshots taken before {@code cutoff} that a newer snapshot of the
+     * same product, also taken by then, supersedes. Each product keeps its newest snapshot at the
+     * cutoff, which later point-in-time reads start from.
+     *
+     * @return number of snapshots deleted; {@code 0} once none is left
+     */
+    int pruneSnapshotsBefore(LocalDateTime cutoff, int limit);
+}
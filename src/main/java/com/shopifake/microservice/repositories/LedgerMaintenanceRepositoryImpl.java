@@ -0,0 +1,215 @@
+package com.shopifake.microservice.repositories;
+
+import com.shopifake.microservice.entities.InventoryLedgerEntry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcOperations;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JDBC implementation of {@link LedgerMaintenanceRepository}.
+ */
+@Slf4j
+public class LedgerMaintenanceRepositoryImpl extends JdbcFragmentSupport implements LedgerMaintenanceRepository {
+
+    static final String INSERT_ENTRY = """
+            INSERT INTO inventory_ledger (product_id, delta, quantity_after, reason, recorded_at)
+            VALUES (:productId, :delta, :quantityAfter, :reason, :recordedAt)
+            """;
+
+    private static final String SNAPSHOT_ENTRIES = """
+            INSERT INTO inventory_snapshots (product_id, available_quantity, last_entry_id, taken_at)
+            SELECT l.product_id, l.quantity_after, l.id, l.recorded_at
+            FROM inventory_ledger l
+            WHERE l.id IN (SELECT MAX(id) FROM inventory_ledger WHERE id > :afterId GROUP BY product_id)
+              AND NOT EXISTS (SELECT 1 FROM inventory_snapshots s
+                              WHERE s.product_id = l.product_id AND s.last_entry_id >= l.id)
+            """;
+
+    // Ids are allocated at insert but become visible at commit, so a run's position is only a safe
+    // scan start once every transaction that could still hold a lower id has finished: on
+    // PostgreSQL, once the oldest running transaction is at or past the run's snapshot xmax. Both
+    // values come from the same statement snapshot.
+    private static final String RECORD_RUN_POSTGRESQL = """
+            INSERT INTO inventory_snapshot_runs (scanned_to_id, pending_xid, taken_at)
+            SELECT COALESCE(MAX(id), 0), CAST(CAST(pg_snapshot_xmax(pg_current_snapshot()) AS TEXT) AS BIGINT),
+                   :takenAt
+            FROM inventory_ledger
+            """;
+
+    private static final String RECORD_RUN = """
+            INSERT INTO inventory_snapshot_runs (scanned_to_id, pending_xid, taken_at)
+            SELECT COALESCE(MAX(id), 0), NULL, :takenAt FROM inventory_ledger
+            """;
+
+    private static final String SCAN_START_POSTGRESQL = """
+            SELECT COALESCE(MAX(scanned_to_id), 0) FROM inventory_snapshot_runs
+            WHERE pending_xid <= CAST(CAST(pg_snapshot_xmin(pg_current_snapshot()) AS TEXT) AS BIGINT)
+            """;
+
+    private static final String SCAN_START = """
+            SELECT COALESCE(MAX(scanned_to_id), 0) FROM inventory_snapshot_runs
+            WHERE taken_at <= :settledBefore
+            """;
+
+    // Runs behind the scan start are no longer needed, and of the runs at it only the oldest is kept,
+    // so an idle ledger does not pile up identical positions.
+    private static final String PRUNE_RUNS = """
+            DELETE FROM inventory_snapshot_runs
+            WHERE scanned_to_id < :scanStart
+               OR (scanned_to_id = :scanStart
+                   AND id > (SELECT MIN(id) FROM inventory_snapshot_runs WHERE scanned_to_id = :scanStart))
+            """;
+
+    private static final String DELETE_OLDEST_ENTRIES = """
+            DELETE FROM inventory_ledger
+            WHERE id IN (SELECT id FROM inventory_ledger ORDER BY id LIMIT :limit)
+              AND recorded_at < :cutoff
+            """;
+
+    // A snapshot older than the cutoff is only needed while it is its product's newest one at the
+    // cutoff: later point-in-time reads start from that one, and earlier ones lost their ledger.
+    private static final String DELETE_SUPERSEDED_SNAPSHOTS = """
+            DELETE FROM inventory_snapshots
+            WHERE id IN (SELECT s.id FROM inventory_snapshots s
+                         WHERE s.taken_at < :cutoff
+                           AND EXISTS (SELECT 1 FROM inventory_snapshots n
+                                       WHERE n.product_id = s.product_id AND n.taken_at <= :cutoff
+                                         AND n.last_entry_id > s.last_entry_id)
+                         ORDER BY s.id LIMIT :limit)
+            """;
+
+    // Includes tables left detached by an interrupted compaction, which are no longer in pg_inherits.
+    private static final String LIST_COMPACTABLE_PARTITIONS = """
+            SELECT child.relname, pg_inherits.inhrelid IS NOT NULL AS attached,
+                   COALESCE(pg_inherits.inhdetachpending, FALSE) AS detach_pending
+            FROM pg_class child
+            JOIN pg_namespace ns ON ns.oid = child.relnamespace
+            LEFT JOIN pg_inherits ON pg_inherits.inhrelid = child.oid
+            WHERE ns.nspname = current_schema() AND child.relkind = 'r'
+              AND child.relname LIKE 'inventory\\_ledger\\_p%'
+            """;
+
+    private static final String LIST_PARTITIONS = """
+            SELECT child.relname
+            FROM pg_inherits
+            JOIN pg_class parent ON parent.oid = pg_inherits.inhparent
+            JOIN pg_class child ON child.oid = pg_inherits.inhrelid
+            WHERE parent.relname = 'inventory_ledger' AND child.relname LIKE 'inventory\\_ledger\\_p%'
+            """;
+
+    private static final String PARTITION_PREFIX = "inventory_ledger_p";
+
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+
+    public LedgerMaintenanceRepositoryImpl(final NamedParameterJdbcTemplate jdbcTemplate) {
+        super(jdbcTemplate);
+    }
+
+    @Override
+    public void recordEntries(final List<InventoryLedgerEntry> entries) {
+        LocalDateTime now = LocalDateTime.now();
+        SqlParameterSource[] batch = entries.stream()
+                .map(entry -> new MapSqlParameterSource()
+                        .addValue("productId", entry.getProductId())
+                        .addValue("delta", entry.getDelta())
+                        .addValue("quantityAfter", entry.getQuantityAfter())
+                        .addValue("reason", entry.getReason(), Types.VARCHAR)
+                        .addValue("recordedAt", entry.getRecordedAt() != null ? entry.getRecordedAt() : now,
+                                Types.TIMESTAMP))
+                .toArray(SqlParameterSource[]::new);
+        jdbcTemplate.batchUpdate(INSERT_ENTRY, batch);
+    }
+
+    @Override
+    public long snapshotScanStart(final LocalDateTime settledBefore) {
+        String sql = dialect() == SqlDialect.POSTGRESQL ? SCAN_START_POSTGRESQL : SCAN_START;
+        Long start = jdbcTemplate.queryForObject(sql,
+                new MapSqlParameterSource().addValue("settledBefore", settledBefore, Types.TIMESTAMP), Long.class);
+        return start != null ? start : 0L;
+    }
+
+    @Override
+    public void recordSnapshotRun(final long scanStart, final LocalDateTime takenAt) {
+        jdbcTemplate.update(dialect() == SqlDialect.POSTGRESQL ? RECORD_RUN_POSTGRESQL : RECORD_RUN,
+                new MapSqlParameterSource().addValue("takenAt", takenAt, Types.TIMESTAMP));
+        jdbcTemplate.update(PRUNE_RUNS, new MapSqlParameterSource("scanStart", scanStart));
+    }
+
+    @Override
+    public int snapshotEntries(final long afterId) {
+        return jdbcTemplate.update(SNAPSHOT_ENTRIES, new MapSqlParameterSource("afterId", afterId));
+    }
+
+    @Override
+    public int ensurePartitions(final YearMonth from, final int monthsAhead) {
+        if (dialect() != SqlDialect.POSTGRESQL) {
+            return 0;
+        }
+        List<String> existing = jdbcTemplate.queryForList(LIST_PARTITIONS, new MapSqlParameterSource(), String.class);
+        int created = 0;
+        for (int i = 0; i <= monthsAhead; i++) {
+            YearMonth month = from.plusMonths(i);
+            String name = PARTITION_PREFIX + month.format(PARTITION_SUFFIX);
+            if (existing.contains(name)) {
+                continue;
+            }
+            try {
+                jdbcTemplate.getJdbcOperations().execute("CREATE TABLE IF NOT EXISTS " + name
+                        + " PARTITION OF inventory_ledger FOR VALUES FROM ('" + month.atDay(1)
+                        + "') TO ('" + month.plusMonths(1).atDay(1) + "')");
+                created++;
+            } catch (DataAccessException ex) {
+                // Retried on the next pass; partitions are created months ahead of need.
+                log.warn("Could not create ledger partition {}", name, ex);
+            }
+        }
+        return created;
+    }
+
+    @Override
+    public int compactBefore(final LocalDateTime cutoff, final int limit) {
+        if (dialect() != SqlDialect.POSTGRESQL) {
+            return jdbcTemplate.update(DELETE_OLDEST_ENTRIES, new MapSqlParameterSource()
+                    .addValue("limit", limit)
+                    .addValue("cutoff", cutoff, Types.TIMESTAMP));
+        }
+        // DETACH ... CONCURRENTLY only holds SHARE UPDATE EXCLUSIVE on the ledger, so adjustments keep
+        // appending; the detached table is then dropped without touching the ledger at all. Each
+        // statement runs in its own transaction, as CONCURRENTLY requires.
+        JdbcOperations jdbc = jdbcTemplate.getJdbcOperations();
+        int dropped = 0;
+        for (Map<String, Object> partition
+                : jdbcTemplate.queryForList(LIST_COMPACTABLE_PARTITIONS, new MapSqlParameterSource())) {
+            String name = (String) partition.get("relname");
+            YearMonth month = YearMonth.parse(name.substring(PARTITION_PREFIX.length()), PARTITION_SUFFIX);
+            if (month.plusMonths(1).atDay(1).atStartOfDay().isAfter(cutoff)) {
+                continue;
+            }
+            if (Boolean.TRUE.equals(partition.get("detach_pending"))) {
+                jdbc.execute("ALTER TABLE inventory_ledger DETACH PARTITION " + name + " FINALIZE");
+            } else if (Boolean.TRUE.equals(partition.get("attached"))) {
+                jdbc.execute("ALTER TABLE inventory_ledger DETACH PARTITION " + name + " CONCURRENTLY");
+            }
+            jdbc.execute("DROP TABLE " + name);
+            dropped++;
+        }
+        return dropped;
+    }
+
+    @Override
+    public int pruneSnapshotsBefore(final LocalDateTime cutoff, final int limit) {
+        return jdbcTemplate.update(DELETE_SUPERSEDED_SNAPSHOTS, new MapSqlParameterSource()
+                .addValue("limit", limit)
+                .addValue("cutoff", cutoff, Types.TIMESTAMP));
+    }
+}
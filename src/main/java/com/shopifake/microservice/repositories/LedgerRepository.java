@@ -0,0 +1,34 @@
+package com.shopifake.microservice.repositories;
+
+import com.shopifake.microservice.entities.InventoryLedgerEntry;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Persistence layer for the adjustment ledger.
+ */
+public interface LedgerRepository extends JpaRepository<InventoryLedgerEntry, Long>, LedgerMaintenanceRepository {
+
+    @Query("select e from InventoryLedgerEntry e where e.productId = :productId and e.id < :before order by e.id desc")
+    List<InventoryLedgerEntry> findHistoryPage(@Param("productId") UUID productId, @Param("before") long before,
+                                               Limit limit);
+
+    /**
+     * Newest entries recorded at or before {@code at} within an id window, typically the ids
+     * between two consecutive snapshots.
+     */
+    @Query("""
+            select e from InventoryLedgerEntry e
+            where e.productId = :productId and e.id > :afterId and e.id <= :upToId and e.recordedAt <= :at
+            order by e.id desc
+            """)
+    List<InventoryLedgerEntry> findLatestInWindow(@Param("productId") UUID productId, @Param("afterId") long afterId,
+                                                  @Param("upToId") long upToId, @Param("at") LocalDateTime at,
+                                                  Limit limit);
+}
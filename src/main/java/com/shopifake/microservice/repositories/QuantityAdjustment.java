@@ -0,0 +1,21 @@
+package com.shopifake.microservice.repositories;
+
+import lombok.Value;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * A single delta to apply through {@link InventoryAdjustmentRepository#adjustQuantities}.
+ */
+@Value
+public class QuantityAdjustment {
+
+    UUID productId;
+
+    int delta;
+
+    LocalDateTime replenishedAt;
+
+    String reason;
+}
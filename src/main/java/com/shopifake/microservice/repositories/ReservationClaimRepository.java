@@ -0,0 +1,31 @@
+package com.shopifake.microservice.repositories;
+
+import com.shopifake.microservice.entities.InventoryReservation;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Delete-based claims on reservations. Whoever deletes the row owns its stock, so a commit,
+ * a release and the expiry sweeper can race without ever settling the same hold twice.
+ */
+public interface ReservationClaimRepository {
+
+    /**
+     * Delete a reservation and return what it held.
+     *
+     * @param reservationId reservation to claim
+     * @param activeAt      when set, only claim the reservation if it expires after this instant
+     * @return the deleted reservation, or empty when it no longer exists (or has expired)
+     */
+    Optional<InventoryReservation> claimReservation(UUID reservationId, LocalDateTime activeAt);
+
+    /**
+     * Delete many reservations as one JDBC batch.
+     *
+     * @return per-reservation flags, {@code true} when this call deleted the row
+     */
+    boolean[] claimReservations(List<UUID> reservationIds);
+}
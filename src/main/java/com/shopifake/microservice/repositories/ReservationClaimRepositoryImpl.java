@@ -0,0 +1,71 @@
+package com.shopifake.microservice.repositories;
+
+import com.shopifake.microservice.entities.InventoryReservation;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * JDBC implementation of {@link ReservationClaimRepository}.
+ */
+public class ReservationClaimRepositoryImpl extends JdbcFragmentSupport implements ReservationClaimRepository {
+
+    static final String RESERVATION_COLUMNS = "id, product_id, quantity, expires_at, created_at";
+
+    static final RowMapper<InventoryReservation> RESERVATION_ROW_MAPPER = (rs, rowNum) ->
+            InventoryReservation.builder()
+                    .id(rs.getObject("id", UUID.class))
+                    .productId(rs.getObject("product_id", UUID.class))
+                    .quantity(rs.getInt("quantity"))
+                    .expiresAt(rs.getObject("expires_at", LocalDateTime.class))
+                    .createdAt(rs.getObject("created_at", LocalDateTime.class))
+                    .build();
+
+    public ReservationClaimRepositoryImpl(final NamedParameterJdbcTemplate jdbcTemplate) {
+        super(jdbcTemplate);
+    }
+
+    @Override
+    public Optional<InventoryReservation> claimReservation(final UUID reservationId, final LocalDateTime activeAt) {
+        String delete = "DELETE FROM inventory_reservations WHERE id = :id"
+                + (activeAt != null ? " AND expires_at > :activeAt" : "");
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("id", reservationId)
+                .addValue("activeAt", activeAt, Types.TIMESTAMP);
+
+        List<InventoryReservation> rows = switch (dialect()) {
+            case POSTGRESQL -> jdbcTemplate.query(
+                    delete + " RETURNING " + RESERVATION_COLUMNS, params, RESERVATION_ROW_MAPPER);
+            case H2 -> jdbcTemplate.query(
+                    "SELECT " + RESERVATION_COLUMNS + " FROM OLD TABLE (" + delete + ")",
+                    params, RESERVATION_ROW_MAPPER);
+            default -> selectThenDelete(delete, params);
+        };
+        return rows.stream().findFirst();
+    }
+
+    @Override
+    public boolean[] claimReservations(final List<UUID> reservationIds) {
+        SqlParameterSource[] batch = reservationIds.stream()
+                .map(id -> new MapSqlParameterSource("id", id))
+                .toArray(SqlParameterSource[]::new);
+        return applied(jdbcTemplate.batchUpdate("DELETE FROM inventory_reservations WHERE id = :id", batch));
+    }
+
+    private List<InventoryReservation> selectThenDelete(final String delete, final MapSqlParameterSource params) {
+        List<InventoryReservation> rows = jdbcTemplate.query(
+                "SELECT " + RESERVATION_COLUMNS + " FROM inventory_reservations WHERE id = :id",
+                params, RESERVATION_ROW_MAPPER);
+        if (rows.isEmpty() || jdbcTemplate.update(delete, params) == 0) {
+            return List.of();
+        }
+        return rows;
+    }
+}
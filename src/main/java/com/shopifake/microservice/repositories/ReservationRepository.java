@@ -0,0 +1,17 @@
+package com.shopifake.microservice.repositories;
+
+import com.shopifake.microservice.entities.InventoryReservation;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Persistence layer for stock reservations.
+ */
+public interface ReservationRepository extends JpaRepository<InventoryReservation, UUID>, ReservationClaimRepository {
+
+    List<InventoryReservation> findByExpiresAtLessThanEqualOrderByExpiresAt(LocalDateTime cutoff, Limit limit);
+}
@@ -0,0 +1,20 @@
+package com.shopifake.microservice.repositories;
+
+import com.shopifake.microservice.entities.InventorySnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Persistence layer for ledger snapshots.
+ */
+public interface SnapshotRepository extends JpaRepository<InventorySnapshot, Long> {
+
+    Optional<InventorySnapshot> findFirstByProductIdAndTakenAtLessThanEqualOrderByTakenAtDescIdDesc(
+            UUID productId, LocalDateTime at);
+
+    Optional<InventorySnapshot> findFirstByProductIdAndTakenAtGreaterThanOrderByTakenAtAscIdAsc(
+            UUID productId, LocalDateTime at);
+}
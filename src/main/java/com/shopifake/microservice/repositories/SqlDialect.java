@@ -0,0 +1,38 @@
+package com.shopifake.microservice.repositories;
+
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcOperations;
+
+import java.util.Locale;
+
+/**
+ * Database flavours the hand-written SQL in this package knows how to target.
+ */
+public enum SqlDialect {
+    POSTGRESQL,
+    H2,
+    OTHER;
+
+    /**
+     * Resolve the dialect from the JDBC metadata of the backing database.
+     */
+    public static SqlDialect detect(final JdbcOperations jdbcOperations) {
+        String productName = jdbcOperations.execute(
+                (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+        return fromProductName(productName);
+    }
+
+    static SqlDialect fromProductName(final String productName) {
+        if (productName == null) {
+            return OTHER;
+        }
+        String normalized = productName.toLowerCase(Locale.ROOT);
+        if (normalized.contains("postgresql")) {
+            return POSTGRESQL;
+        }
+        if (normalized.contains("h2")) {
+            return H2;
+        }
+        return OTHER;
+    }
+}
@@ -0,0 +1,14 @@
+package com.shopifake.microservice.repositories;
+
+import lombok.Value;
+
+/**
+ * Quantity held by one stock slot of a sharded product.
+ */
+@Value
+public class StockSlot {
+
+    int slot;
+
+    int quantity;
+}
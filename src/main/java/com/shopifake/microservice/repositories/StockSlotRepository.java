@@ -0,0 +1,82 @@
+package com.shopifake.microservice.repositories;
+
+import com.shopifake.microservice.entities.InventoryItem;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Stock slots of sharded products. A sharded product's on-hand stock is its
+ * {@code inventory_items} row plus the sum of its slots, and every slot stays non-negative, so
+ * decrements spread over the slots never contend on the product row.
+ */
+public interface StockSlotRepository {
+
+    /**
+     * Read a product's head row over plain JDBC, bypassing the persistence context, so the result
+     * reflects hand-written updates made earlier in the same transaction.
+     */
+    Optional<InventoryItem> readHead(UUID productId);
+
+    /**
+     * Read a product's slots in slot order without locking them.
+     */
+    List<StockSlot> findSlots(UUID productId);
+
+    /**
+     * Read and lock a product's slots in slot order until the transaction ends.
+     */
+    List<StockSlot> lockSlots(UUID productId);
+
+    /**
+     * Atomically apply a delta to one slot.
+     *
+     * @return {@code true} when applied, {@code false} when the slot would go negative or does not exist
+     */
+    boolean adjustSlot(UUID productId, int slot, int delta);
+
+    /**
+     * Atomically apply a delta to one slot, re-derive the head's stored status as
+     * {@link #refreshStatus} does and append the ledger entry. On PostgreSQL this is a single
+     * statement. The entry's {@code quantity_after} is the product's total as read with the
+     * decrement, so concurrent writes to other slots may make it inexact; the delta itself is exact.
+     *
+     * @return the product with its slot stock added back, or empty when the slot would go negative
+     *         or does not exist
+     */
+    Optional<InventoryItem> adjustSlotRecording(UUID productId, int slot, int delta, String reason);
+
+    /**
+     * Replace a product's slots with {@code quantities.length} slots holding the given quantities.
+     * The caller must hold the slot locks.
+     */
+    void replaceSlots(UUID productId, int[] quantities);
+
+    /**
+     * Re-derive a product's stored status from its head and slot stock after a write that bypassed
+     * the head, such as a slot decrement. The head row is only written when the status changes.
+     *
+     * @return {@code true} when the status changed
+     */
+    boolean refreshStatus(UUID productId);
+
+    /**
+     * Record how many slots a product is split into.
+     *
+     * @return {@code true} when the product exists
+     */
+    boolean updateSlotCount(UUID productId, int slotCount);
+
+    /**
+     * Total slot stock per product, for the given products that have slots.
+     */
+    Map<UUID, Integer> sumSlots(Collection<UUID> productIds);
+
+    /**
+     * Total slot stock of every product that has slots.
+     */
+    Map<UUID, Integer> sumAllSlots();
+}
@@ -0,0 +1,212 @@
+package com.shopifake.microservice.repositories;
+
+import com.shopifake.microservice.entities.InventoryItem;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * JDBC implementation of {@link StockSlotRepository}.
+ */
+public class StockSlotRepositoryImpl extends JdbcFragmentSupport implements StockSlotRepository {
+
+    private static final String SELECT_SLOTS =
+            "SELECT slot, quantity FROM inventory_slots WHERE product_id = :productId ORDER BY slot";
+
+    private static final String ADJUST_SLOT = """
+            UPDATE inventory_slots
+               SET quantity = quantity + :delta,
+                   updated_at = :updatedAt
+             WHERE product_id = :productId
+               AND slot = :slot
+               AND quantity + :delta >= 0
+            """;
+
+    private static final String SLOT_STATUS = InventoryAdjustmentRepositoryImpl.statusFor(
+            "available_quantity - reserved_quantity + " + InventoryAdjustmentRepositoryImpl.SLOT_STOCK);
+
+    private static final String REFRESH_STATUS = """
+            UPDATE inventory_items
+               SET status = %1$s,
+                   updated_at = :updatedAt,
+                   version = version + 1
+             WHERE product_id = :productId
+               AND status <> %1$s
+            """.formatted(SLOT_STATUS);
+
+    /**
+     * Slot update, status refresh, head read and ledger append as one data-modifying CTE. Every part
+     * reads the statement's snapshot, so the slot total adds the delta the slot update applied. The
+     * status is derived from the head row the refresh locks, as in {@link #REFRESH_STATUS}; when it
+     * did not change the snapshot's head row is returned instead.
+     */
+    private static final String ADJUST_SLOT_RECORDING = """
+            WITH slot AS (
+                %s RETURNING product_id
+            ), stock AS (
+                SELECT slot.product_id AS slot_product_id,
+                       COALESCE((SELECT SUM(s.quantity) FROM inventory_slots s
+                                 WHERE s.product_id = slot.product_id), 0) + :delta AS slot_stock
+                FROM slot
+            ), refreshed AS (
+                UPDATE inventory_items
+                   SET status = %2$s,
+                       updated_at = :updatedAt,
+                       version = version + 1
+                  FROM stock
+                 WHERE product_id = stock.slot_product_id
+                   AND status <> %2$s
+                RETURNING %3$s, slot_stock
+            ), head AS (
+                SELECT %3$s, slot_stock FROM refreshed
+                UNION ALL
+                SELECT %3$s, slot_stock FROM inventory_items JOIN stock ON product_id = stock.slot_product_id
+                WHERE NOT EXISTS (SELECT 1 FROM refreshed)
+            ), recorded AS (
+                INSERT INTO inventory_ledger (product_id, delta, quantity_after, reason, recorded_at)
+                SELECT product_id, :delta, available_quantity + slot_stock, :reason, :updatedAt FROM head
+            )
+            SELECT %4$s FROM head
+            """.formatted(ADJUST_SLOT.strip(),
+                    InventoryAdjustmentRepositoryImpl.statusFor("available_quantity - reserved_quantity + slot_stock"),
+                    InventoryItemRows.COLUMNS,
+                    InventoryItemRows.COLUMNS.replace("available_quantity",
+                            "available_quantity + slot_stock AS available_quantity"));
+
+    private static final String INSERT_SLOT = """
+            INSERT INTO inventory_slots (product_id, slot, quantity, updated_at)
+            VALUES (:productId, :slot, :quantity, :updatedAt)
+            """;
+
+    private static final RowMapper<StockSlot> SLOT_MAPPER =
+            (rs, rowNum) -> new StockSlot(rs.getInt("slot"), rs.getInt("quantity"));
+
+    public StockSlotRepositoryImpl(final NamedParameterJdbcTemplate jdbcTemplate) {
+        super(jdbcTemplate);
+    }
+
+    @Override
+    public Optional<InventoryItem> readHead(final UUID productId) {
+        return jdbcTemplate.query(
+                "SELECT " + InventoryItemRows.COLUMNS + " FROM inventory_items WHERE product_id = :productId",
+                new MapSqlParameterSource("productId", productId), InventoryItemRows.ROW_MAPPER).stream().findFirst();
+    }
+
+    @Override
+    public List<StockSlot> findSlots(final UUID productId) {
+        return jdbcTemplate.query(SELECT_SLOTS, new MapSqlParameterSource("productId", productId), SLOT_MAPPER);
+    }
+
+    @Override
+    public List<StockSlot> lockSlots(final UUID productId) {
+        return jdbcTemplate.query(SELECT_SLOTS + " FOR UPDATE",
+                new MapSqlParameterSource("productId", productId), SLOT_MAPPER);
+    }
+
+    @Override
+    public boolean adjustSlot(final UUID productId, final int slot, final int delta) {
+        return jdbcTemplate.update(ADJUST_SLOT, new MapSqlParameterSource()
+                .addValue("productId", productId)
+                .addValue("slot", slot)
+                .addValue("delta", delta)
+                .addValue("updatedAt", LocalDateTime.now(), Types.TIMESTAMP)) > 0;
+    }
+
+    @Override
+    public Optional<InventoryItem> adjustSlotRecording(final UUID productId, final int slot, final int delta,
+                                                       final String reason) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("productId", productId)
+                .addValue("slot", slot)
+                .addValue("delta", delta)
+                .addValue("updatedAt", LocalDateTime.now(), Types.TIMESTAMP)
+                .addValue("reason", reason, Types.VARCHAR);
+        if (dialect() == SqlDialect.POSTGRESQL) {
+            return jdbcTemplate.query(ADJUST_SLOT_RECORDING, params, InventoryItemRows.ROW_MAPPER).stream()
+                    .findFirst();
+        }
+        if (jdbcTemplate.update(ADJUST_SLOT, params) == 0) {
+            return Optional.empty();
+        }
+        jdbcTemplate.update(REFRESH_STATUS, params);
+        InventoryItem head = readHead(productId).orElseThrow();
+        int available = head.getAvailableQuantity() + sumSlots(List.of(productId)).getOrDefault(productId, 0);
+        jdbcTemplate.update(LedgerMaintenanceRepositoryImpl.INSERT_ENTRY, params
+                .addValue("quantityAfter", available)
+                .addValue("recordedAt", params.getValue("updatedAt"), Types.TIMESTAMP));
+        return Optional.of(head.toBuilder().availableQuantity(available).build());
+    }
+
+    @Override
+    public void replaceSlots(final UUID productId, final int[] quantities) {
+        jdbcTemplate.update("DELETE FROM inventory_slots WHERE product_id = :productId",
+                new MapSqlParameterSource("productId", productId));
+        if (quantities.length == 0) {
+            return;
+        }
+        LocalDateTime updatedAt = LocalDateTime.now();
+        MapSqlParameterSource[] batch = new MapSqlParameterSource[quantities.length];
+        for (int slot = 0; slot < quantities.length; slot++) {
+            batch[slot] = new MapSqlParameterSource()
+                    .addValue("productId", productId)
+                    .addValue("slot", slot)
+                    .addValue("quantity", quantities[slot])
+                    .addValue("updatedAt", updatedAt, Types.TIMESTAMP);
+        }
+        jdbcTemplate.batchUpdate(INSERT_SLOT, batch);
+    }
+
+    @Override
+    public boolean refreshStatus(final UUID productId) {
+        return jdbcTemplate.update(REFRESH_STATUS, new MapSqlParameterSource()
+                .addValue("productId", productId)
+                .addValue("updatedAt", LocalDateTime.now(), Types.TIMESTAMP)) > 0;
+    }
+
+    @Override
+    public boolean updateSlotCount(final UUID productId, final int slotCount) {
+        return jdbcTemplate.update("""
+                UPDATE inventory_items
+                   SET slot_count = :slotCount,
+                       updated_at = :updatedAt,
+                       version = version + 1
+                 WHERE product_id = :productId
+                """, new MapSqlParameterSource()
+                .addValue("productId", productId)
+                .addValue("slotCount", slotCount)
+                .addValue("updatedAt", LocalDateTime.now(), Types.TIMESTAMP)) > 0;
+    }
+
+    @Override
+    public Map<UUID, Integer> sumSlots(final Collection<UUID> productIds) {
+        if (productIds.isEmpty()) {
+            return Map.of();
+        }
+        return sums("SELECT product_id, SUM(quantity) AS total FROM inventory_slots"
+                + " WHERE product_id IN (:productIds) GROUP BY product_id",
+                new MapSqlParameterSource("productIds", productIds));
+    }
+
+    @Override
+    public Map<UUID, Integer> sumAllSlots() {
+        return sums("SELECT product_id, SUM(quantity) AS total FROM inventory_slots GROUP BY product_id",
+                new MapSqlParameterSource());
+    }
+
+    private Map<UUID, Integer> sums(final String sql, final MapSqlParameterSource params) {
+        Map<UUID, Integer> totals = new HashMap<>();
+        RowCallbackHandler handler = rs -> totals.put(rs.getObject("product_id", UUID.class), rs.getInt("total"));
+        jdbcTemplate.query(sql, params, handler);
+        return totals;
+    }
+}
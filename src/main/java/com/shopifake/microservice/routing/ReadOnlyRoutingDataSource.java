@@ -0,0 +1,34 @@
+package com.shopifake.microservice.routing;
+
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.function.Supplier;
+
+/**
+ * Connections for read-only transactions: from the replica chosen by the {@link ReplicaRouter},
+ * or from the primary when the router declines. The router is looked up on first use, so it can
+ * be a bean created after the primary data source.
+ */
+public class ReadOnlyRoutingDataSource extends AbstractDataSource {
+
+    private final DataSource primary;
+    private final Supplier<ReplicaRouter> router;
+
+    public ReadOnlyRoutingDataSource(final DataSource primary, final Supplier<ReplicaRouter> router) {
+        this.primary = primary;
+        this.router = router;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return router.get().select().orElse(primary).getConnection();
+    }
+
+    @Override
+    public Connection getConnection(final String username, final String password) throws SQLException {
+        return router.get().select().orElse(primary).getConnection(username, password);
+    }
+}
@@ -0,0 +1,33 @@
+package com.shopifake.microservice.routing;
+
+/**
+ * Whether the current request must read from the primary because its client mutated recently.
+ * Set by {@link ReadYourWritesFilter} for the duration of a request and read on the same thread
+ * when a read-only transaction picks its data source.
+ */
+public final class ReadYourWrites {
+
+    private static final ThreadLocal<Boolean> PINNED = new ThreadLocal<>();
+
+    private ReadYourWrites() {
+    }
+
+    /**
+     * Whether reads on this thread must see the client's own writes.
+     */
+    public static boolean isPinned() {
+        return Boolean.TRUE.equals(PINNED.get());
+    }
+
+    static void pin(final boolean pinned) {
+        if (pinned) {
+            PINNED.set(Boolean.TRUE);
+        } else {
+            PINNED.remove();
+        }
+    }
+
+    static void clear() {
+        PINNED.remove();
+    }
+}
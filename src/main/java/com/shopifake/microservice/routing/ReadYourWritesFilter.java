@@ -0,0 +1,159 @@
+package com.shopifake.microservice.routing;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * Gives each client read-your-writes consistency over lagging replicas. A successful mutating
+ * request hands back the end of the client's stickiness window, both as a cookie and as the
+ * {@value #HEADER_NAME} header for clients that do not keep cookies; requests presenting an
+ * unexpired window in either are pinned to the primary. The window is attached just before the
+ * response commits, and only when its status is below 400, so failed writes do not pin the client.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    static final String COOKIE_NAME = "inventory-primary-until";
+
+    static final String HEADER_NAME = "X-Primary-Until";
+
+    private static final Set<String> SAFE_METHODS = Set.of("GET", "HEAD", "OPTIONS", "TRACE");
+
+    private final Duration stickiness;
+    private final Clock clock;
+
+    public ReadYourWritesFilter(final Duration stickiness) {
+        this(stickiness, Clock.systemUTC());
+    }
+
+    ReadYourWritesFilter(final Duration stickiness, final Clock clock) {
+        this.stickiness = stickiness;
+        this.clock = clock;
+    }
+
+    @Override
+    protected void doFilterInternal(final HttpServletRequest request, final HttpServletResponse response,
+                                    final FilterChain filterChain) throws ServletException, IOException {
+        long now = clock.millis();
+        boolean mutating = !SAFE_METHODS.contains(request.getMethod());
+        ReadYourWrites.pin(mutating || pinnedUntil(request) > now);
+        try {
+            if (mutating) {
+                StickyResponse sticky = new StickyResponse(response, now + stickiness.toMillis());
+                filterChain.doFilter(request, sticky);
+                sticky.stick();
+            } else {
+                filterChain.doFilter(request, response);
+            }
+        } finally {
+            ReadYourWrites.clear();
+        }
+    }
+
+    private static long pinnedUntil(final HttpServletRequest request) {
+        long until = parse(request.getHeader(HEADER_NAME));
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) {
+            return until;
+        }
+        for (Cookie cookie : cookies) {
+            if (COOKIE_NAME.equals(cookie.getName())) {
+                return Math.max(until, parse(cookie.getValue()));
+            }
+        }
+        return until;
+    }
+
+    private static long parse(final String value) {
+        if (value == null) {
+            return 0;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException ex) {
+            return 0;
+        }
+    }
+
+    /**
+     * Adds the stickiness window once, at the first point the response may commit, unless the
+     * status by then marks a failure.
+     */
+    private final class StickyResponse extends HttpServletResponseWrapper {
+
+        private final long until;
+        private boolean decided;
+
+        StickyResponse(final HttpServletResponse response, final long until) {
+            super(response);
+            this.until = until;
+        }
+
+        void stick() {
+            if (decided || isCommitted()) {
+                return;
+            }
+            decided = true;
+            if (getStatus() >= HttpServletResponse.SC_BAD_REQUEST) {
+                return;
+            }
+            addHeader(HttpHeaders.SET_COOKIE, ResponseCookie.from(COOKIE_NAME, Long.toString(until))
+                    .maxAge(stickiness.toSeconds() + 1)
+                    .path("/")
+                    .httpOnly(true)
+                    .sameSite("Lax")
+                    .build()
+                    .toString());
+            setHeader(HEADER_NAME, Long.toString(until));
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            stick();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            stick();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            stick();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendRedirect(final String location) throws IOException {
+            stick();
+            super.sendRedirect(location);
+        }
+
+        @Override
+        public void sendError(final int status) throws IOException {
+            decided = true;
+            super.sendError(status);
+        }
+
+        @Override
+        public void sendError(final int status, final String message) throws IOException {
+            decided = true;
+            super.sendError(status, message);
+        }
+    }
+}
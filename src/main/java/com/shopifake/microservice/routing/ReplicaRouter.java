@@ -0,0 +1,173 @@
+package com.shopifake.microservice.routing;
+
+import com.shopifake.microservice.repositories.SqlDialect;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Picks the data source for each read-only transaction. Replicas take turns while their measured
+ * lag is within the bound; a client pinned by {@link ReadYourWrites}, or a moment when every
+ * replica is lagging or unreachable, sends the read to the primary instead. Lag is probed on a
+ * schedule, so routing costs a volatile read per replica, and a replica is only used once a probe
+ * has succeeded.
+ */
+@Slf4j
+public class ReplicaRouter implements AutoCloseable {
+
+    /**
+     * Where a read-only transaction was sent, and why.
+     */
+    public enum Route {
+        REPLICA,
+        /**
+         * Primary, because the client mutated within its stickiness window.
+         */
+        STICKY,
+        /**
+         * Primary, because no replica was within the lag bound.
+         */
+        LAGGING
+    }
+
+    /**
+     * Replay lag of a PostgreSQL standby, or 0 when it has replayed everything it received.
+     */
+    private static final String POSTGRESQL_LAG_SQL = """
+            SELECT CASE WHEN NOT pg_is_in_recovery() OR pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                        ELSE CAST(EXTRACT(EPOCH FROM clock_timestamp() - pg_last_xact_replay_timestamp()) * 1000
+                                  AS BIGINT)
+                   END
+            """;
+
+    private static final long UNKNOWN = Long.MAX_VALUE;
+
+    private final List<Replica> replicas;
+    private final long maxLagMillis;
+    private final Counter[] routes;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReplicaRouter(final Map<String, DataSource> replicas, final Duration maxLag,
+                         final MeterRegistry meterRegistry) {
+        this.replicas = new ArrayList<>(replicas.size());
+        this.maxLagMillis = maxLag.toMillis();
+        replicas.forEach((name, dataSource) -> {
+            Replica replica = new Replica(name, dataSource);
+            this.replicas.add(replica);
+            Gauge.builder("inventory.replica.lag", replica, Replica::lagSeconds)
+                    .description("Replication lag of each read replica, NaN while unknown")
+                    .baseUnit("seconds")
+                    .tag("replica", name)
+                    .register(meterRegistry);
+        });
+        this.routes = new Counter[Route.values().length];
+        for (Route route : Route.values()) {
+            routes[route.ordinal()] = Counter.builder("inventory.replica.reads")
+                    .description("Read-only transactions by the data source they were routed to")
+                    .tag("route", route.name().toLowerCase(Locale.ROOT))
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * Replica to serve the next read-only transaction, or empty when it must go to the primary.
+     */
+    public Optional<DataSource> select() {
+        if (ReadYourWrites.isPinned()) {
+            routes[Route.STICKY.ordinal()].increment();
+            return Optional.empty();
+        }
+        int start = Math.floorMod(next.getAndIncrement(), Math.max(replicas.size(), 1));
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get((start + i) % replicas.size());
+            if (replica.lagMillis <= maxLagMillis) {
+                routes[Route.REPLICA.ordinal()].increment();
+                return Optional.of(replica.dataSource);
+            }
+        }
+        routes[Route.LAGGING.ordinal()].increment();
+        return Optional.empty();
+    }
+
+    /**
+     * Measure every replica's lag. A replica that cannot be probed is treated as lagging.
+     */
+    @Scheduled(fixedDelayString = "${inventory.replicas.lag-probe-interval:PT1S}")
+    public void probeLag() {
+        for (Replica replica : replicas) {
+            try {
+                replica.lagMillis = replica.measureLag();
+            } catch (RuntimeException ex) {
+                replica.lagMillis = UNKNOWN;
+                log.warn("Could not probe lag of replica {}: {}", replica.name, ex.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Last measured lag of a replica, empty while unknown.
+     */
+    public Optional<Duration> lag(final String name) {
+        return replicas.stream()
+                .filter(replica -> replica.name.equals(name) && replica.lagMillis != UNKNOWN)
+                .map(replica -> Duration.ofMillis(replica.lagMillis))
+                .findFirst();
+    }
+
+    /**
+     * Close the replicas' connection pools.
+     */
+    @Override
+    public void close() throws Exception {
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    private static final class Replica {
+
+        private final String name;
+        private final DataSource dataSource;
+        private final JdbcTemplate jdbcTemplate;
+        private volatile SqlDialect dialect;
+        private volatile long lagMillis = UNKNOWN;
+
+        private Replica(final String name, final DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+            this.jdbcTemplate = new JdbcTemplate(dataSource);
+        }
+
+        private long measureLag() {
+            if (dialect == null) {
+                dialect = SqlDialect.detect(jdbcTemplate);
+            }
+            if (dialect != SqlDialect.POSTGRESQL) {
+                // No replication status to read; a reachable replica is taken to be in sync
+                jdbcTemplate.queryForObject("SELECT 1", Integer.class);
+                return 0;
+            }
+            Long lag = jdbcTemplate.queryForObject(POSTGRESQL_LAG_SQL, Long.class);
+            return lag != null ? Math.max(lag, 0) : UNKNOWN;
+        }
+
+        private double lagSeconds() {
+            long lag = lagMillis;
+            return lag != UNKNOWN ? lag / 1000.0 : Double.NaN;
+        }
+    }
+}
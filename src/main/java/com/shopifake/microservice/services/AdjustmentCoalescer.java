@@ -0,0 +1,405 @@
+package com.shopifake.microservice.services;
+
+import com.shopifake.microservice.config.InventoryProperties;
+import com.shopifake.microservice.entities.InventoryItem;
+import com.shopifake.microservice.entities.InventoryLedgerEntry;
+import com.shopifake.microservice.events.InventoryChangeType;
+import com.shopifake.microservice.events.InventoryChangedEvent;
+import com.shopifake.microservice.metrics.InventoryMetrics;
+import com.shopifake.microservice.repositories.InventoryRepository;
+import com.shopifake.microservice.repositories.LedgerRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Group-commit mode for single adjustments.
+ * Adjustments are queued on a stripe chosen by product id and flushed every few milliseconds:
+ * each product's pending adjustments become one net-delta UPDATE in one transaction, and every
+ * caller is acknowledged with its own outcome only after that transaction commits. Each accepted
+ * adjustment still gets its own ledger entry, appended as one batch per group. An adjustment whose
+ * caller timed out before a flush took it is withdrawn and never applied.
+ */
+@Component
+@Slf4j
+public class AdjustmentCoalescer implements SmartLifecycle {
+
+    private final InventoryRepository inventoryRepository;
+    private final LedgerRepository ledgerRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final InventoryProperties.GroupCommit config;
+    private final InventoryMetrics inventoryMetrics;
+    private final Clock clock;
+    private final List<Queue<PendingAdjustment>> stripes;
+
+    private final Counter coalescedAdjustments;
+    private final Counter flushedGroups;
+    private final Counter timedOutAdjustments;
+    private final DistributionSummary groupSize;
+    private final Timer flushTimer;
+
+    private ScheduledExecutorService scheduler;
+    private volatile boolean running;
+
+    public AdjustmentCoalescer(final InventoryRepository inventoryRepository,
+                               final LedgerRepository ledgerRepository,
+                               final TransactionTemplate transactionTemplate,
+                               final ApplicationEventPublisher eventPublisher,
+                               final InventoryProperties properties,
+                               final MeterRegistry meterRegistry,
+                               final InventoryMetrics inventoryMetrics,
+                               final Clock clock) {
+        this.inventoryRepository = inventoryRepository;
+        this.ledgerRepository = ledgerRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.config = properties.getGroupCommit();
+        this.inventoryMetrics = inventoryMetrics;
+        this.clock = clock;
+        this.stripes = new ArrayList<>();
+        for (int i = 0; i < Math.max(1, config.getStripes()); i++) {
+            stripes.add(new ConcurrentLinkedQueue<>());
+        }
+        this.coalescedAdjustments = Counter.builder("inventory.group_commit.adjustments")
+                .description("Adjustments applied through group commit")
+                .register(meterRegistry);
+        this.flushedGroups = Counter.builder("inventory.group_commit.groups")
+                .description("Per-product UPDATE groups flushed")
+                .register(meterRegistry);
+        this.timedOutAdjustments = Counter.builder("inventory.group_commit.timeouts")
+                .description("Adjustments withdrawn unapplied because no flush took them within the ack timeout")
+                .register(meterRegistry);
+        this.groupSize = DistributionSummary.builder("inventory.group_commit.group_size")
+                .description("Adjustments merged into a single UPDATE")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("inventory.group_commit.flush")
+                .description("Latency of one per-product group commit")
+                .register(meterRegistry);
+        Gauge.builder("inventory.group_commit.coalescing_ratio", this, AdjustmentCoalescer::coalescingRatio)
+                .description("Average adjustments per committed UPDATE")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Whether adjustments should be routed through the coalescer.
+     */
+    public boolean isEnabled() {
+        return config.isEnabled() && running;
+    }
+
+    /**
+     * Queue an adjustment and block until the group it joined has committed. A caller that times
+     * out before its adjustment was picked up by a flush withdraws it, so a retry cannot apply it
+     * twice; once picked up, the caller waits for the group's definitive outcome.
+     *
+     * @return the inventory row as committed by the group
+     * @throws IllegalArgumentException when the product is unknown or the adjustment was rejected
+     * @throws AdjustmentTimeoutException when the adjustment was withdrawn unapplied
+     */
+    public InventoryItem adjust(final UUID productId, final int delta, final String reason) {
+        Queue<PendingAdjustment> stripe = stripeFor(productId);
+        PendingAdjustment pending = enqueue(stripe, productId, delta, reason);
+        try {
+            return pending.result.get(config.getAckTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException ex) {
+            throw unwrap(productId, ex);
+        } catch (TimeoutException ex) {
+            if (pending.claim()) {
+                stripe.remove(pending);
+                timedOutAdjustments.increment();
+                throw new AdjustmentTimeoutException(
+                        "Timed out waiting for group commit of product " + productId + "; adjustment not applied");
+            }
+            return awaitClaimed(productId, pending);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            if (pending.claim()) {
+                stripe.remove(pending);
+            }
+            throw new IllegalStateException("Interrupted waiting for group commit of product " + productId, ex);
+        }
+    }
+
+    /**
+     * Wait for a group that already picked the adjustment up; its transaction completes every
+     * member either way.
+     */
+    private InventoryItem awaitClaimed(final UUID productId, final PendingAdjustment pending) {
+        try {
+            return pending.result.get();
+        } catch (ExecutionException ex) {
+            throw unwrap(productId, ex);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted waiting for group commit of product " + productId
+                    + "; outcome unknown", ex);
+        }
+    }
+
+    private static RuntimeException unwrap(final UUID productId, final ExecutionException ex) {
+        if (ex.getCause() instanceof RuntimeException runtime) {
+            return runtime;
+        }
+        return new IllegalStateException("Group commit failed for product " + productId, ex.getCause());
+    }
+
+    CompletableFuture<InventoryItem> submit(final UUID productId, final int delta, final String reason) {
+        return enqueue(stripeFor(productId), productId, delta, reason).result;
+    }
+
+    private PendingAdjustment enqueue(final Queue<PendingAdjustment> stripe, final UUID productId, final int delta,
+                                      final String reason) {
+        PendingAdjustment pending = new PendingAdjustment(productId, delta, reason);
+        stripe.add(pending);
+        return pending;
+    }
+
+    private Queue<PendingAdjustment> stripeFor(final UUID productId) {
+        return stripes.get(Math.floorMod(productId.hashCode(), stripes.size()));
+    }
+
+    /**
+     * Flush every stripe once on the calling thread.
+     */
+    void flushAll() {
+        stripes.forEach(this::flush);
+    }
+
+    private void flush(final Queue<PendingAdjustment> stripe) {
+        Map<UUID, List<PendingAdjustment>> groups = new LinkedHashMap<>();
+        PendingAdjustment pending;
+        int drained = 0;
+        while (drained < config.getMaxBatchSize() && (pending = stripe.poll()) != null) {
+            drained++;
+            // Skip adjustments whose caller gave up waiting and withdrew them
+            if (pending.claim()) {
+                groups.computeIfAbsent(pending.productId, id -> new ArrayList<>()).add(pending);
+            }
+        }
+        groups.forEach(this::flushGroup);
+    }
+
+    private void flushGroup(final UUID productId, final List<PendingAdjustment> group) {
+        long start = System.nanoTime();
+        try {
+            GroupOutcome outcome = transactionTemplate.execute(status -> applyGroup(productId, group));
+            for (int i = 0; i < group.size(); i++) {
+                if (outcome.rejections[i] != null) {
+                    group.get(i).result.completeExceptionally(outcome.rejections[i]);
+                } else {
+                    group.get(i).result.complete(outcome.item);
+                }
+            }
+        } catch (RuntimeException ex) {
+            log.error("Group commit failed for product {}", productId, ex);
+            group.forEach(pending -> pending.result.completeExceptionally(ex));
+        } finally {
+            group.forEach(pending -> pending.result.completeExceptionally(
+                    new IllegalStateException("Group commit aborted for product " + productId)));
+            flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            flushedGroups.increment();
+            coalescedAdjustments.increment(group.size());
+            groupSize.record(group.size());
+        }
+    }
+
+    private GroupOutcome applyGroup(final UUID productId, final List<PendingAdjustment> group) {
+        int net = 0;
+        boolean anyIncrease = false;
+        boolean anyDecrease = false;
+        for (PendingAdjustment pending : group) {
+            net += pending.delta;
+            anyIncrease |= pending.delta > 0;
+            anyDecrease |= pending.delta < 0;
+        }
+        LocalDateTime now = LocalDateTime.now(clock);
+        IllegalArgumentException[] rejections = new IllegalArgumentException[group.size()];
+
+        // When every delta has the same sign, the final quantity being valid implies every
+        // intermediate one was too, so the whole group is one guarded UPDATE.
+        if (!(anyIncrease && anyDecrease)) {
+            Optional<InventoryItem> updated =
+                    inventoryRepository.adjustQuantity(productId, net, anyIncrease ? now : null);
+            if (updated.isPresent()) {
+                applied(group, rejections, updated.get());
+                return new GroupOutcome(updated.get(), rejections);
+            }
+        }
+
+        // Otherwise lock the row and admit adjustments one by one in arrival order.
+        Optional<InventoryItem> locked = inventoryRepository.findForUpdateByProductId(productId);
+        if (locked.isEmpty()) {
+            inventoryMetrics.recordNotFound(InventoryMetrics.Operation.ADJUST, group.size());
+            for (int i = 0; i < rejections.length; i++) {
+                rejections[i] = new IllegalArgumentException("Inventory not found for product " + productId);
+            }
+            return new GroupOutcome(null, rejections);
+        }
+        int quantity = locked.get().getAvailableQuantity();
+        int reserved = locked.get().getReservedQuantity();
+        int acceptedNet = 0;
+        boolean acceptedIncrease = false;
+        boolean anyAccepted = false;
+        for (int i = 0; i < group.size(); i++) {
+            int delta = group.get(i).delta;
+            if (quantity + delta >= reserved) {
+                quantity += delta;
+                acceptedNet += delta;
+                acceptedIncrease |= delta > 0;
+                anyAccepted = true;
+            } else {
+                inventoryMetrics.recordInsufficientStock(InventoryMetrics.Source.GROUP_COMMIT);
+                rejections[i] = new IllegalArgumentException(
+                        "Adjustment would produce negative quantity after reservations");
+            }
+        }
+        if (!anyAccepted) {
+            return new GroupOutcome(locked.get(), rejections);
+        }
+        InventoryItem updated = inventoryRepository
+                .adjustQuantity(productId, acceptedNet, acceptedIncrease ? now : null)
+                .orElseThrow(() -> new IllegalStateException("Locked inventory row changed for " + productId));
+        applied(group, rejections, updated);
+        return new GroupOutcome(updated, rejections);
+    }
+
+    private void applied(final List<PendingAdjustment> group, final IllegalArgumentException[] rejections,
+                         final InventoryItem updated) {
+        // Walk back from the committed quantity so each entry carries the quantity its own
+        // adjustment produced, in arrival order.
+        InventoryLedgerEntry[] entries = new InventoryLedgerEntry[group.size()];
+        int quantityAfter = updated.getAvailableQuantity();
+        for (int i = group.size() - 1; i >= 0; i--) {
+            if (rejections[i] == null) {
+                PendingAdjustment pending = group.get(i);
+                entries[i] = InventoryLedgerEntry.builder()
+                        .productId(pending.productId)
+                        .delta(pending.delta)
+                        .quantityAfter(quantityAfter)
+                        .reason(pending.reason)
+                        .build();
+                quantityAfter -= pending.delta;
+            }
+        }
+        List<InventoryLedgerEntry> recorded = new ArrayList<>(group.size());
+        for (int i = 0; i < group.size(); i++) {
+            if (entries[i] != null) {
+                PendingAdjustment pending = group.get(i);
+                log.info("Adjusted inventory for {} by {} ({})", pending.productId, pending.delta, pending.reason);
+                recorded.add(entries[i]);
+            }
+        }
+        ledgerRepository.recordEntries(recorded);
+        eventPublisher.publishEvent(new InventoryChangedEvent(InventoryChangeType.ADJUSTED, updated.getProductId(),
+                updated, updated.getAvailableQuantity() - quantityAfter, 0));
+    }
+
+    private double coalescingRatio() {
+        double groups = flushedGroups.count();
+        return groups == 0 ? 0 : coalescedAdjustments.count() / groups;
+    }
+
+    @Override
+    public void start() {
+        if (!config.isEnabled()) {
+            return;
+        }
+        AtomicInteger threadIndex = new AtomicInteger();
+        scheduler = Executors.newScheduledThreadPool(stripes.size(), runnable -> {
+            Thread thread = new Thread(runnable, "inventory-group-commit-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalMicros = Math.max(1, config.getFlushInterval().toNanos() / 1_000);
+        for (Queue<PendingAdjustment> stripe : stripes) {
+            scheduler.scheduleWithFixedDelay(() -> flush(stripe), intervalMicros, intervalMicros,
+                    TimeUnit.MICROSECONDS);
+        }
+        running = true;
+        log.info("Group commit enabled with {} stripes flushing every {}", stripes.size(),
+                config.getFlushInterval());
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (scheduler != null) {
+            scheduler.shutdown();
+            try {
+                scheduler.awaitTermination(config.getAckTimeout().toMillis(), TimeUnit.MILLISECONDS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            scheduler = null;
+        }
+        // Drain whatever was queued while shutting down so no caller is left waiting.
+        stripes.forEach(stripe -> {
+            while (!stripe.isEmpty()) {
+                flush(stripe);
+            }
+        });
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * An adjustment waiting for its stripe to flush.
+     */
+    private static final class PendingAdjustment {
+
+        private final UUID productId;
+        private final int delta;
+        private final String reason;
+        private final CompletableFuture<InventoryItem> result = new CompletableFuture<>();
+        private final AtomicBoolean claimed = new AtomicBoolean();
+
+        private PendingAdjustment(final UUID productId, final int delta, final String reason) {
+            this.productId = productId;
+            this.delta = delta;
+            this.reason = reason;
+        }
+
+        /**
+         * Take the adjustment, either into a flush or back out of the queue; only one side wins.
+         */
+        private boolean claim() {
+            return claimed.compareAndSet(false, true);
+        }
+    }
+
+    /**
+     * Committed row plus the per-caller rejections of one product group.
+     */
+    private record GroupOutcome(InventoryItem item, IllegalArgumentException[] rejections) {
+    }
+}
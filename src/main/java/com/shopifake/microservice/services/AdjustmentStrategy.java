@@ -0,0 +1,33 @@
+package com.shopifake.microservice.services;
+
+import com.shopifake.microservice.entities.InventoryItem;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * How a single adjustment is made safe against concurrent writers of the same product.
+ * Selected with {@code inventory.adjustments.strategy}; see
+ * {@link com.shopifake.microservice.config.InventoryProperties.Adjustments}.
+ */
+public interface AdjustmentStrategy {
+
+    /**
+     * Run one adjustment. {@code attempt} opens its own transaction and calls {@link #apply};
+     * strategies that can recover from a conflict may call it more than once.
+     */
+    default <T> T execute(final Supplier<T> attempt) {
+        return attempt.get();
+    }
+
+    /**
+     * Apply a delta and append its ledger entry within the current transaction.
+     *
+     * @param replenishedAt replenishment timestamp to record, or {@code null} to keep the current one
+     * @return the updated row, or empty when the product is unknown or the delta would go below the
+     *         reserved quantity, in which case nothing was written
+     */
+    Optional<InventoryItem> apply(UUID productId, int delta, LocalDateTime replenishedAt, String reason);
+}
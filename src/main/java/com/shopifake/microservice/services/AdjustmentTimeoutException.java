@@ -0,0 +1,13 @@
+package com.shopifake.microservice.services;
+
+/**
+ * Thrown when a group-committed adjustment is withdrawn unapplied because no flush picked it up
+ * within the acknowledgement timeout, so retrying it cannot apply it twice. Surfaced to clients as
+ * {@code 503 Service Unavailable}.
+ */
+public class AdjustmentTimeoutException extends RuntimeException {
+
+    public AdjustmentTimeoutException(final String message) {
+        super(message);
+    }
+}
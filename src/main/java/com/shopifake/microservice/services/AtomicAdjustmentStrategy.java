@@ -0,0 +1,31 @@
+package com.shopifake.microservice.services;
+
+import com.shopifake.microservice.entities.InventoryItem;
+import com.shopifake.microservice.repositories.InventoryRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Applies the delta with one guarded UPDATE that also appends the ledger entry.
+ * The database serializes writers on the row, so there is nothing to retry and no lock held
+ * across round trips.
+ */
+@Component
+@ConditionalOnProperty(prefix = "inventory.adjustments", name = "strategy", havingValue = "atomic",
+        matchIfMissing = true)
+@RequiredArgsConstructor
+public class AtomicAdjustmentStrategy implements AdjustmentStrategy {
+
+    private final InventoryRepository inventoryRepository;
+
+    @Override
+    public Optional<InventoryItem> apply(final UUID productId, final int delta, final LocalDateTime replenishedAt,
+                                         final String reason) {
+        return inventoryRepository.adjustQuantity(productId, delta, replenishedAt, reason);
+    }
+}
@@ -0,0 +1,88 @@
+package com.shopifake.microservice.services;
+
+import com.shopifake.microservice.config.InventoryProperties;
+import com.shopifake.microservice.dtos.InventoryChangeFeed;
+import com.shopifake.microservice.dtos.InventoryChangeResponse;
+import com.shopifake.microservice.entities.InventoryChange;
+import com.shopifake.microservice.repositories.InventoryChangeRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Cursor-based reads and retention of the inventory change outbox.
+ */
+@Service
+@RequiredArgsConstructor
+public class ChangeFeedService {
+
+    private final InventoryChangeRepository changeRepository;
+    private final InventoryProperties properties;
+    private final Clock clock;
+
+    /**
+     * Read the changes positioned after {@code after}, in feed order. Positions are only given to
+     * committed changes, by one sequencer at a time, so the cursor never moves past a change that
+     * commits later.
+     *
+     * @param after cursor returned by the previous poll, or {@code null} to start from the beginning
+     * @param limit requested page size, or {@code null} for the default
+     */
+    @Transactional(readOnly = true)
+    public InventoryChangeFeed readChanges(final Long after, final Integer limit) {
+        InventoryProperties.Outbox config = properties.getOutbox();
+        int pageSize = limit != null ? limit : config.getDefaultPageSize();
+        if (pageSize < 1 || pageSize > config.getMaxPageSize()) {
+            throw new IllegalArgumentException("limit must be between 1 and " + config.getMaxPageSize());
+        }
+        long cursor = after != null ? after : 0L;
+        List<InventoryChange> page = changeRepository.findFeedPage(cursor, Limit.of(pageSize));
+        return InventoryChangeFeed.builder()
+                .changes(page.stream().map(this::mapToResponse).toList())
+                .nextCursor(page.isEmpty() ? cursor : page.get(page.size() - 1).getFeedSeq())
+                .build();
+    }
+
+    /**
+     * Give one batch of committed change records their feed positions, unless another instance
+     * holds the sequencer lock.
+     *
+     * @return number of records positioned, or -1 when the lock is held elsewhere
+     */
+    @Transactional
+    public int sequenceChanges(final int limit) {
+        if (!changeRepository.tryLockSequencer()) {
+            return -1;
+        }
+        return changeRepository.sequenceChanges(limit);
+    }
+
+    /**
+     * Delete one batch of change records older than the retention period.
+     *
+     * @return number of records deleted
+     */
+    @Transactional
+    public int pruneExpiredChanges(final int limit) {
+        LocalDateTime cutoff = LocalDateTime.now(clock).minus(properties.getOutbox().getRetention());
+        return changeRepository.pruneBefore(cutoff, limit);
+    }
+
+    private InventoryChangeResponse mapToResponse(final InventoryChange change) {
+        return InventoryChangeResponse.builder()
+                .id(change.getId())
+                .sequence(change.getFeedSeq())
+                .productId(change.getProductId())
+                .type(change.getChangeType())
+                .availableQuantity(change.getAvailableQuantity())
+                .reservedQuantity(change.getReservedQuantity())
+                .status(change.getStatus())
+                .occurredAt(change.getOccurredAt())
+                .build();
+    }
+}
@@ -0,0 +1,126 @@
+package com.shopifake.microservice.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shopifake.microservice.config.InventoryProperties;
+import com.shopifake.microservice.entities.IdempotencyRecord;
+import com.shopifake.microservice.entities.IdempotentOperation;
+import com.shopifake.microservice.repositories.IdempotencyRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Stores and replays responses of requests sent with an {@code Idempotency-Key}.
+ * A duplicate check is one primary-key probe. The response is stored by the transaction that
+ * performs the mutation, so the key and its effect commit or roll back together, and the key's
+ * primary key decides between concurrent requests carrying the same key.
+ */
+@Service
+@RequiredArgsConstructor
+public class IdempotencyService {
+
+    /**
+     * Longest key accepted, matching the key column.
+     */
+    public static final int MAX_KEY_LENGTH = 255;
+
+    private final IdempotencyRepository idempotencyRepository;
+    private final InventoryProperties properties;
+    private final ObjectMapper objectMapper;
+    private final Clock clock;
+
+    /**
+     * Return the stored response for a key, if the key has been used.
+     *
+     * @param requestHash fingerprint of the current request, from {@link #fingerprint}
+     * @throws IllegalArgumentException when the key is malformed or was used for a different request
+     */
+    public <T> Optional<T> replay(final String key, final IdempotentOperation operation, final long requestHash,
+                                  final Class<T> responseType) {
+        validateKey(key);
+        return idempotencyRepository.findById(key).map(record -> {
+            if (record.getOperation() != operation || record.getRequestHash() != requestHash) {
+                throw new IllegalArgumentException("Idempotency-Key was already used for a different request");
+            }
+            return read(record.getResponseBody(), responseType);
+        });
+    }
+
+    /**
+     * Store the response for a key in the current transaction.
+     *
+     * @throws org.springframework.dao.DuplicateKeyException when a concurrent request with the same key
+     *                                                       stored its response first
+     */
+    public void remember(final String key, final IdempotentOperation operation, final long requestHash,
+                         final Object response) {
+        idempotencyRepository.insert(IdempotencyRecord.builder()
+                .key(key)
+                .operation(operation)
+                .requestHash(requestHash)
+                .responseBody(write(response))
+                .createdAt(LocalDateTime.now(clock))
+                .build());
+    }
+
+    /**
+     * Delete up to {@code limit} keys older than the retention period.
+     *
+     * @return number of keys deleted
+     */
+    @Transactional
+    public int pruneExpiredKeys(final int limit) {
+        LocalDateTime cutoff = LocalDateTime.now(clock).minus(properties.getIdempotency().getRetention());
+        return idempotencyRepository.pruneBefore(cutoff, limit);
+    }
+
+    /**
+     * 64-bit fingerprint of the request fields that must match for a replay.
+     */
+    public static long fingerprint(final Object... fields) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (Object field : fields) {
+                digest.update(String.valueOf(field).getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) 0);
+            }
+            return ByteBuffer.wrap(digest.digest()).getLong();
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is not available", ex);
+        }
+    }
+
+    private static void validateKey(final String key) {
+        if (key == null || key.isBlank()) {
+            throw new IllegalArgumentException("Idempotency-Key must not be blank");
+        }
+        if (key.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException("Idempotency-Key must be at most " + MAX_KEY_LENGTH + " characters");
+        }
+    }
+
+    private String write(final Object response) {
+        try {
+            return objectMapper.writeValueAsString(response);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Could not store idempotent response", ex);
+        }
+    }
+
+    private <T> T read(final String body, final Class<T> responseType) {
+        try {
+            return objectMapper.readValue(body, responseType);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Could not read stored idempotent response", ex);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.shopifake.microservice.services;
+
+import com.shopifake.microservice.dtos.InventoryResponse;
+
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Strong entity tags for inventory responses. A row's version and its on-hand total, slot stock
+ * included, determine every field of its response, so tags are computed from those alone: the same
+ * way from a response about to be sent and from a version probe that never loads the rows.
+ */
+public final class InventoryETags {
+
+    private InventoryETags() {
+    }
+
+    /**
+     * Tag of a single inventory response.
+     */
+    public static String forItem(final long version, final int availableQuantity) {
+        return "\"" + version + "-" + availableQuantity + "\"";
+    }
+
+    /**
+     * Tag of a page of inventory responses.
+     */
+    public static String forPage(final List<InventoryResponse> items, final UUID nextCursor) {
+        Page page = new Page();
+        items.forEach(item -> page.add(item.getId(), item.getVersion(), item.getAvailableQuantity()));
+        return page.tag(nextCursor);
+    }
+
+    /**
+     * Digest of a page's rows, fed in page order.
+     */
+    static final class Page {
+
+        private final MessageDigest digest;
+        private final ByteBuffer buffer = ByteBuffer.allocate(2 * Long.BYTES + Long.BYTES + Integer.BYTES);
+
+        Page() {
+            try {
+                digest = MessageDigest.getInstance("SHA-256");
+            } catch (NoSuchAlgorithmException ex) {
+                throw new IllegalStateException("SHA-256 is not available", ex);
+            }
+        }
+
+        void add(final UUID id, final long version, final int availableQuantity) {
+            buffer.clear();
+            buffer.putLong(id.getMostSignificantBits())
+                    .putLong(id.getLeastSignificantBits())
+                    .putLong(version)
+                    .putInt(availableQuantity);
+            digest.update(buffer.array());
+        }
+
+        String tag(final UUID nextCursor) {
+            if (nextCursor != null) {
+                add(nextCursor, 0, 0);
+            }
+            return "\"" + HexFormat.of().formatHex(digest.digest(), 0, 16) + "\"";
+        }
+    }
+}
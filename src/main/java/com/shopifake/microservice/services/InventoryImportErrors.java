@@ -0,0 +1,41 @@
+package com.shopifake.microservice.services;
+
+import com.shopifake.microservice.dtos.InventoryImportError;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The first row errors of a bulk request, up to {@code inventory.imports.max-reported-errors};
+ * later errors only mark the list as truncated, so a body full of bad rows stays in constant memory.
+ */
+final class InventoryImportErrors {
+
+    private final int maxReported;
+    private final List<InventoryImportError> errors = new ArrayList<>();
+    private boolean truncated;
+
+    InventoryImportErrors(final int maxReported) {
+        this.maxReported = maxReported;
+    }
+
+    void report(final InventoryImportReader.Row<?> row, final String message) {
+        if (errors.size() >= maxReported) {
+            truncated = true;
+            return;
+        }
+        errors.add(InventoryImportError.builder()
+                .line(row.line())
+                .productId(row.productId())
+                .message(message)
+                .build());
+    }
+
+    List<InventoryImportError> list() {
+        return errors;
+    }
+
+    boolean truncated() {
+        return truncated;
+    }
+}
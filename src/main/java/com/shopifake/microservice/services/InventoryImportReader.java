@@ -0,0 +1,208 @@
+package com.shopifake.microservice.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Reads bulk rows one line at a time, so a body of any size is parsed in constant memory.
+ * CSV rows hold a productId followed by the integer columns of the {@link Schema}, optionally under
+ * a header row naming those columns in any order (other columns are ignored); NDJSON rows are
+ * bound to the schema's type. Every row is checked against the type's constraints.
+ *
+ * @param <T> row type
+ */
+final class InventoryImportReader<T> {
+
+    /**
+     * A parsed row, or the reason it was rejected; {@code value} may be partial or {@code null}
+     * when rejected.
+     */
+    record Row<T>(long line, T value, UUID productId, String error) {
+    }
+
+    /**
+     * How rows of one type are read.
+     *
+     * @param type        type NDJSON rows are bound to
+     * @param productId   product of a bound row
+     * @param columns     names of the integer CSV columns after productId, in their default order
+     * @param fromColumns builds a row from its product and integer columns, missing ones being 0
+     */
+    record Schema<T>(Class<T> type, Function<T, UUID> productId, List<String> columns,
+                     BiFunction<UUID, int[], T> fromColumns) {
+    }
+
+    private static final String PRODUCT_ID = "productid";
+
+    private final BufferedReader body;
+    private final InventoryImportService.Format format;
+    private final Schema<T> schema;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private Map<String, Integer> positions;
+    private long line;
+
+    InventoryImportReader(final InputStream body, final InventoryImportService.Format format,
+                          final Schema<T> schema, final ObjectMapper objectMapper, final Validator validator) {
+        this.body = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        this.format = format;
+        this.schema = schema;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+    }
+
+    /**
+     * Read the whole body, handing rejected rows over one by one and valid rows in chunks of at
+     * most {@code chunkSize}, so no more than one chunk is ever held.
+     *
+     * @return number of non-blank rows read, header excluded
+     */
+    long readChunks(final int chunkSize, final Consumer<Row<T>> rejected, final Consumer<List<Row<T>>> chunks)
+            throws IOException {
+        long received = 0;
+        List<Row<T>> chunk = new ArrayList<>(chunkSize);
+        for (Row<T> row = next(); row != null; row = next()) {
+            received++;
+            if (row.error() != null) {
+                rejected.accept(row);
+                continue;
+            }
+            chunk.add(row);
+            if (chunk.size() >= chunkSize) {
+                chunks.accept(chunk);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            chunks.accept(chunk);
+        }
+        return received;
+    }
+
+    /**
+     * Read the next non-blank row.
+     *
+     * @return the row, or {@code null} at the end of the body
+     */
+    private Row<T> next() throws IOException {
+        String text;
+        do {
+            text = body.readLine();
+            line++;
+            if (text == null) {
+                return null;
+            }
+        } while (text.isBlank());
+        if (format == InventoryImportService.Format.NDJSON) {
+            return validated(readJson(text));
+        }
+        if (positions == null) {
+            positions = header(text);
+            if (positions != null) {
+                return next();
+            }
+            positions = new HashMap<>();
+            positions.put(PRODUCT_ID, 0);
+            for (int i = 0; i < schema.columns().size(); i++) {
+                positions.put(normalize(schema.columns().get(i)), i + 1);
+            }
+        }
+        return validated(readCsv(text));
+    }
+
+    private Row<T> readJson(final String text) {
+        try {
+            T value = objectMapper.readValue(text, schema.type());
+            if (value == null) {
+                return new Row<>(line, null, null, "Malformed JSON: row is null");
+            }
+            return new Row<>(line, value, schema.productId().apply(value), null);
+        } catch (JsonProcessingException ex) {
+            return new Row<>(line, null, null, "Malformed JSON: " + ex.getOriginalMessage());
+        }
+    }
+
+    private Row<T> readCsv(final String text) {
+        String[] fields = text.split(",", -1);
+        UUID productId;
+        try {
+            String value = field(fields, PRODUCT_ID);
+            productId = value.isEmpty() ? null : UUID.fromString(value);
+        } catch (IllegalArgumentException ex) {
+            return new Row<>(line, null, null, "productId is not a UUID");
+        }
+        int[] values = new int[schema.columns().size()];
+        try {
+            for (int i = 0; i < values.length; i++) {
+                String value = field(fields, normalize(schema.columns().get(i)));
+                values[i] = value.isEmpty() ? 0 : Integer.parseInt(value);
+            }
+        } catch (NumberFormatException ex) {
+            return new Row<>(line, null, productId, String.join(" and ", schema.columns()) + " must be integers");
+        }
+        return new Row<>(line, schema.fromColumns().apply(productId, values), productId, null);
+    }
+
+    private Row<T> validated(final Row<T> row) {
+        if (row.error() != null) {
+            return row;
+        }
+        Set<ConstraintViolation<T>> violations = validator.validate(row.value());
+        if (violations.isEmpty()) {
+            return row;
+        }
+        return new Row<>(row.line(), row.value(), row.productId(), violations.stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .collect(Collectors.joining("; ")));
+    }
+
+    /**
+     * Column positions named by a header row, or {@code null} when the first row is data. A row is
+     * taken as a header when one of its columns is named productId.
+     */
+    private static Map<String, Integer> header(final String text) {
+        String[] names = text.split(",", -1);
+        Map<String, Integer> positions = new HashMap<>();
+        for (int i = 0; i < names.length; i++) {
+            positions.putIfAbsent(normalize(names[i]), i);
+        }
+        return positions.containsKey(PRODUCT_ID) ? positions : null;
+    }
+
+    private String field(final String[] fields, final String column) {
+        Integer position = positions.get(column);
+        return position != null && position < fields.length ? unquote(fields[position]) : "";
+    }
+
+    private static String normalize(final String name) {
+        return unquote(name).replaceAll("[_\\-\\s]", "").toLowerCase(Locale.ROOT);
+    }
+
+    private static String unquote(final String value) {
+        String trimmed = value.trim();
+        if (trimmed.length() >= 2 && trimmed.startsWith("\"") && trimmed.endsWith("\"")) {
+            return trimmed.substring(1, trimmed.length() - 1).trim();
+        }
+        return trimmed;
+    }
+}
@@ -0,0 +1,166 @@
+package com.shopifake.microservice.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shopifake.microservice.config.InventoryProperties;
+import com.shopifake.microservice.dtos.CreateInventoryRequest;
+import com.shopifake.microservice.dtos.InventoryImportResponse;
+import com.shopifake.microservice.entities.InventoryItem;
+import com.shopifake.microservice.entities.InventoryLedgerEntry;
+import com.shopifake.microservice.entities.InventoryStatus;
+import com.shopifake.microservice.events.InventoryChangeType;
+import com.shopifake.microservice.events.InventoryChangedEvent;
+import com.shopifake.microservice.repositories.InventoryRepository;
+import com.shopifake.microservice.repositories.LedgerRepository;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Streaming catalog imports. The body is parsed a line at a time and loaded in chunks of
+ * {@code inventory.imports.chunk-size} rows, one transaction each, so memory stays flat however
+ * large the catalog is. Products that already have inventory are reported rather than overwritten,
+ * as with a single create; a failed chunk does not roll back the chunks before it.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class InventoryImportService {
+
+    /**
+     * Accepted body formats.
+     */
+    public enum Format {
+        CSV,
+        NDJSON
+    }
+
+    private static final InventoryImportReader.Schema<CreateInventoryRequest> SCHEMA =
+            new InventoryImportReader.Schema<>(CreateInventoryRequest.class, CreateInventoryRequest::getProductId,
+                    List.of("initialQuantity", "reorderThreshold"),
+                    (productId, values) -> new CreateInventoryRequest(productId, values[0], values[1]));
+
+    private final InventoryRepository inventoryRepository;
+    private final LedgerRepository ledgerRepository;
+    private final InventoryProperties properties;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final Clock clock;
+
+    /**
+     * Create inventory for every valid row of the body whose product has none yet.
+     */
+    public InventoryImportResponse importInventory(final InputStream body, final Format format) {
+        InventoryProperties.Imports config = properties.getImports();
+        Tally tally = new Tally(new InventoryImportErrors(config.getMaxReportedErrors()));
+        try {
+            tally.received = new InventoryImportReader<>(body, format, SCHEMA, objectMapper, validator)
+                    .readChunks(config.getChunkSize(), row -> {
+                        tally.rejected++;
+                        tally.errors.report(row, row.error());
+                    }, chunk -> load(chunk, tally));
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to read import body", ex);
+        }
+        log.info("Imported inventory: {} rows received, {} created, {} duplicates, {} rejected",
+                tally.received, tally.created, tally.duplicates, tally.rejected);
+        return tally.toResponse();
+    }
+
+    private void load(final List<InventoryImportReader.Row<CreateInventoryRequest>> chunk, final Tally tally) {
+        LocalDateTime now = LocalDateTime.now(clock);
+        List<InventoryItem> items = chunk.stream()
+                .map(row -> toItem(row.value(), now))
+                .toList();
+        List<InventoryItem> inserted;
+        try {
+            inserted = transactionTemplate.execute(status -> insert(items));
+        } catch (DataIntegrityViolationException ex) {
+            // A product created concurrently after the existence check; the retry sees and skips it
+            log.debug("Retrying import chunk after a concurrent create: {}", ex.getMessage());
+            inserted = transactionTemplate.execute(status -> insert(items));
+        }
+        Set<UUID> created = new HashSet<>();
+        inserted.forEach(item -> created.add(item.getProductId()));
+        for (InventoryImportReader.Row<CreateInventoryRequest> row : chunk) {
+            if (created.remove(row.productId())) {
+                tally.created++;
+            } else {
+                tally.duplicates++;
+                tally.errors.report(row, "Inventory already exists for product " + row.productId());
+            }
+        }
+    }
+
+    private List<InventoryItem> insert(final List<InventoryItem> items) {
+        List<InventoryItem> inserted = inventoryRepository.insertMissing(items);
+        if (inserted.isEmpty()) {
+            return inserted;
+        }
+        ledgerRepository.recordEntries(inserted.stream()
+                .map(item -> InventoryLedgerEntry.builder()
+                        .productId(item.getProductId())
+                        .delta(item.getAvailableQuantity())
+                        .quantityAfter(item.getAvailableQuantity())
+                        .reason("Inventory imported")
+                        .build())
+                .toList());
+        inserted.forEach(item -> eventPublisher.publishEvent(
+                new InventoryChangedEvent(InventoryChangeType.CREATED, item.getProductId(), item)));
+        return inserted;
+    }
+
+    private static InventoryItem toItem(final CreateInventoryRequest request, final LocalDateTime now) {
+        return InventoryItem.builder()
+                .id(UUID.randomUUID())
+                .productId(request.getProductId())
+                .availableQuantity(request.getInitialQuantity())
+                .reorderThreshold(request.getReorderThreshold())
+                .status(InventoryStatus.of(request.getInitialQuantity(), request.getReorderThreshold()))
+                .createdAt(now)
+                .updatedAt(now)
+                .build();
+    }
+
+    /**
+     * Running counts, and the first errors, of one import.
+     */
+    private static final class Tally {
+
+        private final InventoryImportErrors errors;
+        private long received;
+        private long created;
+        private long duplicates;
+        private long rejected;
+
+        Tally(final InventoryImportErrors errors) {
+            this.errors = errors;
+        }
+
+        InventoryImportResponse toResponse() {
+            return InventoryImportResponse.builder()
+                    .received(received)
+                    .created(created)
+                    .duplicates(duplicates)
+                    .rejected(rejected)
+                    .errors(errors.list())
+                    .errorsTruncated(errors.truncated())
+                    .build();
+        }
+    }
+}
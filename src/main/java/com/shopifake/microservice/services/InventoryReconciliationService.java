@@ -0,0 +1,294 @@
+package com.shopifake.microservice.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shopifake.microservice.config.InventoryProperties;
+import com.shopifake.microservice.dtos.InventoryReconcileResponse;
+import com.shopifake.microservice.dtos.ReconcileInventoryLine;
+import com.shopifake.microservice.entities.InventoryItem;
+import com.shopifake.microservice.events.InventoryChangeType;
+import com.shopifake.microservice.events.InventoryChangedEvent;
+import com.shopifake.microservice.metrics.InventoryMetrics;
+import com.shopifake.microservice.repositories.InventoryRepository;
+import com.shopifake.microservice.repositories.InventoryVersion;
+import com.shopifake.microservice.repositories.QuantityAdjustment;
+import com.shopifake.microservice.repositories.StockSlot;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Reconciles inventory to an absolute on-hand snapshot, such as a nightly ERP export. The body is
+ * streamed in chunks of {@code inventory.imports.chunk-size} rows; each chunk is sorted by product,
+ * compared against a version probe of its rows, and only the products whose quantity differs are
+ * adjusted, in one JDBC batch with their ledger entries. Unchanged products are not written at all.
+ * Each difference is applied only while the row is still at the probed version; rows another write
+ * got to first are probed again, so every changed product ends at exactly its snapshot quantity.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class InventoryReconciliationService {
+
+    private static final String REASON = "Reconciled to snapshot";
+
+    /**
+     * Version-guarded update rounds per chunk before a row that keeps changing is given up on.
+     */
+    private static final int MAX_ATTEMPTS = 3;
+
+    private static final InventoryImportReader.Schema<ReconcileInventoryLine> SCHEMA =
+            new InventoryImportReader.Schema<>(ReconcileInventoryLine.class, ReconcileInventoryLine::getProductId,
+                    List.of("quantity"), (productId, values) -> new ReconcileInventoryLine(productId, values[0]));
+
+    private final InventoryRepository inventoryRepository;
+    private final StockSlotService stockSlotService;
+    private final InventoryProperties properties;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final InventoryMetrics inventoryMetrics;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final Clock clock;
+
+    private enum Outcome { CHANGED, UNCHANGED, BELOW_RESERVED, CONFLICT }
+
+    /**
+     * Set the on-hand quantity of every product in the snapshot that differs from it.
+     */
+    public InventoryReconcileResponse reconcileInventory(final InputStream body,
+                                                         final InventoryImportService.Format format) {
+        InventoryProperties.Imports config = properties.getImports();
+        Tally tally = new Tally(new InventoryImportErrors(config.getMaxReportedErrors()));
+        try {
+            tally.received = new InventoryImportReader<>(body, format, SCHEMA, objectMapper, validator)
+                    .readChunks(config.getChunkSize(), row -> {
+                        tally.rejected++;
+                        tally.errors.report(row, row.error());
+                    }, chunk -> reconcile(chunk, tally));
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to read reconciliation body", ex);
+        }
+        log.info("Reconciled inventory: {} rows received, {} changed, {} unchanged, {} missing, {} rejected",
+                tally.received, tally.changed, tally.unchanged, tally.missing, tally.rejected);
+        return tally.toResponse();
+    }
+
+    private void reconcile(final List<InventoryImportReader.Row<ReconcileInventoryLine>> chunk, final Tally tally) {
+        // Sorted so concurrent reconciliations and batch adjustments lock rows in the same order
+        List<InventoryImportReader.Row<ReconcileInventoryLine>> sorted = new ArrayList<>(chunk);
+        sorted.sort(Comparator.comparing(InventoryImportReader.Row<ReconcileInventoryLine>::productId));
+        Map<UUID, InventoryImportReader.Row<ReconcileInventoryLine>> targets = new LinkedHashMap<>();
+        for (InventoryImportReader.Row<ReconcileInventoryLine> row : sorted) {
+            if (targets.putIfAbsent(row.productId(), row) != null) {
+                tally.rejected++;
+                tally.errors.report(row, "Product " + row.productId() + " is listed more than once");
+            }
+        }
+        transactionTemplate.executeWithoutResult(status -> apply(targets, tally));
+    }
+
+    /**
+     * Probe the pending rows and apply their differences at the probed versions, until every row is
+     * settled or {@link #MAX_ATTEMPTS} rounds have run. A guarded update refuses either because the
+     * row moved on or because the new quantity is below the reserved one; a row found again at the
+     * version it was refused at was refused for the latter.
+     */
+    private void apply(final Map<UUID, InventoryImportReader.Row<ReconcileInventoryLine>> pending,
+                       final Tally tally) {
+        LocalDateTime now = LocalDateTime.now(clock);
+        Map<UUID, Long> refusedAt = new HashMap<>();
+        int missing = 0;
+        for (int attempt = 0; !pending.isEmpty(); attempt++) {
+            boolean lastProbe = attempt == MAX_ATTEMPTS;
+            Map<UUID, InventoryVersion> current = new HashMap<>();
+            inventoryRepository.findVersionsByProductIdIn(pending.keySet())
+                    .forEach(version -> current.put(version.getProductId(), version));
+            List<QuantityAdjustment> adjustments = new ArrayList<>();
+            List<Long> versions = new ArrayList<>();
+            for (Iterator<InventoryImportReader.Row<ReconcileInventoryLine>> it = pending.values().iterator();
+                 it.hasNext();) {
+                InventoryImportReader.Row<ReconcileInventoryLine> row = it.next();
+                UUID productId = row.productId();
+                InventoryVersion version = current.get(productId);
+                if (version == null) {
+                    missing++;
+                    tally.missing++;
+                    tally.errors.report(row, "Inventory not found for product " + productId);
+                    it.remove();
+                    continue;
+                }
+                Long refused = refusedAt.get(productId);
+                if (refused != null && refused == version.getVersion()) {
+                    belowReserved(row, tally);
+                    it.remove();
+                    continue;
+                }
+                if (lastProbe) {
+                    tally.rejected++;
+                    tally.errors.report(row, "Inventory for product " + productId
+                            + " kept changing during reconciliation");
+                    continue;
+                }
+                int target = row.value().getQuantity();
+                Outcome outcome = version.getSlotCount() > 0
+                        ? reconcileSharded(productId, target, now)
+                        : stage(version, target, now, adjustments, versions);
+                switch (outcome) {
+                    case UNCHANGED -> {
+                        tally.unchanged++;
+                        it.remove();
+                    }
+                    case CHANGED -> {
+                        tally.changed++;
+                        it.remove();
+                    }
+                    case BELOW_RESERVED -> {
+                        belowReserved(row, tally);
+                        it.remove();
+                    }
+                    case CONFLICT -> {
+                        // Probed again next round
+                    }
+                }
+            }
+            if (lastProbe) {
+                break;
+            }
+            applyBatch(adjustments, versions, pending, refusedAt, tally);
+        }
+        inventoryMetrics.recordNotFound(InventoryMetrics.Operation.RECONCILE, missing);
+    }
+
+    /**
+     * Queue the difference of an unsharded row for the batch; {@link Outcome#CONFLICT} stands for
+     * "not settled yet".
+     */
+    private static Outcome stage(final InventoryVersion version, final int target, final LocalDateTime now,
+                                 final List<QuantityAdjustment> adjustments, final List<Long> versions) {
+        int delta = target - version.getAvailableQuantity();
+        if (delta == 0) {
+            return Outcome.UNCHANGED;
+        }
+        adjustments.add(new QuantityAdjustment(version.getProductId(), delta, delta > 0 ? now : null, REASON));
+        versions.add(version.getVersion());
+        return Outcome.CONFLICT;
+    }
+
+    private void applyBatch(final List<QuantityAdjustment> adjustments, final List<Long> versions,
+                            final Map<UUID, InventoryImportReader.Row<ReconcileInventoryLine>> pending,
+                            final Map<UUID, Long> refusedAt, final Tally tally) {
+        if (adjustments.isEmpty()) {
+            return;
+        }
+        boolean[] applied = inventoryRepository.adjustQuantitiesAtVersion(adjustments,
+                versions.stream().mapToLong(Long::longValue).toArray());
+        Map<UUID, Integer> appliedDeltas = new HashMap<>();
+        for (int i = 0; i < applied.length; i++) {
+            UUID productId = adjustments.get(i).getProductId();
+            if (applied[i]) {
+                appliedDeltas.put(productId, adjustments.get(i).getDelta());
+                pending.remove(productId);
+            } else {
+                refusedAt.put(productId, versions.get(i));
+            }
+        }
+        if (appliedDeltas.isEmpty()) {
+            return;
+        }
+        inventoryRepository.findByProductIdIn(appliedDeltas.keySet())
+                .forEach(item -> publishAdjusted(item, appliedDeltas.get(item.getProductId())));
+        tally.changed += appliedDeltas.size();
+    }
+
+    /**
+     * Reconcile a sharded product. Locking its slots holds off slot decrements, so head plus slots
+     * is an exact total, and the head update is guarded on the version read under those locks. When
+     * the head alone cannot absorb a decrease, the slots are folded into it first.
+     */
+    private Outcome reconcileSharded(final UUID productId, final int target, final LocalDateTime now) {
+        List<StockSlot> slots = inventoryRepository.lockSlots(productId);
+        int slotStock = slots.stream().mapToInt(StockSlot::getQuantity).sum();
+        InventoryItem head = inventoryRepository.readHead(productId).orElse(null);
+        if (head == null) {
+            return Outcome.CONFLICT;
+        }
+        int delta = target - head.getAvailableQuantity() - slotStock;
+        if (delta == 0) {
+            return Outcome.UNCHANGED;
+        }
+        if (target < head.getReservedQuantity()) {
+            return Outcome.BELOW_RESERVED;
+        }
+        if (head.getAvailableQuantity() + delta < head.getReservedQuantity() && slotStock > 0) {
+            inventoryRepository.replaceSlots(productId, new int[slots.size()]);
+            inventoryRepository.adjustQuantity(productId, slotStock, null);
+            head = inventoryRepository.readHead(productId).orElseThrow();
+        }
+        boolean[] applied = inventoryRepository.adjustQuantitiesAtVersion(
+                List.of(new QuantityAdjustment(productId, delta, delta > 0 ? now : null, REASON)),
+                new long[] {head.getVersion()});
+        if (!applied[0]) {
+            return Outcome.CONFLICT;
+        }
+        publishAdjusted(stockSlotService.withSlots(inventoryRepository.readHead(productId).orElseThrow()), delta);
+        return Outcome.CHANGED;
+    }
+
+    private void belowReserved(final InventoryImportReader.Row<ReconcileInventoryLine> row, final Tally tally) {
+        inventoryMetrics.recordInsufficientStock(InventoryMetrics.Source.RECONCILE);
+        tally.rejected++;
+        tally.errors.report(row, "quantity is below the reserved quantity");
+    }
+
+    private void publishAdjusted(final InventoryItem item, final int delta) {
+        inventoryMetrics.recordAdjustment(InventoryMetrics.Source.RECONCILE, delta);
+        eventPublisher.publishEvent(new InventoryChangedEvent(InventoryChangeType.ADJUSTED, item.getProductId(),
+                item, delta, 0));
+    }
+
+    /**
+     * Running counts, and the first errors, of one reconciliation.
+     */
+    private static final class Tally {
+
+        private final InventoryImportErrors errors;
+        private long received;
+        private long changed;
+        private long unchanged;
+        private long missing;
+        private long rejected;
+
+        Tally(final InventoryImportErrors errors) {
+            this.errors = errors;
+        }
+
+        InventoryReconcileResponse toResponse() {
+            return InventoryReconcileResponse.builder()
+                    .received(received)
+                    .changed(changed)
+                    .unchanged(unchanged)
+                    .missing(missing)
+                    .rejected(rejected)
+                    .errors(errors.list())
+                    .errorsTruncated(errors.truncated())
+                    .build();
+        }
+    }
+}
@@ -1,21 +1,63 @@
 package com.shopifake.microservice.services;
 
+import com.shopifake.microservice.cache.InventoryCache;
+import com.shopifake.microservice.config.InventoryProperties;
 import com.shopifake.microservice.dtos.AdjustInventoryRequest;
+import com.shopifake.microservice.dtos.AdjustmentOutcome;
+import com.shopifake.microservice.dtos.BatchAdjustInventoryLine;
+import com.shopifake.microservice.dtos.BatchAdjustInventoryRequest;
+import com.shopifake.microservice.dtos.BatchAdjustInventoryResponse;
+import com.shopifake.microservice.dtos.BatchAdjustmentResult;
+import com.shopifake.microservice.dtos.ConfigureSlotsRequest;
 import com.shopifake.microservice.dtos.CreateInventoryRequest;
+import com.shopifake.microservice.dtos.InventoryAvailability;
+import com.shopifake.microservice.dtos.InventoryLookupRequest;
+import com.shopifake.microservice.dtos.InventoryLookupResponse;
+import com.shopifake.microservice.dtos.InventoryPage;
 import com.shopifake.microservice.dtos.InventoryResponse;
+import com.shopifake.microservice.dtos.InventorySummaryResponse;
+import com.shopifake.microservice.dtos.ReorderThresholdRequest;
+import com.shopifake.microservice.entities.IdempotentOperation;
 import com.shopifake.microservice.entities.InventoryItem;
+import com.shopifake.microservice.entities.InventoryLedgerEntry;
 import com.shopifake.microservice.entities.InventoryStatus;
+import com.shopifake.microservice.events.InventoryChangeType;
+import com.shopifake.microservice.events.InventoryChangedEvent;
+import com.shopifake.microservice.metrics.InventoryMetrics;
 import com.shopifake.microservice.repositories.InventoryRepository;
-import jakarta.transaction.Transactional;
+import com.shopifake.microservice.repositories.InventoryStatusTotals;
+import com.shopifake.microservice.repositories.InventoryVersion;
+import com.shopifake.microservice.repositories.LedgerRepository;
+import com.shopifake.microservice.repositories.QuantityAdjustment;
+import com.shopifake.microservice.summary.InventorySummary;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.util.StringUtils;
 
 import java.time.Clock;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 /**
  * Business operations for product inventory tracking.
@@ -25,68 +67,374 @@ import java.util.UUID;
 @Slf4j
 public class InventoryService {
 
+    /**
+     * Sorts before every id, so the first page is simply "ids after this one".
+     */
+    private static final UUID FIRST_CURSOR = new UUID(0L, 0L);
+
     private final InventoryRepository inventoryRepository;
-    private final Clock clock = Clock.systemUTC();
+    private final LedgerRepository ledgerRepository;
+    private final InventoryProperties properties;
+    private final TransactionTemplate transactionTemplate;
+    private final AdjustmentCoalescer adjustmentCoalescer;
+    private final AdjustmentStrategy adjustmentStrategy;
+    private final InventoryCache inventoryCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final InventoryMetrics inventoryMetrics;
+    private final IdempotencyService idempotencyService;
+    private final StockSlotService stockSlotService;
+    private final InventorySummary inventorySummary;
+    private final Clock clock;
 
     /**
      * Create a new inventory row when a product is onboarded.
      */
-    @Transactional
     public InventoryResponse createInventory(final CreateInventoryRequest request) {
+        return createInventory(request, null);
+    }
+
+    /**
+     * Create a new inventory row, replaying the stored response when {@code idempotencyKey} was
+     * already used for the same request.
+     */
+    public InventoryResponse createInventory(final CreateInventoryRequest request, final String idempotencyKey) {
+        if (idempotencyKey == null) {
+            return transactionTemplate.execute(status -> insertInventory(request));
+        }
+        long requestHash = IdempotencyService.fingerprint(request.getProductId(), request.getInitialQuantity(),
+                request.getReorderThreshold());
+        return idempotent(idempotencyKey, IdempotentOperation.CREATE, requestHash, InventoryMetrics.Operation.CREATE,
+                store -> transactionTemplate.execute(status -> {
+                    InventoryResponse created = insertInventory(request);
+                    store.accept(created);
+                    return created;
+                }));
+    }
+
+    private InventoryResponse insertInventory(final CreateInventoryRequest request) {
         if (inventoryRepository.existsByProductId(request.getProductId())) {
             throw new IllegalArgumentException("Inventory already exists for product " + request.getProductId());
         }
         InventoryItem item = InventoryItem.builder()
                 .productId(request.getProductId())
                 .availableQuantity(request.getInitialQuantity())
-                .status(deriveStatus(request.getInitialQuantity()))
+                .reorderThreshold(request.getReorderThreshold())
+                .status(InventoryStatus.of(request.getInitialQuantity(), request.getReorderThreshold()))
                 .build();
 
         InventoryItem saved = inventoryRepository.save(item);
+        recordLedgerEntry(saved.getProductId(), saved.getAvailableQuantity(), saved.getAvailableQuantity(),
+                "Inventory created");
+        publish(InventoryChangeType.CREATED, saved);
         return mapToResponse(saved);
     }
 
     /**
-     * Get inventory details by product id.
+     * Get inventory details by product id, served from the read-through cache.
      */
     public InventoryResponse getInventory(final UUID productId) {
-        return mapToResponse(getInventoryOrThrow(productId));
+        return inventoryCache.get(productId, id -> mapToResponse(
+                stockSlotService.withSlots(getInventoryOrThrow(id, InventoryMetrics.Operation.GET))));
+    }
+
+    /**
+     * Entity tag of a product's current inventory, from a version probe that neither loads the row
+     * nor builds a response. Empty when the product has no inventory row.
+     */
+    public Optional<String> inventoryETag(final UUID productId) {
+        return inventoryRepository.findVersionByProductId(productId).map(version -> InventoryETags.forItem(
+                version.getVersion(), version.getAvailableQuantity() + slotStock(List.of(version))
+                        .getOrDefault(version.getProductId(), 0)));
     }
 
     /**
-     * List inventory rows optionally filtered by status.
+     * Entity tag of the page {@link #listInventory} would return for the same arguments, computed
+     * from version probes of its rows.
      */
-    public List<InventoryResponse> listInventory(final String status) {
+    @Transactional(readOnly = true)
+    public String listInventoryETag(final String status, final UUID after, final Integer limit) {
+        int pageSize = resolvePageSize(limit);
+        UUID cursor = after != null ? after : FIRST_CURSOR;
+        List<InventoryVersion> versions;
+        if (StringUtils.hasText(status)) {
+            versions = inventoryRepository.findVersionsByStatusAfter(parseStatus(status), cursor,
+                    Limit.of(pageSize + 1));
+        } else {
+            versions = inventoryRepository.findVersionsAfter(cursor, Limit.of(pageSize + 1));
+        }
+        boolean hasMore = versions.size() > pageSize;
+        List<InventoryVersion> page = hasMore ? versions.subList(0, pageSize) : versions;
+        Map<UUID, Integer> slotStock = slotStock(page);
+        InventoryETags.Page tag = new InventoryETags.Page();
+        for (InventoryVersion version : page) {
+            tag.add(version.getId(), version.getVersion(),
+                    version.getAvailableQuantity() + slotStock.getOrDefault(version.getProductId(), 0));
+        }
+        return tag.tag(hasMore ? page.get(page.size() - 1).getId() : null);
+    }
+
+    /**
+     * List one keyset page of inventory rows in id order, optionally filtered by status.
+     *
+     * @param status optional status filter
+     * @param after  cursor returned with the previous page, or {@code null} for the first page
+     * @param limit  requested page size, or {@code null} for the default
+     */
+    @Transactional(readOnly = true)
+    public InventoryPage listInventory(final String status, final UUID after, final Integer limit) {
+        int pageSize = resolvePageSize(limit);
+        UUID cursor = after != null ? after : FIRST_CURSOR;
         List<InventoryItem> items;
         if (StringUtils.hasText(status)) {
-            items = inventoryRepository.findByStatus(parseStatus(status));
+            items = inventoryRepository.findPageByStatusAfter(parseStatus(status), cursor, Limit.of(pageSize + 1));
         } else {
-            items = inventoryRepository.findAll();
+            items = inventoryRepository.findPageAfter(cursor, Limit.of(pageSize + 1));
+        }
+        return toPage(items, pageSize);
+    }
+
+    /**
+     * List one keyset page of low-stock and out-of-stock rows in id order, for reorder scans.
+     * Only the partial index over at-risk rows is read, so the cost follows the number of at-risk
+     * rows rather than the catalog size.
+     *
+     * @param after cursor returned with the previous page, or {@code null} for the first page
+     * @param limit requested page size, or {@code null} for the default
+     */
+    @Transactional(readOnly = true)
+    public InventoryPage listLowStock(final UUID after, final Integer limit) {
+        int pageSize = resolvePageSize(limit);
+        return toPage(inventoryRepository.findAtRiskPage(after != null ? after : FIRST_CURSOR, pageSize + 1),
+                pageSize);
+    }
+
+    /**
+     * Stream every inventory row, optionally filtered by status, over a forward-only cursor.
+     * Memory use is bounded by the fetch size regardless of catalog size.
+     */
+    @Transactional(readOnly = true)
+    public void streamInventory(final String status, final Consumer<InventoryResponse> sink) {
+        InventoryStatus filter = StringUtils.hasText(status) ? parseStatus(status) : null;
+        Map<UUID, Integer> slotStock = stockSlotService.slotTotals();
+        inventoryRepository.scan(filter, properties.getListing().getStreamFetchSize(),
+                item -> sink.accept(mapToResponse(stockSlotService.withSlots(item, slotStock))));
+    }
+
+    /**
+     * Rows per status and units on hand, read from the incrementally maintained summary in constant
+     * time whatever the catalog size.
+     */
+    public InventorySummaryResponse summarizeInventory() {
+        Map<InventoryStatus, Long> items = new EnumMap<>(InventoryStatus.class);
+        for (InventoryStatus status : InventoryStatus.values()) {
+            items.put(status, 0L);
+        }
+        long totalItems = 0;
+        long unitsOnHand = 0;
+        for (InventoryStatusTotals totals : inventoryRepository.readSummary()) {
+            items.put(totals.getStatus(), totals.getItems());
+            totalItems += totals.getItems();
+            unitsOnHand += totals.getUnits();
+        }
+        return InventorySummaryResponse.builder()
+                .items(items)
+                .totalItems(totalItems)
+                .unitsOnHand(unitsOnHand)
+                .build();
+    }
+
+    /**
+     * Look up stock for many products with chunked {@code IN (...)} queries.
+     * Duplicate ids are collapsed and ids without an inventory row are reported in
+     * {@code missing} rather than as errors.
+     */
+    @Transactional(readOnly = true)
+    public InventoryLookupResponse lookupInventory(final InventoryLookupRequest request) {
+        List<UUID> productIds = new ArrayList<>(new LinkedHashSet<>(request.getProductIds()));
+        int maxIds = properties.getLookup().getMaxIds();
+        if (productIds.size() > maxIds) {
+            throw new IllegalArgumentException("Lookup exceeds the maximum of " + maxIds + " product ids");
+        }
+        Map<UUID, InventoryAvailability> found = new HashMap<>(productIds.size() * 2);
+        int chunkSize = Math.max(1, properties.getLookup().getChunkSize());
+        for (int from = 0; from < productIds.size(); from += chunkSize) {
+            List<UUID> chunk = productIds.subList(from, Math.min(from + chunkSize, productIds.size()));
+            for (InventoryItem item : stockSlotService.withSlots(inventoryRepository.findByProductIdIn(chunk))) {
+                found.put(item.getProductId(), mapToAvailability(item));
+            }
+        }
+
+        Map<UUID, InventoryAvailability> items = new LinkedHashMap<>(found.size() * 2);
+        List<UUID> missing = new ArrayList<>();
+        for (UUID productId : productIds) {
+            InventoryAvailability availability = found.get(productId);
+            if (availability != null) {
+                items.put(productId, availability);
+            } else {
+                missing.add(productId);
+            }
         }
-        return items.stream().map(this::mapToResponse).toList();
+        inventoryMetrics.recordNotFound(InventoryMetrics.Operation.LOOKUP, missing.size());
+        return InventoryLookupResponse.builder()
+                .items(items)
+                .missing(missing)
+                .build();
     }
 
     /**
      * Adjust the on-hand quantity for a product.
+     * The configured {@link AdjustmentStrategy} keeps concurrent adjustments from losing updates or
+     * driving the quantity below the reserved stock, and appends the adjustment and its reason to
+     * the ledger in the same transaction. With group commit enabled, concurrent adjustments of the
+     * same product instead share one guarded UPDATE and its transaction.
      */
-    @Transactional
     public InventoryResponse adjustInventory(final UUID productId, final AdjustInventoryRequest request) {
-        if (request.getQuantityDelta() == 0) {
+        return adjustInventory(productId, request, null);
+    }
+
+    /**
+     * Adjust the on-hand quantity, replaying the stored response instead of applying the delta
+     * again when {@code idempotencyKey} was already used for the same request. The key is stored
+     * in the transaction that applies the delta, so keyed adjustments bypass group commit.
+     */
+    public InventoryResponse adjustInventory(final UUID productId, final AdjustInventoryRequest request,
+                                             final String idempotencyKey) {
+        int delta = request.getQuantityDelta();
+        if (delta == 0) {
             throw new IllegalArgumentException("quantityDelta must be non-zero");
         }
-        InventoryItem item = getInventoryOrThrow(productId);
-        int newQuantity = item.getAvailableQuantity() + request.getQuantityDelta();
-        if (newQuantity < 0) {
-            throw new IllegalArgumentException("Adjustment would produce negative quantity");
+        if (idempotencyKey != null) {
+            long requestHash = IdempotencyService.fingerprint(productId, delta, request.getReason());
+            return idempotent(idempotencyKey, IdempotentOperation.ADJUST, requestHash,
+                    InventoryMetrics.Operation.ADJUST,
+                    store -> mapToResponse(applyAdjustment(productId, delta, request.getReason(),
+                            updated -> store.accept(mapToResponse(updated)))));
         }
-        item.setAvailableQuantity(newQuantity);
-        item.setStatus(deriveStatus(newQuantity));
-        if (request.getQuantityDelta() > 0) {
-            item.setReplenishmentAt(LocalDateTime.now(clock));
+        if (adjustmentCoalescer.isEnabled() && !stockSlotService.isSharded(productId)) {
+            InventoryItem coalesced = adjustmentCoalescer.adjust(productId, delta, request.getReason());
+            inventoryMetrics.recordAdjustment(InventoryMetrics.Source.GROUP_COMMIT, delta);
+            return mapToResponse(coalesced);
         }
-        InventoryItem saved = inventoryRepository.save(item);
-        log.info("Adjusted inventory for {} by {} ({})", productId, request.getQuantityDelta(), request.getReason());
-        return mapToResponse(saved);
+        return mapToResponse(applyAdjustment(productId, delta, request.getReason(), updated -> {
+        }));
+    }
+
+    /**
+     * Apply one adjustment through the configured strategy, or to a stock slot for sharded products;
+     * {@code inTransaction} runs just before the adjustment's transaction commits.
+     */
+    private InventoryItem applyAdjustment(final UUID productId, final int delta, final String reason,
+                                          final Consumer<InventoryItem> inTransaction) {
+        InventoryItem saved = adjustmentStrategy.execute(() -> transactionTemplate.execute(status -> {
+            LocalDateTime replenishedAt = delta > 0 ? LocalDateTime.now(clock) : null;
+            Supplier<Optional<InventoryItem>> headAdjustment =
+                    () -> adjustmentStrategy.apply(productId, delta, replenishedAt, reason);
+            InventoryItem updated = (stockSlotService.isSharded(productId)
+                    ? stockSlotService.adjust(productId, delta, reason, headAdjustment)
+                    : headAdjustment.get())
+                    .orElseThrow(() -> rejectedAdjustment(productId));
+            log.info("Adjusted inventory for {} by {} ({})", productId, delta, reason);
+            publishAdjusted(updated, delta);
+            inTransaction.accept(updated);
+            return updated;
+        }));
+        inventoryMetrics.recordAdjustment(InventoryMetrics.Source.SINGLE, delta);
+        return saved;
+    }
+
+    /**
+     * Replay the response stored for a key, or run {@code mutation} with a callback that stores its
+     * response in the mutation's transaction. When a concurrent request with the same key commits
+     * first, the key's primary key rolls this one back and the winner's response is replayed.
+     */
+    private InventoryResponse idempotent(final String key, final IdempotentOperation operation,
+                                         final long requestHash, final InventoryMetrics.Operation metric,
+                                         final Function<Consumer<InventoryResponse>, InventoryResponse> mutation) {
+        Optional<InventoryResponse> replayed =
+                idempotencyService.replay(key, operation, requestHash, InventoryResponse.class);
+        if (replayed.isEmpty()) {
+            try {
+                return mutation.apply(response -> idempotencyService.remember(key, operation, requestHash, response));
+            } catch (DataIntegrityViolationException ex) {
+                replayed = idempotencyService.replay(key, operation, requestHash, InventoryResponse.class);
+                if (replayed.isEmpty()) {
+                    throw ex;
+                }
+            }
+        }
+        inventoryMetrics.recordReplay(metric);
+        return replayed.get();
+    }
+
+    /**
+     * Apply many independent adjustments as chunked JDBC batches, one short transaction per chunk.
+     * Lines are applied in product order to keep row-lock acquisition consistent across concurrent
+     * batches, and each line reports its own outcome instead of failing the whole request.
+     */
+    public BatchAdjustInventoryResponse adjustInventoryBatch(final BatchAdjustInventoryRequest request) {
+        List<BatchAdjustInventoryLine> lines = request.getAdjustments();
+        int maxLines = properties.getBatch().getMaxLines();
+        if (lines.size() > maxLines) {
+            throw new IllegalArgumentException("Batch exceeds the maximum of " + maxLines + " adjustments");
+        }
+        BatchAdjustmentResult[] results = new BatchAdjustmentResult[lines.size()];
+        List<Integer> pending = new ArrayList<>(lines.size());
+        for (int i = 0; i < lines.size(); i++) {
+            if (lines.get(i).getQuantityDelta() == 0) {
+                results[i] = batchResult(i, lines.get(i), AdjustmentOutcome.INVALID, null,
+                        "quantityDelta must be non-zero");
+            } else {
+                pending.add(i);
+            }
+        }
+        pending.sort(Comparator.comparing(i -> lines.get(i).getProductId()));
+
+        int chunkSize = Math.max(1, properties.getBatch().getChunkSize());
+        for (int from = 0; from < pending.size(); from += chunkSize) {
+            List<Integer> chunk = pending.subList(from, Math.min(from + chunkSize, pending.size()));
+            transactionTemplate.executeWithoutResult(status -> applyBatchChunk(lines, chunk, results));
+        }
+
+        int applied = (int) Arrays.stream(results)
+                .filter(result -> result.getOutcome() == AdjustmentOutcome.APPLIED)
+                .count();
+        return BatchAdjustInventoryResponse.builder()
+                .applied(applied)
+                .rejected(results.length - applied)
+                .results(List.of(results))
+                .build();
+    }
+
+    /**
+     * Split a hot product's stock into {@code slotCount} slot rows so concurrent decrements stop
+     * contending on its inventory row, or merge it back with 0. Reads keep reporting the total.
+     */
+    public InventoryResponse configureSlots(final UUID productId, final ConfigureSlotsRequest request) {
+        return mapToResponse(stockSlotService.configure(productId, request.getSlotCount()));
+    }
+
+    /**
+     * Set a product's reorder threshold and re-derive its status from the current sellable stock.
+     */
+    public InventoryResponse updateReorderThreshold(final UUID productId, final ReorderThresholdRequest request) {
+        int threshold = request.getReorderThreshold();
+        InventoryItem updated = transactionTemplate.execute(status -> {
+            InventoryItem row = inventoryRepository.findForUpdateByProductId(productId).orElseThrow(() -> {
+                inventoryMetrics.recordNotFound(InventoryMetrics.Operation.CONFIGURE_THRESHOLD, 1);
+                return new IllegalArgumentException("Inventory not found for product " + productId);
+            });
+            InventoryStatus before = row.getStatus();
+            int slotStock = stockSlotService.withSlots(row).getAvailableQuantity() - row.getAvailableQuantity();
+            row.setReorderThreshold(threshold);
+            row.setStatus(InventoryStatus.of(row.getAvailableQuantity() + slotStock - row.getReservedQuantity(),
+                    threshold));
+            InventoryItem saved = inventoryRepository.saveAndFlush(row);
+            inventorySummary.recordStatusChange(before, saved.getStatus());
+            publish(InventoryChangeType.REORDER_THRESHOLD_CHANGED, saved);
+            return saved;
+        });
+        log.info("Set reorder threshold for {} to {}", productId, threshold);
+        return mapToResponse(stockSlotService.withSlots(updated));
     }
 
     /**
@@ -94,20 +442,164 @@ public class InventoryService {
      */
     @Transactional
     public void deleteInventory(final UUID productId) {
-        InventoryItem item = getInventoryOrThrow(productId);
+        InventoryItem item = stockSlotService.withSlots(
+                getInventoryOrThrow(productId, InventoryMetrics.Operation.DELETE));
         inventoryRepository.deleteById(item.getId());
+        recordLedgerEntry(productId, -item.getAvailableQuantity(), 0, "Inventory deleted");
+        publish(InventoryChangeType.DELETED, item);
+    }
+
+    private void recordLedgerEntry(final UUID productId, final int delta, final int quantityAfter,
+                                   final String reason) {
+        ledgerRepository.recordEntries(List.of(InventoryLedgerEntry.builder()
+                .productId(productId)
+                .delta(delta)
+                .quantityAfter(quantityAfter)
+                .reason(reason)
+                .build()));
     }
 
-    private InventoryItem getInventoryOrThrow(final UUID productId) {
-        return inventoryRepository.findByProductId(productId)
-                .orElseThrow(() -> new IllegalArgumentException("Inventory not found for product " + productId));
+    private InventoryItem getInventoryOrThrow(final UUID productId, final InventoryMetrics.Operation operation) {
+        return inventoryRepository.findByProductId(productId).orElseThrow(() -> {
+            inventoryMetrics.recordNotFound(operation, 1);
+            return new IllegalArgumentException("Inventory not found for product " + productId);
+        });
     }
 
-    private InventoryStatus deriveStatus(final int availableQuantity) {
-        if (availableQuantity <= 0) {
-            return InventoryStatus.OUT_OF_STOCK;
+    private void applyBatchChunk(final List<BatchAdjustInventoryLine> lines, final List<Integer> chunk,
+                                 final BatchAdjustmentResult[] results) {
+        LocalDateTime now = LocalDateTime.now(clock);
+        List<QuantityAdjustment> adjustments = new ArrayList<>(chunk.size());
+        Set<UUID> productIds = new HashSet<>();
+        for (int index : chunk) {
+            BatchAdjustInventoryLine line = lines.get(index);
+            int delta = line.getQuantityDelta();
+            adjustments.add(new QuantityAdjustment(line.getProductId(), delta, delta > 0 ? now : null,
+                    line.getReason()));
+            productIds.add(line.getProductId());
         }
-        return InventoryStatus.IN_STOCK;
+        boolean[] applied = inventoryRepository.adjustQuantities(adjustments);
+        retryOnFoldedHeads(adjustments, applied);
+
+        // Rows stay locked until commit, so walking the chunk backwards from the final
+        // quantities yields the exact quantity each line observed; sharded products add their
+        // slot stock, which concurrent slot decrements may still move.
+        Map<UUID, Integer> quantities = new HashMap<>();
+        Map<UUID, InventoryItem> items = new HashMap<>();
+        stockSlotService.withSlots(inventoryRepository.findByProductIdIn(productIds)).forEach(item -> {
+            quantities.put(item.getProductId(), item.getAvailableQuantity());
+            items.put(item.getProductId(), item);
+        });
+        for (int j = chunk.size() - 1; j >= 0; j--) {
+            int index = chunk.get(j);
+            BatchAdjustInventoryLine line = lines.get(index);
+            Integer quantity = quantities.get(line.getProductId());
+            if (applied[j]) {
+                results[index] = batchResult(index, line, AdjustmentOutcome.APPLIED, quantity, null);
+                quantities.put(line.getProductId(), quantity - line.getQuantityDelta());
+            } else if (quantity == null) {
+                inventoryMetrics.recordNotFound(InventoryMetrics.Operation.ADJUST_BATCH, 1);
+                results[index] = batchResult(index, line, AdjustmentOutcome.NOT_FOUND, null,
+                        "Inventory not found for product " + line.getProductId());
+            } else {
+                inventoryMetrics.recordInsufficientStock(InventoryMetrics.Source.BATCH);
+                results[index] = batchResult(index, line, AdjustmentOutcome.INSUFFICIENT_STOCK, quantity,
+                        "Adjustment would produce negative quantity after reservations");
+            }
+        }
+        Map<UUID, Integer> changed = new HashMap<>();
+        for (int j = 0; j < chunk.size(); j++) {
+            if (applied[j]) {
+                BatchAdjustInventoryLine line = lines.get(chunk.get(j));
+                log.info("Adjusted inventory for {} by {} ({})",
+                        line.getProductId(), line.getQuantityDelta(), line.getReason());
+                inventoryMetrics.recordAdjustment(InventoryMetrics.Source.BATCH, line.getQuantityDelta());
+                changed.merge(line.getProductId(), line.getQuantityDelta(), Integer::sum);
+            }
+        }
+        changed.forEach((productId, delta) -> publishAdjusted(items.get(productId), delta));
+    }
+
+    /**
+     * Retry the refused lines of products whose slots still held stock, after folding it into their
+     * heads, so a batch decrement is only refused when the product's total stock cannot cover it.
+     */
+    private void retryOnFoldedHeads(final List<QuantityAdjustment> adjustments, final boolean[] applied) {
+        Set<UUID> folded = new HashSet<>();
+        List<Integer> retried = new ArrayList<>();
+        for (int j = 0; j < applied.length; j++) {
+            UUID productId = adjustments.get(j).getProductId();
+            if (!applied[j] && (folded.contains(productId) || stockSlotService.foldIntoHead(productId))) {
+                folded.add(productId);
+                retried.add(j);
+            }
+        }
+        if (retried.isEmpty()) {
+            return;
+        }
+        boolean[] retriedApplied = inventoryRepository.adjustQuantities(
+                retried.stream().map(adjustments::get).toList());
+        for (int k = 0; k < retried.size(); k++) {
+            applied[retried.get(k)] = retriedApplied[k];
+        }
+    }
+
+    private Map<UUID, Integer> slotStock(final List<InventoryVersion> versions) {
+        List<UUID> sharded = versions.stream()
+                .filter(version -> version.getSlotCount() > 0)
+                .map(InventoryVersion::getProductId)
+                .toList();
+        return sharded.isEmpty() ? Map.of() : inventoryRepository.sumSlots(sharded);
+    }
+
+    private InventoryPage toPage(final List<InventoryItem> items, final int pageSize) {
+        boolean hasMore = items.size() > pageSize;
+        List<InventoryItem> page = hasMore ? items.subList(0, pageSize) : items;
+        return InventoryPage.builder()
+                .items(stockSlotService.withSlots(page).stream().map(this::mapToResponse).toList())
+                .nextCursor(hasMore ? page.get(page.size() - 1).getId() : null)
+                .build();
+    }
+
+    private BatchAdjustmentResult batchResult(final int index, final BatchAdjustInventoryLine line,
+                                              final AdjustmentOutcome outcome, final Integer quantity,
+                                              final String message) {
+        return BatchAdjustmentResult.builder()
+                .index(index)
+                .productId(line.getProductId())
+                .outcome(outcome)
+                .availableQuantity(quantity)
+                .message(message)
+                .build();
+    }
+
+    private void publish(final InventoryChangeType type, final InventoryItem item) {
+        eventPublisher.publishEvent(new InventoryChangedEvent(type, item.getProductId(), item));
+    }
+
+    private void publishAdjusted(final InventoryItem item, final int delta) {
+        eventPublisher.publishEvent(new InventoryChangedEvent(InventoryChangeType.ADJUSTED, item.getProductId(),
+                item, delta, 0));
+    }
+
+    private int resolvePageSize(final Integer limit) {
+        InventoryProperties.Listing listing = properties.getListing();
+        if (limit == null) {
+            return listing.getDefaultPageSize();
+        }
+        if (limit < 1 || limit > listing.getMaxPageSize()) {
+            throw new IllegalArgumentException("limit must be between 1 and " + listing.getMaxPageSize());
+        }
+        return limit;
+    }
+
+    private IllegalArgumentException rejectedAdjustment(final UUID productId) {
+        if (!inventoryRepository.existsByProductId(productId)) {
+            inventoryMetrics.recordNotFound(InventoryMetrics.Operation.ADJUST, 1);
+            return new IllegalArgumentException("Inventory not found for product " + productId);
+        }
+        inventoryMetrics.recordInsufficientStock(InventoryMetrics.Source.SINGLE);
+        return new IllegalArgumentException("Adjustment would produce negative quantity after reservations");
     }
 
     private InventoryStatus parseStatus(final String status) {
@@ -118,17 +610,28 @@ public class InventoryService {
         }
     }
 
-    private InventoryResponse mapToResponse(final InventoryItem item) {
+    InventoryResponse mapToResponse(final InventoryItem item) {
         return InventoryResponse.builder()
                 .id(item.getId())
                 .productId(item.getProductId())
                 .availableQuantity(item.getAvailableQuantity())
+                .reservedQuantity(item.getReservedQuantity())
+                .availableToSell(item.getAvailableQuantity() - item.getReservedQuantity())
                 .status(item.getStatus())
+                .reorderThreshold(item.getReorderThreshold())
                 .replenishmentAt(item.getReplenishmentAt())
                 .createdAt(item.getCreatedAt())
                 .updatedAt(item.getUpdatedAt())
+                .version(item.getVersion())
                 .build();
     }
-}
-
 
+    private InventoryAvailability mapToAvailability(final InventoryItem item) {
+        return InventoryAvailability.builder()
+                .availableQuantity(item.getAvailableQuantity())
+                .reservedQuantity(item.getReservedQuantity())
+                .availableToSell(item.getAvailableQuantity() - item.getReservedQuantity())
+                .status(item.getStatus())
+                .build();
+    }
+}
@@ -0,0 +1,147 @@
+package com.shopifake.microservice.services;
+
+import com.shopifake.microservice.config.InventoryProperties;
+import com.shopifake.microservice.dtos.InventoryHistoryPage;
+import com.shopifake.microservice.dtos.LedgerEntryResponse;
+import com.shopifake.microservice.dtos.QuantityAsOfResponse;
+import com.shopifake.microservice.entities.InventoryLedgerEntry;
+import com.shopifake.microservice.entities.InventorySnapshot;
+import com.shopifake.microservice.repositories.LedgerRepository;
+import com.shopifake.microservice.repositories.SnapshotRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Reads and maintenance of the append-only adjustment ledger.
+ * Point-in-time reads start from the nearest snapshot and only look at the entries recorded
+ * between it and the next snapshot, so their cost does not grow with the product's history.
+ */
+@Service
+@RequiredArgsConstructor
+public class LedgerService {
+
+    private final LedgerRepository ledgerRepository;
+    private final SnapshotRepository snapshotRepository;
+    private final InventoryProperties properties;
+    private final Clock clock;
+
+    /**
+     * Page through a product's ledger, newest entry first.
+     *
+     * @param before cursor returned with the previous page, or {@code null} for the newest entries
+     * @param limit  requested page size, or {@code null} for the default
+     */
+    @Transactional(readOnly = true)
+    public InventoryHistoryPage getHistory(final UUID productId, final Long before, final Integer limit) {
+        InventoryProperties.Ledger config = properties.getLedger();
+        int pageSize = limit != null ? limit : config.getDefaultPageSize();
+        if (pageSize < 1 || pageSize > config.getMaxPageSize()) {
+            throw new IllegalArgumentException("limit must be between 1 and " + config.getMaxPageSize());
+        }
+        List<InventoryLedgerEntry> entries = ledgerRepository.findHistoryPage(
+                productId, before != null ? before : Long.MAX_VALUE, Limit.of(pageSize + 1));
+        boolean hasMore = entries.size() > pageSize;
+        List<InventoryLedgerEntry> page = hasMore ? entries.subList(0, pageSize) : entries;
+        return InventoryHistoryPage.builder()
+                .entries(page.stream().map(this::mapToResponse).toList())
+                .nextCursor(hasMore ? page.get(page.size() - 1).getId() : null)
+                .build();
+    }
+
+    /**
+     * On-hand quantity of a product as of {@code at}, read from one snapshot plus the ledger
+     * entries that follow it up to the next snapshot.
+     */
+    @Transactional(readOnly = true)
+    public QuantityAsOfResponse getQuantityAsOf(final UUID productId, final LocalDateTime at) {
+        Optional<InventorySnapshot> base = snapshotRepository
+                .findFirstByProductIdAndTakenAtLessThanEqualOrderByTakenAtDescIdDesc(productId, at);
+        long afterId = base.map(InventorySnapshot::getLastEntryId).orElse(0L);
+        long upToId = snapshotRepository
+                .findFirstByProductIdAndTakenAtGreaterThanOrderByTakenAtAscIdAsc(productId, at)
+                .map(InventorySnapshot::getLastEntryId)
+                .orElse(Long.MAX_VALUE);
+
+        Integer quantity = ledgerRepository.findLatestInWindow(productId, afterId, upToId, at, Limit.of(1))
+                .stream()
+                .findFirst()
+                .map(InventoryLedgerEntry::getQuantityAfter)
+                .or(() -> base.map(InventorySnapshot::getAvailableQuantity))
+                .orElseThrow(() -> new IllegalArgumentException(
+                        "No inventory history for product " + productId + " at " + at));
+        return QuantityAsOfResponse.builder()
+                .productId(productId)
+                .at(at)
+                .availableQuantity(quantity)
+                .build();
+    }
+
+    /**
+     * Snapshot every product whose ledger moved since its latest snapshot. Each run scans from
+     * the position of an earlier run that no in-flight transaction can still write below, so an
+     * entry that commits after a higher id was snapshotted is still picked up.
+     *
+     * @return number of snapshots written
+     */
+    @Transactional
+    public int takeSnapshots() {
+        LocalDateTime now = LocalDateTime.now(clock);
+        long scanStart = ledgerRepository.snapshotScanStart(now.minus(properties.getLedger().getSnapshotSettleDelay()));
+        ledgerRepository.recordSnapshotRun(scanStart, now);
+        return ledgerRepository.snapshotEntries(scanStart);
+    }
+
+    /**
+     * Keep monthly ledger partitions created ahead of time where the ledger is partitioned.
+     *
+     * @return number of partitions created
+     */
+    public int ensurePartitions() {
+        return ledgerRepository.ensurePartitions(YearMonth.now(clock), properties.getLedger().getPartitionsAhead());
+    }
+
+    /**
+     * Remove one batch of ledger history older than the retention period.
+     * Snapshots keep point-in-time reads answerable for the compacted range. Deliberately not
+     * transactional: partitions are detached concurrently, which cannot run inside a transaction.
+     *
+     * @return number of partitions or entries removed
+     */
+    public int compactLedger() {
+        InventoryProperties.Ledger config = properties.getLedger();
+        return ledgerRepository.compactBefore(LocalDateTime.now(clock).minus(config.getRetention()),
+                config.getCompactionBatchSize());
+    }
+
+    /**
+     * Delete one batch of snapshots older than the retention period that newer snapshots of the
+     * same product supersede.
+     *
+     * @return number of snapshots deleted
+     */
+    @Transactional
+    public int pruneSnapshots() {
+        InventoryProperties.Ledger config = properties.getLedger();
+        return ledgerRepository.pruneSnapshotsBefore(LocalDateTime.now(clock).minus(config.getRetention()),
+                config.getCompactionBatchSize());
+    }
+
+    private LedgerEntryResponse mapToResponse(final InventoryLedgerEntry entry) {
+        return LedgerEntryResponse.builder()
+                .id(entry.getId())
+                .delta(entry.getDelta())
+                .quantityAfter(entry.getQuantityAfter())
+                .reason(entry.getReason())
+                .recordedAt(entry.getRecordedAt())
+                .build();
+    }
+}
@@ -0,0 +1,98 @@
+package com.shopifake.microservice.services;
+
+import com.shopifake.microservice.config.InventoryProperties;
+import com.shopifake.microservice.entities.InventoryItem;
+import com.shopifake.microservice.repositories.InventoryRepository;
+import com.shopifake.microservice.repositories.LedgerRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Reads the row without locking and writes it back only if its version is unchanged.
+ * A conflicting write rolls the attempt back and it is retried in a fresh transaction after a
+ * random ("full jitter") backoff whose ceiling doubles per retry, so colliding writers spread
+ * out instead of colliding again. Once the attempts are exhausted the conflict surfaces as 409.
+ */
+@Component
+@ConditionalOnProperty(prefix = "inventory.adjustments", name = "strategy", havingValue = "optimistic")
+public class OptimisticAdjustmentStrategy extends ReadModifyWriteAdjustment {
+
+    private final InventoryProperties.Adjustments config;
+
+    private final Counter retries;
+    private final Counter exhausted;
+    private final DistributionSummary attempts;
+
+    public OptimisticAdjustmentStrategy(final InventoryRepository inventoryRepository,
+                                        final LedgerRepository ledgerRepository,
+                                        final InventoryProperties properties,
+                                        final MeterRegistry meterRegistry) {
+        super(inventoryRepository, ledgerRepository);
+        this.config = properties.getAdjustments();
+        this.retries = Counter.builder("inventory.adjustment.retries")
+                .description("Adjustment attempts retried after a version conflict")
+                .tag("strategy", "optimistic")
+                .register(meterRegistry);
+        this.exhausted = Counter.builder("inventory.adjustment.conflicts")
+                .description("Adjustments abandoned because of concurrent writers")
+                .tag("strategy", "optimistic")
+                .tag("reason", "retries_exhausted")
+                .register(meterRegistry);
+        this.attempts = DistributionSummary.builder("inventory.adjustment.attempts")
+                .description("Attempts needed per optimistic adjustment")
+                .tag("strategy", "optimistic")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public <T> T execute(final Supplier<T> attempt) {
+        int maxAttempts = Math.max(1, config.getMaxAttempts());
+        for (int tried = 1; ; tried++) {
+            try {
+                T result = attempt.get();
+                attempts.record(tried);
+                return result;
+            } catch (OptimisticLockingFailureException ex) {
+                if (tried >= maxAttempts) {
+                    attempts.record(tried);
+                    exhausted.increment();
+                    throw ex;
+                }
+                retries.increment();
+                backOff(tried);
+            }
+        }
+    }
+
+    @Override
+    public Optional<InventoryItem> apply(final UUID productId, final int delta, final LocalDateTime replenishedAt,
+                                         final String reason) {
+        return inventoryRepository.findByProductId(productId)
+                .flatMap(row -> write(row, delta, replenishedAt, reason));
+    }
+
+    private void backOff(final int tried) {
+        long base = config.getRetryBackoff().toNanos();
+        long ceiling = Math.min(config.getMaxRetryBackoff().toNanos(), base << Math.min(tried - 1, 20));
+        if (ceiling <= 0) {
+            return;
+        }
+        try {
+            TimeUnit.NANOSECONDS.sleep(ThreadLocalRandom.current().nextLong(ceiling + 1));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while retrying adjustment", ex);
+        }
+    }
+}
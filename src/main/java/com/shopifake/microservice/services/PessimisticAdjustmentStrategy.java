@@ -0,0 +1,66 @@
+package com.shopifake.microservice.services;
+
+import com.shopifake.microservice.config.InventoryProperties;
+import com.shopifake.microservice.entities.InventoryItem;
+import com.shopifake.microservice.repositories.InventoryRepository;
+import com.shopifake.microservice.repositories.LedgerRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Locks the row with {@code SELECT ... FOR UPDATE} and writes it back while holding the lock.
+ * Writers queue on the row lock instead of retrying; one that waits longer than the configured
+ * lock timeout is rolled back and surfaces as 409.
+ */
+@Component
+@ConditionalOnProperty(prefix = "inventory.adjustments", name = "strategy", havingValue = "pessimistic")
+public class PessimisticAdjustmentStrategy extends ReadModifyWriteAdjustment {
+
+    private final InventoryProperties.Adjustments config;
+
+    private final Timer lockWait;
+    private final Counter lockTimeouts;
+
+    public PessimisticAdjustmentStrategy(final InventoryRepository inventoryRepository,
+                                         final LedgerRepository ledgerRepository,
+                                         final InventoryProperties properties,
+                                         final MeterRegistry meterRegistry) {
+        super(inventoryRepository, ledgerRepository);
+        this.config = properties.getAdjustments();
+        this.lockWait = Timer.builder("inventory.adjustment.lock_wait")
+                .description("Time spent acquiring the row lock for an adjustment")
+                .tag("strategy", "pessimistic")
+                .register(meterRegistry);
+        this.lockTimeouts = Counter.builder("inventory.adjustment.conflicts")
+                .description("Adjustments abandoned because of concurrent writers")
+                .tag("strategy", "pessimistic")
+                .tag("reason", "lock_timeout")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Optional<InventoryItem> apply(final UUID productId, final int delta, final LocalDateTime replenishedAt,
+                                         final String reason) {
+        inventoryRepository.limitLockWait(config.getLockTimeout());
+        long start = System.nanoTime();
+        Optional<InventoryItem> locked;
+        try {
+            locked = inventoryRepository.findForUpdateByProductId(productId);
+        } catch (PessimisticLockingFailureException ex) {
+            lockTimeouts.increment();
+            throw ex;
+        } finally {
+            lockWait.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+        return locked.flatMap(row -> write(row, delta, replenishedAt, reason));
+    }
+}
@@ -0,0 +1,57 @@
+package com.shopifake.microservice.services;
+
+import com.shopifake.microservice.entities.InventoryItem;
+import com.shopifake.microservice.entities.InventoryLedgerEntry;
+import com.shopifake.microservice.entities.InventoryStatus;
+import com.shopifake.microservice.repositories.InventoryRepository;
+import com.shopifake.microservice.repositories.LedgerRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Shared write-back for strategies that load the row into the persistence context, change it in
+ * memory and flush it, with the same guard and status rule as the atomic UPDATE.
+ */
+abstract class ReadModifyWriteAdjustment implements AdjustmentStrategy {
+
+    protected final InventoryRepository inventoryRepository;
+    private final LedgerRepository ledgerRepository;
+
+    protected ReadModifyWriteAdjustment(final InventoryRepository inventoryRepository,
+                                        final LedgerRepository ledgerRepository) {
+        this.inventoryRepository = inventoryRepository;
+        this.ledgerRepository = ledgerRepository;
+    }
+
+    /**
+     * Change a loaded row and flush it, or leave it untouched when the delta would go below the
+     * reserved quantity.
+     */
+    protected Optional<InventoryItem> write(final InventoryItem row, final int delta,
+                                            final LocalDateTime replenishedAt, final String reason) {
+        int quantity = row.getAvailableQuantity() + delta;
+        if (quantity < row.getReservedQuantity()) {
+            return Optional.empty();
+        }
+        // Like the atomic UPDATE, the status counts the slot stock of a sharded product
+        int slotStock = row.getSlotCount() > 0
+                ? inventoryRepository.sumSlots(List.of(row.getProductId())).getOrDefault(row.getProductId(), 0)
+                : 0;
+        row.setAvailableQuantity(quantity);
+        row.setStatus(InventoryStatus.of(quantity + slotStock - row.getReservedQuantity(),
+                row.getReorderThreshold()));
+        if (replenishedAt != null) {
+            row.setReplenishmentAt(replenishedAt);
+        }
+        InventoryItem saved = inventoryRepository.saveAndFlush(row);
+        ledgerRepository.recordEntries(List.of(InventoryLedgerEntry.builder()
+                .productId(saved.getProductId())
+                .delta(delta)
+                .quantityAfter(quantity)
+                .reason(reason)
+                .build()));
+        return Optional.of(saved);
+    }
+}
@@ -0,0 +1,166 @@
+package com.shopifake.microservice.services;
+
+import com.shopifake.microservice.config.InventoryProperties;
+import com.shopifake.microservice.dtos.ReservationResponse;
+import com.shopifake.microservice.dtos.ReservationStatus;
+import com.shopifake.microservice.dtos.ReserveInventoryRequest;
+import com.shopifake.microservice.entities.InventoryItem;
+import com.shopifake.microservice.entities.InventoryReservation;
+import com.shopifake.microservice.events.InventoryChangeType;
+import com.shopifake.microservice.events.InventoryChangedEvent;
+import com.shopifake.microservice.repositories.InventoryRepository;
+import com.shopifake.microservice.repositories.ReservationRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Holds stock for in-flight checkouts.
+ * A hold increments {@code reserved_quantity} on the inventory row, so available-to-sell is
+ * always {@code available_quantity - reserved_quantity} without summing reservation rows.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ReservationService {
+
+    private final InventoryRepository inventoryRepository;
+    private final ReservationRepository reservationRepository;
+    private final StockSlotService stockSlotService;
+    private final InventoryProperties properties;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Clock clock;
+
+    /**
+     * Hold stock for a product until the reservation is committed, released or expires.
+     */
+    @Transactional
+    public ReservationResponse reserve(final UUID productId, final ReserveInventoryRequest request) {
+        Duration ttl = resolveTtl(request.getTtlSeconds());
+        // A sharded product's head may lack the stock its slots hold, so fold them in before refusing
+        InventoryItem item = inventoryRepository.reserveQuantity(productId, request.getQuantity())
+                .or(() -> stockSlotService.foldIntoHead(productId)
+                        ? inventoryRepository.reserveQuantity(productId, request.getQuantity())
+                        : Optional.empty())
+                .orElseThrow(() -> rejectedReservation(productId));
+        LocalDateTime now = LocalDateTime.now(clock);
+        InventoryReservation reservation = reservationRepository.save(InventoryReservation.builder()
+                .productId(productId)
+                .quantity(request.getQuantity())
+                .expiresAt(now.plus(ttl))
+                .createdAt(now)
+                .build());
+        publish(InventoryChangeType.RESERVED, productId, item, 0, request.getQuantity());
+        return mapToResponse(reservation, ReservationStatus.HELD);
+    }
+
+    /**
+     * Turn an active reservation into a permanent stock decrement.
+     */
+    @Transactional
+    public ReservationResponse commit(final UUID reservationId) {
+        InventoryReservation reservation = reservationRepository
+                .claimReservation(reservationId, LocalDateTime.now(clock))
+                .orElseThrow(() -> new IllegalArgumentException(
+                        "Reservation not found or expired: " + reservationId));
+        InventoryItem item = inventoryRepository
+                .commitReservedQuantity(reservation.getProductId(), reservation.getQuantity(),
+                        "Reservation " + reservationId + " committed")
+                .orElseThrow(() -> new IllegalStateException(
+                        "Reserved stock missing for product " + reservation.getProductId()));
+        publish(InventoryChangeType.RESERVATION_COMMITTED, item.getProductId(), item,
+                -reservation.getQuantity(), -reservation.getQuantity());
+        log.info("Committed reservation {} for {} ({} units)",
+                reservationId, reservation.getProductId(), reservation.getQuantity());
+        return mapToResponse(reservation, ReservationStatus.COMMITTED);
+    }
+
+    /**
+     * Give held stock back before the reservation expires.
+     */
+    @Transactional
+    public void release(final UUID reservationId) {
+        InventoryReservation reservation = reservationRepository.claimReservation(reservationId, null)
+                .orElseThrow(() -> new IllegalArgumentException("Reservation not found: " + reservationId));
+        inventoryRepository.releaseReservedQuantity(reservation.getProductId(), reservation.getQuantity())
+                .ifPresent(item -> publish(InventoryChangeType.RESERVATION_RELEASED, item.getProductId(), item,
+                        0, -reservation.getQuantity()));
+    }
+
+    /**
+     * Release one bounded batch of expired reservations, oldest first.
+     *
+     * @param limit maximum number of reservations to examine
+     * @return number of expired reservations found, so callers can tell when the backlog is drained
+     */
+    @Transactional
+    public int expireReservations(final int limit) {
+        List<InventoryReservation> expired = reservationRepository
+                .findByExpiresAtLessThanEqualOrderByExpiresAt(LocalDateTime.now(clock), Limit.of(limit));
+        if (expired.isEmpty()) {
+            return 0;
+        }
+        boolean[] claimed = reservationRepository.claimReservations(
+                expired.stream().map(InventoryReservation::getId).toList());
+        Map<UUID, Integer> released = new HashMap<>();
+        for (int i = 0; i < claimed.length; i++) {
+            if (claimed[i]) {
+                released.merge(expired.get(i).getProductId(), expired.get(i).getQuantity(), Integer::sum);
+            }
+        }
+        if (!released.isEmpty()) {
+            inventoryRepository.releaseReservedQuantities(released);
+            // Read back so listeners see each product's new status, as for a single release
+            inventoryRepository.findByProductIdIn(released.keySet()).forEach(item ->
+                    publish(InventoryChangeType.RESERVATION_RELEASED, item.getProductId(), item, 0,
+                            -released.get(item.getProductId())));
+        }
+        return expired.size();
+    }
+
+    private void publish(final InventoryChangeType type, final UUID productId, final InventoryItem item,
+                         final int quantityDelta, final int reservedDelta) {
+        eventPublisher.publishEvent(new InventoryChangedEvent(type, productId, stockSlotService.withSlots(item),
+                quantityDelta, reservedDelta));
+    }
+
+    private Duration resolveTtl(final Long ttlSeconds) {
+        InventoryProperties.Reservations config = properties.getReservations();
+        if (ttlSeconds == null) {
+            return config.getDefaultTtl();
+        }
+        Duration requested = Duration.ofSeconds(ttlSeconds);
+        return requested.compareTo(config.getMaxTtl()) > 0 ? config.getMaxTtl() : requested;
+    }
+
+    private IllegalArgumentException rejectedReservation(final UUID productId) {
+        if (!inventoryRepository.existsByProductId(productId)) {
+            return new IllegalArgumentException("Inventory not found for product " + productId);
+        }
+        return new IllegalArgumentException("Insufficient stock to reserve for product " + productId);
+    }
+
+    private ReservationResponse mapToResponse(final InventoryReservation reservation,
+                                              final ReservationStatus status) {
+        return ReservationResponse.builder()
+                .id(reservation.getId())
+                .productId(reservation.getProductId())
+                .quantity(reservation.getQuantity())
+                .status(status)
+                .expiresAt(reservation.getExpiresAt())
+                .createdAt(reservation.getCreatedAt())
+                .build();
+    }
+}
@@ -0,0 +1,254 @@
+package com.shopifake.microservice.services;
+
+import com.shopifake.microservice.config.InventoryProperties;
+import com.shopifake.microservice.entities.InventoryItem;
+import com.shopifake.microservice.entities.InventoryStatus;
+import com.shopifake.microservice.repositories.InventoryRepository;
+import com.shopifake.microservice.repositories.StockSlot;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Splits the stock of hot products over slot rows so concurrent decrements update different rows.
+ * A sharded product keeps its {@code inventory_items} row as the head: increments, reservations and
+ * batch adjustments still go there, while single decrements take a random slot with enough stock
+ * and only fall back to the head when no slot can cover them. Whatever the head cannot cover on its
+ * own is retried after {@linkplain #foldIntoHead folding} the slots into it. Reads add the slots
+ * back, so callers keep seeing one quantity per product, the head's stored status is derived from
+ * head plus slot stock, and a rebalancer periodically evens out sellable stock across the head and
+ * its slots.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class StockSlotService {
+
+    private final InventoryRepository inventoryRepository;
+    private final InventoryProperties properties;
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * Products known to be sharded. Only a routing hint: the head row is always a valid place for
+     * a delta, so a stale set costs contention, never correctness.
+     */
+    private volatile Set<UUID> shardedProducts = Set.of();
+
+    /**
+     * Whether decrements of a product should be routed to its slots.
+     */
+    public boolean isSharded(final UUID productId) {
+        return shardedProducts.contains(productId);
+    }
+
+    /**
+     * Products currently known to be sharded.
+     */
+    public Set<UUID> shardedProducts() {
+        return shardedProducts;
+    }
+
+    /**
+     * Reload the set of sharded products, picking up changes made through other instances.
+     */
+    @Scheduled(fixedDelayString = "${inventory.sharding.refresh-interval:PT10S}")
+    public void refreshShardedProducts() {
+        try {
+            shardedProducts = Set.copyOf(inventoryRepository.findShardedProductIds());
+        } catch (RuntimeException ex) {
+            log.warn("Could not refresh sharded products: {}", ex.getMessage());
+        }
+    }
+
+    /**
+     * Apply a delta to a sharded product in the caller's transaction. A decrement goes to a random
+     * slot with enough stock, trying the other slots when it runs dry; anything else is applied to
+     * the head by {@code headAdjustment}, after folding the slots into the head when no single slot
+     * could cover a decrement.
+     *
+     * @return the product with its slot stock added back, or empty when the head rejected the delta
+     */
+    public Optional<InventoryItem> adjust(final UUID productId, final int delta, final String reason,
+                                          final Supplier<Optional<InventoryItem>> headAdjustment) {
+        if (delta < 0) {
+            List<StockSlot> slots = inventoryRepository.findSlots(productId);
+            int start = slots.isEmpty() ? 0 : ThreadLocalRandom.current().nextInt(slots.size());
+            for (int i = 0; i < slots.size(); i++) {
+                StockSlot slot = slots.get((start + i) % slots.size());
+                if (slot.getQuantity() + delta < 0) {
+                    continue;
+                }
+                // The head is written only when the decrement moved the product to another status
+                Optional<InventoryItem> decremented =
+                        inventoryRepository.adjustSlotRecording(productId, slot.getSlot(), delta, reason);
+                if (decremented.isPresent()) {
+                    return decremented;
+                }
+            }
+            if (slots.stream().anyMatch(slot -> slot.getQuantity() > 0)) {
+                foldIntoHead(productId);
+            }
+        }
+        return headAdjustment.get().map(this::withSlots);
+    }
+
+    /**
+     * Split a product into {@code slotCount} slots, or back into its head row alone when 0, and
+     * spread its sellable stock evenly.
+     *
+     * @return the product with its slot stock added back
+     */
+    public InventoryItem configure(final UUID productId, final int slotCount) {
+        int maxSlots = properties.getSharding().getMaxSlots();
+        if (slotCount < 0 || slotCount > maxSlots) {
+            throw new IllegalArgumentException("slotCount must be between 0 and " + maxSlots);
+        }
+        InventoryItem configured = transactionTemplate.execute(status -> {
+            int slotStock = sum(inventoryRepository.lockSlots(productId));
+            if (!inventoryRepository.updateSlotCount(productId, slotCount)) {
+                throw new IllegalArgumentException("Inventory not found for product " + productId);
+            }
+            inventoryRepository.replaceSlots(productId, new int[slotCount]);
+            if (slotStock > 0) {
+                inventoryRepository.adjustQuantity(productId, slotStock, null);
+            }
+            if (slotCount > 0) {
+                spread(productId, inventoryRepository.lockSlots(productId), true);
+            }
+            return withSlots(inventoryRepository.readHead(productId).orElseThrow());
+        });
+        Set<UUID> updated = new HashSet<>(shardedProducts);
+        if (slotCount > 0) {
+            updated.add(productId);
+        } else {
+            updated.remove(productId);
+        }
+        shardedProducts = Set.copyOf(updated);
+        log.info("Split inventory for {} into {} slots", productId, slotCount);
+        return configured;
+    }
+
+    /**
+     * Even out a sharded product's sellable stock across its head and slots when any of them has
+     * fallen below half of an even share.
+     *
+     * @return {@code true} when stock was moved
+     */
+    public boolean rebalance(final UUID productId) {
+        return Boolean.TRUE.equals(transactionTemplate.execute(status ->
+                spread(productId, inventoryRepository.lockSlots(productId), false)));
+    }
+
+    /**
+     * Add a sharded product's slot stock to its head quantity; unsharded rows are returned as is.
+     */
+    public InventoryItem withSlots(final InventoryItem item) {
+        if (item.getSlotCount() == 0) {
+            return item;
+        }
+        return withSlots(item, inventoryRepository.sumSlots(List.of(item.getProductId())));
+    }
+
+    /**
+     * Add slot stock to every sharded row, with one query for the whole list.
+     */
+    public List<InventoryItem> withSlots(final List<InventoryItem> items) {
+        List<UUID> sharded = items.stream()
+                .filter(item -> item.getSlotCount() > 0)
+                .map(InventoryItem::getProductId)
+                .toList();
+        if (sharded.isEmpty()) {
+            return items;
+        }
+        Map<UUID, Integer> slotStock = inventoryRepository.sumSlots(sharded);
+        return items.stream().map(item -> withSlots(item, slotStock)).toList();
+    }
+
+    /**
+     * Add slot stock from previously loaded totals, as returned by {@link #slotTotals()}.
+     */
+    public InventoryItem withSlots(final InventoryItem item, final Map<UUID, Integer> slotStock) {
+        int stock = item.getSlotCount() > 0 ? slotStock.getOrDefault(item.getProductId(), 0) : 0;
+        if (stock == 0) {
+            return item;
+        }
+        int available = item.getAvailableQuantity() + stock;
+        return item.toBuilder()
+                .availableQuantity(available)
+                .status(InventoryStatus.of(available - item.getReservedQuantity(), item.getReorderThreshold()))
+                .build();
+    }
+
+    /**
+     * Slot stock of every sharded product, for whole-catalog scans.
+     */
+    public Map<UUID, Integer> slotTotals() {
+        return inventoryRepository.sumAllSlots();
+    }
+
+    /**
+     * Move all slot stock into the head, in the caller's transaction, so an update the head refused
+     * can be retried against the product's full sellable stock. Slots are locked before the head,
+     * the same order as every other multi-row slot operation; unsharded products have no slots.
+     *
+     * @return {@code true} when any stock was moved
+     */
+    public boolean foldIntoHead(final UUID productId) {
+        List<StockSlot> slots = inventoryRepository.lockSlots(productId);
+        int slotStock = sum(slots);
+        if (slotStock <= 0) {
+            return false;
+        }
+        inventoryRepository.replaceSlots(productId, new int[slots.size()]);
+        inventoryRepository.adjustQuantity(productId, slotStock, null);
+        return true;
+    }
+
+    /**
+     * Give each locked slot an even share of sellable stock and leave the remainder on the head.
+     * The head is moved with a guarded delta, so a concurrent head decrement is never overwritten;
+     * if it wins, nothing is moved and the next run tries again.
+     */
+    private boolean spread(final UUID productId, final List<StockSlot> slots, final boolean force) {
+        if (slots.isEmpty()) {
+            return false;
+        }
+        InventoryItem head = inventoryRepository.readHead(productId).orElse(null);
+        if (head == null) {
+            return false;
+        }
+        int headFree = head.getAvailableQuantity() - head.getReservedQuantity();
+        int slotStock = sum(slots);
+        int share = (headFree + slotStock) / (slots.size() + 1);
+        int lowest = Math.min(headFree, slots.stream().mapToInt(StockSlot::getQuantity).min().orElse(0));
+        if (!force && lowest >= share / 2) {
+            return false;
+        }
+        int headDelta = slotStock - share * slots.size();
+        if (headDelta != 0 && inventoryRepository.adjustQuantity(productId, headDelta, null).isEmpty()) {
+            return false;
+        }
+        int[] quantities = new int[slots.size()];
+        Arrays.fill(quantities, share);
+        inventoryRepository.replaceSlots(productId, quantities);
+        // The head was updated against the old slots, so its status is re-derived from the new ones
+        inventoryRepository.refreshStatus(productId);
+        return true;
+    }
+
+    private static int sum(final List<StockSlot> slots) {
+        return slots.stream().mapToInt(StockSlot::getQuantity).sum();
+    }
+}
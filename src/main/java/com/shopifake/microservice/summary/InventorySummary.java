@@ -0,0 +1,152 @@
+package com.shopifake.microservice.summary;
+
+import com.shopifake.microservice.entities.InventoryItem;
+import com.shopifake.microservice.entities.InventoryStatus;
+import com.shopifake.microservice.events.InventoryChangeType;
+import com.shopifake.microservice.events.InventoryChangedEvent;
+import com.shopifake.microservice.repositories.InventoryRepository;
+import com.shopifake.microservice.repositories.InventoryStatusTotals;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static com.shopifake.microservice.repositories.InventorySummaryRepository.SUMMARY_STRIPES;
+
+/**
+ * Keeps the per-status summary in step with every inventory change, in the transaction that made it.
+ * Changes are netted per transaction and added to one random stripe just before commit, so a
+ * transaction costs at most one short batch and concurrent writers rarely meet on the same row.
+ * The periodic {@link #reconcile()} corrects any drift the same way, as one more delta.
+ */
+@Component
+@RequiredArgsConstructor
+public class InventorySummary {
+
+    private static final int STATUSES = InventoryStatus.values().length;
+
+    private final InventoryRepository inventoryRepository;
+
+    @EventListener
+    void onInventoryChanged(final InventoryChangedEvent event) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            long[] deltas = new long[STATUSES * 2];
+            accumulate(event, deltas);
+            apply(deltas);
+            return;
+        }
+        accumulate(event, pendingDeltas());
+    }
+
+    /**
+     * Move one item between statuses for a change the event cannot describe, such as a new reorder
+     * threshold, where the status before does not follow from the quantities.
+     */
+    public void recordStatusChange(final InventoryStatus before, final InventoryStatus after) {
+        if (before == after) {
+            return;
+        }
+        boolean inTransaction = TransactionSynchronizationManager.isSynchronizationActive();
+        long[] deltas = inTransaction ? pendingDeltas() : new long[STATUSES * 2];
+        add(deltas, before, -1, 0);
+        add(deltas, after, 1, 0);
+        if (!inTransaction) {
+            apply(deltas);
+        }
+    }
+
+    /**
+     * Correct any drift between the summary and the inventory rows, on one instance at a time.
+     * The drift is computed without locking the summary and added to one stripe like any other
+     * delta, so writers only ever wait for that last short update.
+     *
+     * @return number of statuses corrected, or -1 when another instance holds the correction lock
+     */
+    @Transactional
+    public int reconcile() {
+        if (!inventoryRepository.tryLockSummaryCorrection()) {
+            return -1;
+        }
+        List<InventoryStatusTotals> drift = inventoryRepository.summaryDrift();
+        if (!drift.isEmpty()) {
+            inventoryRepository.applySummaryDeltas(ThreadLocalRandom.current().nextInt(SUMMARY_STRIPES), drift);
+        }
+        return drift.size();
+    }
+
+    /**
+     * Add an event's effect to per-status item and unit deltas, laid out as {@code [items, units]}
+     * pairs indexed by status ordinal.
+     */
+    static void accumulate(final InventoryChangedEvent event, final long[] deltas) {
+        InventoryItem item = event.getItem();
+        InventoryStatus after = item.getStatus();
+        if (event.getType() == InventoryChangeType.CREATED) {
+            add(deltas, after, 1, item.getAvailableQuantity());
+            return;
+        }
+        if (event.getType() == InventoryChangeType.DELETED) {
+            add(deltas, after, -1, -item.getAvailableQuantity());
+            return;
+        }
+        InventoryStatus before = after;
+        if (event.getQuantityDelta() != 0 || event.getReservedDelta() != 0) {
+            // Every guarded UPDATE derives the status from sellable stock, so the status before the
+            // change follows from the quantities before it.
+            int sellableBefore = item.getAvailableQuantity() - event.getQuantityDelta()
+                    - (item.getReservedQuantity() - event.getReservedDelta());
+            before = InventoryStatus.of(sellableBefore, item.getReorderThreshold());
+        }
+        if (before != after) {
+            add(deltas, before, -1, 0);
+            add(deltas, after, 1, 0);
+        }
+        add(deltas, after, 0, event.getQuantityDelta());
+    }
+
+    private static void add(final long[] deltas, final InventoryStatus status, final long items, final long units) {
+        deltas[status.ordinal() * 2] += items;
+        deltas[status.ordinal() * 2 + 1] += units;
+    }
+
+    private long[] pendingDeltas() {
+        long[] pending = (long[]) TransactionSynchronizationManager.getResource(this);
+        if (pending != null) {
+            return pending;
+        }
+        long[] created = new long[STATUSES * 2];
+        TransactionSynchronizationManager.bindResource(this, created);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void beforeCommit(final boolean readOnly) {
+                apply(created);
+            }
+
+            @Override
+            public void afterCompletion(final int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(InventorySummary.this);
+            }
+        });
+        return created;
+    }
+
+    private void apply(final long[] deltas) {
+        List<InventoryStatusTotals> changes = new ArrayList<>(STATUSES);
+        for (InventoryStatus status : InventoryStatus.values()) {
+            long items = deltas[status.ordinal() * 2];
+            long units = deltas[status.ordinal() * 2 + 1];
+            if (items != 0 || units != 0) {
+                changes.add(new InventoryStatusTotals(status, items, units));
+            }
+        }
+        if (!changes.isEmpty()) {
+            inventoryRepository.applySummaryDeltas(ThreadLocalRandom.current().nextInt(SUMMARY_STRIPES), changes);
+        }
+    }
+}
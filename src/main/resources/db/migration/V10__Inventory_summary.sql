@@ -0,0 +1,26 @@
+-- Per-status item counts and units on hand, maintained incrementally by the mutating transactions.
+-- Each status is split over 16 stripes so concurrent writers rarely update the same row;
+-- readers sum the stripes.
+
+CREATE TABLE inventory_summary (
+    status VARCHAR(20) NOT NULL,
+    stripe INTEGER NOT NULL,
+    items BIGINT NOT NULL,
+    units BIGINT NOT NULL,
+    PRIMARY KEY (status, stripe)
+);
+
+INSERT INTO inventory_summary (status, stripe, items, units)
+SELECT s.status, t.stripe, 0, 0
+  FROM (VALUES ('IN_STOCK'), ('OUT_OF_STOCK'), ('BACKORDERED')) AS s(status)
+ CROSS JOIN (VALUES (0), (1), (2), (3), (4), (5), (6), (7),
+                    (8), (9), (10), (11), (12), (13), (14), (15)) AS t(stripe);
+
+UPDATE inventory_summary
+   SET items = (SELECT COUNT(*) FROM inventory_items i WHERE i.status = inventory_summary.status),
+       units = (SELECT COALESCE(SUM(i.available_quantity), 0)
+                  FROM inventory_items i WHERE i.status = inventory_summary.status)
+             + (SELECT COALESCE(SUM(s.quantity), 0)
+                  FROM inventory_slots s JOIN inventory_items i ON i.product_id = s.product_id
+                 WHERE i.status = inventory_summary.status)
+ WHERE stripe = 0;
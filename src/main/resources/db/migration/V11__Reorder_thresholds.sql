@@ -0,0 +1,10 @@
+-- Per-item reorder threshold: rows whose sellable stock falls to or below it are LOW_STOCK.
+-- The default of 0 never yields LOW_STOCK, so existing statuses stay valid.
+
+ALTER TABLE inventory_items ADD COLUMN reorder_threshold INTEGER NOT NULL DEFAULT 0;
+ALTER TABLE inventory_items ADD CONSTRAINT chk_inventory_reorder_threshold CHECK (reorder_threshold >= 0);
+
+INSERT INTO inventory_summary (status, stripe, items, units)
+SELECT 'LOW_STOCK', t.stripe, 0, 0
+  FROM (VALUES (0), (1), (2), (3), (4), (5), (6), (7),
+               (8), (9), (10), (11), (12), (13), (14), (15)) AS t(stripe);
@@ -0,0 +1,10 @@
+-- Feed-order lock: writers lock this row from allocating change ids until they commit, so ids
+-- become visible in the order they were allocated and the feed's id cursor is commit-safe.
+CREATE TABLE inventory_change_order (
+    id INTEGER PRIMARY KEY
+);
+
+INSERT INTO inventory_change_order (id) VALUES (1);
+
+-- The feed only filters and orders on id, which the primary key already serves.
+DROP INDEX idx_inventory_changes_feed;
@@ -0,0 +1,13 @@
+-- Scan positions of ledger snapshot runs. A run's position becomes the next scan start only once
+-- every transaction in flight when it was taken has finished, so entries that commit late are
+-- still snapshotted; pending_xid is that horizon on PostgreSQL and NULL elsewhere.
+CREATE TABLE inventory_snapshot_runs (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    scanned_to_id BIGINT NOT NULL,
+    pending_xid BIGINT NULL,
+    taken_at TIMESTAMP NOT NULL
+);
+
+-- Runs rescan already covered entries, which are skipped by each product's newest snapshot entry.
+CREATE INDEX idx_snapshot_product_entry ON inventory_snapshots(product_id, last_entry_id);
+DROP INDEX idx_snapshot_last_entry;
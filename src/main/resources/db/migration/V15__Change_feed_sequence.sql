@@ -0,0 +1,13 @@
+-- Feed positions are given to committed changes by a single sequencer, so writers no longer share
+-- the feed-order lock and the feed cursor still never passes a change that commits later.
+-- Every existing change has committed, so it keeps its id as its position and cursors stay valid.
+ALTER TABLE inventory_changes ADD COLUMN feed_seq BIGINT NULL;
+
+UPDATE inventory_changes SET feed_seq = id;
+
+-- Covers every column read by the feed so pages are served by an index-only range scan; the
+-- sequencer finds unpositioned changes, in id order, at the NULL end of the same index.
+CREATE INDEX idx_inventory_changes_feed
+    ON inventory_changes(feed_seq, id, occurred_at, product_id, change_type, available_quantity, reserved_quantity, status);
+
+DROP TABLE inventory_change_order;
@@ -0,0 +1,14 @@
+-- Stock reservations (checkout holds)
+
+ALTER TABLE inventory_items ADD COLUMN reserved_quantity INTEGER NOT NULL DEFAULT 0;
+
+CREATE TABLE inventory_reservations (
+    id UUID PRIMARY KEY,
+    product_id UUID NOT NULL REFERENCES inventory_items(product_id) ON DELETE CASCADE,
+    quantity INTEGER NOT NULL CHECK (quantity > 0),
+    expires_at TIMESTAMP NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX idx_reservation_expires_at ON inventory_reservations(expires_at);
+CREATE INDEX idx_reservation_product ON inventory_reservations(product_id);
@@ -0,0 +1,4 @@
+-- Keyset pagination of status-filtered listings walks (status, id) in order
+
+CREATE INDEX idx_inventory_status_id ON inventory_items(status, id);
+DROP INDEX idx_inventory_status;
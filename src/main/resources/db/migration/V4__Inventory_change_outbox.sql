@@ -0,0 +1,15 @@
+-- Transactional outbox backing the GET /changes feed
+
+CREATE TABLE inventory_changes (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    product_id UUID NOT NULL,
+    change_type VARCHAR(40) NOT NULL,
+    available_quantity INTEGER NULL,
+    reserved_quantity INTEGER NULL,
+    status VARCHAR(20) NULL,
+    occurred_at TIMESTAMP NOT NULL
+);
+
+-- Covers every column read by the feed so pages are served by an index-only range scan.
+CREATE INDEX idx_inventory_changes_feed
+    ON inventory_changes(id, occurred_at, product_id, change_type, available_quantity, reserved_quantity, status);
@@ -0,0 +1,12 @@
+-- Periodic per-product quantity checkpoints taken from the adjustment ledger
+
+CREATE TABLE inventory_snapshots (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    product_id UUID NOT NULL,
+    available_quantity INTEGER NOT NULL,
+    last_entry_id BIGINT NOT NULL,
+    taken_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX idx_snapshot_product_taken ON inventory_snapshots(product_id, taken_at);
+CREATE INDEX idx_snapshot_last_entry ON inventory_snapshots(last_entry_id);
@@ -0,0 +1,3 @@
+-- Row version for optimistic adjustments; every UPDATE of inventory_items bumps it
+
+ALTER TABLE inventory_items ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
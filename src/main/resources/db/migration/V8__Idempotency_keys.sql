@@ -0,0 +1,11 @@
+-- Stored responses for requests sent with an Idempotency-Key, pruned after the retention period
+
+CREATE TABLE idempotency_keys (
+    idempotency_key VARCHAR(255) PRIMARY KEY,
+    operation VARCHAR(16) NOT NULL,
+    request_hash BIGINT NOT NULL,
+    response_body VARCHAR(2048) NOT NULL,
+    created_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX idx_idempotency_keys_created_at ON idempotency_keys(created_at);
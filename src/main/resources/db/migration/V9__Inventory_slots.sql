@@ -0,0 +1,11 @@
+-- Stock slots for sharded hot products: on-hand stock is the head row plus the sum of its slots
+
+ALTER TABLE inventory_items ADD COLUMN slot_count INTEGER NOT NULL DEFAULT 0;
+
+CREATE TABLE inventory_slots (
+    product_id UUID NOT NULL REFERENCES inventory_items(product_id) ON DELETE CASCADE,
+    slot INTEGER NOT NULL,
+    quantity INTEGER NOT NULL CHECK (quantity >= 0),
+    updated_at TIMESTAMP NOT NULL,
+    PRIMARY KEY (product_id, slot)
+);
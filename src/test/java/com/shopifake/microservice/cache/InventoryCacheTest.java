@@ -0,0 +1,117 @@
+package com.shopifake.microservice.cache;
+
+import com.shopifake.microservice.config.InventoryProperties;
+import com.shopifake.microservice.dtos.InventoryResponse;
+import com.shopifake.microservice.entities.InventoryItem;
+import com.shopifake.microservice.events.InventoryChangeType;
+import com.shopifake.microservice.events.InventoryChangedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Tests for {@link InventoryCache}.
+ */
+class InventoryCacheTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private InventoryProperties properties;
+    private AtomicInteger loads;
+
+    private final Function<UUID, InventoryResponse> loader = productId -> {
+        loads.incrementAndGet();
+        return InventoryResponse.builder().productId(productId).availableQuantity(loads.get()).build();
+    };
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        properties = new InventoryProperties();
+        loads = new AtomicInteger();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("Should serve repeated reads from the cache and record hits")
+    void shouldCacheReads() {
+        InventoryCache cache = new InventoryCache(properties, meterRegistry);
+        UUID productId = UUID.randomUUID();
+
+        cache.get(productId, loader);
+        InventoryResponse second = cache.get(productId, loader);
+
+        assertThat(loads).hasValue(1);
+        assertThat(second.getAvailableQuantity()).isEqualTo(1);
+        assertThat(meterRegistry.get("cache.gets").tag("result", "hit").functionCounter().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should reload after a change event")
+    void shouldInvalidateOnChange() {
+        InventoryCache cache = new InventoryCache(properties, meterRegistry);
+        UUID productId = UUID.randomUUID();
+        cache.get(productId, loader);
+
+        cache.onInventoryChanged(new InventoryChangedEvent(InventoryChangeType.ADJUSTED, productId,
+                new InventoryItem()));
+
+        assertThat(cache.get(productId, loader).getAvailableQuantity()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should evict again after commit so pre-commit reads do not linger")
+    void shouldInvalidateAfterCommit() {
+        InventoryCache cache = new InventoryCache(properties, meterRegistry);
+        UUID productId = UUID.randomUUID();
+        TransactionSynchronizationManager.initSynchronization();
+
+        cache.invalidate(productId);
+        cache.get(productId, loader);
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+        assertThat(cache.get(productId, loader).getAvailableQuantity()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should not cache failed loads")
+    void shouldNotCacheMisses() {
+        InventoryCache cache = new InventoryCache(properties, meterRegistry);
+        UUID productId = UUID.randomUUID();
+
+        assertThrows(IllegalArgumentException.class, () -> cache.get(productId, id -> {
+            throw new IllegalArgumentException("Inventory not found for product " + id);
+        }));
+
+        assertThat(cache.get(productId, loader).getAvailableQuantity()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should bypass caching when disabled")
+    void shouldBypassWhenDisabled() {
+        properties.getCache().setEnabled(false);
+        InventoryCache cache = new InventoryCache(properties, meterRegistry);
+        UUID productId = UUID.randomUUID();
+
+        cache.get(productId, loader);
+        cache.get(productId, loader);
+
+        assertThat(loads).hasValue(2);
+    }
+}
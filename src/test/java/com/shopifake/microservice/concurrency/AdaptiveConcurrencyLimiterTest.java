@@ -0,0 +1,143 @@
+package com.shopifake.microservice.concurrency;
+
+import com.shopifake.microservice.config.InventoryProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private final AtomicLong nanos = new AtomicLong();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private InventoryProperties.Limiter config;
+
+    @BeforeEach
+    void setUp() {
+        config = new InventoryProperties.Limiter();
+        config.setInitialLimit(2);
+        config.setMinLimit(1);
+        config.setMaxLimit(4);
+        config.setLatencyThreshold(Duration.ofMillis(50));
+        config.setBackoffRatio(0.5);
+        config.setMaxQueueWait(Duration.ZERO);
+    }
+
+    private AdaptiveConcurrencyLimiter limiter() {
+        return new AdaptiveConcurrencyLimiter(config, meterRegistry, nanos::get);
+    }
+
+    @Test
+    @DisplayName("Callers over the limit are shed once their deadline passes")
+    void shouldShedOverLimit() {
+        AdaptiveConcurrencyLimiter limiter = limiter();
+        limiter.acquire();
+        limiter.acquire();
+
+        assertThatThrownBy(limiter::acquire).isInstanceOf(ConcurrencyLimitExceededException.class);
+        assertThat(limiter.getInFlight()).isEqualTo(2);
+        assertThat(meterRegistry.get("inventory.db.limiter.rejected").tag("reason", "timeout").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Slow statements back off multiplicatively, fast ones grow additively")
+    void shouldAdaptToLatency() {
+        AdaptiveConcurrencyLimiter limiter = limiter();
+
+        AdaptiveConcurrencyLimiter.Permit slow = limiter.acquire();
+        slow.recordStatement(Duration.ofMillis(200).toNanos());
+        slow.release();
+        assertThat(limiter.getLimit()).isEqualTo(1.0);
+
+        for (int i = 0; i < 3; i++) {
+            AdaptiveConcurrencyLimiter.Permit fast = limiter.acquire();
+            fast.recordStatement(Duration.ofMillis(1).toNanos());
+            fast.release();
+        }
+        assertThat(limiter.getLimit()).isGreaterThan(2.0);
+        assertThat(meterRegistry.get("inventory.db.limiter.limit").gauge().value()).isEqualTo(limiter.getLimit());
+    }
+
+    @Test
+    @DisplayName("A queued caller is admitted when a permit is released")
+    void shouldAdmitQueuedCaller() throws Exception {
+        config.setMaxQueueWait(Duration.ofSeconds(5));
+        AdaptiveConcurrencyLimiter limiter = limiter();
+        AdaptiveConcurrencyLimiter.Permit first = limiter.acquire();
+        limiter.acquire();
+
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            CompletableFuture<AdaptiveConcurrencyLimiter.Permit> waiter =
+                    CompletableFuture.supplyAsync(limiter::acquire, executor);
+            while (limiter.getQueued() == 0) {
+                Thread.onSpinWait();
+            }
+            first.release();
+            first.release();
+
+            assertThat(waiter.get(5, TimeUnit.SECONDS)).isNotNull();
+            assertThat(limiter.getInFlight()).isEqualTo(2);
+        }
+    }
+
+    @Test
+    @DisplayName("Closing a connection returns its permit")
+    void shouldReleasePermitOnConnectionClose() throws Exception {
+        AdaptiveConcurrencyLimiter limiter = limiter();
+        DataSource target = mock(DataSource.class);
+        Connection connection = mock(Connection.class);
+        when(target.getConnection()).thenReturn(connection);
+        ConcurrencyLimitedDataSource dataSource = new ConcurrencyLimitedDataSource(target, limiter);
+
+        Connection limited = dataSource.getConnection();
+        assertThat(limiter.getInFlight()).isEqualTo(1);
+
+        limited.close();
+        limited.close();
+        verify(connection, times(2)).close();
+        assertThat(limiter.getInFlight()).isZero();
+    }
+
+    @Test
+    @DisplayName("Only statement execution time counts as latency, not how long the connection is held")
+    void shouldAdaptToStatementsNotHoldTime() throws Exception {
+        AdaptiveConcurrencyLimiter limiter = limiter();
+        DataSource target = mock(DataSource.class);
+        Connection connection = mock(Connection.class);
+        PreparedStatement statement = mock(PreparedStatement.class);
+        when(target.getConnection()).thenReturn(connection);
+        when(connection.prepareStatement("SELECT 1")).thenReturn(statement);
+        ConcurrencyLimitedDataSource dataSource = new ConcurrencyLimitedDataSource(target, limiter);
+
+        Connection limited = dataSource.getConnection();
+        PreparedStatement prepared = limited.prepareStatement("SELECT 1");
+        prepared.executeQuery();
+        nanos.addAndGet(Duration.ofSeconds(5).toNanos());
+        prepared.close();
+        limited.close();
+
+        verify(statement).executeQuery();
+        assertThat(prepared).isEqualTo(prepared).isNotEqualTo(statement);
+        assertThat(meterRegistry.get("inventory.db.limiter.statement").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("inventory.db.limiter.hold").timer().totalTime(TimeUnit.SECONDS))
+                .isEqualTo(5);
+        assertThat(limiter.getLimit()).isGreaterThan(2.0);
+    }
+}
@@ -0,0 +1,99 @@
+package com.shopifake.microservice.concurrency;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the service in virtual-thread mode and checks that the database limiter, which follows that
+ * switch, queues and sheds requests once its permits are taken. Frequent background jobs are slowed
+ * down so they do not compete for the single permit.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.threads.virtual.enabled=true",
+        "inventory.limiter.initial-limit=1",
+        "inventory.limiter.min-limit=1",
+        "inventory.limiter.max-limit=1",
+        "inventory.limiter.max-queue-length=10",
+        "inventory.limiter.max-queue-wait=PT0.5S",
+        "inventory.outbox.sequence-interval=PT1H",
+        "inventory.reservations.sweep-interval=PT1H",
+        "inventory.sharding.rebalance-interval=PT1H",
+        "inventory.health.check-interval=PT1H"
+})
+@ActiveProfiles("test")
+@Import(VirtualThreadLimiterTest.ThreadProbe.class)
+class VirtualThreadLimiterTest {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private AdaptiveConcurrencyLimiter limiter;
+
+    @Test
+    @DisplayName("Should serve requests on virtual threads with the limiter in front of the pool")
+    void shouldRunOnVirtualThreads() {
+        assertThat(restTemplate.getForObject("/test/thread", Boolean.class)).isTrue();
+        assertThat(dataSource).isInstanceOf(ConcurrencyLimitedDataSource.class);
+    }
+
+    @Test
+    @DisplayName("Should queue a request while the only permit is held and serve it once released")
+    void shouldQueueWhileSaturated() throws Exception {
+        CompletableFuture<ResponseEntity<String>> response;
+        try (Connection held = dataSource.getConnection()) {
+            response = CompletableFuture.supplyAsync(() -> restTemplate.getForEntity("/summary", String.class));
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(400);
+            while (limiter.getQueued() == 0 && System.nanoTime() < deadline) {
+                Thread.onSpinWait();
+            }
+            assertThat(limiter.getQueued()).isPositive();
+        }
+
+        assertThat(response.get(5, TimeUnit.SECONDS).getStatusCode()).isEqualTo(HttpStatus.OK);
+    }
+
+    @Test
+    @DisplayName("Should shed a request with 503 once its queue wait runs out")
+    void shouldShedWhenSaturated() throws Exception {
+        ResponseEntity<String> response;
+        try (Connection held = dataSource.getConnection()) {
+            response = restTemplate.getForEntity("/summary", String.class);
+        }
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        assertThat(response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("1");
+    }
+
+    /**
+     * Reports whether the request thread is virtual.
+     */
+    @RestController
+    static class ThreadProbe {
+
+        @GetMapping("/test/thread")
+        boolean virtual() {
+            return Thread.currentThread().isVirtual();
+        }
+    }
+}
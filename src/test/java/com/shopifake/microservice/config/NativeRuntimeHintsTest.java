@@ -0,0 +1,31 @@
+package com.shopifake.microservice.config;
+
+import com.shopifake.microservice.dtos.InventoryResponse;
+import com.shopifake.microservice.repositories.InventoryVersion;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NativeRuntimeHintsTest {
+
+    private final RuntimeHints hints = new RuntimeHints();
+
+    @Test
+    @DisplayName("Registers vendor migrations, constructor projections and replayed responses")
+    void shouldRegisterHints() {
+        new NativeRuntimeHints().registerHints(hints, getClass().getClassLoader());
+
+        assertThat(RuntimeHintsPredicates.resource().forResource("db/vendor/postgresql/V6__Adjustment_ledger.sql"))
+                .accepts(hints);
+        assertThat(RuntimeHintsPredicates.resource().forResource("db/migration/V1__Initial_schema.sql"))
+                .accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection().onType(InventoryVersion.class)
+                .withMemberCategory(MemberCategory.INVOKE_DECLARED_CONSTRUCTORS)).accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection().onType(InventoryResponse.InventoryResponseBuilder.class))
+                .accepts(hints);
+    }
+}
@@ -1,33 +1,77 @@
 package com.shopifake.microservice.controllers;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.shopifake.microservice.concurrency.ConcurrencyLimitExceededException;
 import com.shopifake.microservice.dtos.AdjustInventoryRequest;
+import com.shopifake.microservice.dtos.AdjustmentOutcome;
+import com.shopifake.microservice.dtos.BatchAdjustInventoryLine;
+import com.shopifake.microservice.dtos.BatchAdjustInventoryRequest;
+import com.shopifake.microservice.dtos.BatchAdjustInventoryResponse;
+import com.shopifake.microservice.dtos.BatchAdjustmentResult;
+import com.shopifake.microservice.dtos.ConfigureSlotsRequest;
 import com.shopifake.microservice.dtos.CreateInventoryRequest;
+import com.shopifake.microservice.dtos.InventoryAvailability;
+import com.shopifake.microservice.dtos.InventoryImportError;
+import com.shopifake.microservice.dtos.InventoryImportResponse;
+import com.shopifake.microservice.dtos.InventoryLookupRequest;
+import com.shopifake.microservice.dtos.InventoryLookupResponse;
+import com.shopifake.microservice.dtos.InventoryPage;
+import com.shopifake.microservice.dtos.InventoryReconcileResponse;
 import com.shopifake.microservice.dtos.InventoryResponse;
+import com.shopifake.microservice.dtos.InventorySummaryResponse;
+import com.shopifake.microservice.dtos.ReorderThresholdRequest;
 import com.shopifake.microservice.entities.InventoryStatus;
+import com.shopifake.microservice.metrics.InventoryMetrics;
+import com.shopifake.microservice.services.AdjustmentTimeoutException;
+import com.shopifake.microservice.services.InventoryETags;
+import com.shopifake.microservice.services.InventoryImportService;
+import com.shopifake.microservice.services.InventoryReconciliationService;
 import com.shopifake.microservice.services.InventoryService;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.CannotCreateTransactionException;
 
+import java.io.InputStream;
+import java.nio.ByteBuffer;
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Consumer;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(InventoryController.class)
@@ -42,6 +86,15 @@ class InventoryControllerTest {
     @MockBean
     private InventoryService inventoryService;
 
+    @MockBean
+    private InventoryImportService inventoryImportService;
+
+    @MockBean
+    private InventoryReconciliationService inventoryReconciliationService;
+
+    @MockBean
+    private InventoryMetrics inventoryMetrics;
+
     private InventoryResponse sampleResponse() {
         return InventoryResponse.builder()
                 .id(UUID.randomUUID())
@@ -54,11 +107,18 @@ class InventoryControllerTest {
                 .build();
     }
 
+    private static byte[] bytes(final UUID id) {
+        return ByteBuffer.allocate(16)
+                .putLong(id.getMostSignificantBits())
+                .putLong(id.getLeastSignificantBits())
+                .array();
+    }
+
     @Test
     @DisplayName("POST / creates inventory")
     void shouldCreateInventory() throws Exception {
         InventoryResponse response = sampleResponse();
-        when(inventoryService.createInventory(any(CreateInventoryRequest.class))).thenReturn(response);
+        when(inventoryService.createInventory(any(CreateInventoryRequest.class), isNull())).thenReturn(response);
 
         CreateInventoryRequest request = CreateInventoryRequest.builder()
                 .productId(response.getProductId())
@@ -84,23 +144,146 @@ class InventoryControllerTest {
                 .andExpect(jsonPath("$.status").value("IN_STOCK"));
     }
 
+    @Test
+    @DisplayName("GET /{productId} sends a strong ETag derived from the row version")
+    void shouldTagInventory() throws Exception {
+        InventoryResponse response = sampleResponse();
+        when(inventoryService.getInventory(response.getProductId())).thenReturn(response);
+
+        mockMvc.perform(get("/{productId}", response.getProductId()))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG,
+                        InventoryETags.forItem(response.getVersion(), response.getAvailableQuantity())));
+    }
+
+    @Test
+    @DisplayName("GET /{productId} answers a matching If-None-Match with 304 without loading the row")
+    void shouldAnswerNotModifiedFromVersionProbe() throws Exception {
+        UUID productId = UUID.randomUUID();
+        when(inventoryService.inventoryETag(productId)).thenReturn(Optional.of("\"7-10\""));
+
+        mockMvc.perform(get("/{productId}", productId).header(HttpHeaders.IF_NONE_MATCH, "\"6-10\", W/\"7-10\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"7-10\""))
+                .andExpect(content().string(""));
+        verify(inventoryService, never()).getInventory(any());
+    }
+
+    @Test
+    @DisplayName("GET /{productId} sends the row when If-None-Match is stale")
+    void shouldSendRowWhenTagIsStale() throws Exception {
+        InventoryResponse response = sampleResponse();
+        when(inventoryService.inventoryETag(response.getProductId())).thenReturn(Optional.of("\"1-10\""));
+        when(inventoryService.getInventory(response.getProductId())).thenReturn(response);
+
+        mockMvc.perform(get("/{productId}", response.getProductId()).header(HttpHeaders.IF_NONE_MATCH, "\"5-10\""))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.availableQuantity").value(10));
+    }
+
+    @Test
+    @DisplayName("GET / answers a matching If-None-Match with 304 from version probes of the page")
+    void shouldAnswerNotModifiedForPage() throws Exception {
+        when(inventoryService.listInventoryETag("IN_STOCK", null, null)).thenReturn("\"abc\"");
+
+        mockMvc.perform(get("/").param("status", "IN_STOCK").header(HttpHeaders.IF_NONE_MATCH, "\"abc\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"abc\""));
+        verify(inventoryService, never()).listInventory(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("GET /summary returns counts by status and units on hand")
+    void shouldSummarizeInventory() throws Exception {
+        when(inventoryService.summarizeInventory()).thenReturn(InventorySummaryResponse.builder()
+                .items(Map.of(InventoryStatus.IN_STOCK, 12L, InventoryStatus.OUT_OF_STOCK, 3L))
+                .totalItems(15)
+                .unitsOnHand(340)
+                .build());
+
+        mockMvc.perform(get("/summary"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.OUT_OF_STOCK").value(3))
+                .andExpect(jsonPath("$.totalItems").value(15))
+                .andExpect(jsonPath("$.unitsOnHand").value(340));
+    }
+
     @Test
     @DisplayName("GET / lists by status")
     void shouldListInventory() throws Exception {
         InventoryResponse response = sampleResponse();
-        when(inventoryService.listInventory("IN_STOCK")).thenReturn(List.of(response));
+        when(inventoryService.listInventory("IN_STOCK", null, null))
+                .thenReturn(InventoryPage.builder().items(List.of(response)).build());
 
         mockMvc.perform(get("/").param("status", "IN_STOCK"))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
-                .andExpect(jsonPath("$[0].status").value("IN_STOCK"));
+                .andExpect(jsonPath("$[0].status").value("IN_STOCK"))
+                .andExpect(header().doesNotExist(HttpHeaders.LINK));
+    }
+
+    @Test
+    @DisplayName("GET / links to the next keyset page")
+    void shouldLinkNextPage() throws Exception {
+        UUID cursor = UUID.randomUUID();
+        when(inventoryService.listInventory(null, null, 1))
+                .thenReturn(InventoryPage.builder().items(List.of(sampleResponse())).nextCursor(cursor).build());
+
+        mockMvc.perform(get("/?limit=1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(header().string(InventoryController.NEXT_CURSOR_HEADER, cursor.toString()))
+                .andExpect(header().string(HttpHeaders.LINK, containsString("after=" + cursor)))
+                .andExpect(header().string(HttpHeaders.LINK, containsString("limit=1")));
+    }
+
+    @Test
+    @DisplayName("GET / streams NDJSON when asked for it")
+    @SuppressWarnings("unchecked")
+    void shouldStreamInventory() throws Exception {
+        InventoryResponse first = sampleResponse();
+        InventoryResponse second = sampleResponse();
+        doAnswer(invocation -> {
+            Consumer<InventoryResponse> sink = invocation.getArgument(1);
+            sink.accept(first);
+            sink.accept(second);
+            return null;
+        }).when(inventoryService).streamInventory(eq(null), any());
+
+        MvcResult result = mockMvc.perform(get("/").accept(InventoryController.NDJSON_VALUE))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(InventoryController.NDJSON_VALUE))
+                .andReturn().getResponse().getContentAsString();
+        String[] lines = body.split("\n");
+        assertThat(lines).hasSize(2);
+        assertThat(objectMapper.readValue(lines[1], InventoryResponse.class).getProductId())
+                .isEqualTo(second.getProductId());
+        verify(inventoryMetrics).recordSuccess(eq(InventoryMetrics.Operation.STREAM), anyLong());
+    }
+
+    @Test
+    @DisplayName("GET / keeps JSON as the default representation")
+    void shouldDefaultToJson() throws Exception {
+        when(inventoryService.listInventory(null, null, null))
+                .thenReturn(InventoryPage.builder().items(List.of()).build());
+
+        mockMvc.perform(get("/").accept(MediaType.ALL))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON));
+        mockMvc.perform(get("/"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON));
     }
 
     @Test
     @DisplayName("PATCH /{productId}/adjust updates quantity")
     void shouldAdjustInventory() throws Exception {
         InventoryResponse response = sampleResponse();
-        when(inventoryService.adjustInventory(eq(response.getProductId()), any(AdjustInventoryRequest.class)))
+        when(inventoryService.adjustInventory(eq(response.getProductId()), any(AdjustInventoryRequest.class), isNull()))
                 .thenReturn(response);
 
         AdjustInventoryRequest request = AdjustInventoryRequest.builder()
@@ -113,6 +296,244 @@ class InventoryControllerTest {
                         .content(objectMapper.writeValueAsString(request)))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.availableQuantity").value(10));
+        verify(inventoryMetrics).recordSuccess(eq(InventoryMetrics.Operation.ADJUST), anyLong());
+    }
+
+    @Test
+    @DisplayName("PATCH /{productId}/adjust passes the Idempotency-Key header to the service")
+    void shouldPassIdempotencyKeyToAdjust() throws Exception {
+        InventoryResponse response = sampleResponse();
+        when(inventoryService.adjustInventory(eq(response.getProductId()), any(AdjustInventoryRequest.class),
+                eq("order-42-line-1")))
+                .thenReturn(response);
+
+        mockMvc.perform(patch("/{productId}/adjust", response.getProductId())
+                        .header(InventoryController.IDEMPOTENCY_KEY_HEADER, "order-42-line-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"quantityDelta\":-1,\"reason\":\"Order 42\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.productId").value(response.getProductId().toString()));
+    }
+
+    @Test
+    @DisplayName("PUT /{productId}/slots splits a product into stock slots")
+    void shouldConfigureSlots() throws Exception {
+        InventoryResponse response = sampleResponse();
+        when(inventoryService.configureSlots(eq(response.getProductId()), any(ConfigureSlotsRequest.class)))
+                .thenReturn(response);
+
+        mockMvc.perform(put("/{productId}/slots", response.getProductId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"slotCount\":8}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.availableQuantity").value(10));
+        verify(inventoryMetrics).recordSuccess(eq(InventoryMetrics.Operation.CONFIGURE_SLOTS), anyLong());
+    }
+
+    @Test
+    @DisplayName("GET /low-stock pages through at-risk rows")
+    void shouldListLowStock() throws Exception {
+        UUID cursor = UUID.randomUUID();
+        InventoryResponse response = InventoryResponse.builder()
+                .id(UUID.randomUUID())
+                .productId(UUID.randomUUID())
+                .availableQuantity(2)
+                .status(InventoryStatus.LOW_STOCK)
+                .build();
+        when(inventoryService.listLowStock(null, 1))
+                .thenReturn(InventoryPage.builder().items(List.of(response)).nextCursor(cursor).build());
+
+        mockMvc.perform(get("/low-stock?limit=1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status").value("LOW_STOCK"))
+                .andExpect(header().string(HttpHeaders.LINK, containsString("after=" + cursor)));
+        verify(inventoryMetrics).recordSuccess(eq(InventoryMetrics.Operation.LOW_STOCK), anyLong());
+    }
+
+    @Test
+    @DisplayName("PUT /{productId}/reorder-threshold sets the threshold")
+    void shouldUpdateReorderThreshold() throws Exception {
+        InventoryResponse response = InventoryResponse.builder()
+                .productId(UUID.randomUUID())
+                .availableQuantity(10)
+                .status(InventoryStatus.LOW_STOCK)
+                .reorderThreshold(12)
+                .build();
+        when(inventoryService.updateReorderThreshold(eq(response.getProductId()), any(ReorderThresholdRequest.class)))
+                .thenReturn(response);
+
+        mockMvc.perform(put("/{productId}/reorder-threshold", response.getProductId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"reorderThreshold\":12}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.reorderThreshold").value(12));
+        verify(inventoryMetrics).recordSuccess(eq(InventoryMetrics.Operation.CONFIGURE_THRESHOLD), anyLong());
+    }
+
+    @Test
+    @DisplayName("PUT /{productId}/reorder-threshold rejects negative thresholds")
+    void shouldRejectNegativeReorderThreshold() throws Exception {
+        mockMvc.perform(put("/{productId}/reorder-threshold", UUID.randomUUID())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"reorderThreshold\":-1}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("POST /adjust/batch returns per-line results")
+    void shouldAdjustInventoryBatch() throws Exception {
+        UUID productId = UUID.randomUUID();
+        BatchAdjustInventoryResponse response = BatchAdjustInventoryResponse.builder()
+                .applied(1)
+                .rejected(0)
+                .results(List.of(BatchAdjustmentResult.builder()
+                        .index(0)
+                        .productId(productId)
+                        .outcome(AdjustmentOutcome.APPLIED)
+                        .availableQuantity(7)
+                        .build()))
+                .build();
+        when(inventoryService.adjustInventoryBatch(any(BatchAdjustInventoryRequest.class))).thenReturn(response);
+
+        BatchAdjustInventoryRequest request = BatchAdjustInventoryRequest.builder()
+                .adjustments(List.of(new BatchAdjustInventoryLine(productId, 2, "Restock")))
+                .build();
+
+        mockMvc.perform(post("/adjust/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.applied").value(1))
+                .andExpect(jsonPath("$.results[0].outcome").value("APPLIED"));
+    }
+
+    @Test
+    @DisplayName("POST /import reads a CSV body and reports row errors")
+    void shouldImportCsv() throws Exception {
+        InventoryImportResponse response = InventoryImportResponse.builder()
+                .received(2)
+                .created(1)
+                .rejected(1)
+                .errors(List.of(InventoryImportError.builder()
+                        .line(2)
+                        .message("productId is not a UUID")
+                        .build()))
+                .build();
+        when(inventoryImportService.importInventory(any(InputStream.class), eq(InventoryImportService.Format.CSV)))
+                .thenReturn(response);
+
+        mockMvc.perform(post("/import")
+                        .contentType("text/csv; charset=UTF-8")
+                        .content(UUID.randomUUID() + ",5\nnot-a-uuid,1\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created").value(1))
+                .andExpect(jsonPath("$.errors[0].line").value(2));
+        verify(inventoryMetrics).recordSuccess(eq(InventoryMetrics.Operation.IMPORT), anyLong());
+    }
+
+    @Test
+    @DisplayName("POST /import reads an NDJSON body")
+    void shouldImportNdjson() throws Exception {
+        when(inventoryImportService.importInventory(any(InputStream.class), eq(InventoryImportService.Format.NDJSON)))
+                .thenReturn(InventoryImportResponse.builder().received(1).created(1).errors(List.of()).build());
+
+        mockMvc.perform(post("/import")
+                        .contentType(InventoryController.NDJSON_VALUE)
+                        .content("{\"productId\":\"" + UUID.randomUUID() + "\"}\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.received").value(1));
+    }
+
+    @Test
+    @DisplayName("POST /reconcile reads a CSV snapshot and returns the diff totals")
+    void shouldReconcileCsv() throws Exception {
+        when(inventoryReconciliationService.reconcileInventory(any(InputStream.class),
+                eq(InventoryImportService.Format.CSV)))
+                .thenReturn(InventoryReconcileResponse.builder()
+                        .received(2)
+                        .changed(1)
+                        .unchanged(1)
+                        .errors(List.of())
+                        .build());
+
+        mockMvc.perform(post("/reconcile")
+                        .contentType("text/csv")
+                        .content("productId,quantity\n" + UUID.randomUUID() + ",5\n" + UUID.randomUUID() + ",0\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.changed").value(1))
+                .andExpect(jsonPath("$.unchanged").value(1));
+        verify(inventoryMetrics).recordSuccess(eq(InventoryMetrics.Operation.RECONCILE), anyLong());
+    }
+
+    @Test
+    @DisplayName("POST /adjust/batch rejects empty batches")
+    void shouldRejectEmptyBatch() throws Exception {
+        mockMvc.perform(post("/adjust/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"adjustments\":[]}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("POST /lookup returns stock keyed by product and the missing ids")
+    void shouldLookupInventory() throws Exception {
+        UUID known = UUID.randomUUID();
+        UUID unknown = UUID.randomUUID();
+        InventoryLookupResponse response = InventoryLookupResponse.builder()
+                .items(Map.of(known, InventoryAvailability.builder()
+                        .availableQuantity(5)
+                        .availableToSell(5)
+                        .status(InventoryStatus.IN_STOCK)
+                        .build()))
+                .missing(List.of(unknown))
+                .build();
+        when(inventoryService.lookupInventory(any(InventoryLookupRequest.class))).thenReturn(response);
+
+        mockMvc.perform(post("/lookup")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new InventoryLookupRequest(List.of(known, unknown)))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items['" + known + "'].availableToSell").value(5))
+                .andExpect(jsonPath("$.missing[0]").value(unknown.toString()));
+    }
+
+    @Test
+    @DisplayName("GET / negotiates CBOR with binary UUIDs, epoch-millisecond timestamps and its own ETag")
+    void shouldListInventoryAsCbor() throws Exception {
+        InventoryResponse response = sampleResponse();
+        when(inventoryService.listInventory(null, null, null))
+                .thenReturn(InventoryPage.builder().items(List.of(response)).build());
+
+        MvcResult result = mockMvc.perform(get("/").accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andExpect(header().string(HttpHeaders.ETAG, containsString("+cbor")))
+                .andExpect(header().string(HttpHeaders.VARY, containsString(HttpHeaders.ACCEPT)))
+                .andReturn();
+
+        JsonNode row = new CBORMapper().readTree(result.getResponse().getContentAsByteArray()).get(0);
+        assertThat(row.get("productId").binaryValue()).isEqualTo(bytes(response.getProductId()));
+        assertThat(row.get("createdAt").longValue())
+                .isEqualTo(response.getCreatedAt().toInstant(ZoneOffset.UTC).toEpochMilli());
+        assertThat(row.get("status").textValue()).isEqualTo("IN_STOCK");
+    }
+
+    @Test
+    @DisplayName("POST /lookup reads and writes CBOR")
+    void shouldLookupInventoryInCbor() throws Exception {
+        UUID unknown = UUID.randomUUID();
+        when(inventoryService.lookupInventory(new InventoryLookupRequest(List.of(unknown))))
+                .thenReturn(InventoryLookupResponse.builder().items(Map.of()).missing(List.of(unknown)).build());
+
+        MvcResult result = mockMvc.perform(post("/lookup")
+                        .contentType(MediaType.APPLICATION_CBOR)
+                        .accept(MediaType.APPLICATION_CBOR)
+                        .content(new CBORMapper().writeValueAsBytes(new InventoryLookupRequest(List.of(unknown)))))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        JsonNode body = new CBORMapper().readTree(result.getResponse().getContentAsByteArray());
+        assertThat(body.get("missing").get(0).binaryValue()).isEqualTo(bytes(unknown));
     }
 
     @Test
@@ -124,6 +545,53 @@ class InventoryControllerTest {
         mockMvc.perform(delete("/{productId}", productId))
                 .andExpect(status().isNoContent());
     }
-}
 
+    @Test
+    @DisplayName("Requests shed by the database limiter return 503 with Retry-After")
+    void shouldShedWhenDatabaseLimitReached() throws Exception {
+        UUID productId = UUID.randomUUID();
+        when(inventoryService.getInventory(productId)).thenThrow(new CannotCreateTransactionException(
+                "Could not open JPA EntityManager for transaction",
+                new ConcurrencyLimitExceededException("Timed out waiting for database capacity")));
+
+        mockMvc.perform(get("/{productId}", productId))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"))
+                .andExpect(jsonPath("$.message").value("Timed out waiting for database capacity"));
+        verify(inventoryMetrics).recordFailure(eq(InventoryMetrics.Operation.GET), anyLong(),
+                any(CannotCreateTransactionException.class));
+    }
+
+    @Test
+    @DisplayName("Adjustments abandoned after concurrent writers return 409")
+    void shouldReturnConflictWhenAdjustmentRetriesRunOut() throws Exception {
+        UUID productId = UUID.randomUUID();
+        when(inventoryService.adjustInventory(eq(productId), any(AdjustInventoryRequest.class), isNull()))
+                .thenThrow(new OptimisticLockingFailureException("Row was updated by another transaction"));
+
+        mockMvc.perform(patch("/{productId}/adjust", productId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"quantityDelta\":1,\"reason\":\"Manual adjustment\"}"))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.status").value(409));
+        verify(inventoryMetrics).recordFailure(eq(InventoryMetrics.Operation.ADJUST), anyLong(),
+                any(OptimisticLockingFailureException.class));
+    }
+
+    @Test
+    @DisplayName("Adjustments withdrawn after a group-commit timeout return 503 with Retry-After")
+    void shouldReturnUnavailableWhenGroupCommitTimesOut() throws Exception {
+        UUID productId = UUID.randomUUID();
+        when(inventoryService.adjustInventory(eq(productId), any(AdjustInventoryRequest.class), isNull()))
+                .thenThrow(new AdjustmentTimeoutException("Timed out waiting for group commit"));
 
+        mockMvc.perform(patch("/{productId}/adjust", productId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"quantityDelta\":-1,\"reason\":\"Order\"}"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"))
+                .andExpect(jsonPath("$.message").value("Timed out waiting for group commit"));
+        verify(inventoryMetrics).recordFailure(eq(InventoryMetrics.Operation.ADJUST), anyLong(),
+                any(AdjustmentTimeoutException.class));
+    }
+}
@@ -0,0 +1,77 @@
+package com.shopifake.microservice.controllers;
+
+import com.shopifake.microservice.dtos.InventoryHistoryPage;
+import com.shopifake.microservice.dtos.LedgerEntryResponse;
+import com.shopifake.microservice.dtos.QuantityAsOfResponse;
+import com.shopifake.microservice.metrics.InventoryMetrics;
+import com.shopifake.microservice.services.LedgerService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(LedgerController.class)
+class LedgerControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private LedgerService ledgerService;
+
+    @MockBean
+    private InventoryMetrics inventoryMetrics;
+
+    @Test
+    @DisplayName("GET /{productId}/history returns a page of entries")
+    void shouldReturnHistory() throws Exception {
+        UUID productId = UUID.randomUUID();
+        when(ledgerService.getHistory(productId, 50L, 1)).thenReturn(InventoryHistoryPage.builder()
+                .entries(List.of(LedgerEntryResponse.builder()
+                        .id(42L)
+                        .delta(-2)
+                        .quantityAfter(3)
+                        .reason("Sale")
+                        .recordedAt(LocalDateTime.now())
+                        .build()))
+                .nextCursor(42L)
+                .build());
+
+        mockMvc.perform(get("/{productId}/history", productId).param("before", "50").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.entries[0].reason").value("Sale"))
+                .andExpect(jsonPath("$.nextCursor").value(42));
+        verify(inventoryMetrics).recordSuccess(eq(InventoryMetrics.Operation.HISTORY), anyLong());
+    }
+
+    @Test
+    @DisplayName("GET /{productId}/history/as-of returns the quantity at that time")
+    void shouldReturnQuantityAsOf() throws Exception {
+        UUID productId = UUID.randomUUID();
+        LocalDateTime at = LocalDateTime.of(2026, 1, 15, 12, 0);
+        when(ledgerService.getQuantityAsOf(productId, at)).thenReturn(QuantityAsOfResponse.builder()
+                .productId(productId)
+                .at(at)
+                .availableQuantity(17)
+                .build());
+
+        mockMvc.perform(get("/{productId}/history/as-of", productId).param("at", "2026-01-15T12:00:00"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.availableQuantity").value(17));
+        verify(inventoryMetrics).recordSuccess(eq(InventoryMetrics.Operation.QUANTITY_AS_OF), anyLong());
+    }
+}
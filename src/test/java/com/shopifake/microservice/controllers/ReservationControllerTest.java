@@ -0,0 +1,104 @@
+package com.shopifake.microservice.controllers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shopifake.microservice.dtos.ReservationResponse;
+import com.shopifake.microservice.dtos.ReservationStatus;
+import com.shopifake.microservice.dtos.ReserveInventoryRequest;
+import com.shopifake.microservice.metrics.InventoryMetrics;
+import com.shopifake.microservice.services.ReservationService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(ReservationController.class)
+class ReservationControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockBean
+    private ReservationService reservationService;
+
+    @MockBean
+    private InventoryMetrics inventoryMetrics;
+
+    private ReservationResponse sampleResponse(final ReservationStatus status) {
+        return ReservationResponse.builder()
+                .id(UUID.randomUUID())
+                .productId(UUID.randomUUID())
+                .quantity(2)
+                .status(status)
+                .expiresAt(LocalDateTime.now().plusMinutes(10))
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+
+    @Test
+    @DisplayName("POST /{productId}/reservations holds stock")
+    void shouldReserve() throws Exception {
+        ReservationResponse response = sampleResponse(ReservationStatus.HELD);
+        when(reservationService.reserve(eq(response.getProductId()), any(ReserveInventoryRequest.class)))
+                .thenReturn(response);
+
+        mockMvc.perform(post("/{productId}/reservations", response.getProductId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new ReserveInventoryRequest(2, null))))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.status").value("HELD"))
+                .andExpect(jsonPath("$.quantity").value(2));
+        verify(inventoryMetrics).recordSuccess(eq(InventoryMetrics.Operation.RESERVE), anyLong());
+    }
+
+    @Test
+    @DisplayName("POST /{productId}/reservations rejects non-positive quantity")
+    void shouldRejectInvalidReservation() throws Exception {
+        mockMvc.perform(post("/{productId}/reservations", UUID.randomUUID())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new ReserveInventoryRequest(0, null))))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("POST /reservations/{id}/commit commits the hold")
+    void shouldCommit() throws Exception {
+        ReservationResponse response = sampleResponse(ReservationStatus.COMMITTED);
+        when(reservationService.commit(response.getId())).thenReturn(response);
+
+        mockMvc.perform(post("/reservations/{reservationId}/commit", response.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("COMMITTED"));
+        verify(inventoryMetrics).recordSuccess(eq(InventoryMetrics.Operation.COMMIT_RESERVATION), anyLong());
+    }
+
+    @Test
+    @DisplayName("DELETE /reservations/{id} releases the hold")
+    void shouldRelease() throws Exception {
+        UUID reservationId = UUID.randomUUID();
+
+        mockMvc.perform(delete("/reservations/{reservationId}", reservationId))
+                .andExpect(status().isNoContent());
+
+        verify(reservationService).release(reservationId);
+        verify(inventoryMetrics).recordSuccess(eq(InventoryMetrics.Operation.RELEASE_RESERVATION), anyLong());
+    }
+}
@@ -0,0 +1,76 @@
+package com.shopifake.microservice.health;
+
+import com.shopifake.microservice.config.InventoryProperties;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import java.sql.Connection;
+import java.time.Duration;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConnectionPoolHealthIndicatorTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final HikariDataSource pool = new HikariDataSource();
+    private final ConnectionPoolHealthIndicator indicator;
+
+    ConnectionPoolHealthIndicatorTest() {
+        pool.setPoolName("inventory-test");
+        pool.setJdbcUrl("jdbc:h2:mem:" + UUID.randomUUID());
+        pool.setMaximumPoolSize(2);
+        indicator = new ConnectionPoolHealthIndicator(new DelegatingDataSource(pool), meterRegistry,
+                new InventoryProperties());
+    }
+
+    @AfterEach
+    void closePool() {
+        pool.close();
+    }
+
+    private Timer acquireTimer() {
+        return Timer.builder(ConnectionPoolHealthIndicator.ACQUIRE_TIMER)
+                .tag("pool", "inventory-test")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+    }
+
+    @Test
+    @DisplayName("Reports pool counts through wrapping data sources while acquires are fast")
+    void shouldReportPoolCounts() throws Exception {
+        acquireTimer().record(Duration.ofMillis(2));
+        Health health;
+        try (Connection ignored = pool.getConnection()) {
+            health = indicator.health();
+        }
+
+        assertThat(health.getStatus()).isEqualTo(Status.UP);
+        assertThat(health.getDetails())
+                .containsEntry("pool", "inventory-test")
+                .containsEntry("active", 1)
+                .containsEntry("pending", 0)
+                .containsEntry("max", 2)
+                .containsKey("acquireP99Millis");
+    }
+
+    @Test
+    @DisplayName("Goes out of service once the acquire percentile passes the threshold")
+    void shouldGoOutOfServiceWhenAcquiresAreSlow() throws Exception {
+        try (Connection ignored = pool.getConnection()) {
+            Timer acquire = acquireTimer();
+            for (int i = 0; i < 100; i++) {
+                acquire.record(Duration.ofSeconds(1));
+            }
+
+            assertThat(indicator.health().getStatus()).isEqualTo(Status.OUT_OF_SERVICE);
+        }
+    }
+}
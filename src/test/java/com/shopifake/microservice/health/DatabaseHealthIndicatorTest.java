@@ -0,0 +1,94 @@
+package com.shopifake.microservice.health;
+
+import com.shopifake.microservice.config.InventoryProperties;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.health.Status;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class DatabaseHealthIndicatorTest {
+
+    private final DataSource dataSource = mock(DataSource.class);
+    private final MutableClock clock = new MutableClock(Instant.parse("2025-01-01T00:00:00Z"));
+    private final DatabaseHealthIndicator indicator =
+            new DatabaseHealthIndicator(dataSource, new InventoryProperties(), clock);
+
+    @Test
+    @DisplayName("Probes read the cached check and never borrow a connection")
+    void shouldServeCachedResult() throws SQLException {
+        assertThat(indicator.health().getStatus()).isEqualTo(Status.UNKNOWN);
+        verifyNoInteractions(dataSource);
+
+        Connection connection = mock(Connection.class);
+        when(connection.isValid(anyInt())).thenReturn(true);
+        when(dataSource.getConnection()).thenReturn(connection);
+        indicator.check();
+        when(dataSource.getConnection()).thenThrow(new SQLException("pool exhausted"));
+
+        assertThat(indicator.health().getStatus()).isEqualTo(Status.UP);
+        assertThat(indicator.health().getDetails()).containsEntry("database", "Available");
+    }
+
+    @Test
+    @DisplayName("A failed check is cached as down, and a result past its maximum age is down")
+    void shouldReportFailedAndOverdueChecks() throws SQLException {
+        when(dataSource.getConnection()).thenThrow(new SQLException("connection refused"));
+        indicator.check();
+
+        assertThat(indicator.health().getStatus()).isEqualTo(Status.DOWN);
+        assertThat(indicator.health().getDetails()).containsEntry("error", "connection refused");
+
+        Connection connection = mock(Connection.class);
+        when(connection.isValid(anyInt())).thenReturn(true);
+        DataSource healthy = mock(DataSource.class);
+        when(healthy.getConnection()).thenReturn(connection);
+        DatabaseHealthIndicator recovered = new DatabaseHealthIndicator(healthy, new InventoryProperties(), clock);
+        recovered.check();
+        clock.advance(Duration.ofSeconds(31));
+
+        assertThat(recovered.health().getStatus()).isEqualTo(Status.DOWN);
+        assertThat(recovered.health().getDetails()).containsEntry("database", "Check overdue");
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now;
+
+        private MutableClock(final Instant now) {
+            this.now = now;
+        }
+
+        void advance(final Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(final ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
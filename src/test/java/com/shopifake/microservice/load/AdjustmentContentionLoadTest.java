@@ -0,0 +1,310 @@
+package com.shopifake.microservice.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.DockerClientFactory;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Contention load test for {@code PATCH /{productId}/adjust}: many clients against one hot SKU,
+ * and against a catalog with Zipfian skew. Reports throughput, latency percentiles and outcome
+ * counts, then proves quantity conservation: every product must end at its initial quantity plus
+ * the deltas acknowledged with 2xx. Products that saw an ambiguous outcome (5xx other than a
+ * limiter 503, or a transport error) are excluded from the check and reported separately.
+ *
+ * <p>Excluded from the default build; run with {@code mvn -Pload-test test}. Uses a Testcontainers
+ * PostgreSQL when Docker is available (unless {@code -Dload.postgres=false}), H2 otherwise.
+ * Tunables: {@code load.clients} (200), {@code load.warmup} (PT5S, unrecorded),
+ * {@code load.duration} (PT15S), {@code load.products} (1000), {@code load.zipf-exponent} (1.1),
+ * {@code load.max-delta} (5). Any {@code inventory.*} system property, such as
+ * {@code -Dinventory.group-commit.enabled=true}, reaches the app.
+ */
+@Tag("load")
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        // Per-adjustment INFO logging through the forked test console would dominate the numbers
+        properties = {"spring.jpa.show-sql=false", "logging.level.org.hibernate.SQL=WARN",
+                "logging.level.com.shopifake.microservice=WARN"})
+@ActiveProfiles("test")
+class AdjustmentContentionLoadTest {
+
+    private static final int INITIAL_QUANTITY = 100_000_000;
+
+    private static final boolean POSTGRES = Boolean.parseBoolean(System.getProperty("load.postgres", "true"))
+            && DockerClientFactory.instance().isDockerAvailable();
+
+    private static PostgreSQLContainer<?> postgres;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final HttpClient http = HttpClient.newBuilder()
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    @DynamicPropertySource
+    static void database(final DynamicPropertyRegistry registry) {
+        if (!POSTGRES) {
+            return;
+        }
+        postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+        postgres.start();
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.datasource.driver-class-name", () -> "org.postgresql.Driver");
+        registry.add("spring.flyway.enabled", () -> "true");
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "validate");
+    }
+
+    @AfterAll
+    static void stopDatabase() {
+        if (postgres != null) {
+            postgres.stop();
+        }
+    }
+
+    @Test
+    @DisplayName("Hundreds of clients adjusting a single SKU lose no updates")
+    void hotSku() throws Exception {
+        run("hot-sku", 1, 0.0);
+    }
+
+    @Test
+    @DisplayName("Zipfian-skewed adjustments across the catalog lose no updates")
+    void skewedCatalog() throws Exception {
+        run("zipfian", Integer.getInteger("load.products", 1000),
+                Double.parseDouble(System.getProperty("load.zipf-exponent", "1.1")));
+    }
+
+    private void run(final String name, final int productCount, final double exponent) throws Exception {
+        int clients = Integer.getInteger("load.clients", 200);
+        Duration warmup = Duration.parse(System.getProperty("load.warmup", "PT5S"));
+        Duration duration = Duration.parse(System.getProperty("load.duration", "PT15S"));
+
+        UUID[] products = new UUID[productCount];
+        for (int i = 0; i < productCount; i++) {
+            products[i] = createProduct();
+        }
+        Workload workload = new Workload(products, new ZipfianGenerator(productCount, exponent),
+                Integer.getInteger("load.max-delta", 5));
+
+        // Warm-up traffic is unrecorded but still counted towards conservation
+        drive(workload, clients, warmup);
+        Phase measured = drive(workload, clients, duration);
+        long[] latencies = measured.latencies();
+        double elapsedSeconds = measured.elapsedSeconds();
+
+        int verified = 0;
+        int skipped = 0;
+        List<String> lost = new ArrayList<>();
+        for (int i = 0; i < productCount; i++) {
+            if (workload.ambiguous.get(i) > 0) {
+                skipped++;
+                continue;
+            }
+            long expected = INITIAL_QUANTITY + workload.acknowledged.get(i);
+            long actual = availableQuantity(products[i]);
+            verified++;
+            if (actual != expected) {
+                lost.add(products[i] + " expected " + expected + " but was " + actual);
+            }
+        }
+
+        Map<String, Long> outcomeCounts = measured.outcomes();
+        long successes = outcomeCounts.entrySet().stream()
+                .filter(entry -> entry.getKey().startsWith("2"))
+                .mapToLong(Map.Entry::getValue)
+                .sum();
+        System.out.printf("%n[load] %s on %s: %d clients, %d products, exponent %.2f, %.1fs%n",
+                name, POSTGRES ? "PostgreSQL" : "H2", clients, productCount, exponent, elapsedSeconds);
+        System.out.printf("[load]   requests %d, throughput %.0f req/s, errors %.2f%%%n",
+                latencies.length, latencies.length / elapsedSeconds,
+                latencies.length == 0 ? 0.0 : 100.0 * (latencies.length - successes) / latencies.length);
+        System.out.printf("[load]   latency p50 %.2f ms, p99 %.2f ms, p999 %.2f ms, max %.2f ms%n",
+                percentile(latencies, 0.50), percentile(latencies, 0.99),
+                percentile(latencies, 0.999), percentile(latencies, 1.0));
+        System.out.printf("[load]   outcomes %s%n", outcomeCounts);
+        System.out.printf("[load]   conservation: %d products verified, %d skipped as ambiguous, %d lost%n",
+                verified, skipped, lost.size());
+
+        assertThat(successes).as("acknowledged adjustments").isPositive();
+        assertThat(lost).as("products whose final quantity disagrees with acknowledged deltas").isEmpty();
+    }
+
+    private Phase drive(final Workload workload, final int clients, final Duration duration) throws Exception {
+        Map<String, LongAdder> outcomes = new ConcurrentHashMap<>();
+        long startedAt = System.nanoTime();
+        long deadline = startedAt + duration.toNanos();
+        List<Future<long[]>> workers = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < clients; c++) {
+                workers.add(executor.submit(() -> {
+                    LatencyLog latencies = new LatencyLog();
+                    while (System.nanoTime() < deadline) {
+                        int index = workload.generator.next();
+                        int delta = randomDelta(workload.maxDelta);
+                        long sentAt = System.nanoTime();
+                        String outcome;
+                        try {
+                            int status = adjust(workload.products[index], delta);
+                            outcome = String.valueOf(status);
+                            if (status / 100 == 2) {
+                                workload.acknowledged.addAndGet(index, delta);
+                            } else if (status >= 500 && status != 503) {
+                                workload.ambiguous.incrementAndGet(index);
+                            }
+                        } catch (IOException e) {
+                            outcome = e.getClass().getSimpleName();
+                            workload.ambiguous.incrementAndGet(index);
+                        }
+                        latencies.add(System.nanoTime() - sentAt);
+                        outcomes.computeIfAbsent(outcome, key -> new LongAdder()).increment();
+                    }
+                    return latencies.toArray();
+                }));
+            }
+        }
+        double elapsedSeconds = (System.nanoTime() - startedAt) / 1e9;
+
+        List<long[]> perClient = new ArrayList<>();
+        for (Future<long[]> worker : workers) {
+            perClient.add(worker.get());
+        }
+        Map<String, Long> outcomeCounts = new TreeMap<>();
+        outcomes.forEach((key, value) -> outcomeCounts.put(key, value.sum()));
+        return new Phase(perClient.stream().flatMapToLong(Arrays::stream).sorted().toArray(),
+                outcomeCounts, elapsedSeconds);
+    }
+
+    private UUID createProduct() throws IOException, InterruptedException {
+        UUID productId = UUID.randomUUID();
+        String body = objectMapper.writeValueAsString(
+                Map.of("productId", productId, "initialQuantity", INITIAL_QUANTITY));
+        HttpResponse<String> response = http.send(HttpRequest.newBuilder(uri("/"))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(body))
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+        assertThat(response.statusCode()).as(response.body()).isEqualTo(201);
+        return productId;
+    }
+
+    private int adjust(final UUID productId, final int delta) throws IOException, InterruptedException {
+        String body = objectMapper.writeValueAsString(Map.of("quantityDelta", delta, "reason", "load test"));
+        return http.send(HttpRequest.newBuilder(uri("/" + productId + "/adjust"))
+                        .header("Content-Type", "application/json")
+                        .method("PATCH", HttpRequest.BodyPublishers.ofString(body))
+                        .timeout(Duration.ofSeconds(30))
+                        .build(),
+                HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private long availableQuantity(final UUID productId) throws IOException, InterruptedException {
+        HttpResponse<String> response = http.send(HttpRequest.newBuilder(uri("/" + productId)).GET().build(),
+                HttpResponse.BodyHandlers.ofString());
+        JsonNode json = objectMapper.readTree(response.body());
+        return json.get("availableQuantity").asLong();
+    }
+
+    private URI uri(final String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    private static int randomDelta(final int maxDelta) {
+        int magnitude = ThreadLocalRandom.current().nextInt(1, maxDelta + 1);
+        return ThreadLocalRandom.current().nextBoolean() ? magnitude : -magnitude;
+    }
+
+    private static double percentile(final long[] sorted, final double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(rank, sorted.length - 1))] / 1e6;
+    }
+
+    /**
+     * Products under test and what clients were told about them.
+     */
+    private static final class Workload {
+
+        private final UUID[] products;
+        private final ZipfianGenerator generator;
+        private final int maxDelta;
+        private final AtomicLongArray acknowledged;
+        private final AtomicIntegerArray ambiguous;
+
+        Workload(final UUID[] products, final ZipfianGenerator generator, final int maxDelta) {
+            this.products = products;
+            this.generator = generator;
+            this.maxDelta = maxDelta;
+            this.acknowledged = new AtomicLongArray(products.length);
+            this.ambiguous = new AtomicIntegerArray(products.length);
+        }
+    }
+
+    /**
+     * Sorted latencies in nanoseconds and outcome counts of one timed phase.
+     */
+    private record Phase(long[] latencies, Map<String, Long> outcomes, double elapsedSeconds) {
+    }
+
+    /**
+     * Growable per-client buffer of latencies in nanoseconds.
+     */
+    private static final class LatencyLog {
+
+        private long[] values = new long[4096];
+        private int size;
+
+        void add(final long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        long[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
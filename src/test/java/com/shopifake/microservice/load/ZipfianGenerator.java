@@ -0,0 +1,34 @@
+package com.shopifake.microservice.load;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Draws indexes in {@code [0, n)} where index {@code k} has weight {@code 1 / (k + 1)^exponent}.
+ * An exponent of 0 is uniform; around 1 gives the long-tailed skew typical of catalog traffic.
+ */
+final class ZipfianGenerator {
+
+    private final double[] cumulative;
+
+    ZipfianGenerator(final int n, final double exponent) {
+        if (n <= 0) {
+            throw new IllegalArgumentException("n must be positive");
+        }
+        cumulative = new double[n];
+        double total = 0;
+        for (int k = 0; k < n; k++) {
+            total += 1.0 / Math.pow(k + 1, exponent);
+            cumulative[k] = total;
+        }
+        for (int k = 0; k < n; k++) {
+            cumulative[k] /= total;
+        }
+    }
+
+    int next() {
+        double u = ThreadLocalRandom.current().nextDouble();
+        int index = Arrays.binarySearch(cumulative, u);
+        return Math.min(index >= 0 ? index : -index - 1, cumulative.length - 1);
+    }
+}
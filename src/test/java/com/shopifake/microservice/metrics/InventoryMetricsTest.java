@@ -0,0 +1,54 @@
+package com.shopifake.microservice.metrics;
+
+import com.shopifake.microservice.concurrency.ConcurrencyLimitExceededException;
+import com.shopifake.microservice.services.AdjustmentTimeoutException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InventoryMetricsTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final InventoryMetrics metrics = new InventoryMetrics(meterRegistry);
+
+    @Test
+    @DisplayName("Failures are tagged as rejected, shed, timeout, conflict or error")
+    void shouldClassifyFailures() {
+        long startedAt = metrics.start();
+        metrics.recordFailure(InventoryMetrics.Operation.ADJUST, startedAt,
+                new IllegalArgumentException("Inventory not found"));
+        metrics.recordFailure(InventoryMetrics.Operation.ADJUST, startedAt, new CannotCreateTransactionException(
+                "Could not open JPA EntityManager for transaction",
+                new ConcurrencyLimitExceededException("Timed out waiting for database capacity")));
+        metrics.recordFailure(InventoryMetrics.Operation.ADJUST, startedAt,
+                new AdjustmentTimeoutException("Timed out waiting for group commit"));
+        metrics.recordFailure(InventoryMetrics.Operation.ADJUST, startedAt,
+                new OptimisticLockingFailureException("version changed"));
+        metrics.recordFailure(InventoryMetrics.Operation.ADJUST, startedAt, new IllegalStateException("boom"));
+        metrics.recordSuccess(InventoryMetrics.Operation.ADJUST, startedAt);
+
+        for (String outcome : new String[] {"rejected", "shed", "timeout", "conflict", "error", "success"}) {
+            assertThat(meterRegistry.get("inventory.operation")
+                    .tags("operation", "adjust", "outcome", outcome).timer().count())
+                    .as(outcome)
+                    .isEqualTo(1);
+        }
+    }
+
+    @Test
+    @DisplayName("Adjustment deltas are recorded as magnitudes tagged by direction")
+    void shouldRecordDeltaMagnitudes() {
+        metrics.recordAdjustment(InventoryMetrics.Source.BATCH, 7);
+        metrics.recordAdjustment(InventoryMetrics.Source.BATCH, -3);
+        metrics.recordAdjustment(InventoryMetrics.Source.BATCH, -2);
+
+        assertThat(meterRegistry.get("inventory.adjustment.delta")
+                .tags("direction", "increase", "source", "batch").summary().totalAmount()).isEqualTo(7);
+        assertThat(meterRegistry.get("inventory.adjustment.delta")
+                .tags("direction", "decrease", "source", "batch").summary().totalAmount()).isEqualTo(5);
+    }
+}
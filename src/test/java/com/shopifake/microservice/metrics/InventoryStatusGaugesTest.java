@@ -0,0 +1,55 @@
+package com.shopifake.microservice.metrics;
+
+import com.shopifake.microservice.entities.InventoryStatus;
+import com.shopifake.microservice.repositories.InventoryRepository;
+import com.shopifake.microservice.repositories.InventoryStatusTotals;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class InventoryStatusGaugesTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final InventoryRepository inventoryRepository = mock(InventoryRepository.class);
+    private final InventoryStatusGauges gauges = new InventoryStatusGauges(inventoryRepository, meterRegistry);
+
+    private double gauge(final String status) {
+        return meterRegistry.get("inventory.items").tag("status", status).gauge().value();
+    }
+
+    @Test
+    @DisplayName("Scrapes read the last refreshed counts without querying")
+    void shouldServeRefreshedCounts() {
+        assertThat(gauge("in_stock")).isNaN();
+
+        when(inventoryRepository.readSummary()).thenReturn(List.of(
+                new InventoryStatusTotals(InventoryStatus.IN_STOCK, 12L, 40L),
+                new InventoryStatusTotals(InventoryStatus.OUT_OF_STOCK, 3L, 0L)));
+        gauges.refresh();
+
+        assertThat(gauge("in_stock")).isEqualTo(12);
+        assertThat(gauge("out_of_stock")).isEqualTo(3);
+        assertThat(gauge("backordered")).isZero();
+        verify(inventoryRepository).readSummary();
+    }
+
+    @Test
+    @DisplayName("A failed refresh keeps the previous counts")
+    void shouldKeepCountsWhenRefreshFails() {
+        when(inventoryRepository.readSummary())
+                .thenReturn(List.of(new InventoryStatusTotals(InventoryStatus.IN_STOCK, 5L, 9L)))
+                .thenThrow(new DataAccessResourceFailureException("down"));
+        gauges.refresh();
+        gauges.refresh();
+
+        assertThat(gauge("in_stock")).isEqualTo(5);
+    }
+}
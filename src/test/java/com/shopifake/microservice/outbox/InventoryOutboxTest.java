@@ -0,0 +1,103 @@
+package com.shopifake.microservice.outbox;
+
+import com.shopifake.microservice.entities.InventoryChange;
+import com.shopifake.microservice.entities.InventoryItem;
+import com.shopifake.microservice.entities.InventoryStatus;
+import com.shopifake.microservice.events.InventoryChangeType;
+import com.shopifake.microservice.events.InventoryChangedEvent;
+import com.shopifake.microservice.repositories.InventoryChangeRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Clock;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class InventoryOutboxTest {
+
+    @Mock
+    private InventoryChangeRepository changeRepository;
+
+    private InventoryOutbox outbox;
+
+    @BeforeEach
+    void setUp() {
+        outbox = new InventoryOutbox(changeRepository, Clock.systemUTC());
+    }
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private InventoryChangedEvent adjusted(final int quantity) {
+        InventoryItem item = InventoryItem.builder()
+                .productId(UUID.randomUUID())
+                .availableQuantity(quantity)
+                .status(InventoryStatus.IN_STOCK)
+                .build();
+        return new InventoryChangedEvent(InventoryChangeType.ADJUSTED, item.getProductId(), item);
+    }
+
+    @Test
+    @DisplayName("Should append all changes of a transaction as one batch before commit")
+    @SuppressWarnings("unchecked")
+    void shouldBatchChangesBeforeCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        outbox.onInventoryChanged(adjusted(1));
+        outbox.onInventoryChanged(adjusted(2));
+        outbox.onInventoryChanged(new InventoryChangedEvent(InventoryChangeType.RESERVATION_RELEASED,
+                UUID.randomUUID(), null));
+        verify(changeRepository, never()).appendChanges(anyList());
+
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        assertThat(synchronizations).hasSize(1);
+        synchronizations.get(0).beforeCommit(false);
+
+        ArgumentCaptor<List<InventoryChange>> captor = ArgumentCaptor.forClass(List.class);
+        verify(changeRepository, times(1)).appendChanges(captor.capture());
+        assertThat(captor.getValue()).extracting(InventoryChange::getAvailableQuantity)
+                .containsExactly(1, 2, null);
+    }
+
+    @Test
+    @DisplayName("Should write nothing when the transaction rolls back")
+    void shouldDropChangesOnRollback() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        outbox.onInventoryChanged(adjusted(1));
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        verify(changeRepository, never()).appendChanges(anyList());
+        assertThat(TransactionSynchronizationManager.hasResource(outbox)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should append a change made outside a transaction straight away")
+    void shouldAppendOutsideTransactions() {
+        outbox.onInventoryChanged(adjusted(1));
+
+        verify(changeRepository).appendChanges(anyList());
+    }
+}
@@ -0,0 +1,91 @@
+package com.shopifake.microservice.repositories;
+
+import com.shopifake.microservice.entities.InventoryChange;
+import com.shopifake.microservice.entities.InventoryLedgerEntry;
+import com.shopifake.microservice.entities.InventoryStatus;
+import com.shopifake.microservice.events.InventoryChangeType;
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.MigrationInfo;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the Flyway migrations, shared and H2-specific, on an empty H2 database and checks that the
+ * entities and the hand-written SQL work against the schema they produce rather than the one
+ * Hibernate and import.sql build for the other tests.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:migrations;DB_CLOSE_DELAY=-1",
+        "spring.flyway.enabled=true",
+        "spring.jpa.hibernate.ddl-auto=validate"
+})
+class FlywayMigrationTest {
+
+    @Autowired
+    private Flyway flyway;
+
+    @Autowired
+    private InventoryChangeRepository changeRepository;
+
+    @Autowired
+    private LedgerRepository ledgerRepository;
+
+    @Test
+    @DisplayName("Should apply every migration, skipping versions that exist for other databases only")
+    void shouldApplyEveryMigration() {
+        assertThat(Arrays.stream(flyway.info().applied()).map(MigrationInfo::getVersion).map(Object::toString))
+                .containsExactly("1", "2", "3", "4", "5", "6", "7", "8", "9", "10", "11", "13", "14", "15");
+        assertThat(flyway.info().pending()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should append, sequence and page the change feed on the V15 schema")
+    void shouldServeChangeFeed() {
+        changeRepository.appendChanges(List.of(InventoryChange.builder()
+                .productId(UUID.randomUUID())
+                .changeType(InventoryChangeType.ADJUSTED)
+                .availableQuantity(3)
+                .reservedQuantity(0)
+                .status(InventoryStatus.IN_STOCK)
+                .occurredAt(LocalDateTime.now())
+                .build()));
+
+        assertThat(changeRepository.sequenceChanges(10)).isEqualTo(1);
+
+        assertThat(changeRepository.findFeedPage(0L, Limit.of(10))).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("Should record snapshot runs and snapshot from them on the V14 tables")
+    void shouldRecordSnapshotRuns() {
+        LocalDateTime now = LocalDateTime.now();
+        ledgerRepository.recordEntries(List.of(InventoryLedgerEntry.builder()
+                .productId(UUID.randomUUID())
+                .delta(4)
+                .quantityAfter(4)
+                .recordedAt(now)
+                .build()));
+        long newest = ledgerRepository.findAll().stream().mapToLong(InventoryLedgerEntry::getId).max().orElseThrow();
+
+        ledgerRepository.recordSnapshotRun(0L, now);
+
+        assertThat(ledgerRepository.snapshotScanStart(now.plusMinutes(1))).isEqualTo(newest);
+        assertThat(ledgerRepository.snapshotEntries(0L)).isEqualTo(1);
+    }
+}
@@ -0,0 +1,63 @@
+package com.shopifake.microservice.repositories;
+
+import com.shopifake.microservice.entities.IdempotencyRecord;
+import com.shopifake.microservice.entities.IdempotentOperation;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Tests for {@link IdempotencyRepository}.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+class IdempotencyRepositoryTest {
+
+    @Autowired
+    private IdempotencyRepository idempotencyRepository;
+
+    private IdempotencyRecord record(final String key, final LocalDateTime createdAt) {
+        return IdempotencyRecord.builder()
+                .key(key)
+                .operation(IdempotentOperation.ADJUST)
+                .requestHash(42L)
+                .responseBody("{\"availableQuantity\":7}")
+                .createdAt(createdAt)
+                .build();
+    }
+
+    @Test
+    @DisplayName("Should store a key once and reject a second insert of the same key")
+    void shouldRejectDuplicateKey() {
+        idempotencyRepository.insert(record("order-42", LocalDateTime.now()));
+
+        assertThat(idempotencyRepository.findById("order-42"))
+                .hasValueSatisfying(stored -> assertThat(stored.getRequestHash()).isEqualTo(42L));
+        assertThrows(DuplicateKeyException.class,
+                () -> idempotencyRepository.insert(record("order-42", LocalDateTime.now())));
+    }
+
+    @Test
+    @DisplayName("Should prune only keys older than the cutoff, up to the limit")
+    void shouldPruneExpiredKeys() {
+        LocalDateTime now = LocalDateTime.now();
+        idempotencyRepository.insert(record("old-1", now.minusDays(3)));
+        idempotencyRepository.insert(record("old-2", now.minusDays(2)));
+        idempotencyRepository.insert(record("fresh", now));
+
+        int pruned = idempotencyRepository.pruneBefore(now.minusDays(1), 1);
+
+        assertThat(pruned).isEqualTo(1);
+        assertThat(idempotencyRepository.findById("old-1")).isEmpty();
+        assertThat(idempotencyRepository.findById("old-2")).isPresent();
+        assertThat(idempotencyRepository.findById("fresh")).isPresent();
+    }
+}
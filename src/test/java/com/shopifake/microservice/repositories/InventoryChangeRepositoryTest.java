@@ -0,0 +1,86 @@
+package com.shopifake.microservice.repositories;
+
+import com.shopifake.microservice.entities.InventoryChange;
+import com.shopifake.microservice.entities.InventoryStatus;
+import com.shopifake.microservice.events.InventoryChangeType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for the change outbox queries of {@link InventoryChangeRepository}.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+class InventoryChangeRepositoryTest {
+
+    @Autowired
+    private InventoryChangeRepository changeRepository;
+
+    private InventoryChange change(final LocalDateTime occurredAt) {
+        return InventoryChange.builder()
+                .productId(UUID.randomUUID())
+                .changeType(InventoryChangeType.ADJUSTED)
+                .availableQuantity(3)
+                .reservedQuantity(0)
+                .status(InventoryStatus.IN_STOCK)
+                .occurredAt(occurredAt)
+                .build();
+    }
+
+    @Test
+    @DisplayName("Should append a batch and page it by feed position once sequenced")
+    void shouldAppendAndPage() {
+        LocalDateTime now = LocalDateTime.now();
+        changeRepository.appendChanges(List.of(change(now), change(now), change(now)));
+        assertThat(changeRepository.findFeedPage(0L, Limit.of(2))).isEmpty();
+        changeRepository.sequenceChanges(10);
+
+        List<InventoryChange> first = changeRepository.findFeedPage(0L, Limit.of(2));
+        List<InventoryChange> second = changeRepository.findFeedPage(first.get(1).getFeedSeq(), Limit.of(2));
+
+        assertThat(first).hasSize(2);
+        assertThat(first.get(0).getId()).isLessThan(first.get(1).getId());
+        assertThat(first.get(0).getChangeType()).isEqualTo(InventoryChangeType.ADJUSTED);
+        assertThat(second).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("Should position unsequenced records after the last position, in id order")
+    void shouldSequenceInIdOrder() {
+        LocalDateTime now = LocalDateTime.now();
+        changeRepository.appendChanges(List.of(change(now), change(now)));
+        assertThat(changeRepository.tryLockSequencer()).isTrue();
+        assertThat(changeRepository.sequenceChanges(10)).isEqualTo(2);
+        changeRepository.appendChanges(List.of(change(now)));
+
+        assertThat(changeRepository.sequenceChanges(10)).isEqualTo(1);
+        assertThat(changeRepository.sequenceChanges(10)).isZero();
+        assertThat(changeRepository.findFeedPage(0L, Limit.of(10)))
+                .extracting(InventoryChange::getFeedSeq)
+                .containsExactly(1L, 2L, 3L);
+        assertThat(changeRepository.findFeedPage(2L, Limit.of(10))).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("Should prune only records older than the cutoff, oldest first")
+    void shouldPruneOldestFirst() {
+        LocalDateTime now = LocalDateTime.now();
+        changeRepository.appendChanges(List.of(
+                change(now.minusDays(9)), change(now.minusDays(8)), change(now.minusDays(8)), change(now)));
+
+        assertThat(changeRepository.pruneBefore(now.minusDays(7), 2)).isEqualTo(2);
+        assertThat(changeRepository.pruneBefore(now.minusDays(7), 2)).isEqualTo(1);
+        assertThat(changeRepository.pruneBefore(now.minusDays(7), 2)).isZero();
+        assertThat(changeRepository.count()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,76 @@
+package com.shopifake.microservice.repositories;
+
+import com.shopifake.microservice.entities.InventoryItem;
+import com.shopifake.microservice.entities.InventoryStatus;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for the batch insert behind {@link InventoryImportRepository}.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+class InventoryImportRepositoryTest {
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    private static InventoryItem item(final UUID productId, final int quantity) {
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+        return InventoryItem.builder()
+                .id(UUID.randomUUID())
+                .productId(productId)
+                .availableQuantity(quantity)
+                .status(InventoryStatus.of(quantity, 0))
+                .createdAt(now)
+                .updatedAt(now)
+                .build();
+    }
+
+    @Test
+    @DisplayName("Should insert new products and skip existing ones")
+    void shouldSkipExistingProducts() {
+        InventoryItem existing = inventoryRepository.saveAndFlush(InventoryItem.builder()
+                .productId(UUID.randomUUID())
+                .availableQuantity(7)
+                .status(InventoryStatus.IN_STOCK)
+                .build());
+        InventoryItem fresh = item(UUID.randomUUID(), 3);
+
+        List<InventoryItem> inserted = inventoryRepository.insertMissing(
+                List.of(item(existing.getProductId(), 1), fresh));
+
+        assertThat(inserted).extracting(InventoryItem::getProductId).containsExactly(fresh.getProductId());
+        assertThat(inventoryRepository.findByProductId(fresh.getProductId()))
+                .hasValueSatisfying(saved -> {
+                    assertThat(saved.getId()).isEqualTo(fresh.getId());
+                    assertThat(saved.getAvailableQuantity()).isEqualTo(3);
+                    assertThat(saved.getStatus()).isEqualTo(InventoryStatus.IN_STOCK);
+                });
+        assertThat(inventoryRepository.findByProductId(existing.getProductId()))
+                .hasValueSatisfying(saved -> assertThat(saved.getAvailableQuantity()).isEqualTo(7));
+    }
+
+    @Test
+    @DisplayName("Should keep the first row of a product listed twice")
+    void shouldKeepFirstRowPerProduct() {
+        UUID productId = UUID.randomUUID();
+
+        List<InventoryItem> inserted = inventoryRepository.insertMissing(
+                List.of(item(productId, 5), item(productId, 9)));
+
+        assertThat(inserted).extracting(InventoryItem::getAvailableQuantity).containsExactly(5);
+        assertThat(inventoryRepository.findByProductId(productId))
+                .hasValueSatisfying(saved -> assertThat(saved.getAvailableQuantity()).isEqualTo(5));
+    }
+}
@@ -0,0 +1,249 @@
+package com.shopifake.microservice.repositories;
+
+import com.shopifake.microservice.entities.InventoryItem;
+import com.shopifake.microservice.entities.InventoryStatus;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Tests for the hand-written SQL behind {@link InventoryRepository}.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+class InventoryRepositoryTest {
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private InventoryItem persistItem(final int quantity) {
+        InventoryItem item = InventoryItem.builder()
+                .productId(UUID.randomUUID())
+                .availableQuantity(quantity)
+                .status(quantity > 0 ? InventoryStatus.IN_STOCK : InventoryStatus.OUT_OF_STOCK)
+                .build();
+        return inventoryRepository.saveAndFlush(item);
+    }
+
+    @Test
+    @DisplayName("Should apply delta atomically and return the updated row")
+    void shouldAdjustQuantity() {
+        InventoryItem item = persistItem(3);
+        LocalDateTime replenishedAt = LocalDateTime.now().withNano(0);
+
+        Optional<InventoryItem> updated = inventoryRepository.adjustQuantity(item.getProductId(), 4, replenishedAt);
+
+        assertThat(updated).isPresent();
+        assertThat(updated.get().getAvailableQuantity()).isEqualTo(7);
+        assertThat(updated.get().getStatus()).isEqualTo(InventoryStatus.IN_STOCK);
+        assertThat(updated.get().getReplenishmentAt()).isEqualTo(replenishedAt);
+        assertThat(updated.get().getId()).isEqualTo(item.getId());
+        assertThat(updated.get().getVersion()).isEqualTo(item.getVersion() + 1);
+    }
+
+    @Test
+    @DisplayName("Should flip status to OUT_OF_STOCK when quantity reaches zero")
+    void shouldMarkOutOfStock() {
+        InventoryItem item = persistItem(2);
+
+        Optional<InventoryItem> updated = inventoryRepository.adjustQuantity(item.getProductId(), -2, null);
+
+        assertThat(updated).isPresent();
+        assertThat(updated.get().getAvailableQuantity()).isZero();
+        assertThat(updated.get().getStatus()).isEqualTo(InventoryStatus.OUT_OF_STOCK);
+    }
+
+    @Test
+    @DisplayName("Should leave the row untouched when delta would go negative")
+    void shouldRejectOversell() {
+        InventoryItem item = persistItem(1);
+
+        Optional<InventoryItem> updated = inventoryRepository.adjustQuantity(item.getProductId(), -2, null);
+
+        assertThat(updated).isEmpty();
+        assertThat(inventoryRepository.findByProductId(item.getProductId()))
+                .get()
+                .extracting(InventoryItem::getAvailableQuantity)
+                .isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should return empty for unknown product")
+    void shouldReturnEmptyForUnknownProduct() {
+        assertThat(inventoryRepository.adjustQuantity(UUID.randomUUID(), 1, null)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should apply a JDBC batch and flag rejected lines")
+    void shouldAdjustQuantitiesInBatch() {
+        InventoryItem first = persistItem(5);
+        InventoryItem second = persistItem(1);
+
+        boolean[] applied = inventoryRepository.adjustQuantities(List.of(
+                new QuantityAdjustment(first.getProductId(), -3, null, "Recount"),
+                new QuantityAdjustment(second.getProductId(), -2, null, "Recount"),
+                new QuantityAdjustment(first.getProductId(), -2, null, "Recount"),
+                new QuantityAdjustment(UUID.randomUUID(), 1, null, "Recount")));
+
+        assertThat(applied).containsExactly(true, false, true, false);
+        entityManager.clear();
+        assertThat(inventoryRepository.findByProductIdIn(List.of(first.getProductId(), second.getProductId())))
+                .extracting(InventoryItem::getAvailableQuantity)
+                .containsExactlyInAnyOrder(0, 1);
+    }
+
+    @Test
+    @DisplayName("Should apply a guarded batch line only while its row is at the given version")
+    void shouldAdjustQuantitiesAtVersion() {
+        InventoryItem current = persistItem(5);
+        InventoryItem stale = persistItem(5);
+
+        boolean[] applied = inventoryRepository.adjustQuantitiesAtVersion(List.of(
+                new QuantityAdjustment(current.getProductId(), 2, null, "Reconciled to snapshot"),
+                new QuantityAdjustment(stale.getProductId(), 2, null, "Reconciled to snapshot")),
+                new long[] {current.getVersion(), stale.getVersion() + 1});
+
+        assertThat(applied).containsExactly(true, false);
+        entityManager.clear();
+        assertThat(inventoryRepository.findByProductIdIn(List.of(current.getProductId(), stale.getProductId())))
+                .extracting(InventoryItem::getProductId, InventoryItem::getAvailableQuantity)
+                .containsExactlyInAnyOrder(tuple(current.getProductId(), 7), tuple(stale.getProductId(), 5));
+    }
+
+    @Test
+    @DisplayName("Should hold, commit and release stock against available-to-sell")
+    void shouldReserveCommitAndRelease() {
+        InventoryItem item = persistItem(5);
+        UUID productId = item.getProductId();
+
+        assertThat(inventoryRepository.reserveQuantity(productId, 4)).get()
+                .extracting(InventoryItem::getReservedQuantity).isEqualTo(4);
+        assertThat(inventoryRepository.reserveQuantity(productId, 2)).isEmpty();
+        assertThat(inventoryRepository.adjustQuantity(productId, -2, null)).isEmpty();
+
+        InventoryItem committed = inventoryRepository.commitReservedQuantity(productId, 3, "Checkout").orElseThrow();
+        assertThat(committed.getAvailableQuantity()).isEqualTo(2);
+        assertThat(committed.getReservedQuantity()).isEqualTo(1);
+
+        InventoryItem released = inventoryRepository.releaseReservedQuantity(productId, 1).orElseThrow();
+        assertThat(released.getReservedQuantity()).isZero();
+        assertThat(released.getStatus()).isEqualTo(InventoryStatus.IN_STOCK);
+    }
+
+    @Test
+    @DisplayName("Should mark the item OUT_OF_STOCK when holds consume all sellable stock")
+    void shouldMarkOutOfStockWhenFullyReserved() {
+        InventoryItem item = persistItem(2);
+
+        InventoryItem reserved = inventoryRepository.reserveQuantity(item.getProductId(), 2).orElseThrow();
+
+        assertThat(reserved.getStatus()).isEqualTo(InventoryStatus.OUT_OF_STOCK);
+    }
+
+    @Test
+    @DisplayName("Should derive LOW_STOCK from the reorder threshold on adjustments and holds")
+    void shouldMarkLowStock() {
+        InventoryItem item = inventoryRepository.saveAndFlush(persistItem(10).toBuilder().reorderThreshold(4).build());
+
+        InventoryItem adjusted = inventoryRepository.adjustQuantity(item.getProductId(), -5, null).orElseThrow();
+        InventoryItem reserved = inventoryRepository.reserveQuantity(item.getProductId(), 2).orElseThrow();
+        InventoryItem released = inventoryRepository.releaseReservedQuantity(item.getProductId(), 2).orElseThrow();
+
+        assertThat(adjusted.getStatus()).isEqualTo(InventoryStatus.IN_STOCK);
+        assertThat(reserved.getStatus()).isEqualTo(InventoryStatus.LOW_STOCK);
+        assertThat(released.getStatus()).isEqualTo(InventoryStatus.IN_STOCK);
+    }
+
+    @Test
+    @DisplayName("Should page through low-stock and out-of-stock rows only")
+    void shouldPageAtRiskRows() {
+        persistItem(5);
+        InventoryItem low = inventoryRepository.saveAndFlush(persistItem(5).toBuilder()
+                .reorderThreshold(5)
+                .status(InventoryStatus.LOW_STOCK)
+                .build());
+        InventoryItem empty = persistItem(0);
+
+        List<InventoryItem> first = inventoryRepository.findAtRiskPage(new UUID(0L, 0L), 1);
+        List<InventoryItem> second = inventoryRepository.findAtRiskPage(first.get(0).getId(), 10);
+
+        assertThat(first).hasSize(1);
+        assertThat(second).hasSize(1);
+        assertThat(List.of(first.get(0).getId(), second.get(0).getId()))
+                .containsExactlyInAnyOrder(low.getId(), empty.getId());
+    }
+
+    @Test
+    @DisplayName("Should walk the catalog in keyset pages")
+    void shouldPageByKeyset() {
+        for (int i = 0; i < 5; i++) {
+            persistItem(i);
+        }
+
+        List<InventoryItem> first = inventoryRepository.findPageAfter(new UUID(0L, 0L), Limit.of(3));
+        List<InventoryItem> second = inventoryRepository.findPageAfter(first.get(2).getId(), Limit.of(3));
+        List<InventoryItem> outOfStock = inventoryRepository.findPageByStatusAfter(
+                InventoryStatus.OUT_OF_STOCK, new UUID(0L, 0L), Limit.of(10));
+
+        assertThat(first).hasSize(3);
+        assertThat(second).hasSize(2);
+        assertThat(second).extracting(InventoryItem::getId).doesNotContainAnyElementsOf(
+                first.stream().map(InventoryItem::getId).toList());
+        assertThat(outOfStock).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("Should probe row versions without loading the rows")
+    void shouldProbeVersions() {
+        InventoryItem item = persistItem(3);
+        inventoryRepository.adjustQuantity(item.getProductId(), 2, null);
+
+        assertThat(inventoryRepository.findVersionByProductId(item.getProductId()))
+                .contains(new InventoryVersion(item.getId(), item.getProductId(), item.getVersion() + 1, 5, 0));
+        assertThat(inventoryRepository.findVersionsByStatusAfter(InventoryStatus.IN_STOCK, new UUID(0L, 0L),
+                Limit.of(10))).extracting(InventoryVersion::getId).contains(item.getId());
+    }
+
+    @Test
+    @DisplayName("Should probe the versions of a set of products")
+    void shouldProbeVersionsByProduct() {
+        InventoryItem first = persistItem(3);
+        InventoryItem second = persistItem(4);
+
+        assertThat(inventoryRepository.findVersionsByProductIdIn(
+                List.of(first.getProductId(), second.getProductId(), UUID.randomUUID())))
+                .extracting(InventoryVersion::getProductId, InventoryVersion::getAvailableQuantity)
+                .containsExactlyInAnyOrder(tuple(first.getProductId(), 3), tuple(second.getProductId(), 4));
+    }
+
+    @Test
+    @DisplayName("Should stream every row in id order")
+    void shouldScanInIdOrder() {
+        for (int i = 0; i < 4; i++) {
+            persistItem(i + 1);
+        }
+        List<InventoryItem> expected = inventoryRepository.findPageAfter(new UUID(0L, 0L), Limit.of(10));
+
+        List<InventoryItem> scanned = new ArrayList<>();
+        inventoryRepository.scan(null, 2, scanned::add);
+
+        assertThat(scanned).extracting(InventoryItem::getId)
+                .containsExactlyElementsOf(expected.stream().map(InventoryItem::getId).toList());
+    }
+}
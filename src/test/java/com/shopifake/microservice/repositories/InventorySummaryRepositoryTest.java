@@ -0,0 +1,78 @@
+package com.shopifake.microservice.repositories;
+
+import com.shopifake.microservice.entities.InventoryItem;
+import com.shopifake.microservice.entities.InventoryStatus;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for the summary SQL behind {@link InventorySummaryRepository}.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+class InventorySummaryRepositoryTest {
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    private InventoryStatusTotals totals(final InventoryStatus status) {
+        return inventoryRepository.readSummary().stream()
+                .filter(totals -> totals.getStatus() == status)
+                .findFirst()
+                .orElseThrow();
+    }
+
+    @Test
+    @DisplayName("Should sum deltas written to different stripes")
+    void shouldSumStripes() {
+        InventoryStatusTotals before = totals(InventoryStatus.IN_STOCK);
+
+        inventoryRepository.applySummaryDeltas(0, List.of(new InventoryStatusTotals(InventoryStatus.IN_STOCK, 1, 5)));
+        inventoryRepository.applySummaryDeltas(7, List.of(new InventoryStatusTotals(InventoryStatus.IN_STOCK, 2, 3),
+                new InventoryStatusTotals(InventoryStatus.OUT_OF_STOCK, -1, 0)));
+
+        assertThat(totals(InventoryStatus.IN_STOCK))
+                .isEqualTo(new InventoryStatusTotals(InventoryStatus.IN_STOCK, before.getItems() + 3,
+                        before.getUnits() + 8));
+    }
+
+    @Test
+    @DisplayName("Should measure drift from inventory rows, deriving status from total stock")
+    void shouldMeasureDrift() {
+        InventoryItem sharded = inventoryRepository.saveAndFlush(InventoryItem.builder()
+                .productId(UUID.randomUUID())
+                .availableQuantity(0)
+                .slotCount(2)
+                .status(InventoryStatus.OUT_OF_STOCK)
+                .build());
+        inventoryRepository.replaceSlots(sharded.getProductId(), new int[] {3, 3});
+        inventoryRepository.saveAndFlush(InventoryItem.builder()
+                .productId(UUID.randomUUID())
+                .availableQuantity(0)
+                .status(InventoryStatus.OUT_OF_STOCK)
+                .build());
+        inventoryRepository.applySummaryDeltas(5, List.of(new InventoryStatusTotals(InventoryStatus.IN_STOCK, 9, 9)));
+        InventoryStatusTotals inStock = totals(InventoryStatus.IN_STOCK);
+        InventoryStatusTotals outOfStock = totals(InventoryStatus.OUT_OF_STOCK);
+
+        List<InventoryStatusTotals> drift = inventoryRepository.summaryDrift();
+
+        assertThat(inventoryRepository.tryLockSummaryCorrection()).isTrue();
+        assertThat(drift).containsExactlyInAnyOrder(
+                new InventoryStatusTotals(InventoryStatus.IN_STOCK, 1 - inStock.getItems(), 6 - inStock.getUnits()),
+                new InventoryStatusTotals(InventoryStatus.OUT_OF_STOCK, 1 - outOfStock.getItems(),
+                        -outOfStock.getUnits()));
+
+        inventoryRepository.applySummaryDeltas(2, drift);
+
+        assertThat(inventoryRepository.summaryDrift()).isEmpty();
+    }
+}
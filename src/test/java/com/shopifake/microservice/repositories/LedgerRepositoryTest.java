@@ -0,0 +1,161 @@
+package com.shopifake.microservice.repositories;
+
+import com.shopifake.microservice.entities.InventoryItem;
+import com.shopifake.microservice.entities.InventoryLedgerEntry;
+import com.shopifake.microservice.entities.InventorySnapshot;
+import com.shopifake.microservice.entities.InventoryStatus;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Tests for ledger recording, snapshotting and compaction SQL.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+class LedgerRepositoryTest {
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Autowired
+    private LedgerRepository ledgerRepository;
+
+    @Autowired
+    private SnapshotRepository snapshotRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private InventoryItem persistItem(final int quantity) {
+        return inventoryRepository.saveAndFlush(InventoryItem.builder()
+                .productId(UUID.randomUUID())
+                .availableQuantity(quantity)
+                .status(InventoryStatus.IN_STOCK)
+                .build());
+    }
+
+    private InventoryLedgerEntry entry(final UUID productId, final int quantityAfter, final LocalDateTime recordedAt) {
+        return InventoryLedgerEntry.builder()
+                .productId(productId)
+                .delta(1)
+                .quantityAfter(quantityAfter)
+                .reason("Recount")
+                .recordedAt(recordedAt)
+                .build();
+    }
+
+    private InventorySnapshot snapshot(final UUID productId, final int quantity, final long lastEntryId,
+                                       final LocalDateTime takenAt) {
+        return InventorySnapshot.builder()
+                .productId(productId)
+                .availableQuantity(quantity)
+                .lastEntryId(lastEntryId)
+                .takenAt(takenAt)
+                .build();
+    }
+
+    @Test
+    @DisplayName("Should record one entry per applied adjustment with the quantity it produced")
+    void shouldRecordAppliedAdjustments() {
+        UUID productId = persistItem(5).getProductId();
+
+        inventoryRepository.adjustQuantity(productId, -2, null, "Sale");
+        inventoryRepository.adjustQuantity(productId, -9, null, "Oversell");
+        inventoryRepository.adjustQuantities(List.of(
+                new QuantityAdjustment(productId, 4, LocalDateTime.now(), "Restock"),
+                new QuantityAdjustment(productId, -1, null, "Sale")));
+
+        assertThat(ledgerRepository.findHistoryPage(productId, Long.MAX_VALUE, Limit.of(10)))
+                .extracting(InventoryLedgerEntry::getDelta, InventoryLedgerEntry::getQuantityAfter,
+                        InventoryLedgerEntry::getReason)
+                .containsExactly(tuple(-1, 6, "Sale"), tuple(4, 7, "Restock"), tuple(-2, 3, "Sale"));
+    }
+
+    @Test
+    @DisplayName("Should snapshot each product from its newest entry and skip products already covered")
+    void shouldSnapshotNewestEntries() {
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        LocalDateTime now = LocalDateTime.now();
+        ledgerRepository.recordEntries(List.of(
+                entry(first, 1, now.minusMinutes(10)),
+                entry(first, 2, now.minusMinutes(9)),
+                entry(second, 7, now.minusMinutes(8))));
+
+        assertThat(ledgerRepository.snapshotEntries(0L)).isEqualTo(2);
+        assertThat(snapshotRepository.findAll())
+                .extracting(InventorySnapshot::getProductId, InventorySnapshot::getAvailableQuantity)
+                .containsExactlyInAnyOrder(tuple(first, 2), tuple(second, 7));
+
+        ledgerRepository.recordEntries(List.of(entry(first, 3, now)));
+        assertThat(ledgerRepository.snapshotEntries(0L)).isEqualTo(1);
+        assertThat(ledgerRepository.snapshotEntries(0L)).isZero();
+    }
+
+    @Test
+    @DisplayName("Should scan from a run's position only once it has settled, keeping one run per position")
+    void shouldScanFromSettledRuns() {
+        LocalDateTime now = LocalDateTime.now();
+        ledgerRepository.recordEntries(List.of(entry(UUID.randomUUID(), 1, now)));
+        long newest = ledgerRepository.findAll().stream().mapToLong(InventoryLedgerEntry::getId).max().orElseThrow();
+
+        assertThat(ledgerRepository.snapshotScanStart(now.plusMinutes(1))).isZero();
+        ledgerRepository.recordSnapshotRun(0L, now);
+        ledgerRepository.recordSnapshotRun(0L, now);
+
+        assertThat(ledgerRepository.snapshotScanStart(now.minusMinutes(1))).isZero();
+        assertThat(ledgerRepository.snapshotScanStart(now.plusMinutes(1))).isEqualTo(newest);
+        ledgerRepository.recordSnapshotRun(newest, now);
+        assertThat(((Number) entityManager.createNativeQuery("SELECT COUNT(*) FROM inventory_snapshot_runs")
+                .getSingleResult()).intValue()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should compact entries older than the cutoff, oldest first")
+    void shouldCompactOldEntries() {
+        UUID productId = UUID.randomUUID();
+        LocalDateTime now = LocalDateTime.now();
+        ledgerRepository.recordEntries(List.of(
+                entry(productId, 1, now.minusDays(500)),
+                entry(productId, 2, now.minusDays(450)),
+                entry(productId, 3, now)));
+
+        assertThat(ledgerRepository.compactBefore(now.minusDays(400), 1)).isEqualTo(1);
+        assertThat(ledgerRepository.compactBefore(now.minusDays(400), 5)).isEqualTo(1);
+        assertThat(ledgerRepository.compactBefore(now.minusDays(400), 5)).isZero();
+        assertThat(ledgerRepository.findAll()).extracting(InventoryLedgerEntry::getQuantityAfter).containsExactly(3);
+    }
+
+    @Test
+    @DisplayName("Should prune old snapshots superseded by a newer one taken by the cutoff")
+    void shouldPruneSupersededSnapshots() {
+        UUID productId = UUID.randomUUID();
+        UUID otherId = UUID.randomUUID();
+        LocalDateTime now = LocalDateTime.now();
+        snapshotRepository.saveAllAndFlush(List.of(
+                snapshot(productId, 1, 10L, now.minusDays(500)),
+                snapshot(productId, 2, 20L, now.minusDays(450)),
+                snapshot(productId, 3, 30L, now.minusDays(420)),
+                snapshot(productId, 4, 40L, now),
+                snapshot(otherId, 5, 15L, now.minusDays(500))));
+
+        assertThat(ledgerRepository.pruneSnapshotsBefore(now.minusDays(400), 1)).isEqualTo(1);
+        assertThat(ledgerRepository.pruneSnapshotsBefore(now.minusDays(400), 5)).isEqualTo(1);
+        assertThat(ledgerRepository.pruneSnapshotsBefore(now.minusDays(400), 5)).isZero();
+        assertThat(snapshotRepository.findAll())
+                .extracting(InventorySnapshot::getProductId, InventorySnapshot::getAvailableQuantity)
+                .containsExactlyInAnyOrder(tuple(productId, 3), tuple(productId, 4), tuple(otherId, 5));
+    }
+}
@@ -0,0 +1,73 @@
+package com.shopifake.microservice.repositories;
+
+import com.shopifake.microservice.entities.InventoryReservation;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for the claim semantics of {@link ReservationRepository}.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+class ReservationRepositoryTest {
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    private InventoryReservation persistReservation(final LocalDateTime expiresAt) {
+        return reservationRepository.saveAndFlush(InventoryReservation.builder()
+                .productId(UUID.randomUUID())
+                .quantity(1)
+                .expiresAt(expiresAt)
+                .build());
+    }
+
+    @Test
+    @DisplayName("Should claim an active reservation exactly once")
+    void shouldClaimOnce() {
+        InventoryReservation reservation = persistReservation(LocalDateTime.now().plusMinutes(5));
+
+        assertThat(reservationRepository.claimReservation(reservation.getId(), LocalDateTime.now()))
+                .get()
+                .extracting(InventoryReservation::getProductId)
+                .isEqualTo(reservation.getProductId());
+        assertThat(reservationRepository.claimReservation(reservation.getId(), null)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should not claim an expired reservation as active")
+    void shouldNotClaimExpiredAsActive() {
+        InventoryReservation reservation = persistReservation(LocalDateTime.now().minusMinutes(1));
+
+        assertThat(reservationRepository.claimReservation(reservation.getId(), LocalDateTime.now())).isEmpty();
+        assertThat(reservationRepository.claimReservation(reservation.getId(), null)).isPresent();
+    }
+
+    @Test
+    @DisplayName("Should page expired reservations oldest first and claim them in a batch")
+    void shouldFindAndClaimExpired() {
+        LocalDateTime now = LocalDateTime.now();
+        InventoryReservation oldest = persistReservation(now.minusMinutes(3));
+        InventoryReservation older = persistReservation(now.minusMinutes(2));
+        persistReservation(now.minusMinutes(1));
+        persistReservation(now.plusMinutes(1));
+
+        List<InventoryReservation> expired =
+                reservationRepository.findByExpiresAtLessThanEqualOrderByExpiresAt(now, Limit.of(2));
+
+        assertThat(expired).extracting(InventoryReservation::getId)
+                .containsExactly(oldest.getId(), older.getId());
+        assertThat(reservationRepository.claimReservations(List.of(oldest.getId(), UUID.randomUUID())))
+                .containsExactly(true, false);
+    }
+}
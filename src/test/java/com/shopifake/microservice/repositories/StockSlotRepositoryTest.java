@@ -0,0 +1,110 @@
+package com.shopifake.microservice.repositories;
+
+import com.shopifake.microservice.entities.InventoryItem;
+import com.shopifake.microservice.entities.InventoryLedgerEntry;
+import com.shopifake.microservice.entities.InventoryStatus;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Tests for the stock slot SQL behind {@link StockSlotRepository}.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+class StockSlotRepositoryTest {
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Autowired
+    private LedgerRepository ledgerRepository;
+
+    private InventoryItem persistItem(final int quantity) {
+        return inventoryRepository.saveAndFlush(InventoryItem.builder()
+                .productId(UUID.randomUUID())
+                .availableQuantity(quantity)
+                .status(InventoryStatus.IN_STOCK)
+                .build());
+    }
+
+    @Test
+    @DisplayName("Should replace slots and never let one go negative")
+    void shouldGuardSlotDecrements() {
+        UUID productId = persistItem(1).getProductId();
+        inventoryRepository.replaceSlots(productId, new int[] {3, 0});
+
+        assertThat(inventoryRepository.adjustSlot(productId, 0, -2)).isTrue();
+        assertThat(inventoryRepository.adjustSlot(productId, 0, -2)).isFalse();
+        assertThat(inventoryRepository.adjustSlot(productId, 1, -1)).isFalse();
+        assertThat(inventoryRepository.adjustSlot(productId, 2, 1)).isFalse();
+        assertThat(inventoryRepository.lockSlots(productId))
+                .containsExactly(new StockSlot(0, 1), new StockSlot(1, 0));
+    }
+
+    @Test
+    @DisplayName("Should sum slot stock per product and record the slot count on the head row")
+    void shouldSumSlots() {
+        UUID sharded = persistItem(1).getProductId();
+        UUID plain = persistItem(5).getProductId();
+        inventoryRepository.replaceSlots(sharded, new int[] {2, 4, 6});
+
+        assertThat(inventoryRepository.updateSlotCount(sharded, 3)).isTrue();
+        assertThat(inventoryRepository.updateSlotCount(UUID.randomUUID(), 3)).isFalse();
+        assertThat(inventoryRepository.sumSlots(List.of(sharded, plain))).containsOnlyKeys(sharded)
+                .containsEntry(sharded, 12);
+        assertThat(inventoryRepository.sumAllSlots()).containsEntry(sharded, 12);
+        assertThat(inventoryRepository.readHead(sharded)).get()
+                .extracting(InventoryItem::getSlotCount, InventoryItem::getAvailableQuantity)
+                .containsExactly(3, 1);
+        assertThat(inventoryRepository.findShardedProductIds()).containsExactly(sharded);
+    }
+
+    @Test
+    @DisplayName("Should derive the stored status from head plus slot stock")
+    void shouldDeriveStatusFromTotalStock() {
+        UUID productId = persistItem(1).getProductId();
+        inventoryRepository.replaceSlots(productId, new int[] {3, 3});
+        inventoryRepository.updateSlotCount(productId, 2);
+
+        assertThat(inventoryRepository.adjustQuantity(productId, -1, null)).get()
+                .extracting(InventoryItem::getStatus).isEqualTo(InventoryStatus.IN_STOCK);
+        assertThat(inventoryRepository.refreshStatus(productId)).isFalse();
+
+        inventoryRepository.adjustSlot(productId, 0, -3);
+        inventoryRepository.adjustSlot(productId, 1, -3);
+        assertThat(inventoryRepository.refreshStatus(productId)).isTrue();
+        assertThat(inventoryRepository.readHead(productId)).get()
+                .extracting(InventoryItem::getStatus).isEqualTo(InventoryStatus.OUT_OF_STOCK);
+    }
+
+    @Test
+    @DisplayName("Should decrement a slot, refresh the status and record the total in the ledger")
+    void shouldRecordSlotDecrements() {
+        UUID productId = persistItem(0).getProductId();
+        inventoryRepository.replaceSlots(productId, new int[] {2, 3});
+        inventoryRepository.updateSlotCount(productId, 2);
+        inventoryRepository.refreshStatus(productId);
+
+        assertThat(inventoryRepository.adjustSlotRecording(productId, 0, -3, "Order")).isEmpty();
+        assertThat(inventoryRepository.adjustSlotRecording(productId, 1, -3, "Order")).get()
+                .extracting(InventoryItem::getAvailableQuantity, InventoryItem::getStatus)
+                .containsExactly(2, InventoryStatus.IN_STOCK);
+        assertThat(inventoryRepository.adjustSlotRecording(productId, 0, -2, "Order")).get()
+                .extracting(InventoryItem::getAvailableQuantity, InventoryItem::getStatus)
+                .containsExactly(0, InventoryStatus.OUT_OF_STOCK);
+        assertThat(inventoryRepository.readHead(productId)).get()
+                .extracting(InventoryItem::getStatus).isEqualTo(InventoryStatus.OUT_OF_STOCK);
+        assertThat(ledgerRepository.findAll())
+                .extracting(InventoryLedgerEntry::getDelta, InventoryLedgerEntry::getQuantityAfter)
+                .containsExactly(tuple(-3, 2), tuple(-2, 0));
+    }
+}
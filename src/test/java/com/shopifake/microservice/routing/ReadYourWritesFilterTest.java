@@ -0,0 +1,103 @@
+package com.shopifake.microservice.routing;
+
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReadYourWritesFilterTest {
+
+    private static final Instant NOW = Instant.parse("2025-01-01T00:00:00Z");
+
+    private final ReadYourWritesFilter filter = new ReadYourWritesFilter(Duration.ofSeconds(5),
+            Clock.fixed(NOW, ZoneOffset.UTC));
+
+    private boolean pinnedDuring(final MockHttpServletRequest request, final MockHttpServletResponse response)
+            throws Exception {
+        AtomicBoolean pinned = new AtomicBoolean();
+        filter.doFilter(request, response, (req, res) -> pinned.set(ReadYourWrites.isPinned()));
+        assertThat(ReadYourWrites.isPinned()).isFalse();
+        return pinned.get();
+    }
+
+    @Test
+    @DisplayName("A mutation pins the request and sets the end of the stickiness window")
+    void shouldPinAfterMutation() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertThat(pinnedDuring(new MockHttpServletRequest("POST", "/api/inventory"), response)).isTrue();
+        assertThat(response.getHeader(HttpHeaders.SET_COOKIE))
+                .startsWith(ReadYourWritesFilter.COOKIE_NAME + "=" + NOW.plusSeconds(5).toEpochMilli())
+                .contains("HttpOnly");
+        assertThat(response.getHeader(ReadYourWritesFilter.HEADER_NAME))
+                .isEqualTo(Long.toString(NOW.plusSeconds(5).toEpochMilli()));
+    }
+
+    @Test
+    @DisplayName("A failed mutation does not open a stickiness window")
+    void shouldNotStickAfterFailedMutation() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(new MockHttpServletRequest("POST", "/api/inventory"), response, (req, res) -> {
+            HttpServletResponse http = (HttpServletResponse) res;
+            http.setStatus(HttpServletResponse.SC_CONFLICT);
+            http.getWriter().write("{}");
+        });
+
+        assertThat(response.getHeader(HttpHeaders.SET_COOKIE)).isNull();
+        assertThat(response.getHeader(ReadYourWritesFilter.HEADER_NAME)).isNull();
+    }
+
+    @Test
+    @DisplayName("The window is set before a successful mutation writes its body")
+    void shouldStickBeforeBodyIsWritten() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(new MockHttpServletRequest("POST", "/api/inventory"), response, (req, res) -> {
+            res.getWriter().write("{}");
+            res.flushBuffer();
+        });
+
+        assertThat(response.isCommitted()).isTrue();
+        assertThat(response.getHeader(HttpHeaders.SET_COOKIE)).startsWith(ReadYourWritesFilter.COOKIE_NAME + "=");
+    }
+
+    @Test
+    @DisplayName("Reads presenting the window in a header are pinned without a cookie")
+    void shouldPinReadsFromHeader() throws Exception {
+        MockHttpServletRequest recent = new MockHttpServletRequest("GET", "/api/inventory");
+        recent.addHeader(ReadYourWritesFilter.HEADER_NAME, Long.toString(NOW.toEpochMilli() + 1));
+        MockHttpServletRequest malformed = new MockHttpServletRequest("GET", "/api/inventory");
+        malformed.addHeader(ReadYourWritesFilter.HEADER_NAME, "soon");
+
+        assertThat(pinnedDuring(recent, new MockHttpServletResponse())).isTrue();
+        assertThat(pinnedDuring(malformed, new MockHttpServletResponse())).isFalse();
+    }
+
+    @Test
+    @DisplayName("Reads are pinned only while the client's window is open")
+    void shouldPinReadsInsideWindow() throws Exception {
+        MockHttpServletRequest recent = new MockHttpServletRequest("GET", "/api/inventory");
+        recent.setCookies(new Cookie(ReadYourWritesFilter.COOKIE_NAME, Long.toString(NOW.toEpochMilli() + 1)));
+        MockHttpServletRequest expired = new MockHttpServletRequest("GET", "/api/inventory");
+        expired.setCookies(new Cookie(ReadYourWritesFilter.COOKIE_NAME, Long.toString(NOW.toEpochMilli())));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertThat(pinnedDuring(recent, response)).isTrue();
+        assertThat(pinnedDuring(expired, new MockHttpServletResponse())).isFalse();
+        assertThat(pinnedDuring(new MockHttpServletRequest("GET", "/api/inventory"), new MockHttpServletResponse()))
+                .isFalse();
+        assertThat(response.getHeader(HttpHeaders.SET_COOKIE)).isNull();
+    }
+}
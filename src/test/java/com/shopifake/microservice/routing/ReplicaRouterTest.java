@@ -0,0 +1,103 @@
+package com.shopifake.microservice.routing;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Routes transactions between two in-memory H2 databases, each recording its own role.
+ */
+class ReplicaRouterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final DataSource primary = database("primary");
+    private final ReplicaRouter router = new ReplicaRouter(Map.of("replica-a", database("replica")),
+            Duration.ofSeconds(1), meterRegistry);
+    private final LazyConnectionDataSourceProxy routing = routingProxy(primary, router);
+
+    @AfterEach
+    void unpin() {
+        ReadYourWrites.clear();
+    }
+
+    private static DataSource database(final String role) {
+        DataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + role + "-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE node (role VARCHAR(20))");
+        jdbcTemplate.update("INSERT INTO node (role) VALUES (?)", role);
+        return dataSource;
+    }
+
+    private static LazyConnectionDataSourceProxy routingProxy(final DataSource primary, final ReplicaRouter router) {
+        LazyConnectionDataSourceProxy proxy = new LazyConnectionDataSourceProxy(primary);
+        proxy.setReadOnlyDataSource(new ReadOnlyRoutingDataSource(primary, () -> router));
+        return proxy;
+    }
+
+    private String servedBy(final DataSource dataSource, final boolean readOnly) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        transactionTemplate.setReadOnly(readOnly);
+        return transactionTemplate.execute(status ->
+                new JdbcTemplate(dataSource).queryForObject("SELECT role FROM node", String.class));
+    }
+
+    private double routed(final String route) {
+        return meterRegistry.get("inventory.replica.reads").tag("route", route).counter().count();
+    }
+
+    @Test
+    @DisplayName("Read-only transactions go to a replica once its lag is known, writes stay on the primary")
+    void shouldRouteReadOnlyTransactionsToReplica() {
+        assertThat(servedBy(routing, true)).isEqualTo("primary");
+        assertThat(routed("lagging")).isEqualTo(1);
+
+        router.probeLag();
+
+        assertThat(servedBy(routing, true)).isEqualTo("replica");
+        assertThat(servedBy(routing, false)).isEqualTo("primary");
+        assertThat(routed("replica")).isEqualTo(1);
+        assertThat(router.lag("replica-a")).contains(Duration.ZERO);
+        assertThat(meterRegistry.get("inventory.replica.lag").tag("replica", "replica-a").gauge().value())
+                .isZero();
+    }
+
+    @Test
+    @DisplayName("A client pinned after a write reads from the primary")
+    void shouldKeepPinnedClientsOnPrimary() {
+        router.probeLag();
+        ReadYourWrites.pin(true);
+
+        assertThat(servedBy(routing, true)).isEqualTo("primary");
+        assertThat(routed("sticky")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("An unreachable replica is skipped until a probe succeeds again")
+    void shouldSkipUnreachableReplica() {
+        DataSource missing = new DriverManagerDataSource("jdbc:h2:mem:missing-" + UUID.randomUUID() + ";IFEXISTS=TRUE",
+                "sa", "");
+        ReplicaRouter unreachable = new ReplicaRouter(Map.of("replica-b", missing), Duration.ofSeconds(1),
+                meterRegistry);
+
+        unreachable.probeLag();
+
+        assertThat(servedBy(routingProxy(primary, unreachable), true)).isEqualTo("primary");
+        assertThat(unreachable.lag("replica-b")).isEmpty();
+        assertThat(meterRegistry.get("inventory.replica.lag").tag("replica", "replica-b").gauge().value())
+                .isNaN();
+    }
+}
@@ -0,0 +1,191 @@
+package com.shopifake.microservice.services;
+
+import com.shopifake.microservice.config.InventoryProperties;
+import com.shopifake.microservice.entities.InventoryItem;
+import com.shopifake.microservice.entities.InventoryLedgerEntry;
+import com.shopifake.microservice.entities.InventoryStatus;
+import com.shopifake.microservice.metrics.InventoryMetrics;
+import com.shopifake.microservice.repositories.InventoryRepository;
+import com.shopifake.microservice.repositories.LedgerRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for {@link AdjustmentCoalescer}.
+ */
+@ExtendWith(MockitoExtension.class)
+class AdjustmentCoalescerTest {
+
+    @Mock
+    private InventoryRepository inventoryRepository;
+
+    @Mock
+    private LedgerRepository ledgerRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private final Clock clock = Clock.fixed(Instant.parse("2026-01-01T00:00:00Z"), ZoneOffset.UTC);
+
+    private AdjustmentCoalescer coalescer;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        lenient().when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                ((TransactionCallback<Object>) invocation.getArgument(0)).doInTransaction(null));
+        meterRegistry = new SimpleMeterRegistry();
+        coalescer = new AdjustmentCoalescer(inventoryRepository, ledgerRepository, transactionTemplate, eventPublisher,
+                new InventoryProperties(), meterRegistry, new InventoryMetrics(meterRegistry), clock);
+    }
+
+    private InventoryItem item(final UUID productId, final int quantity, final int reserved) {
+        return InventoryItem.builder()
+                .id(UUID.randomUUID())
+                .productId(productId)
+                .availableQuantity(quantity)
+                .reservedQuantity(reserved)
+                .status(InventoryStatus.IN_STOCK)
+                .build();
+    }
+
+    @Test
+    @DisplayName("Should merge same-sign adjustments into one UPDATE and ack every caller")
+    void shouldMergeIntoSingleUpdate() throws Exception {
+        UUID productId = UUID.randomUUID();
+        InventoryItem committed = item(productId, 4, 0);
+        when(inventoryRepository.adjustQuantity(productId, -6, null)).thenReturn(Optional.of(committed));
+
+        CompletableFuture<InventoryItem> first = coalescer.submit(productId, -1, "Order");
+        CompletableFuture<InventoryItem> second = coalescer.submit(productId, -2, "Order");
+        CompletableFuture<InventoryItem> third = coalescer.submit(productId, -3, "Order");
+        coalescer.flushAll();
+
+        assertThat(first.get()).isSameAs(committed);
+        assertThat(second.get()).isSameAs(committed);
+        assertThat(third.get()).isSameAs(committed);
+        verify(inventoryRepository, times(1)).adjustQuantity(any(), any(Integer.class), any());
+        verify(inventoryRepository, never()).findForUpdateByProductId(any());
+        verify(eventPublisher, times(1)).publishEvent(any(Object.class));
+        assertThat(meterRegistry.get("inventory.group_commit.coalescing_ratio").gauge().value()).isEqualTo(3.0);
+    }
+
+    @Test
+    @DisplayName("Should admit adjustments in arrival order when the merged delta does not fit")
+    @SuppressWarnings("unchecked")
+    void shouldRejectOnlyAdjustmentsThatDoNotFit() {
+        UUID productId = UUID.randomUUID();
+        when(inventoryRepository.adjustQuantity(productId, -7, null)).thenReturn(Optional.empty());
+        when(inventoryRepository.findForUpdateByProductId(productId)).thenReturn(Optional.of(item(productId, 5, 1)));
+        InventoryItem committed = item(productId, 1, 1);
+        when(inventoryRepository.adjustQuantity(productId, -4, null)).thenReturn(Optional.of(committed));
+
+        CompletableFuture<InventoryItem> first = coalescer.submit(productId, -3, "Order");
+        CompletableFuture<InventoryItem> second = coalescer.submit(productId, -3, "Order");
+        CompletableFuture<InventoryItem> third = coalescer.submit(productId, -1, "Order");
+        coalescer.flushAll();
+
+        assertThat(first.join()).isSameAs(committed);
+        ExecutionException rejected = assertThrows(ExecutionException.class, second::get);
+        assertThat(rejected.getCause()).isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("negative quantity");
+        assertThat(third.join()).isSameAs(committed);
+        assertThat(meterRegistry.get("inventory.adjustment.rejected").tag("source", "group_commit").counter().count())
+                .isEqualTo(1);
+
+        ArgumentCaptor<List<InventoryLedgerEntry>> entries = ArgumentCaptor.forClass(List.class);
+        verify(ledgerRepository).recordEntries(entries.capture());
+        assertThat(entries.getValue()).extracting(InventoryLedgerEntry::getDelta, InventoryLedgerEntry::getQuantityAfter)
+                .containsExactly(tuple(-3, 2), tuple(-1, 1));
+    }
+
+    @Test
+    @DisplayName("Should lock the row for groups mixing increases and decreases")
+    void shouldLockForMixedGroups() {
+        UUID productId = UUID.randomUUID();
+        when(inventoryRepository.findForUpdateByProductId(productId)).thenReturn(Optional.of(item(productId, 0, 0)));
+        InventoryItem committed = item(productId, 3, 0);
+        when(inventoryRepository.adjustQuantity(productId, 3, LocalDateTime.of(2026, 1, 1, 0, 0)))
+                .thenReturn(Optional.of(committed));
+
+        CompletableFuture<InventoryItem> decrease = coalescer.submit(productId, -2, "Order");
+        CompletableFuture<InventoryItem> increase = coalescer.submit(productId, 3, "Restock");
+        coalescer.flushAll();
+
+        assertThat(decrease).isCompletedExceptionally();
+        assertThat(increase.join()).isSameAs(committed);
+        verify(inventoryRepository, never()).adjustQuantity(productId, 1, null);
+    }
+
+    @Test
+    @DisplayName("Should report missing inventory to every caller of the group")
+    void shouldRejectUnknownProduct() {
+        UUID productId = UUID.randomUUID();
+        when(inventoryRepository.adjustQuantity(eq(productId), eq(2), any(LocalDateTime.class)))
+                .thenReturn(Optional.empty());
+        when(inventoryRepository.findForUpdateByProductId(productId)).thenReturn(Optional.empty());
+
+        CompletableFuture<InventoryItem> first = coalescer.submit(productId, 1, "Restock");
+        CompletableFuture<InventoryItem> second = coalescer.submit(productId, 1, "Restock");
+        coalescer.flushAll();
+
+        ExecutionException rejected = assertThrows(ExecutionException.class, first::get);
+        assertThat(rejected.getCause()).hasMessageContaining("Inventory not found");
+        assertThat(second).isCompletedExceptionally();
+        verify(inventoryRepository, never()).adjustQuantity(eq(productId), eq(2), isNull());
+    }
+
+    @Test
+    @DisplayName("Should withdraw an adjustment whose caller timed out before a flush took it")
+    void shouldWithdrawTimedOutAdjustment() {
+        InventoryProperties properties = new InventoryProperties();
+        properties.getGroupCommit().setAckTimeout(Duration.ofMillis(10));
+        coalescer = new AdjustmentCoalescer(inventoryRepository, ledgerRepository, transactionTemplate, eventPublisher,
+                properties, meterRegistry, new InventoryMetrics(meterRegistry), clock);
+        UUID productId = UUID.randomUUID();
+
+        assertThrows(AdjustmentTimeoutException.class, () -> coalescer.adjust(productId, -1, "Order"));
+        coalescer.flushAll();
+
+        verify(inventoryRepository, never()).adjustQuantity(any(), any(Integer.class), any());
+        verify(ledgerRepository, never()).recordEntries(any());
+        assertThat(meterRegistry.get("inventory.group_commit.timeouts").counter().count()).isEqualTo(1);
+    }
+}
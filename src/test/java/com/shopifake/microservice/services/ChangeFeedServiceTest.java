@@ -0,0 +1,89 @@
+package com.shopifake.microservice.services;
+
+import com.shopifake.microservice.config.InventoryProperties;
+import com.shopifake.microservice.dtos.InventoryChangeFeed;
+import com.shopifake.microservice.dtos.InventoryChangeResponse;
+import com.shopifake.microservice.entities.InventoryChange;
+import com.shopifake.microservice.events.InventoryChangeType;
+import com.shopifake.microservice.repositories.InventoryChangeRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ChangeFeedServiceTest {
+
+    @Mock
+    private InventoryChangeRepository changeRepository;
+
+    @Spy
+    private InventoryProperties properties = new InventoryProperties();
+
+    @InjectMocks
+    private ChangeFeedService changeFeedService;
+
+    private InventoryChange change(final long id, final long feedSeq, final LocalDateTime occurredAt) {
+        return InventoryChange.builder()
+                .id(id)
+                .feedSeq(feedSeq)
+                .productId(UUID.randomUUID())
+                .changeType(InventoryChangeType.ADJUSTED)
+                .occurredAt(occurredAt)
+                .build();
+    }
+
+    @Test
+    @DisplayName("Should return the page in feed order and advance the cursor to its last position")
+    void shouldPageByFeedPosition() {
+        LocalDateTime now = LocalDateTime.now();
+        when(changeRepository.findFeedPage(10L, Limit.of(100))).thenReturn(List.of(
+                change(12L, 11L, now), change(11L, 12L, now), change(14L, 13L, now)));
+
+        InventoryChangeFeed feed = changeFeedService.readChanges(10L, null);
+
+        assertThat(feed.getChanges()).extracting(InventoryChangeResponse::getId).containsExactly(12L, 11L, 14L);
+        assertThat(feed.getNextCursor()).isEqualTo(13L);
+    }
+
+    @Test
+    @DisplayName("Should not sequence while another instance holds the sequencer lock")
+    void shouldSkipSequencingWithoutLock() {
+        when(changeRepository.tryLockSequencer()).thenReturn(false);
+
+        assertThat(changeFeedService.sequenceChanges(100)).isEqualTo(-1);
+        verify(changeRepository, never()).sequenceChanges(anyInt());
+    }
+
+    @Test
+    @DisplayName("Should keep the cursor when nothing new is visible")
+    void shouldKeepCursorWhenEmpty() {
+        when(changeRepository.findFeedPage(0L, Limit.of(5))).thenReturn(List.of());
+
+        InventoryChangeFeed feed = changeFeedService.readChanges(null, 5);
+
+        assertThat(feed.getChanges()).isEmpty();
+        assertThat(feed.getNextCursor()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should reject page sizes above the configured maximum")
+    void shouldRejectOversizedPage() {
+        assertThrows(IllegalArgumentException.class, () -> changeFeedService.readChanges(0L, 10_000));
+    }
+}
@@ -0,0 +1,120 @@
+package com.shopifake.microservice.services;
+
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.shopifake.microservice.config.InventoryProperties;
+import com.shopifake.microservice.dtos.InventoryResponse;
+import com.shopifake.microservice.entities.IdempotencyRecord;
+import com.shopifake.microservice.entities.IdempotentOperation;
+import com.shopifake.microservice.entities.InventoryStatus;
+import com.shopifake.microservice.repositories.IdempotencyRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for {@link IdempotencyService}.
+ */
+@ExtendWith(MockitoExtension.class)
+class IdempotencyServiceTest {
+
+    @Mock
+    private IdempotencyRepository idempotencyRepository;
+
+    private final Clock clock = Clock.fixed(Instant.parse("2026-01-01T00:00:00Z"), ZoneOffset.UTC);
+
+    private IdempotencyService idempotencyService;
+
+    @BeforeEach
+    void setUp() {
+        idempotencyService = new IdempotencyService(idempotencyRepository, new InventoryProperties(),
+                JsonMapper.builder().findAndAddModules().build(), clock);
+    }
+
+    @Test
+    @DisplayName("Should replay the response stored for a key")
+    void shouldReplayStoredResponse() {
+        InventoryResponse response = InventoryResponse.builder()
+                .productId(UUID.randomUUID())
+                .availableQuantity(7)
+                .status(InventoryStatus.IN_STOCK)
+                .updatedAt(LocalDateTime.of(2025, 1, 2, 3, 4))
+                .build();
+        idempotencyService.remember("order-42", IdempotentOperation.ADJUST, 42L, response);
+        ArgumentCaptor<IdempotencyRecord> captor = ArgumentCaptor.forClass(IdempotencyRecord.class);
+        verify(idempotencyRepository).insert(captor.capture());
+        assertThat(captor.getValue().getCreatedAt()).isEqualTo(LocalDateTime.of(2026, 1, 1, 0, 0));
+        when(idempotencyRepository.findById("order-42")).thenReturn(Optional.of(captor.getValue()));
+
+        Optional<InventoryResponse> replayed =
+                idempotencyService.replay("order-42", IdempotentOperation.ADJUST, 42L, InventoryResponse.class);
+
+        assertThat(replayed).contains(response);
+    }
+
+    @Test
+    @DisplayName("Should reject a key reused for a different request")
+    void shouldRejectKeyReusedForDifferentRequest() {
+        when(idempotencyRepository.findById("order-42")).thenReturn(Optional.of(IdempotencyRecord.builder()
+                .key("order-42")
+                .operation(IdempotentOperation.ADJUST)
+                .requestHash(42L)
+                .responseBody("{}")
+                .build()));
+
+        assertThrows(IllegalArgumentException.class, () -> idempotencyService.replay("order-42",
+                IdempotentOperation.ADJUST, 43L, InventoryResponse.class));
+        assertThrows(IllegalArgumentException.class, () -> idempotencyService.replay("order-42",
+                IdempotentOperation.CREATE, 42L, InventoryResponse.class));
+    }
+
+    @Test
+    @DisplayName("Should reject blank and oversized keys without a lookup")
+    void shouldRejectMalformedKeys() {
+        String oversized = "k".repeat(IdempotencyService.MAX_KEY_LENGTH + 1);
+
+        assertThrows(IllegalArgumentException.class, () -> idempotencyService.replay(" ",
+                IdempotentOperation.ADJUST, 42L, InventoryResponse.class));
+        assertThrows(IllegalArgumentException.class, () -> idempotencyService.replay(oversized,
+                IdempotentOperation.ADJUST, 42L, InventoryResponse.class));
+        verify(idempotencyRepository, never()).findById(any());
+    }
+
+    @Test
+    @DisplayName("Should fingerprint requests by their fields")
+    void shouldFingerprintByFields() {
+        UUID productId = UUID.randomUUID();
+
+        assertThat(IdempotencyService.fingerprint(productId, -3, "Order"))
+                .isEqualTo(IdempotencyService.fingerprint(productId, -3, "Order"))
+                .isNotEqualTo(IdempotencyService.fingerprint(productId, -4, "Order"))
+                .isNotEqualTo(IdempotencyService.fingerprint(productId, -3, null));
+    }
+
+    @Test
+    @DisplayName("Should prune keys stored before the retention period")
+    void shouldPruneExpiredKeys() {
+        InventoryProperties properties = new InventoryProperties();
+        when(idempotencyRepository.pruneBefore(LocalDateTime.of(2026, 1, 1, 0, 0)
+                .minus(properties.getIdempotency().getRetention()), 100)).thenReturn(3);
+
+        assertThat(idempotencyService.pruneExpiredKeys(100)).isEqualTo(3);
+    }
+}
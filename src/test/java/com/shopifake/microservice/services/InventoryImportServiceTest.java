@@ -0,0 +1,230 @@
+package com.shopifake.microservice.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shopifake.microservice.config.InventoryProperties;
+import com.shopifake.microservice.dtos.InventoryImportError;
+import com.shopifake.microservice.dtos.InventoryImportResponse;
+import com.shopifake.microservice.entities.InventoryItem;
+import com.shopifake.microservice.entities.InventoryLedgerEntry;
+import com.shopifake.microservice.entities.InventoryStatus;
+import com.shopifake.microservice.events.InventoryChangeType;
+import com.shopifake.microservice.events.InventoryChangedEvent;
+import com.shopifake.microservice.repositories.InventoryRepository;
+import com.shopifake.microservice.repositories.LedgerRepository;
+import jakarta.validation.Validation;
+import jakarta.validation.ValidatorFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Tests for {@link InventoryImportService}.
+ */
+@ExtendWith(MockitoExtension.class)
+class InventoryImportServiceTest {
+
+    @Mock
+    private InventoryRepository inventoryRepository;
+
+    @Mock
+    private LedgerRepository ledgerRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private final InventoryProperties properties = new InventoryProperties();
+
+    private final Clock clock = Clock.fixed(Instant.parse("2026-01-01T00:00:00Z"), ZoneOffset.UTC);
+
+    private final ValidatorFactory validatorFactory = Validation.buildDefaultValidatorFactory();
+
+    /**
+     * Products the mocked repository treats as already stocked; inserts add to it.
+     */
+    private final Set<UUID> stocked = new HashSet<>();
+
+    private InventoryImportService importService;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        importService = new InventoryImportService(inventoryRepository, ledgerRepository, properties,
+                transactionTemplate, eventPublisher, new ObjectMapper(), validatorFactory.getValidator(), clock);
+        lenient().when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                ((TransactionCallback<Object>) invocation.getArgument(0)).doInTransaction(null));
+        lenient().when(inventoryRepository.insertMissing(anyList())).thenAnswer(invocation -> {
+            Map<UUID, InventoryItem> firstPerProduct = new LinkedHashMap<>();
+            for (InventoryItem item : (List<InventoryItem>) invocation.getArgument(0)) {
+                firstPerProduct.putIfAbsent(item.getProductId(), item);
+            }
+            return firstPerProduct.values().stream()
+                    .filter(item -> stocked.add(item.getProductId()))
+                    .toList();
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        validatorFactory.close();
+    }
+
+    private InventoryImportResponse importBody(final InventoryImportService.Format format, final String body) {
+        return importService.importInventory(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), format);
+    }
+
+    @Test
+    @DisplayName("Should import CSV rows under a header naming the columns in any order")
+    void shouldImportCsvWithHeader() {
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+
+        InventoryImportResponse response = importBody(InventoryImportService.Format.CSV,
+                "reorder_threshold,\"productId\",initialQuantity\n"
+                        + "5," + first + ",10\n"
+                        + "\n"
+                        + "," + second + ",0\n");
+
+        assertThat(response.getReceived()).isEqualTo(2);
+        assertThat(response.getCreated()).isEqualTo(2);
+        assertThat(response.getErrors()).isEmpty();
+        ArgumentCaptor<List<InventoryItem>> items = captureInserts(1);
+        assertThat(items.getValue()).extracting(InventoryItem::getProductId, InventoryItem::getAvailableQuantity,
+                        InventoryItem::getReorderThreshold, InventoryItem::getStatus)
+                .containsExactly(
+                        tuple(first, 10, 5, InventoryStatus.IN_STOCK),
+                        tuple(second, 0, 0, InventoryStatus.OUT_OF_STOCK));
+        assertThat(items.getValue()).extracting(InventoryItem::getCreatedAt)
+                .containsOnly(LocalDateTime.of(2026, 1, 1, 0, 0));
+    }
+
+    @Test
+    @DisplayName("Should report invalid and duplicate rows by line and load the rest")
+    void shouldReportRowErrors() {
+        UUID existing = UUID.randomUUID();
+        UUID repeated = UUID.randomUUID();
+        stocked.add(existing);
+
+        InventoryImportResponse response = importBody(InventoryImportService.Format.CSV,
+                existing + ",1\n"
+                        + "not-a-uuid,1\n"
+                        + repeated + ",-1\n"
+                        + repeated + ",4\n"
+                        + repeated + ",6\n"
+                        + repeated + ",x\n");
+
+        assertThat(response.getReceived()).isEqualTo(6);
+        assertThat(response.getCreated()).isEqualTo(1);
+        assertThat(response.getDuplicates()).isEqualTo(2);
+        assertThat(response.getRejected()).isEqualTo(3);
+        assertThat(response.getErrors())
+                .extracting(InventoryImportError::getLine, InventoryImportError::getMessage)
+                .containsExactly(
+                        tuple(2L, "productId is not a UUID"),
+                        tuple(3L, "initialQuantity cannot be negative"),
+                        tuple(6L,
+                                "initialQuantity and reorderThreshold must be integers"),
+                        tuple(1L, "Inventory already exists for product " + existing),
+                        tuple(5L, "Inventory already exists for product " + repeated));
+    }
+
+    @Test
+    @DisplayName("Should load NDJSON in chunks with ledger entries and events for created rows")
+    @SuppressWarnings("unchecked")
+    void shouldImportNdjsonInChunks() {
+        properties.getImports().setChunkSize(2);
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        UUID third = UUID.randomUUID();
+
+        InventoryImportResponse response = importBody(InventoryImportService.Format.NDJSON,
+                "{\"productId\":\"" + first + "\",\"initialQuantity\":3}\n"
+                        + "{\"productId\":\"" + second + "\",\"initialQuantity\":4,\"reorderThreshold\":4}\n"
+                        + "{\"productId\":\n"
+                        + "{\"productId\":\"" + third + "\"}\n");
+
+        assertThat(response.getCreated()).isEqualTo(3);
+        assertThat(response.getRejected()).isEqualTo(1);
+        assertThat(response.getErrors()).singleElement()
+                .satisfies(error -> {
+                    assertThat(error.getLine()).isEqualTo(3);
+                    assertThat(error.getMessage()).startsWith("Malformed JSON");
+                });
+        captureInserts(2);
+        ArgumentCaptor<List<InventoryLedgerEntry>> entries = ArgumentCaptor.forClass(List.class);
+        verify(ledgerRepository, times(2)).recordEntries(entries.capture());
+        assertThat(entries.getAllValues()).flatExtracting(list -> list)
+                .extracting(InventoryLedgerEntry::getProductId, InventoryLedgerEntry::getDelta,
+                        InventoryLedgerEntry::getReason)
+                .containsExactly(
+                        tuple(first, 3, "Inventory imported"),
+                        tuple(second, 4, "Inventory imported"),
+                        tuple(third, 0, "Inventory imported"));
+        ArgumentCaptor<InventoryChangedEvent> events = ArgumentCaptor.forClass(InventoryChangedEvent.class);
+        verify(eventPublisher, times(3)).publishEvent(events.capture());
+        assertThat(events.getAllValues()).allMatch(event -> event.getType() == InventoryChangeType.CREATED);
+    }
+
+    @Test
+    @DisplayName("Should count errors past the reporting cap without listing them")
+    void shouldTruncateErrors() {
+        properties.getImports().setMaxReportedErrors(1);
+
+        InventoryImportResponse response = importBody(InventoryImportService.Format.CSV, "a,1\nb,1\nc,1\n");
+
+        assertThat(response.getRejected()).isEqualTo(3);
+        assertThat(response.getErrors()).hasSize(1);
+        assertThat(response.isErrorsTruncated()).isTrue();
+        verify(inventoryRepository, never()).insertMissing(anyList());
+    }
+
+    @Test
+    @DisplayName("Should read a first row without a productId column as data")
+    void shouldReadUnnamedFirstRowAsData() {
+        InventoryImportResponse response = importBody(InventoryImportService.Format.CSV,
+                "sku,quantity\n" + UUID.randomUUID() + ",1\n");
+
+        assertThat(response.getCreated()).isEqualTo(1);
+        assertThat(response.getErrors()).singleElement()
+                .satisfies(error -> assertThat(error.getLine()).isEqualTo(1));
+    }
+
+    @SuppressWarnings("unchecked")
+    private ArgumentCaptor<List<InventoryItem>> captureInserts(final int chunks) {
+        ArgumentCaptor<List<InventoryItem>> items = ArgumentCaptor.forClass(List.class);
+        verify(inventoryRepository, times(chunks)).insertMissing(items.capture());
+        return items;
+    }
+}
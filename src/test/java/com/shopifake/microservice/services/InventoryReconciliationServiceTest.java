@@ -0,0 +1,289 @@
+package com.shopifake.microservice.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shopifake.microservice.config.InventoryProperties;
+import com.shopifake.microservice.dtos.InventoryImportError;
+import com.shopifake.microservice.dtos.InventoryReconcileResponse;
+import com.shopifake.microservice.entities.InventoryItem;
+import com.shopifake.microservice.entities.InventoryStatus;
+import com.shopifake.microservice.events.InventoryChangeType;
+import com.shopifake.microservice.events.InventoryChangedEvent;
+import com.shopifake.microservice.metrics.InventoryMetrics;
+import com.shopifake.microservice.repositories.InventoryRepository;
+import com.shopifake.microservice.repositories.InventoryVersion;
+import com.shopifake.microservice.repositories.QuantityAdjustment;
+import com.shopifake.microservice.repositories.StockSlot;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import jakarta.validation.ValidatorFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for {@link InventoryReconciliationService}.
+ */
+@ExtendWith(MockitoExtension.class)
+class InventoryReconciliationServiceTest {
+
+    private static final String REASON = "Reconciled to snapshot";
+
+    @Mock
+    private InventoryRepository inventoryRepository;
+
+    @Mock
+    private StockSlotService stockSlotService;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private final InventoryProperties properties = new InventoryProperties();
+
+    private final ValidatorFactory validatorFactory = Validation.buildDefaultValidatorFactory();
+
+    private InventoryReconciliationService reconciliationService;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        reconciliationService = new InventoryReconciliationService(inventoryRepository, stockSlotService, properties,
+                transactionTemplate, eventPublisher, new InventoryMetrics(new SimpleMeterRegistry()),
+                new ObjectMapper(), validatorFactory.getValidator(),
+                Clock.fixed(Instant.parse("2026-01-01T00:00:00Z"), ZoneOffset.UTC));
+        lenient().doAnswer(invocation -> {
+            ((Consumer<TransactionStatus>) invocation.getArgument(0)).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+    }
+
+    @AfterEach
+    void tearDown() {
+        validatorFactory.close();
+    }
+
+    private InventoryReconcileResponse reconcile(final InventoryImportService.Format format, final String body) {
+        return reconciliationService.reconcileInventory(
+                new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), format);
+    }
+
+    private static InventoryVersion version(final UUID productId, final int quantity, final int slotCount) {
+        return version(productId, 1L, quantity, slotCount);
+    }
+
+    private static InventoryVersion version(final UUID productId, final long version, final int quantity,
+                                            final int slotCount) {
+        return new InventoryVersion(UUID.randomUUID(), productId, version, quantity, slotCount);
+    }
+
+    private static InventoryItem item(final UUID productId, final int quantity) {
+        return InventoryItem.builder()
+                .productId(productId)
+                .availableQuantity(quantity)
+                .status(InventoryStatus.of(quantity, 0))
+                .build();
+    }
+
+    @Test
+    @DisplayName("Should adjust only the products whose quantity differs from the snapshot")
+    @SuppressWarnings("unchecked")
+    void shouldWriteOnlyChangedRows() {
+        UUID same = UUID.randomUUID();
+        UUID restocked = UUID.randomUUID();
+        UUID unknown = UUID.randomUUID();
+        when(inventoryRepository.findVersionsByProductIdIn(anyCollection()))
+                .thenReturn(List.of(version(same, 5, 0), version(restocked, 5, 0)));
+        when(inventoryRepository.adjustQuantitiesAtVersion(anyList(), any(long[].class))).thenReturn(new boolean[] {true});
+        when(inventoryRepository.findByProductIdIn(anyCollection())).thenReturn(List.of(item(restocked, 8)));
+
+        InventoryReconcileResponse response = reconcile(InventoryImportService.Format.CSV,
+                "productId,quantity\n" + same + ",5\n" + restocked + ",8\n" + unknown + ",1\n");
+
+        assertThat(response.getReceived()).isEqualTo(3);
+        assertThat(response.getChanged()).isEqualTo(1);
+        assertThat(response.getUnchanged()).isEqualTo(1);
+        assertThat(response.getMissing()).isEqualTo(1);
+        assertThat(response.getErrors()).extracting(InventoryImportError::getLine, InventoryImportError::getMessage)
+                .containsExactly(tuple(4L, "Inventory not found for product " + unknown));
+        ArgumentCaptor<List<QuantityAdjustment>> adjustments = ArgumentCaptor.forClass(List.class);
+        verify(inventoryRepository).adjustQuantitiesAtVersion(adjustments.capture(), eq(new long[] {1L}));
+        assertThat(adjustments.getValue()).singleElement().satisfies(adjustment -> {
+            assertThat(adjustment.getProductId()).isEqualTo(restocked);
+            assertThat(adjustment.getDelta()).isEqualTo(3);
+            assertThat(adjustment.getReplenishedAt()).isEqualTo(LocalDateTime.of(2026, 1, 1, 0, 0));
+            assertThat(adjustment.getReason()).isEqualTo(REASON);
+        });
+        ArgumentCaptor<InventoryChangedEvent> event = ArgumentCaptor.forClass(InventoryChangedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertThat(event.getValue().getType()).isEqualTo(InventoryChangeType.ADJUSTED);
+        assertThat(event.getValue().getQuantityDelta()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Should write nothing when the snapshot matches")
+    void shouldSkipWritesWhenUnchanged() {
+        UUID productId = UUID.randomUUID();
+        when(inventoryRepository.findVersionsByProductIdIn(anyCollection()))
+                .thenReturn(List.of(version(productId, 5, 0)));
+
+        InventoryReconcileResponse response = reconcile(InventoryImportService.Format.NDJSON,
+                "{\"productId\":\"" + productId + "\",\"quantity\":5}\n");
+
+        assertThat(response.getUnchanged()).isEqualTo(1);
+        verify(inventoryRepository, never()).adjustQuantitiesAtVersion(anyList(), any(long[].class));
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    @DisplayName("Should reject quantities below the reserved quantity once a re-probe finds the row unchanged")
+    void shouldRejectBelowReserved() {
+        UUID productId = UUID.randomUUID();
+        when(inventoryRepository.findVersionsByProductIdIn(anyCollection()))
+                .thenReturn(List.of(version(productId, 5, 0)));
+        when(inventoryRepository.adjustQuantitiesAtVersion(anyList(), any(long[].class))).thenReturn(new boolean[] {false});
+
+        InventoryReconcileResponse response = reconcile(InventoryImportService.Format.CSV, productId + ",1\n");
+
+        assertThat(response.getChanged()).isZero();
+        assertThat(response.getRejected()).isEqualTo(1);
+        assertThat(response.getErrors()).extracting(InventoryImportError::getMessage)
+                .containsExactly("quantity is below the reserved quantity");
+        verify(inventoryRepository).adjustQuantitiesAtVersion(anyList(), any(long[].class));
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    @DisplayName("Should re-probe a row another write changed and still land on the snapshot quantity")
+    @SuppressWarnings("unchecked")
+    void shouldRetryOnVersionConflict() {
+        UUID productId = UUID.randomUUID();
+        when(inventoryRepository.findVersionsByProductIdIn(anyCollection()))
+                .thenReturn(List.of(version(productId, 1L, 5, 0)), List.of(version(productId, 2L, 6, 0)));
+        when(inventoryRepository.adjustQuantitiesAtVersion(anyList(), any(long[].class)))
+                .thenReturn(new boolean[] {false}, new boolean[] {true});
+        when(inventoryRepository.findByProductIdIn(anyCollection())).thenReturn(List.of(item(productId, 8)));
+
+        InventoryReconcileResponse response = reconcile(InventoryImportService.Format.CSV, productId + ",8\n");
+
+        assertThat(response.getChanged()).isEqualTo(1);
+        assertThat(response.getRejected()).isZero();
+        ArgumentCaptor<List<QuantityAdjustment>> adjustments = ArgumentCaptor.forClass(List.class);
+        ArgumentCaptor<long[]> versions = ArgumentCaptor.forClass(long[].class);
+        verify(inventoryRepository, times(2)).adjustQuantitiesAtVersion(adjustments.capture(), versions.capture());
+        assertThat(adjustments.getAllValues()).extracting(batch -> batch.get(0).getDelta()).containsExactly(3, 2);
+        assertThat(versions.getAllValues()).containsExactly(new long[] {1L}, new long[] {2L});
+    }
+
+    @Test
+    @DisplayName("Should give up on a row that keeps changing after the last attempt")
+    void shouldRejectRowsThatKeepChanging() {
+        UUID productId = UUID.randomUUID();
+        when(inventoryRepository.findVersionsByProductIdIn(anyCollection()))
+                .thenReturn(List.of(version(productId, 1L, 5, 0)), List.of(version(productId, 2L, 6, 0)),
+                        List.of(version(productId, 3L, 7, 0)), List.of(version(productId, 4L, 9, 0)));
+        when(inventoryRepository.adjustQuantitiesAtVersion(anyList(), any(long[].class)))
+                .thenReturn(new boolean[] {false});
+
+        InventoryReconcileResponse response = reconcile(InventoryImportService.Format.CSV, productId + ",8\n");
+
+        assertThat(response.getChanged()).isZero();
+        assertThat(response.getErrors()).extracting(InventoryImportError::getMessage)
+                .containsExactly("Inventory for product " + productId + " kept changing during reconciliation");
+        verify(inventoryRepository, times(3)).adjustQuantitiesAtVersion(anyList(), any(long[].class));
+    }
+
+    @Test
+    @DisplayName("Should count slot stock as on hand and adjust sharded products through their slots")
+    void shouldReconcileShardedProducts() {
+        UUID sharded = UUID.randomUUID();
+        InventoryItem head = item(sharded, 1).toBuilder().slotCount(2).version(4L).build();
+        when(inventoryRepository.findVersionsByProductIdIn(anyCollection()))
+                .thenReturn(List.of(version(sharded, 4L, 1, 2)));
+        when(inventoryRepository.lockSlots(sharded)).thenReturn(List.of(new StockSlot(0, 3), new StockSlot(1, 1)));
+        when(inventoryRepository.readHead(sharded)).thenReturn(Optional.of(head));
+        when(inventoryRepository.adjustQuantitiesAtVersion(anyList(), eq(new long[] {4L})))
+                .thenReturn(new boolean[] {true});
+        when(stockSlotService.withSlots(any(InventoryItem.class))).thenReturn(item(sharded, 7));
+
+        InventoryReconcileResponse response = reconcile(InventoryImportService.Format.CSV, sharded + ",7\n");
+
+        assertThat(response.getChanged()).isEqualTo(1);
+        verify(inventoryRepository).adjustQuantitiesAtVersion(
+                eq(List.of(new QuantityAdjustment(sharded, 2, LocalDateTime.of(2026, 1, 1, 0, 0), REASON))),
+                eq(new long[] {4L}));
+        verify(inventoryRepository, never()).replaceSlots(any(), any());
+        verify(eventPublisher).publishEvent(any(InventoryChangedEvent.class));
+    }
+
+    @Test
+    @DisplayName("Should fold slot stock into the head when the head alone cannot absorb a decrease")
+    void shouldFoldSlotsBeforeShardedDecrease() {
+        UUID sharded = UUID.randomUUID();
+        InventoryItem head = item(sharded, 2).toBuilder().reservedQuantity(2).slotCount(2).version(4L).build();
+        when(inventoryRepository.findVersionsByProductIdIn(anyCollection()))
+                .thenReturn(List.of(version(sharded, 4L, 2, 2)));
+        when(inventoryRepository.lockSlots(sharded)).thenReturn(List.of(new StockSlot(0, 3), new StockSlot(1, 3)));
+        when(inventoryRepository.readHead(sharded))
+                .thenReturn(Optional.of(head), Optional.of(head.toBuilder().availableQuantity(8).version(5L).build()));
+        when(inventoryRepository.adjustQuantitiesAtVersion(anyList(), eq(new long[] {5L})))
+                .thenReturn(new boolean[] {true});
+        when(stockSlotService.withSlots(any(InventoryItem.class))).thenReturn(item(sharded, 3));
+
+        InventoryReconcileResponse response = reconcile(InventoryImportService.Format.CSV, sharded + ",3\n");
+
+        assertThat(response.getChanged()).isEqualTo(1);
+        verify(inventoryRepository).replaceSlots(sharded, new int[2]);
+        verify(inventoryRepository).adjustQuantity(sharded, 6, null);
+        verify(inventoryRepository).adjustQuantitiesAtVersion(
+                eq(List.of(new QuantityAdjustment(sharded, -5, null, REASON))), eq(new long[] {5L}));
+    }
+
+    @Test
+    @DisplayName("Should reject a product listed twice in the same chunk and keep its first row")
+    void shouldRejectRepeatedProducts() {
+        UUID productId = UUID.randomUUID();
+        when(inventoryRepository.findVersionsByProductIdIn(anyCollection()))
+                .thenReturn(List.of(version(productId, 5, 0)));
+
+        InventoryReconcileResponse response = reconcile(InventoryImportService.Format.CSV,
+                productId + ",5\n" + productId + ",9\nnot-a-uuid,1\n");
+
+        assertThat(response.getUnchanged()).isEqualTo(1);
+        assertThat(response.getRejected()).isEqualTo(2);
+        assertThat(response.getErrors()).extracting(InventoryImportError::getLine).containsExactly(3L, 2L);
+        verify(inventoryRepository, never()).adjustQuantitiesAtVersion(anyList(), any(long[].class));
+    }
+}
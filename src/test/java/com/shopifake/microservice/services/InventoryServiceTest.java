@@ -1,29 +1,74 @@
 package com.shopifake.microservice.services;
 
+import com.shopifake.microservice.cache.InventoryCache;
+import com.shopifake.microservice.config.InventoryProperties;
 import com.shopifake.microservice.dtos.AdjustInventoryRequest;
+import com.shopifake.microservice.dtos.AdjustmentOutcome;
+import com.shopifake.microservice.dtos.BatchAdjustInventoryLine;
+import com.shopifake.microservice.dtos.BatchAdjustInventoryRequest;
+import com.shopifake.microservice.dtos.BatchAdjustInventoryResponse;
+import com.shopifake.microservice.dtos.BatchAdjustmentResult;
 import com.shopifake.microservice.dtos.CreateInventoryRequest;
+import com.shopifake.microservice.dtos.InventoryLookupRequest;
+import com.shopifake.microservice.dtos.InventoryLookupResponse;
+import com.shopifake.microservice.dtos.InventoryPage;
 import com.shopifake.microservice.dtos.InventoryResponse;
+import com.shopifake.microservice.dtos.InventorySummaryResponse;
+import com.shopifake.microservice.dtos.ReorderThresholdRequest;
+import com.shopifake.microservice.entities.IdempotentOperation;
 import com.shopifake.microservice.entities.InventoryItem;
 import com.shopifake.microservice.entities.InventoryStatus;
+import com.shopifake.microservice.events.InventoryChangeType;
+import com.shopifake.microservice.events.InventoryChangedEvent;
+import com.shopifake.microservice.metrics.InventoryMetrics;
 import com.shopifake.microservice.repositories.InventoryRepository;
+import com.shopifake.microservice.repositories.InventoryStatusTotals;
+import com.shopifake.microservice.repositories.InventoryVersion;
+import com.shopifake.microservice.repositories.LedgerRepository;
+import com.shopifake.microservice.repositories.QuantityAdjustment;
+import com.shopifake.microservice.repositories.StockSlot;
+import com.shopifake.microservice.summary.InventorySummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
-import org.mockito.InjectMocks;
+import org.mockito.InOrder;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -36,13 +81,57 @@ class InventoryServiceTest {
     @Mock
     private InventoryRepository inventoryRepository;
 
-    @InjectMocks
+    @Mock
+    private LedgerRepository ledgerRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Spy
+    private InventoryProperties properties = new InventoryProperties();
+
+    @Mock
+    private AdjustmentCoalescer adjustmentCoalescer;
+
+    @Mock
+    private InventoryCache inventoryCache;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private IdempotencyService idempotencyService;
+
+    @Mock
+    private InventorySummary inventorySummary;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    private InventoryMetrics inventoryMetrics = new InventoryMetrics(meterRegistry);
+
+    private final Clock clock = Clock.fixed(Instant.parse("2026-01-01T00:00:00Z"), ZoneOffset.UTC);
+
     private InventoryService inventoryService;
 
     private CreateInventoryRequest createRequest;
 
     @BeforeEach
+    @SuppressWarnings("unchecked")
     void setUp() {
+        inventoryService = new InventoryService(inventoryRepository, ledgerRepository, properties, transactionTemplate,
+                adjustmentCoalescer, new AtomicAdjustmentStrategy(inventoryRepository), inventoryCache, eventPublisher,
+                inventoryMetrics, idempotencyService,
+                new StockSlotService(inventoryRepository, properties, transactionTemplate),
+                inventorySummary, clock);
+        lenient().when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                ((TransactionCallback<Object>) invocation.getArgument(0)).doInTransaction(null));
+        lenient().doAnswer(invocation -> {
+            ((Consumer<TransactionStatus>) invocation.getArgument(0)).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+        lenient().when(inventoryCache.get(any(), any())).thenAnswer(invocation ->
+                ((Function<UUID, InventoryResponse>) invocation.getArgument(1)).apply(invocation.getArgument(0)));
         createRequest = CreateInventoryRequest.builder()
                 .productId(UUID.randomUUID())
                 .initialQuantity(10)
@@ -68,6 +157,7 @@ class InventoryServiceTest {
         ArgumentCaptor<InventoryItem> captor = ArgumentCaptor.forClass(InventoryItem.class);
         verify(inventoryRepository).save(captor.capture());
         assertThat(captor.getValue().getAvailableQuantity()).isEqualTo(10);
+        verify(eventPublisher).publishEvent(any(InventoryChangedEvent.class));
     }
 
     @Test
@@ -86,13 +176,9 @@ class InventoryServiceTest {
     @Test
     @DisplayName("Should reject adjustments that go below zero")
     void shouldRejectNegativeAdjustment() {
-        InventoryItem item = InventoryItem.builder()
-                .id(UUID.randomUUID())
-                .productId(createRequest.getProductId())
-                .availableQuantity(1)
-                .status(InventoryStatus.IN_STOCK)
-                .build();
-        when(inventoryRepository.findByProductId(item.getProductId())).thenReturn(Optional.of(item));
+        UUID productId = createRequest.getProductId();
+        when(inventoryRepository.adjustQuantity(productId, -2, null, "Manual adjustment")).thenReturn(Optional.empty());
+        when(inventoryRepository.existsByProductId(productId)).thenReturn(true);
 
         AdjustInventoryRequest request = AdjustInventoryRequest.builder()
                 .quantityDelta(-2)
@@ -101,9 +187,32 @@ class InventoryServiceTest {
 
         IllegalArgumentException exception = assertThrows(
                 IllegalArgumentException.class,
-                () -> inventoryService.adjustInventory(item.getProductId(), request));
+                () -> inventoryService.adjustInventory(productId, request));
 
         assertThat(exception.getMessage()).contains("negative quantity");
+        assertThat(meterRegistry.get("inventory.adjustment.rejected").tag("source", "single").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should report missing inventory when adjusting unknown product")
+    void shouldRejectAdjustmentForUnknownProduct() {
+        UUID productId = createRequest.getProductId();
+        when(inventoryRepository.adjustQuantity(productId, -1, null, "Manual adjustment")).thenReturn(Optional.empty());
+        when(inventoryRepository.existsByProductId(productId)).thenReturn(false);
+
+        AdjustInventoryRequest request = AdjustInventoryRequest.builder()
+                .quantityDelta(-1)
+                .reason("Manual adjustment")
+                .build();
+
+        IllegalArgumentException exception = assertThrows(
+                IllegalArgumentException.class,
+                () -> inventoryService.adjustInventory(productId, request));
+
+        assertThat(exception.getMessage()).contains("Inventory not found");
+        assertThat(meterRegistry.get("inventory.not_found").tag("operation", "adjust").counter().count())
+                .isEqualTo(1);
     }
 
     @Test
@@ -136,13 +245,162 @@ class InventoryServiceTest {
                 .createdAt(LocalDateTime.now())
                 .updatedAt(LocalDateTime.now())
                 .build();
-        when(inventoryRepository.findByStatus(InventoryStatus.OUT_OF_STOCK))
-                .thenReturn(List.of(item));
+        when(inventoryRepository.findPageByStatusAfter(eq(InventoryStatus.OUT_OF_STOCK), any(UUID.class),
+                any(Limit.class))).thenReturn(List.of(item));
+
+        InventoryPage page = inventoryService.listInventory("OUT_OF_STOCK", null, null);
+
+        assertThat(page.getItems()).hasSize(1);
+        assertThat(page.getItems().get(0).getStatus()).isEqualTo(InventoryStatus.OUT_OF_STOCK);
+        assertThat(page.getNextCursor()).isNull();
+    }
+
+    @Test
+    @DisplayName("Should create items at or below their reorder threshold as low stock")
+    void shouldCreateLowStockInventory() {
+        createRequest.setReorderThreshold(10);
+        when(inventoryRepository.existsByProductId(createRequest.getProductId())).thenReturn(false);
+        when(inventoryRepository.save(any(InventoryItem.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        InventoryResponse response = inventoryService.createInventory(createRequest);
+
+        assertThat(response.getStatus()).isEqualTo(InventoryStatus.LOW_STOCK);
+        assertThat(response.getReorderThreshold()).isEqualTo(10);
+    }
+
+    @Test
+    @DisplayName("Should page through at-risk rows from the low-stock index")
+    void shouldListLowStock() {
+        List<InventoryItem> rows = List.of(
+                InventoryItem.builder().id(UUID.randomUUID()).status(InventoryStatus.LOW_STOCK).build(),
+                InventoryItem.builder().id(UUID.randomUUID()).status(InventoryStatus.OUT_OF_STOCK).build(),
+                InventoryItem.builder().id(UUID.randomUUID()).status(InventoryStatus.LOW_STOCK).build());
+        when(inventoryRepository.findAtRiskPage(new UUID(0L, 0L), 3)).thenReturn(rows);
+
+        InventoryPage page = inventoryService.listLowStock(null, 2);
+
+        assertThat(page.getItems()).extracting(InventoryResponse::getStatus)
+                .containsExactly(InventoryStatus.LOW_STOCK, InventoryStatus.OUT_OF_STOCK);
+        assertThat(page.getNextCursor()).isEqualTo(rows.get(1).getId());
+    }
+
+    @Test
+    @DisplayName("Should re-derive the status and move the row in the summary when the threshold changes")
+    void shouldUpdateReorderThreshold() {
+        InventoryItem row = InventoryItem.builder()
+                .id(UUID.randomUUID())
+                .productId(createRequest.getProductId())
+                .availableQuantity(8)
+                .reservedQuantity(2)
+                .status(InventoryStatus.IN_STOCK)
+                .build();
+        when(inventoryRepository.findForUpdateByProductId(row.getProductId())).thenReturn(Optional.of(row));
+        when(inventoryRepository.saveAndFlush(row)).thenReturn(row);
+
+        InventoryResponse response = inventoryService.updateReorderThreshold(row.getProductId(),
+                new ReorderThresholdRequest(6));
+
+        assertThat(response.getStatus()).isEqualTo(InventoryStatus.LOW_STOCK);
+        assertThat(response.getReorderThreshold()).isEqualTo(6);
+        verify(inventorySummary).recordStatusChange(InventoryStatus.IN_STOCK, InventoryStatus.LOW_STOCK);
+        ArgumentCaptor<InventoryChangedEvent> event = ArgumentCaptor.forClass(InventoryChangedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertThat(event.getValue().getType()).isEqualTo(InventoryChangeType.REORDER_THRESHOLD_CHANGED);
+    }
+
+    @Test
+    @DisplayName("Should tag a sharded product from its version probe with slot stock added")
+    void shouldTagInventoryFromVersionProbe() {
+        UUID productId = UUID.randomUUID();
+        when(inventoryRepository.findVersionByProductId(productId))
+                .thenReturn(Optional.of(new InventoryVersion(UUID.randomUUID(), productId, 4, 3, 2)));
+        when(inventoryRepository.sumSlots(List.of(productId))).thenReturn(Map.of(productId, 5));
+
+        assertThat(inventoryService.inventoryETag(productId)).contains(InventoryETags.forItem(4, 8));
+    }
+
+    @Test
+    @DisplayName("Should tag a page from version probes exactly as from the page itself")
+    void shouldTagPageLikeItsBody() {
+        List<InventoryItem> rows = List.of(
+                InventoryItem.builder().id(UUID.randomUUID()).productId(UUID.randomUUID()).version(3)
+                        .availableQuantity(5).status(InventoryStatus.IN_STOCK).build(),
+                InventoryItem.builder().id(UUID.randomUUID()).productId(UUID.randomUUID()).version(1)
+                        .availableQuantity(0).status(InventoryStatus.OUT_OF_STOCK).build(),
+                InventoryItem.builder().id(UUID.randomUUID()).productId(UUID.randomUUID()).version(9)
+                        .availableQuantity(2).status(InventoryStatus.IN_STOCK).build());
+        when(inventoryRepository.findPageAfter(new UUID(0L, 0L), Limit.of(3))).thenReturn(rows);
+        when(inventoryRepository.findVersionsAfter(new UUID(0L, 0L), Limit.of(3))).thenReturn(rows.stream()
+                .map(row -> new InventoryVersion(row.getId(), row.getProductId(), row.getVersion(),
+                        row.getAvailableQuantity(), row.getSlotCount()))
+                .toList());
+
+        InventoryPage page = inventoryService.listInventory(null, null, 2);
+        String tag = inventoryService.listInventoryETag(null, null, 2);
+
+        assertThat(tag).isEqualTo(InventoryETags.forPage(page.getItems(), page.getNextCursor()));
+        assertThat(tag).isNotEqualTo(InventoryETags.forPage(page.getItems(), null));
+    }
+
+    @Test
+    @DisplayName("Should return a cursor when more rows follow the page")
+    void shouldReturnNextCursor() {
+        UUID after = UUID.randomUUID();
+        List<InventoryItem> rows = List.of(
+                InventoryItem.builder().id(UUID.randomUUID()).status(InventoryStatus.IN_STOCK).build(),
+                InventoryItem.builder().id(UUID.randomUUID()).status(InventoryStatus.IN_STOCK).build(),
+                InventoryItem.builder().id(UUID.randomUUID()).status(InventoryStatus.IN_STOCK).build());
+        when(inventoryRepository.findPageAfter(after, Limit.of(3))).thenReturn(rows);
+
+        InventoryPage page = inventoryService.listInventory(null, after, 2);
+
+        assertThat(page.getItems()).hasSize(2);
+        assertThat(page.getNextCursor()).isEqualTo(rows.get(1).getId());
+    }
+
+    @Test
+    @DisplayName("Should look up many products in chunks and report the missing ones")
+    void shouldLookupInventoryInChunks() {
+        properties.getLookup().setChunkSize(2);
+        List<UUID> ids = List.of(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID());
+        when(inventoryRepository.findByProductIdIn(anyCollection())).thenAnswer(invocation -> {
+            Collection<UUID> chunk = invocation.getArgument(0);
+            return chunk.stream()
+                    .filter(id -> !id.equals(ids.get(1)))
+                    .map(id -> InventoryItem.builder()
+                            .productId(id)
+                            .availableQuantity(4)
+                            .reservedQuantity(1)
+                            .status(InventoryStatus.IN_STOCK)
+                            .build())
+                    .toList();
+        });
+
+        InventoryLookupResponse response = inventoryService.lookupInventory(
+                new InventoryLookupRequest(List.of(ids.get(0), ids.get(1), ids.get(2), ids.get(0))));
 
-        List<InventoryResponse> responses = inventoryService.listInventory("OUT_OF_STOCK");
+        assertThat(response.getItems()).containsOnlyKeys(ids.get(0), ids.get(2));
+        assertThat(response.getItems().get(ids.get(2)).getAvailableToSell()).isEqualTo(3);
+        assertThat(response.getMissing()).containsExactly(ids.get(1));
+        verify(inventoryRepository, times(2)).findByProductIdIn(anyCollection());
+        assertThat(meterRegistry.get("inventory.not_found").tag("operation", "lookup").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should reject lookups above the configured maximum")
+    void shouldRejectOversizedLookup() {
+        properties.getLookup().setMaxIds(1);
 
-        assertThat(responses).hasSize(1);
-        assertThat(responses.get(0).getStatus()).isEqualTo(InventoryStatus.OUT_OF_STOCK);
+        assertThrows(IllegalArgumentException.class, () -> inventoryService.lookupInventory(
+                new InventoryLookupRequest(List.of(UUID.randomUUID(), UUID.randomUUID()))));
+        verify(inventoryRepository, never()).findByProductIdIn(anyCollection());
+    }
+
+    @Test
+    @DisplayName("Should reject page sizes above the configured maximum")
+    void shouldRejectOversizedPage() {
+        assertThrows(IllegalArgumentException.class, () -> inventoryService.listInventory(null, null, 100_000));
     }
 
     @Test
@@ -159,30 +417,218 @@ class InventoryServiceTest {
         inventoryService.deleteInventory(item.getProductId());
 
         verify(inventoryRepository).deleteById(item.getId());
+        verify(eventPublisher).publishEvent(new InventoryChangedEvent(InventoryChangeType.DELETED,
+                item.getProductId(), item));
     }
 
     @Test
     @DisplayName("Should increase inventory and set status to IN_STOCK")
     void shouldIncreaseInventory() {
-        InventoryItem item = InventoryItem.builder()
+        InventoryItem updated = InventoryItem.builder()
                 .id(UUID.randomUUID())
                 .productId(createRequest.getProductId())
-                .availableQuantity(0)
-                .status(InventoryStatus.OUT_OF_STOCK)
+                .availableQuantity(5)
+                .status(InventoryStatus.IN_STOCK)
                 .build();
-        when(inventoryRepository.findByProductId(item.getProductId())).thenReturn(Optional.of(item));
-        when(inventoryRepository.save(any(InventoryItem.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(inventoryRepository.adjustQuantity(updated.getProductId(), 5, LocalDateTime.of(2026, 1, 1, 0, 0),
+                "Replenishment"))
+                .thenReturn(Optional.of(updated));
 
         AdjustInventoryRequest request = AdjustInventoryRequest.builder()
                 .quantityDelta(5)
                 .reason("Replenishment")
                 .build();
 
-        InventoryResponse response = inventoryService.adjustInventory(item.getProductId(), request);
+        InventoryResponse response = inventoryService.adjustInventory(updated.getProductId(), request);
 
         assertThat(response.getAvailableQuantity()).isEqualTo(5);
         assertThat(response.getStatus()).isEqualTo(InventoryStatus.IN_STOCK);
+        verify(inventoryRepository, never()).save(any());
+        assertThat(meterRegistry.get("inventory.adjustment.delta")
+                .tags("direction", "increase", "source", "single").summary().totalAmount())
+                .isEqualTo(5);
     }
-}
 
+    @Test
+    @DisplayName("Should report a status for every line of a batch adjustment")
+    void shouldAdjustInventoryBatch() {
+        UUID stocked = UUID.randomUUID();
+        UUID missing = UUID.randomUUID();
+        when(inventoryRepository.adjustQuantities(anyList())).thenAnswer(invocation -> {
+            List<QuantityAdjustment> adjustments = invocation.getArgument(0);
+            boolean[] applied = new boolean[adjustments.size()];
+            for (int i = 0; i < applied.length; i++) {
+                applied[i] = adjustments.get(i).getDelta() == -2;
+            }
+            return applied;
+        });
+        when(inventoryRepository.findByProductIdIn(anyCollection())).thenReturn(List.of(InventoryItem.builder()
+                .productId(stocked)
+                .availableQuantity(4)
+                .status(InventoryStatus.IN_STOCK)
+                .build()));
+
+        BatchAdjustInventoryRequest request = BatchAdjustInventoryRequest.builder()
+                .adjustments(List.of(
+                        new BatchAdjustInventoryLine(stocked, -2, "Order"),
+                        new BatchAdjustInventoryLine(stocked, -9, "Order"),
+                        new BatchAdjustInventoryLine(missing, 1, "Restock"),
+                        new BatchAdjustInventoryLine(stocked, 0, "Noop")))
+                .build();
 
+        BatchAdjustInventoryResponse response = inventoryService.adjustInventoryBatch(request);
+
+        assertThat(response.getApplied()).isEqualTo(1);
+        assertThat(response.getRejected()).isEqualTo(3);
+        assertThat(response.getResults()).extracting(BatchAdjustmentResult::getOutcome).containsExactly(
+                AdjustmentOutcome.APPLIED,
+                AdjustmentOutcome.INSUFFICIENT_STOCK,
+                AdjustmentOutcome.NOT_FOUND,
+                AdjustmentOutcome.INVALID);
+        assertThat(response.getResults().get(0).getAvailableQuantity()).isEqualTo(4);
+        assertThat(response.getResults().get(1).getAvailableQuantity()).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("Should fold a sharded product's slots into its head before refusing a batch line")
+    void shouldFoldSlotsBeforeRefusingBatchLine() {
+        UUID sharded = UUID.randomUUID();
+        when(inventoryRepository.adjustQuantities(anyList())).thenReturn(new boolean[] {false}, new boolean[] {true});
+        when(inventoryRepository.lockSlots(sharded)).thenReturn(List.of(new StockSlot(0, 3), new StockSlot(1, 3)));
+        when(inventoryRepository.findByProductIdIn(anyCollection())).thenReturn(List.of(InventoryItem.builder()
+                .productId(sharded)
+                .availableQuantity(2)
+                .slotCount(2)
+                .status(InventoryStatus.IN_STOCK)
+                .build()));
+
+        BatchAdjustInventoryResponse response = inventoryService.adjustInventoryBatch(BatchAdjustInventoryRequest
+                .builder()
+                .adjustments(List.of(new BatchAdjustInventoryLine(sharded, -5, "Order")))
+                .build());
+
+        assertThat(response.getApplied()).isEqualTo(1);
+        assertThat(response.getResults().get(0).getAvailableQuantity()).isEqualTo(2);
+        InOrder order = inOrder(inventoryRepository);
+        order.verify(inventoryRepository).replaceSlots(eq(sharded), eq(new int[2]));
+        order.verify(inventoryRepository).adjustQuantity(sharded, 6, null);
+        order.verify(inventoryRepository).adjustQuantities(anyList());
+    }
+
+    @Test
+    @DisplayName("Should reject batches above the configured size")
+    void shouldRejectOversizedBatch() {
+        properties.getBatch().setMaxLines(1);
+        BatchAdjustInventoryRequest request = BatchAdjustInventoryRequest.builder()
+                .adjustments(List.of(
+                        new BatchAdjustInventoryLine(UUID.randomUUID(), 1, "Restock"),
+                        new BatchAdjustInventoryLine(UUID.randomUUID(), 1, "Restock")))
+                .build();
+
+        assertThrows(IllegalArgumentException.class, () -> inventoryService.adjustInventoryBatch(request));
+        verify(inventoryRepository, never()).adjustQuantities(anyList());
+    }
+
+    @Test
+    @DisplayName("Should route adjustments through group commit when enabled")
+    void shouldAdjustThroughCoalescer() {
+        InventoryItem committed = InventoryItem.builder()
+                .id(UUID.randomUUID())
+                .productId(createRequest.getProductId())
+                .availableQuantity(8)
+                .status(InventoryStatus.IN_STOCK)
+                .build();
+        when(adjustmentCoalescer.isEnabled()).thenReturn(true);
+        when(adjustmentCoalescer.adjust(committed.getProductId(), -2, "Order")).thenReturn(committed);
+
+        InventoryResponse response = inventoryService.adjustInventory(committed.getProductId(),
+                new AdjustInventoryRequest(-2, "Order"));
+
+        assertThat(response.getAvailableQuantity()).isEqualTo(8);
+        verify(inventoryRepository, never()).adjustQuantity(any(), any(Integer.class), any(), any());
+    }
+
+    @Test
+    @DisplayName("Should replay a keyed adjustment without applying the delta again")
+    void shouldReplayKeyedAdjustment() {
+        UUID productId = createRequest.getProductId();
+        InventoryResponse stored = InventoryResponse.builder()
+                .productId(productId)
+                .availableQuantity(7)
+                .status(InventoryStatus.IN_STOCK)
+                .build();
+        long requestHash = IdempotencyService.fingerprint(productId, -3, "Order 42");
+        when(idempotencyService.replay("order-42", IdempotentOperation.ADJUST, requestHash, InventoryResponse.class))
+                .thenReturn(Optional.of(stored));
+
+        InventoryResponse response = inventoryService.adjustInventory(productId,
+                new AdjustInventoryRequest(-3, "Order 42"), "order-42");
+
+        assertThat(response).isEqualTo(stored);
+        verify(inventoryRepository, never()).adjustQuantity(any(), any(Integer.class), any(), any());
+        verify(idempotencyService, never()).remember(any(), any(), anyLong(), any());
+        assertThat(meterRegistry.get("inventory.idempotency.replays").tag("operation", "adjust").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should remember a keyed adjustment in its own transaction, bypassing group commit")
+    void shouldRememberKeyedAdjustment() {
+        InventoryItem updated = InventoryItem.builder()
+                .id(UUID.randomUUID())
+                .productId(createRequest.getProductId())
+                .availableQuantity(7)
+                .status(InventoryStatus.IN_STOCK)
+                .build();
+        long requestHash = IdempotencyService.fingerprint(updated.getProductId(), -3, "Order 42");
+        when(idempotencyService.replay("order-42", IdempotentOperation.ADJUST, requestHash, InventoryResponse.class))
+                .thenReturn(Optional.empty());
+        when(inventoryRepository.adjustQuantity(updated.getProductId(), -3, null, "Order 42"))
+                .thenReturn(Optional.of(updated));
+
+        InventoryResponse response = inventoryService.adjustInventory(updated.getProductId(),
+                new AdjustInventoryRequest(-3, "Order 42"), "order-42");
+
+        assertThat(response.getAvailableQuantity()).isEqualTo(7);
+        verify(idempotencyService).remember("order-42", IdempotentOperation.ADJUST, requestHash, response);
+        verify(adjustmentCoalescer, never()).adjust(any(), any(Integer.class), any());
+    }
+
+    @Test
+    @DisplayName("Should replay the winner when a concurrent request stored the same key first")
+    void shouldReplayWinnerOfConcurrentKeyedCreate() {
+        InventoryResponse winner = InventoryResponse.builder()
+                .productId(createRequest.getProductId())
+                .availableQuantity(10)
+                .status(InventoryStatus.IN_STOCK)
+                .build();
+        long requestHash = IdempotencyService.fingerprint(createRequest.getProductId(), 10, 0);
+        when(idempotencyService.replay("onboard-1", IdempotentOperation.CREATE, requestHash, InventoryResponse.class))
+                .thenReturn(Optional.empty(), Optional.of(winner));
+        when(inventoryRepository.existsByProductId(createRequest.getProductId())).thenReturn(false);
+        when(inventoryRepository.save(any(InventoryItem.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        doThrow(new DuplicateKeyException("duplicate idempotency key"))
+                .when(idempotencyService).remember(eq("onboard-1"), eq(IdempotentOperation.CREATE),
+                        eq(requestHash), any());
+
+        InventoryResponse response = inventoryService.createInventory(createRequest, "onboard-1");
+
+        assertThat(response).isEqualTo(winner);
+    }
+
+    @Test
+    @DisplayName("Should summarize the catalog from the striped summary, listing every status")
+    void shouldSummarizeInventory() {
+        when(inventoryRepository.readSummary()).thenReturn(List.of(
+                new InventoryStatusTotals(InventoryStatus.IN_STOCK, 12, 340),
+                new InventoryStatusTotals(InventoryStatus.OUT_OF_STOCK, 3, 0)));
+
+        InventorySummaryResponse summary = inventoryService.summarizeInventory();
+
+        assertThat(summary.getItems()).containsEntry(InventoryStatus.IN_STOCK, 12L)
+                .containsEntry(InventoryStatus.OUT_OF_STOCK, 3L)
+                .containsEntry(InventoryStatus.BACKORDERED, 0L);
+        assertThat(summary.getTotalItems()).isEqualTo(15);
+        assertThat(summary.getUnitsOnHand()).isEqualTo(340);
+    }
+}
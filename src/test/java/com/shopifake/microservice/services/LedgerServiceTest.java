@@ -0,0 +1,151 @@
+package com.shopifake.microservice.services;
+
+import com.shopifake.microservice.config.InventoryProperties;
+import com.shopifake.microservice.dtos.InventoryHistoryPage;
+import com.shopifake.microservice.dtos.LedgerEntryResponse;
+import com.shopifake.microservice.entities.InventoryLedgerEntry;
+import com.shopifake.microservice.entities.InventorySnapshot;
+import com.shopifake.microservice.repositories.LedgerRepository;
+import com.shopifake.microservice.repositories.SnapshotRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class LedgerServiceTest {
+
+    @Mock
+    private LedgerRepository ledgerRepository;
+
+    @Mock
+    private SnapshotRepository snapshotRepository;
+
+    @Spy
+    private InventoryProperties properties = new InventoryProperties();
+
+    private final Clock clock = Clock.fixed(Instant.parse("2026-03-15T12:00:00Z"), ZoneOffset.UTC);
+
+    private final LocalDateTime now = LocalDateTime.of(2026, 3, 15, 12, 0);
+
+    private LedgerService ledgerService;
+
+    @BeforeEach
+    void setUp() {
+        ledgerService = new LedgerService(ledgerRepository, snapshotRepository, properties, clock);
+    }
+
+    private final UUID productId = UUID.randomUUID();
+
+    private InventoryLedgerEntry entry(final long id, final int quantityAfter) {
+        return InventoryLedgerEntry.builder()
+                .id(id)
+                .productId(productId)
+                .delta(1)
+                .quantityAfter(quantityAfter)
+                .recordedAt(now)
+                .build();
+    }
+
+    private InventorySnapshot snapshot(final long lastEntryId, final int quantity, final LocalDateTime takenAt) {
+        return InventorySnapshot.builder()
+                .productId(productId)
+                .availableQuantity(quantity)
+                .lastEntryId(lastEntryId)
+                .takenAt(takenAt)
+                .build();
+    }
+
+    @Test
+    @DisplayName("Should page history newest first with a cursor to older entries")
+    void shouldPageHistory() {
+        when(ledgerRepository.findHistoryPage(productId, Long.MAX_VALUE, Limit.of(3)))
+                .thenReturn(List.of(entry(9, 3), entry(7, 2), entry(4, 1)));
+
+        InventoryHistoryPage page = ledgerService.getHistory(productId, null, 2);
+
+        assertThat(page.getEntries()).extracting(LedgerEntryResponse::getId).containsExactly(9L, 7L);
+        assertThat(page.getNextCursor()).isEqualTo(7L);
+    }
+
+    @Test
+    @DisplayName("Should read only the entries between the surrounding snapshots")
+    void shouldReadSnapshotPlusTail() {
+        LocalDateTime at = now.minusHours(2);
+        when(snapshotRepository.findFirstByProductIdAndTakenAtLessThanEqualOrderByTakenAtDescIdDesc(productId, at))
+                .thenReturn(Optional.of(snapshot(100, 40, at.minusHours(1))));
+        when(snapshotRepository.findFirstByProductIdAndTakenAtGreaterThanOrderByTakenAtAscIdAsc(productId, at))
+                .thenReturn(Optional.of(snapshot(180, 12, at.plusHours(1))));
+        when(ledgerRepository.findLatestInWindow(productId, 100L, 180L, at, Limit.of(1)))
+                .thenReturn(List.of(entry(150, 35)));
+
+        assertThat(ledgerService.getQuantityAsOf(productId, at).getAvailableQuantity()).isEqualTo(35);
+    }
+
+    @Test
+    @DisplayName("Should fall back to the snapshot when nothing changed after it")
+    void shouldUseSnapshotWithoutTail() {
+        LocalDateTime at = now;
+        when(snapshotRepository.findFirstByProductIdAndTakenAtLessThanEqualOrderByTakenAtDescIdDesc(productId, at))
+                .thenReturn(Optional.of(snapshot(100, 40, at.minusHours(1))));
+        when(snapshotRepository.findFirstByProductIdAndTakenAtGreaterThanOrderByTakenAtAscIdAsc(productId, at))
+                .thenReturn(Optional.empty());
+        when(ledgerRepository.findLatestInWindow(eq(productId), eq(100L), eq(Long.MAX_VALUE), eq(at), any()))
+                .thenReturn(List.of());
+
+        assertThat(ledgerService.getQuantityAsOf(productId, at).getAvailableQuantity()).isEqualTo(40);
+    }
+
+    @Test
+    @DisplayName("Should reject points in time before any history")
+    void shouldRejectUnknownHistory() {
+        when(ledgerRepository.findLatestInWindow(eq(productId), anyLong(), anyLong(), any(), any()))
+                .thenReturn(List.of());
+
+        assertThrows(IllegalArgumentException.class,
+                () -> ledgerService.getQuantityAsOf(productId, now));
+    }
+
+    @Test
+    @DisplayName("Should scan from runs settled by the service clock and stamp the new run with it")
+    void shouldTakeSnapshotsOnServiceClock() {
+        when(ledgerRepository.snapshotScanStart(now.minusMinutes(1))).thenReturn(42L);
+        when(ledgerRepository.snapshotEntries(42L)).thenReturn(3);
+
+        assertThat(ledgerService.takeSnapshots()).isEqualTo(3);
+        verify(ledgerRepository).recordSnapshotRun(42L, now);
+    }
+
+    @Test
+    @DisplayName("Should create partitions from the current month and compact before the retention cutoff")
+    void shouldMaintainLedgerOnServiceClock() {
+        ledgerService.ensurePartitions();
+        ledgerService.compactLedger();
+        ledgerService.pruneSnapshots();
+
+        verify(ledgerRepository).ensurePartitions(YearMonth.of(2026, 3), 2);
+        verify(ledgerRepository).compactBefore(now.minusDays(400), 5000);
+        verify(ledgerRepository).pruneSnapshotsBefore(now.minusDays(400), 5000);
+    }
+}
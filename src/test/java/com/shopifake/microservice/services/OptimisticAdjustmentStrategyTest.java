@@ -0,0 +1,124 @@
+package com.shopifake.microservice.services;
+
+import com.shopifake.microservice.config.InventoryProperties;
+import com.shopifake.microservice.entities.InventoryItem;
+import com.shopifake.microservice.entities.InventoryLedgerEntry;
+import com.shopifake.microservice.entities.InventoryStatus;
+import com.shopifake.microservice.repositories.InventoryRepository;
+import com.shopifake.microservice.repositories.LedgerRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class OptimisticAdjustmentStrategyTest {
+
+    @Mock
+    private InventoryRepository inventoryRepository;
+
+    @Mock
+    private LedgerRepository ledgerRepository;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private OptimisticAdjustmentStrategy strategy;
+
+    @BeforeEach
+    void setUp() {
+        InventoryProperties properties = new InventoryProperties();
+        properties.getAdjustments().setMaxAttempts(3);
+        properties.getAdjustments().setRetryBackoff(Duration.ZERO);
+        strategy = new OptimisticAdjustmentStrategy(inventoryRepository, ledgerRepository, properties, meterRegistry);
+    }
+
+    private InventoryItem item(final int quantity, final int reserved) {
+        return InventoryItem.builder()
+                .id(UUID.randomUUID())
+                .productId(UUID.randomUUID())
+                .availableQuantity(quantity)
+                .reservedQuantity(reserved)
+                .status(InventoryStatus.IN_STOCK)
+                .build();
+    }
+
+    @Test
+    @DisplayName("Writes the changed row back and records it in the ledger")
+    @SuppressWarnings("unchecked")
+    void shouldWriteBackChangedRow() {
+        InventoryItem row = item(5, 2);
+        when(inventoryRepository.findByProductId(row.getProductId())).thenReturn(Optional.of(row));
+        when(inventoryRepository.saveAndFlush(row)).thenReturn(row);
+
+        Optional<InventoryItem> updated = strategy.apply(row.getProductId(), -3, null, "Manual adjustment");
+
+        assertThat(updated).get().extracting(InventoryItem::getAvailableQuantity, InventoryItem::getStatus)
+                .containsExactly(2, InventoryStatus.OUT_OF_STOCK);
+        ArgumentCaptor<List<InventoryLedgerEntry>> entries = ArgumentCaptor.forClass(List.class);
+        verify(ledgerRepository).recordEntries(entries.capture());
+        assertThat(entries.getValue()).singleElement()
+                .extracting(InventoryLedgerEntry::getDelta, InventoryLedgerEntry::getQuantityAfter)
+                .containsExactly(-3, 2);
+    }
+
+    @Test
+    @DisplayName("Leaves the row untouched when the delta would go below the reserved quantity")
+    void shouldRejectOversell() {
+        InventoryItem row = item(5, 2);
+        when(inventoryRepository.findByProductId(row.getProductId())).thenReturn(Optional.of(row));
+
+        assertThat(strategy.apply(row.getProductId(), -4, null, "Manual adjustment")).isEmpty();
+        assertThat(row.getAvailableQuantity()).isEqualTo(5);
+        verify(inventoryRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    @DisplayName("Retries version conflicts until an attempt succeeds")
+    void shouldRetryConflicts() {
+        AtomicInteger calls = new AtomicInteger();
+
+        String result = strategy.execute(() -> {
+            if (calls.incrementAndGet() < 3) {
+                throw new OptimisticLockingFailureException("version changed");
+            }
+            return "applied";
+        });
+
+        assertThat(result).isEqualTo("applied");
+        assertThat(meterRegistry.get("inventory.adjustment.retries").counter().count()).isEqualTo(2);
+        assertThat(meterRegistry.get("inventory.adjustment.attempts").summary().max()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Gives up once the attempts are exhausted")
+    void shouldGiveUpAfterMaxAttempts() {
+        AtomicInteger calls = new AtomicInteger();
+
+        assertThatThrownBy(() -> strategy.execute(() -> {
+            calls.incrementAndGet();
+            throw new OptimisticLockingFailureException("version changed");
+        })).isInstanceOf(OptimisticLockingFailureException.class);
+
+        assertThat(calls).hasValue(3);
+        assertThat(meterRegistry.get("inventory.adjustment.conflicts").tag("strategy", "optimistic").counter().count())
+                .isEqualTo(1);
+    }
+}
@@ -0,0 +1,91 @@
+package com.shopifake.microservice.services;
+
+import com.shopifake.microservice.config.InventoryProperties;
+import com.shopifake.microservice.entities.InventoryItem;
+import com.shopifake.microservice.entities.InventoryStatus;
+import com.shopifake.microservice.repositories.InventoryRepository;
+import com.shopifake.microservice.repositories.LedgerRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.CannotAcquireLockException;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PessimisticAdjustmentStrategyTest {
+
+    @Mock
+    private InventoryRepository inventoryRepository;
+
+    @Mock
+    private LedgerRepository ledgerRepository;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private PessimisticAdjustmentStrategy strategy;
+
+    @BeforeEach
+    void setUp() {
+        InventoryProperties properties = new InventoryProperties();
+        properties.getAdjustments().setLockTimeout(Duration.ofMillis(250));
+        strategy = new PessimisticAdjustmentStrategy(inventoryRepository, ledgerRepository, properties, meterRegistry);
+    }
+
+    @Test
+    @DisplayName("Bounds the lock wait, locks the row and writes it back")
+    void shouldLockThenWrite() {
+        InventoryItem row = InventoryItem.builder()
+                .id(UUID.randomUUID())
+                .productId(UUID.randomUUID())
+                .availableQuantity(0)
+                .status(InventoryStatus.OUT_OF_STOCK)
+                .build();
+        LocalDateTime replenishedAt = LocalDateTime.now();
+        when(inventoryRepository.findForUpdateByProductId(row.getProductId())).thenReturn(Optional.of(row));
+        when(inventoryRepository.saveAndFlush(row)).thenReturn(row);
+
+        Optional<InventoryItem> updated = strategy.apply(row.getProductId(), 4, replenishedAt, "Replenishment");
+
+        assertThat(updated).get().extracting(InventoryItem::getAvailableQuantity, InventoryItem::getStatus,
+                        InventoryItem::getReplenishmentAt)
+                .containsExactly(4, InventoryStatus.IN_STOCK, replenishedAt);
+        InOrder order = inOrder(inventoryRepository, ledgerRepository);
+        order.verify(inventoryRepository).limitLockWait(Duration.ofMillis(250));
+        order.verify(inventoryRepository).findForUpdateByProductId(row.getProductId());
+        order.verify(inventoryRepository).saveAndFlush(row);
+        order.verify(ledgerRepository).recordEntries(anyList());
+        assertThat(meterRegistry.get("inventory.adjustment.lock_wait").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Counts lock timeouts and lets them surface")
+    void shouldCountLockTimeouts() {
+        UUID productId = UUID.randomUUID();
+        when(inventoryRepository.findForUpdateByProductId(productId))
+                .thenThrow(new CannotAcquireLockException("canceling statement due to lock timeout"));
+
+        assertThatThrownBy(() -> strategy.apply(productId, -1, null, "Manual adjustment"))
+                .isInstanceOf(CannotAcquireLockException.class);
+
+        assertThat(meterRegistry.get("inventory.adjustment.conflicts").tag("reason", "lock_timeout").counter().count())
+                .isEqualTo(1);
+        verify(ledgerRepository, never()).recordEntries(anyList());
+    }
+}
@@ -0,0 +1,191 @@
+package com.shopifake.microservice.services;
+
+import com.shopifake.microservice.config.InventoryProperties;
+import com.shopifake.microservice.dtos.ReservationResponse;
+import com.shopifake.microservice.dtos.ReservationStatus;
+import com.shopifake.microservice.dtos.ReserveInventoryRequest;
+import com.shopifake.microservice.entities.InventoryItem;
+import com.shopifake.microservice.entities.InventoryReservation;
+import com.shopifake.microservice.events.InventoryChangeType;
+import com.shopifake.microservice.events.InventoryChangedEvent;
+import com.shopifake.microservice.repositories.InventoryRepository;
+import com.shopifake.microservice.repositories.ReservationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for {@link ReservationService}.
+ */
+@ExtendWith(MockitoExtension.class)
+class ReservationServiceTest {
+
+    @Mock
+    private InventoryRepository inventoryRepository;
+
+    @Mock
+    private ReservationRepository reservationRepository;
+
+    @Mock
+    private StockSlotService stockSlotService;
+
+    @Spy
+    private InventoryProperties properties = new InventoryProperties();
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private final Clock clock = Clock.fixed(Instant.parse("2026-01-01T00:00:00Z"), ZoneOffset.UTC);
+
+    private final LocalDateTime now = LocalDateTime.of(2026, 1, 1, 0, 0);
+
+    private ReservationService reservationService;
+
+    @BeforeEach
+    void setUp() {
+        reservationService = new ReservationService(inventoryRepository, reservationRepository, stockSlotService,
+                properties, eventPublisher, clock);
+    }
+
+    private InventoryReservation reservation(final UUID productId, final int quantity) {
+        return InventoryReservation.builder()
+                .id(UUID.randomUUID())
+                .productId(productId)
+                .quantity(quantity)
+                .expiresAt(now.plusMinutes(5))
+                .createdAt(now)
+                .build();
+    }
+
+    @Test
+    @DisplayName("Should hold stock and cap the requested TTL")
+    void shouldReserveStock() {
+        UUID productId = UUID.randomUUID();
+        properties.getReservations().setMaxTtl(Duration.ofMinutes(1));
+        when(inventoryRepository.reserveQuantity(productId, 2)).thenReturn(Optional.of(new InventoryItem()));
+        when(reservationRepository.save(any(InventoryReservation.class)))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        ReservationResponse response = reservationService.reserve(productId,
+                new ReserveInventoryRequest(2, 3600L));
+
+        assertThat(response.getStatus()).isEqualTo(ReservationStatus.HELD);
+        assertThat(response.getQuantity()).isEqualTo(2);
+        assertThat(response.getCreatedAt()).isEqualTo(now);
+        assertThat(response.getExpiresAt()).isEqualTo(now.plusMinutes(1));
+    }
+
+    @Test
+    @DisplayName("Should refuse to reserve more than is sellable")
+    void shouldRejectInsufficientStock() {
+        UUID productId = UUID.randomUUID();
+        when(inventoryRepository.reserveQuantity(productId, 5)).thenReturn(Optional.empty());
+        when(inventoryRepository.existsByProductId(productId)).thenReturn(true);
+
+        IllegalArgumentException exception = assertThrows(
+                IllegalArgumentException.class,
+                () -> reservationService.reserve(productId, new ReserveInventoryRequest(5, null)));
+
+        assertThat(exception.getMessage()).contains("Insufficient stock");
+        verify(reservationRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Should fold slot stock into the head before refusing a reservation")
+    void shouldFoldSlotsBeforeRefusing() {
+        UUID productId = UUID.randomUUID();
+        when(inventoryRepository.reserveQuantity(productId, 5))
+                .thenReturn(Optional.empty(), Optional.of(new InventoryItem()));
+        when(stockSlotService.foldIntoHead(productId)).thenReturn(true);
+        when(reservationRepository.save(any(InventoryReservation.class)))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        ReservationResponse response = reservationService.reserve(productId, new ReserveInventoryRequest(5, null));
+
+        assertThat(response.getStatus()).isEqualTo(ReservationStatus.HELD);
+        verify(inventoryRepository, times(2)).reserveQuantity(productId, 5);
+    }
+
+    @Test
+    @DisplayName("Should commit an active reservation into a stock decrement")
+    void shouldCommitReservation() {
+        InventoryReservation held = reservation(UUID.randomUUID(), 3);
+        when(reservationRepository.claimReservation(held.getId(), now)).thenReturn(Optional.of(held));
+        when(inventoryRepository.commitReservedQuantity(eq(held.getProductId()), eq(3), anyString()))
+                .thenReturn(Optional.of(new InventoryItem()));
+
+        ReservationResponse response = reservationService.commit(held.getId());
+
+        assertThat(response.getStatus()).isEqualTo(ReservationStatus.COMMITTED);
+    }
+
+    @Test
+    @DisplayName("Should reject committing an expired reservation")
+    void shouldRejectExpiredCommit() {
+        UUID reservationId = UUID.randomUUID();
+        when(reservationRepository.claimReservation(reservationId, now)).thenReturn(Optional.empty());
+
+        assertThrows(IllegalArgumentException.class, () -> reservationService.commit(reservationId));
+        verify(inventoryRepository, never()).commitReservedQuantity(any(), any(Integer.class), any());
+    }
+
+    @Test
+    @DisplayName("Should release a reservation back to sellable stock")
+    void shouldReleaseReservation() {
+        InventoryReservation held = reservation(UUID.randomUUID(), 4);
+        when(reservationRepository.claimReservation(eq(held.getId()), isNull())).thenReturn(Optional.of(held));
+
+        reservationService.release(held.getId());
+
+        verify(inventoryRepository).releaseReservedQuantity(held.getProductId(), 4);
+    }
+
+    @Test
+    @DisplayName("Should only release stock for expired reservations it claimed")
+    void shouldExpireClaimedReservations() {
+        UUID productId = UUID.randomUUID();
+        List<InventoryReservation> expired = List.of(
+                reservation(productId, 1), reservation(productId, 2), reservation(productId, 4));
+        when(reservationRepository.findByExpiresAtLessThanEqualOrderByExpiresAt(eq(now), any()))
+                .thenReturn(expired);
+        when(reservationRepository.claimReservations(anyList())).thenReturn(new boolean[] {true, false, true});
+        InventoryItem released = InventoryItem.builder().productId(productId).availableQuantity(5).build();
+        when(inventoryRepository.findByProductIdIn(Set.of(productId))).thenReturn(List.of(released));
+        when(stockSlotService.withSlots(released)).thenReturn(released);
+
+        int found = reservationService.expireReservations(10);
+
+        assertThat(found).isEqualTo(3);
+        verify(inventoryRepository).releaseReservedQuantities(Map.of(productId, 5));
+        verify(eventPublisher).publishEvent(new InventoryChangedEvent(InventoryChangeType.RESERVATION_RELEASED,
+                productId, released, 0, -5));
+    }
+}
@@ -0,0 +1,166 @@
+package com.shopifake.microservice.services;
+
+import com.shopifake.microservice.config.InventoryProperties;
+import com.shopifake.microservice.entities.InventoryItem;
+import com.shopifake.microservice.entities.InventoryStatus;
+import com.shopifake.microservice.repositories.InventoryRepository;
+import com.shopifake.microservice.repositories.StockSlot;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for {@link StockSlotService}.
+ */
+@ExtendWith(MockitoExtension.class)
+class StockSlotServiceTest {
+
+    @Mock
+    private InventoryRepository inventoryRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private StockSlotService stockSlotService;
+
+    private final UUID productId = UUID.randomUUID();
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        stockSlotService = new StockSlotService(inventoryRepository, new InventoryProperties(), transactionTemplate);
+        lenient().when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                ((TransactionCallback<Object>) invocation.getArgument(0)).doInTransaction(null));
+    }
+
+    private InventoryItem head(final int available, final int reserved, final int slotCount) {
+        return InventoryItem.builder()
+                .id(UUID.randomUUID())
+                .productId(productId)
+                .availableQuantity(available)
+                .reservedQuantity(reserved)
+                .status(available - reserved > 0 ? InventoryStatus.IN_STOCK : InventoryStatus.OUT_OF_STOCK)
+                .slotCount(slotCount)
+                .build();
+    }
+
+    @Test
+    @DisplayName("Should take a decrement from a slot with enough stock without touching the head")
+    void shouldDecrementSlot() {
+        when(inventoryRepository.findSlots(productId))
+                .thenReturn(List.of(new StockSlot(0, 1), new StockSlot(1, 5)));
+        InventoryItem decremented = head(8, 0, 2);
+        when(inventoryRepository.adjustSlotRecording(productId, 1, -2, "Order")).thenReturn(Optional.of(decremented));
+
+        Optional<InventoryItem> adjusted = stockSlotService.adjust(productId, -2, "Order", Optional::empty);
+
+        assertThat(adjusted).contains(decremented);
+        verify(inventoryRepository, never()).adjustSlotRecording(eq(productId), eq(0), anyInt(), any());
+        verify(inventoryRepository, never()).adjustQuantity(any(), anyInt(), any());
+    }
+
+    @Test
+    @DisplayName("Should fold the slots into the head when no single slot covers a decrement")
+    void shouldFoldSlotsIntoHead() {
+        List<StockSlot> slots = List.of(new StockSlot(0, 2), new StockSlot(1, 2));
+        when(inventoryRepository.findSlots(productId)).thenReturn(slots);
+        when(inventoryRepository.lockSlots(productId)).thenReturn(slots);
+        InventoryItem headAfter = head(1, 0, 2);
+
+        Optional<InventoryItem> adjusted = stockSlotService.adjust(productId, -3, "Order",
+                () -> Optional.of(headAfter));
+
+        assertThat(adjusted).contains(headAfter);
+        InOrder order = inOrder(inventoryRepository);
+        order.verify(inventoryRepository).lockSlots(productId);
+        order.verify(inventoryRepository).replaceSlots(eq(productId), eq(new int[2]));
+        order.verify(inventoryRepository).adjustQuantity(productId, 4, null);
+        verify(inventoryRepository, never()).adjustSlotRecording(any(), anyInt(), anyInt(), any());
+    }
+
+    @Test
+    @DisplayName("Should send increments to the head")
+    void shouldIncrementHead() {
+        InventoryItem headAfter = head(10, 0, 0);
+
+        Optional<InventoryItem> adjusted = stockSlotService.adjust(productId, 5, "Replenishment",
+                () -> Optional.of(headAfter));
+
+        assertThat(adjusted).contains(headAfter);
+        verify(inventoryRepository, never()).findSlots(any());
+    }
+
+    @Test
+    @DisplayName("Should spread sellable stock evenly and keep the remainder and reservations on the head")
+    void shouldRebalanceSlots() {
+        when(inventoryRepository.lockSlots(productId))
+                .thenReturn(List.of(new StockSlot(0, 0), new StockSlot(1, 12)));
+        when(inventoryRepository.readHead(productId)).thenReturn(Optional.of(head(3, 3, 2)));
+        when(inventoryRepository.adjustQuantity(productId, 4, null)).thenReturn(Optional.of(head(7, 3, 2)));
+
+        assertThat(stockSlotService.rebalance(productId)).isTrue();
+
+        InOrder order = inOrder(inventoryRepository);
+        order.verify(inventoryRepository).replaceSlots(eq(productId), eq(new int[] {4, 4}));
+        order.verify(inventoryRepository).refreshStatus(productId);
+    }
+
+    @Test
+    @DisplayName("Should leave balanced slots alone")
+    void shouldSkipBalancedSlots() {
+        when(inventoryRepository.lockSlots(productId))
+                .thenReturn(List.of(new StockSlot(0, 3), new StockSlot(1, 4)));
+        when(inventoryRepository.readHead(productId)).thenReturn(Optional.of(head(5, 0, 2)));
+
+        assertThat(stockSlotService.rebalance(productId)).isFalse();
+
+        verify(inventoryRepository, never()).replaceSlots(any(), any());
+    }
+
+    @Test
+    @DisplayName("Should shard a product, spread its stock and route it through the slots")
+    void shouldConfigureSlots() {
+        when(inventoryRepository.lockSlots(productId))
+                .thenReturn(List.of(), List.of(new StockSlot(0, 0), new StockSlot(1, 0), new StockSlot(2, 0)));
+        when(inventoryRepository.updateSlotCount(productId, 3)).thenReturn(true);
+        when(inventoryRepository.readHead(productId))
+                .thenReturn(Optional.of(head(9, 0, 3)), Optional.of(head(3, 0, 3)));
+        when(inventoryRepository.adjustQuantity(productId, -6, null)).thenReturn(Optional.of(head(3, 0, 3)));
+        when(inventoryRepository.sumSlots(List.of(productId))).thenReturn(Map.of(productId, 6));
+
+        InventoryItem configured = stockSlotService.configure(productId, 3);
+
+        assertThat(configured.getAvailableQuantity()).isEqualTo(9);
+        verify(inventoryRepository).replaceSlots(eq(productId), eq(new int[] {2, 2, 2}));
+        assertThat(stockSlotService.isSharded(productId)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should reject slot counts above the configured maximum")
+    void shouldRejectTooManySlots() {
+        assertThrows(IllegalArgumentException.class, () -> stockSlotService.configure(productId, 65));
+        verify(transactionTemplate, never()).execute(any());
+    }
+}
@@ -0,0 +1,182 @@
+package com.shopifake.microservice.summary;
+
+import com.shopifake.microservice.entities.InventoryItem;
+import com.shopifake.microservice.entities.InventoryStatus;
+import com.shopifake.microservice.events.InventoryChangeType;
+import com.shopifake.microservice.events.InventoryChangedEvent;
+import com.shopifake.microservice.repositories.InventoryRepository;
+import com.shopifake.microservice.repositories.InventoryStatusTotals;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class InventorySummaryTest {
+
+    @Mock
+    private InventoryRepository inventoryRepository;
+
+    @InjectMocks
+    private InventorySummary summary;
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private static InventoryItem item(final int available, final int reserved) {
+        return InventoryItem.builder()
+                .productId(UUID.randomUUID())
+                .availableQuantity(available)
+                .reservedQuantity(reserved)
+                .status(available - reserved > 0 ? InventoryStatus.IN_STOCK : InventoryStatus.OUT_OF_STOCK)
+                .build();
+    }
+
+    private static long[] deltas(final InventoryChangedEvent... events) {
+        long[] deltas = new long[InventoryStatus.values().length * 2];
+        for (InventoryChangedEvent event : events) {
+            InventorySummary.accumulate(event, deltas);
+        }
+        return deltas;
+    }
+
+    @Test
+    @DisplayName("Should move a row between statuses only when an adjustment flips its status")
+    void shouldTrackStatusFlips() {
+        InventoryItem soldOut = item(0, 0);
+        InventoryItem stillInStock = item(3, 0);
+
+        long[] deltas = deltas(
+                new InventoryChangedEvent(InventoryChangeType.ADJUSTED, soldOut.getProductId(), soldOut, -2, 0),
+                new InventoryChangedEvent(InventoryChangeType.ADJUSTED, stillInStock.getProductId(), stillInStock,
+                        -1, 0));
+
+        // [IN_STOCK items, IN_STOCK units, LOW_STOCK items, LOW_STOCK units, OUT_OF_STOCK items, ...]
+        assertThat(deltas).containsExactly(-1, -1, 0, 0, 1, -2, 0, 0);
+    }
+
+    @Test
+    @DisplayName("Should count reservations that use up the last sellable units without changing units")
+    void shouldTrackReservationFlips() {
+        InventoryItem held = item(4, 4);
+
+        long[] deltas = deltas(new InventoryChangedEvent(InventoryChangeType.RESERVED, held.getProductId(), held,
+                0, 1));
+
+        assertThat(deltas).containsExactly(-1, 0, 0, 0, 1, 0, 0, 0);
+    }
+
+    @Test
+    @DisplayName("Should add created rows and remove deleted ones with their units")
+    void shouldTrackCreationsAndDeletions() {
+        InventoryItem created = item(7, 0);
+        InventoryItem deleted = item(0, 0);
+
+        long[] deltas = deltas(
+                new InventoryChangedEvent(InventoryChangeType.CREATED, created.getProductId(), created),
+                new InventoryChangedEvent(InventoryChangeType.DELETED, deleted.getProductId(), deleted));
+
+        assertThat(deltas).containsExactly(1, 7, 0, 0, -1, 0, 0, 0);
+    }
+
+    @Test
+    @DisplayName("Should derive the status before an adjustment from the row's reorder threshold")
+    void shouldTrackLowStockFlips() {
+        InventoryItem low = item(4, 0).toBuilder()
+                .reorderThreshold(5)
+                .status(InventoryStatus.LOW_STOCK)
+                .build();
+
+        long[] deltas = deltas(new InventoryChangedEvent(InventoryChangeType.ADJUSTED, low.getProductId(), low,
+                -3, 0));
+
+        assertThat(deltas).containsExactly(-1, 0, 1, -3, 0, 0, 0, 0);
+    }
+
+    @Test
+    @DisplayName("Should net a transaction's changes into one write to one stripe before commit")
+    @SuppressWarnings("unchecked")
+    void shouldApplyNetDeltasBeforeCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        InventoryItem first = item(5, 0);
+        InventoryItem second = item(3, 0);
+
+        summary.onInventoryChanged(new InventoryChangedEvent(InventoryChangeType.ADJUSTED, first.getProductId(),
+                first, 2, 0));
+        summary.onInventoryChanged(new InventoryChangedEvent(InventoryChangeType.ADJUSTED, second.getProductId(),
+                second, -2, 0));
+        summary.onInventoryChanged(new InventoryChangedEvent(InventoryChangeType.ADJUSTED, second.getProductId(),
+                second, 1, 0));
+        verify(inventoryRepository, never()).applySummaryDeltas(anyInt(), anyList());
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(sync -> sync.beforeCommit(false));
+
+        ArgumentCaptor<List<InventoryStatusTotals>> captor = ArgumentCaptor.forClass(List.class);
+        verify(inventoryRepository).applySummaryDeltas(anyInt(), captor.capture());
+        assertThat(captor.getValue()).containsExactly(new InventoryStatusTotals(InventoryStatus.IN_STOCK, 0, 1));
+    }
+
+    @Test
+    @DisplayName("Should move a row between statuses when told of a change the event cannot describe")
+    @SuppressWarnings("unchecked")
+    void shouldRecordStatusChange() {
+        summary.recordStatusChange(InventoryStatus.IN_STOCK, InventoryStatus.IN_STOCK);
+        verify(inventoryRepository, never()).applySummaryDeltas(anyInt(), anyList());
+
+        summary.recordStatusChange(InventoryStatus.IN_STOCK, InventoryStatus.LOW_STOCK);
+
+        ArgumentCaptor<List<InventoryStatusTotals>> captor = ArgumentCaptor.forClass(List.class);
+        verify(inventoryRepository).applySummaryDeltas(anyInt(), captor.capture());
+        assertThat(captor.getValue()).containsExactly(new InventoryStatusTotals(InventoryStatus.IN_STOCK, -1, 0),
+                new InventoryStatusTotals(InventoryStatus.LOW_STOCK, 1, 0));
+    }
+
+    @Test
+    @DisplayName("Should move rows back in stock when expired holds are released")
+    void shouldTrackReleasedHolds() {
+        InventoryItem released = item(4, 1);
+
+        long[] deltas = deltas(new InventoryChangedEvent(InventoryChangeType.RESERVATION_RELEASED,
+                released.getProductId(), released, 0, -3));
+
+        assertThat(deltas).containsExactly(1, 0, 0, 0, -1, 0, 0, 0);
+    }
+
+    @Test
+    @DisplayName("Should add the drift to one stripe only while holding the correction lock")
+    @SuppressWarnings("unchecked")
+    void shouldCorrectDriftOnOneInstance() {
+        when(inventoryRepository.tryLockSummaryCorrection()).thenReturn(false, true);
+        List<InventoryStatusTotals> drift = List.of(new InventoryStatusTotals(InventoryStatus.LOW_STOCK, 1, -4));
+        when(inventoryRepository.summaryDrift()).thenReturn(drift);
+
+        assertThat(summary.reconcile()).isEqualTo(-1);
+        verify(inventoryRepository, never()).summaryDrift();
+
+        assertThat(summary.reconcile()).isEqualTo(1);
+        verify(inventoryRepository).applySummaryDeltas(anyInt(), eq(drift));
+    }
+}
@@ -0,0 +1,6 @@
+-- Run by Hibernate after create-drop in the test profile, which skips Flyway.
+-- Creates the tables that only hand-written SQL touches, as in V9, V10 and V14, with their seed rows.
+CREATE TABLE IF NOT EXISTS inventory_slots (product_id UUID NOT NULL REFERENCES inventory_items(product_id) ON DELETE CASCADE, slot INTEGER NOT NULL, quantity INTEGER NOT NULL CHECK (quantity >= 0), updated_at TIMESTAMP NOT NULL, PRIMARY KEY (product_id, slot));
+CREATE TABLE IF NOT EXISTS inventory_summary (status VARCHAR(20) NOT NULL, stripe INTEGER NOT NULL, items BIGINT NOT NULL, units BIGINT NOT NULL, PRIMARY KEY (status, stripe));
+MERGE INTO inventory_summary (status, stripe, items, units) KEY (status, stripe) SELECT s.status, t.stripe, 0, 0 FROM (VALUES ('IN_STOCK'), ('LOW_STOCK'), ('OUT_OF_STOCK'), ('BACKORDERED')) AS s(status) CROSS JOIN (VALUES (0), (1), (2), (3), (4), (5), (6), (7), (8), (9), (10), (11), (12), (13), (14), (15)) AS t(stripe);
+CREATE TABLE IF NOT EXISTS inventory_snapshot_runs (id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, scanned_to_id BIGINT NOT NULL, pending_xid BIGINT NULL, taken_at TIMESTAMP NOT NULL);